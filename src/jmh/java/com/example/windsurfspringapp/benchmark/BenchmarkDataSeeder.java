@@ -0,0 +1,67 @@
+package com.example.windsurfspringapp.benchmark;
+
+import com.example.windsurfspringapp.dto.BatchItemResult;
+import com.example.windsurfspringapp.model.Category;
+import com.example.windsurfspringapp.model.Product;
+import com.example.windsurfspringapp.service.CatalogBatchService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Seeds the benchmark database before the application reports ready, so the search indexes and
+ * category counters are built from the full dataset exactly as they would be in production.
+ * Only active in the "benchmark" profile.
+ */
+@Configuration
+@Profile("benchmark")
+public class BenchmarkDataSeeder {
+
+    // Words product names are assembled from; searches in the benchmarks pick from the same list
+    static final String[] ADJECTIVES = {"Wireless", "Compact", "Classic", "Premium", "Portable", "Smart",
+            "Vintage", "Outdoor", "Digital", "Ergonomic"};
+    static final String[] NOUNS = {"Speaker", "Backpack", "Lamp", "Keyboard", "Jacket", "Camera",
+            "Novel", "Blender", "Bicycle", "Headphones", "Watch", "Tent"};
+
+    // Products per batch call, i.e. per group of write transactions
+    private static final int SEED_BATCH_SIZE = 5_000;
+
+    @Bean
+    public CommandLineRunner seedBenchmarkData(CatalogBatchService catalogBatchService,
+                                               @Value("${benchmark.categories}") int categoryCount,
+                                               @Value("${benchmark.products}") int productCount) {
+        return args -> {
+            List<Category> categories = new ArrayList<>(categoryCount);
+            for (int i = 0; i < categoryCount; i++) {
+                categories.add(new Category("Category " + i, "Benchmark category " + i));
+            }
+            List<Long> categoryIds = catalogBatchService.saveCategories(categories).stream()
+                    .map(BatchItemResult::id)
+                    .toList();
+
+            Random random = new Random(42);
+            for (int from = 0; from < productCount; from += SEED_BATCH_SIZE) {
+                int to = Math.min(from + SEED_BATCH_SIZE, productCount);
+                List<Product> batch = new ArrayList<>(to - from);
+                for (int i = from; i < to; i++) {
+                    String name = ADJECTIVES[random.nextInt(ADJECTIVES.length)] + " "
+                            + NOUNS[random.nextInt(NOUNS.length)] + " " + i;
+                    Product product = new Product(name, "Benchmark product " + i,
+                            BigDecimal.valueOf(random.nextInt(200_000) + 100, 2), random.nextInt(500));
+                    Category category = new Category();
+                    category.setId(categoryIds.get(random.nextInt(categoryIds.size())));
+                    product.setCategory(category);
+                    batch.add(product);
+                }
+                catalogBatchService.saveProducts(batch);
+            }
+        };
+    }
+}
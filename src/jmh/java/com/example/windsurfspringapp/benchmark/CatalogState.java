@@ -0,0 +1,96 @@
+package com.example.windsurfspringapp.benchmark;
+
+import com.example.windsurfspringapp.WindsurfSpringAppApplication;
+import com.example.windsurfspringapp.controller.CategoryController;
+import com.example.windsurfspringapp.controller.ProductController;
+import com.example.windsurfspringapp.service.CategoryService;
+import com.example.windsurfspringapp.service.ProductService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * The application context shared by all benchmark threads of a trial, started once per fork
+ * against a freshly seeded in-memory database.
+ *
+ * <p>The dataset size is a JMH parameter, e.g. {@code -p products=100000 -p categories=500}.</p>
+ */
+@State(Scope.Benchmark)
+public class CatalogState {
+
+    @Param({"10000"})
+    public int products;
+
+    @Param({"50"})
+    public int categories;
+
+    ConfigurableApplicationContext context;
+    ProductService productService;
+    CategoryService categoryService;
+    ProductController productController;
+    CategoryController categoryController;
+    ObjectMapper objectMapper;
+
+    private long minProductId;
+    private long maxProductId;
+
+    @Setup(Level.Trial)
+    public void startApplication() {
+        SpringApplication application = new SpringApplication(WindsurfSpringAppApplication.class);
+        application.setWebApplicationType(WebApplicationType.NONE);
+        // Command-line arguments, so they take precedence over application.yml
+        context = application.run(
+                "--spring.profiles.active=benchmark",
+                "--spring.main.banner-mode=off",
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN",
+                "--benchmark.products=" + products,
+                "--benchmark.categories=" + categories);
+
+        productService = context.getBean(ProductService.class);
+        categoryService = context.getBean(CategoryService.class);
+        productController = context.getBean(ProductController.class);
+        categoryController = context.getBean(CategoryController.class);
+        objectMapper = context.getBean(ObjectMapper.class);
+
+        Map<String, Object> idRange = context.getBean(JdbcTemplate.class)
+                .queryForMap("SELECT MIN(id) AS min_id, MAX(id) AS max_id FROM products");
+        minProductId = ((Number) idRange.get("min_id")).longValue();
+        maxProductId = ((Number) idRange.get("max_id")).longValue();
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        context.close();
+    }
+
+    /**
+     * A uniformly chosen ID of a seeded product.
+     *
+     * @return The product ID
+     */
+    long randomProductId() {
+        return ThreadLocalRandom.current().nextLong(minProductId, maxProductId + 1);
+    }
+
+    /**
+     * A word that occurs in a share of the seeded product names.
+     *
+     * @return The search term
+     */
+    static String randomNameTerm() {
+        String[] nouns = BenchmarkDataSeeder.NOUNS;
+        return nouns[ThreadLocalRandom.current().nextInt(nouns.length)].toLowerCase();
+    }
+}
@@ -0,0 +1,167 @@
+package com.example.windsurfspringapp.benchmark;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Closed-loop HTTP load against a running instance, for comparing the platform-thread and
+ * virtual-thread execution modes.
+ *
+ * <p>Keeps {@code connections} requests in flight for {@code duration} seconds. A share of them are
+ * name searches that hit the database ({@code search-share}); the rest are {@code GET /api/products/{id}}
+ * lookups that are served from the cache. Throughput and latency percentiles of each kind are printed
+ * and appended as one JSON line to {@code output}, tagged with {@code label}.</p>
+ *
+ * <p>Arguments are {@code key=value} pairs, e.g.
+ * {@code base-url=http://localhost:8080 connections=10000 duration=60 label=virtual}.</p>
+ */
+public final class EndpointLoadGenerator {
+
+    private static final String[] SEARCH_TERMS = {"phone", "book", "shirt", "lamp", "ball", "camera"};
+
+    private EndpointLoadGenerator() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new LinkedHashMap<>(Map.of(
+                "base-url", "http://localhost:8080",
+                "connections", "10000",
+                "duration", "60",
+                "warmup", "10",
+                "search-share", "0.2",
+                "max-product-id", "11",
+                "label", "run",
+                "output", "target/load-results.jsonl"));
+        for (String arg : args) {
+            String[] pair = arg.split("=", 2);
+            if (pair.length != 2 || !options.containsKey(pair[0])) {
+                throw new IllegalArgumentException("Unknown argument '" + arg + "', expected one of " + options.keySet());
+            }
+            options.put(pair[0], pair[1]);
+        }
+
+        String baseUrl = options.get("base-url");
+        int connections = Integer.parseInt(options.get("connections"));
+        double searchShare = Double.parseDouble(options.get("search-share"));
+        int maxProductId = Integer.parseInt(options.get("max-product-id"));
+
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(30))
+                .build();
+
+        run(client, baseUrl, connections, searchShare, maxProductId,
+                Duration.ofSeconds(Long.parseLong(options.get("warmup"))), null, null);
+        Recorder searches = new Recorder();
+        Recorder lookups = new Recorder();
+        long elapsedNanos = run(client, baseUrl, connections, searchShare, maxProductId,
+                Duration.ofSeconds(Long.parseLong(options.get("duration"))), searches, lookups);
+
+        String result = String.format("{\"label\":\"%s\",\"connections\":%d,\"searchShare\":%s,\"seconds\":%.1f,"
+                        + "\"search\":%s,\"lookup\":%s}",
+                options.get("label"), connections, searchShare, elapsedNanos / 1e9,
+                searches.toJson(elapsedNanos), lookups.toJson(elapsedNanos));
+        System.out.println(result);
+        Path output = Path.of(options.get("output"));
+        if (output.getParent() != null) {
+            Files.createDirectories(output.getParent());
+        }
+        Files.writeString(output, result + System.lineSeparator(),
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    /**
+     * Keep {@code connections} requests in flight until the duration has passed and every request has
+     * completed. Latencies are discarded when the recorders are null.
+     *
+     * @return The wall-clock time of the run in nanoseconds
+     */
+    private static long run(HttpClient client, String baseUrl, int connections, double searchShare,
+                            int maxProductId, Duration duration, Recorder searches, Recorder lookups)
+            throws InterruptedException {
+        Semaphore inFlight = new Semaphore(connections);
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        while (System.nanoTime() < end) {
+            if (!inFlight.tryAcquire(100, TimeUnit.MILLISECONDS)) {
+                continue;
+            }
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            boolean search = random.nextDouble() < searchShare;
+            String path = search
+                    ? "/api/products/search?limit=500&name=" + SEARCH_TERMS[random.nextInt(SEARCH_TERMS.length)]
+                    : "/api/products/" + (1 + random.nextInt(maxProductId));
+            Recorder recorder = search ? searches : lookups;
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                    .timeout(Duration.ofSeconds(60))
+                    .build();
+            long sent = System.nanoTime();
+            client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        if (recorder != null) {
+                            recorder.record(System.nanoTime() - sent, error == null && response.statusCode() < 500);
+                        }
+                        inFlight.release();
+                    });
+        }
+        inFlight.acquire(connections);
+        return System.nanoTime() - start;
+    }
+
+    /**
+     * Collects the latencies of one kind of request.
+     */
+    private static final class Recorder {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final AtomicLong errors = new AtomicLong();
+        private long[] latencies = new long[1 << 16];
+        private int size;
+
+        void record(long latencyNanos, boolean success) {
+            if (!success) {
+                errors.incrementAndGet();
+            }
+            lock.lock();
+            try {
+                if (size == latencies.length) {
+                    latencies = Arrays.copyOf(latencies, size << 1);
+                }
+                latencies[size++] = latencyNanos;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        String toJson(long elapsedNanos) {
+            long[] sorted = Arrays.copyOf(latencies, size);
+            Arrays.sort(sorted);
+            return String.format("{\"requests\":%d,\"errors\":%d,\"throughput\":%.1f,"
+                            + "\"p50Ms\":%.2f,\"p99Ms\":%.2f,\"maxMs\":%.2f}",
+                    size, errors.get(), size / (elapsedNanos / 1e9),
+                    percentileMillis(sorted, 0.50), percentileMillis(sorted, 0.99), percentileMillis(sorted, 1.0));
+        }
+
+        private static double percentileMillis(long[] sorted, double quantile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(quantile * sorted.length) - 1;
+            return sorted[Math.max(index, 0)] / 1e6;
+        }
+    }
+}
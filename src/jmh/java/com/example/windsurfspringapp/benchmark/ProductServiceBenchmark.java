@@ -0,0 +1,50 @@
+package com.example.windsurfspringapp.benchmark;
+
+import com.example.windsurfspringapp.model.Product;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of the {@code ProductService} read and write paths behind the product endpoints.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProductServiceBenchmark {
+
+    @Benchmark
+    public Optional<Product> findProductById(CatalogState state) {
+        return state.productService.findProductById(state.randomProductId());
+    }
+
+    @Benchmark
+    public List<Product> searchProductsByName(CatalogState state) {
+        return state.productService.searchProductsByName(CatalogState.randomNameTerm());
+    }
+
+    @Benchmark
+    public List<Product> findProductsByNameAndPriceRange(CatalogState state) {
+        BigDecimal minPrice = BigDecimal.valueOf(ThreadLocalRandom.current().nextInt(1_900));
+        return state.productService.findProductsByNameAndPriceRange(
+                CatalogState.randomNameTerm(), minPrice, minPrice.add(BigDecimal.valueOf(100)));
+    }
+
+    @Benchmark
+    public Optional<Product> updateProductStock(CatalogState state) {
+        return state.productService.updateProductStock(state.randomProductId(),
+                ThreadLocalRandom.current().nextInt(500));
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.windsurfspringapp.benchmark;
+
+import com.example.windsurfspringapp.dto.CategoryView;
+import com.example.windsurfspringapp.dto.ProductView;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of rendering list responses: the full controller call plus JSON encoding with the
+ * application's {@code ObjectMapper}, and the JSON encoding of an already loaded page on its own.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResponseSerializationBenchmark {
+
+    /**
+     * A page of each list response, loaded once per trial.
+     */
+    @State(Scope.Benchmark)
+    public static class LoadedPages {
+
+        @Param({"50", "500"})
+        public int limit;
+
+        List<ProductView> products;
+        List<CategoryView> categories;
+
+        @Setup(Level.Trial)
+        public void loadPages(CatalogState state) {
+            products = state.productController.getAllProducts(null, "id", limit).getBody();
+            categories = state.categoryController.getAllCategories(null, "id", limit).getBody();
+        }
+    }
+
+    @Benchmark
+    public byte[] productListResponse(CatalogState state, LoadedPages pages) throws JsonProcessingException {
+        return state.objectMapper.writeValueAsBytes(
+                state.productController.getAllProducts(null, "price", pages.limit).getBody());
+    }
+
+    @Benchmark
+    public byte[] categoryListResponse(CatalogState state, LoadedPages pages) throws JsonProcessingException {
+        return state.objectMapper.writeValueAsBytes(
+                state.categoryController.getAllCategories(null, "name", pages.limit).getBody());
+    }
+
+    @Benchmark
+    public byte[] productListJson(CatalogState state, LoadedPages pages) throws JsonProcessingException {
+        return state.objectMapper.writeValueAsBytes(pages.products);
+    }
+
+    @Benchmark
+    public byte[] categoryListJson(CatalogState state, LoadedPages pages) throws JsonProcessingException {
+        return state.objectMapper.writeValueAsBytes(pages.categories);
+    }
+}
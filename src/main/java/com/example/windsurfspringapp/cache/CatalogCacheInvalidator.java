@@ -0,0 +1,71 @@
+package com.example.windsurfspringapp.cache;
+
+import com.example.windsurfspringapp.config.CacheConfig;
+import com.example.windsurfspringapp.event.CategoryChangedEvent;
+import com.example.windsurfspringapp.event.ProductChangedEvent;
+import com.example.windsurfspringapp.event.ProductsImportedEvent;
+import com.example.windsurfspringapp.event.StockChangedEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Evicts cached products and categories once a change to them has committed.
+ *
+ * <p>Evicting after commit rather than when the write is issued keeps concurrent reads from caching
+ * the old row for the whole duration of the transaction. A read that loaded the old row just before
+ * the commit cannot cache it either: the caches are {@link EvictionFencedCache}s, which drop a value
+ * loaded before the latest eviction of its key. Every write path publishes change
+ * events (single saves, deletes, stock updates, batch writes and imports), so they are all covered here.</p>
+ *
+ * <p>Imports also insert their rows with JDBC behind Hibernate's back, so the second-level cache entries
+ * that depend on product membership, the affected categories' product collections and the category query
+ * results, are evicted here as well.</p>
+ */
+@Component
+public class CatalogCacheInvalidator {
+
+    private final Cache products;
+    private final Cache categories;
+    private final SecondLevelCacheRegions secondLevelCache;
+
+    @Autowired
+    public CatalogCacheInvalidator(CacheManager cacheManager, SecondLevelCacheRegions secondLevelCache) {
+        this.products = cacheManager.getCache(CacheConfig.PRODUCTS);
+        this.categories = cacheManager.getCache(CacheConfig.CATEGORIES);
+        this.secondLevelCache = secondLevelCache;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        products.evict(event.productId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductsImported(ProductsImportedEvent event) {
+        Set<Long> categoryIds = new HashSet<>();
+        event.products().forEach(product -> {
+            products.evict(product.id());
+            categoryIds.add(product.categoryId());
+        });
+        secondLevelCache.evictCategoryProducts(categoryIds);
+        secondLevelCache.evictCategoryQueries();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStockChanged(StockChangedEvent event) {
+        products.evict(event.productId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        categories.evict(event.categoryId());
+        // Cached products embed their category
+        products.clear();
+    }
+}
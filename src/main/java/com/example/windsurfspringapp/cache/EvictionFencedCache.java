@@ -0,0 +1,120 @@
+package com.example.windsurfspringapp.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import org.springframework.cache.caffeine.CaffeineCache;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Caffeine-backed Spring cache that refuses to store a value loaded before the latest eviction of its key.
+ *
+ * <p>{@code @Cacheable} looks a key up, loads the value on a miss and then puts it. When a write commits
+ * and its eviction runs between the lookup and the put, the loaded value may predate the write, and
+ * storing it would serve the old row until the TTL expires. Every eviction therefore stamps its key with
+ * a sequence number, and a put is dropped when its key was evicted, or the cache cleared, after the miss
+ * that preceded it on the same thread. A put and an eviction of the same key run one after the other on
+ * that key, so an eviction cannot slip in between the check and the store.</p>
+ *
+ * <p>Stamps are kept for the most recently evicted {@value #MAX_EVICTION_STAMPS} keys. Once a stamp is
+ * dropped, puts of loads that started before it are refused for every key, so losing a stamp only costs
+ * a cache fill, never a stale entry. Puts without a preceding miss, such as cache warming, are stored
+ * unconditionally.</p>
+ */
+public class EvictionFencedCache extends CaffeineCache {
+
+    static final int MAX_EVICTION_STAMPS = 100_000;
+
+    private final AtomicLong clock = new AtomicLong();
+    private final Cache<Object, Long> evictionStamps;
+    // Highest stamp dropped from evictionStamps
+    private final AtomicLong forgottenStamp = new AtomicLong();
+    private volatile long clearedStamp;
+    // Puts hold the read lock; clearing holds the write lock so that no put straddles it
+    private final ReadWriteLock clearLock = new ReentrantReadWriteLock();
+    // The last miss on the current thread; @Cacheable puts on the thread that missed
+    private final ThreadLocal<Miss> lastMiss = new ThreadLocal<>();
+
+    public EvictionFencedCache(String name, Cache<Object, Object> cache, boolean allowNullValues) {
+        super(name, cache, allowNullValues);
+        // Size-bounded only: expired entries would vanish before the listener records them
+        this.evictionStamps = Caffeine.newBuilder()
+                .maximumSize(MAX_EVICTION_STAMPS)
+                .evictionListener((Object key, Long stamp, RemovalCause cause) ->
+                        forgottenStamp.accumulateAndGet(stamp, Math::max))
+                .build();
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        Object value = super.lookup(key);
+        if (value == null) {
+            lastMiss.set(new Miss(key, clock.get()));
+        }
+        return value;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        Miss miss = lastMiss.get();
+        if (value == null || miss == null || !miss.key().equals(key)) {
+            super.put(key, value);
+            return;
+        }
+        lastMiss.remove();
+        Object storeValue = toStoreValue(value);
+        clearLock.readLock().lock();
+        try {
+            getNativeCache().asMap().compute(key, (k, current) -> isFenced(k, miss.stamp()) ? current : storeValue);
+        } finally {
+            clearLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void evict(Object key) {
+        evictIfPresent(key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        boolean[] present = new boolean[1];
+        getNativeCache().asMap().compute(key, (k, current) -> {
+            evictionStamps.put(k, clock.incrementAndGet());
+            present[0] = current != null;
+            return null;
+        });
+        return present[0];
+    }
+
+    @Override
+    public void clear() {
+        invalidate();
+    }
+
+    @Override
+    public boolean invalidate() {
+        clearLock.writeLock().lock();
+        try {
+            clearedStamp = clock.incrementAndGet();
+            return super.invalidate();
+        } finally {
+            clearLock.writeLock().unlock();
+        }
+    }
+
+    // Whether the key was evicted, or the cache cleared, after a load that started at the given stamp
+    private boolean isFenced(Object key, long loadStamp) {
+        if (loadStamp < clearedStamp || loadStamp < forgottenStamp.get()) {
+            return true;
+        }
+        Long evicted = evictionStamps.getIfPresent(key);
+        return evicted != null && evicted > loadStamp;
+    }
+
+    private record Miss(Object key, long stamp) {
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.windsurfspringapp.cache;
+
+import com.example.windsurfspringapp.config.CacheConfig;
+import com.example.windsurfspringapp.model.Category;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Evictions and statistics of Hibernate's second-level cache regions.
+ *
+ * <p>Hibernate keeps the regions consistent with the writes it performs itself. Writes issued with JDBC,
+ * such as CSV imports and snapshot restores, bypass it and must evict what they change through this
+ * class. Evicting is a no-op while the second-level cache is disabled.</p>
+ */
+@Component
+public class SecondLevelCacheRegions {
+
+    // Role of the cached Category.products collection
+    static final String CATEGORY_PRODUCTS_ROLE = Category.class.getName() + ".products";
+
+    private final Cache cache;
+    private final Statistics statistics;
+
+    @Autowired
+    public SecondLevelCacheRegions(EntityManagerFactory entityManagerFactory) {
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        this.cache = sessionFactory.getCache();
+        this.statistics = sessionFactory.getStatistics();
+    }
+
+    /**
+     * Evict the cached product collections of the given categories.
+     *
+     * @param categoryIds The category IDs; null elements are ignored
+     */
+    public void evictCategoryProducts(Collection<Long> categoryIds) {
+        for (Long categoryId : categoryIds) {
+            if (categoryId != null) {
+                cache.evictCollectionData(CATEGORY_PRODUCTS_ROLE, categoryId);
+            }
+        }
+    }
+
+    /**
+     * Evict the cached results of the category repository queries.
+     */
+    public void evictCategoryQueries() {
+        cache.evictQueryRegion(CacheConfig.CATEGORY_QUERIES_REGION);
+    }
+
+    /**
+     * Evict every entity, collection and query result.
+     */
+    public void evictAll() {
+        cache.evictAllRegions();
+    }
+
+    /**
+     * Hit, miss and put counts of every region since startup; empty while statistics are disabled.
+     *
+     * @return Statistics of each region
+     */
+    public List<CacheRegionStatistics> regionStatistics() {
+        List<CacheRegionStatistics> regions = new ArrayList<>();
+        if (!statistics.isStatisticsEnabled()) {
+            return regions;
+        }
+        for (String name : statistics.getSecondLevelCacheRegionNames()) {
+            CacheRegionStatistics region = statistics.getCacheRegionStatistics(name);
+            if (region != null) {
+                regions.add(region);
+            }
+        }
+        return regions;
+    }
+}
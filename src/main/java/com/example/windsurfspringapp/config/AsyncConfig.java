@@ -0,0 +1,35 @@
+package com.example.windsurfspringapp.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Executor for the {@code ...Async} service methods used by composite views.
+ *
+ * <p>The pool and its queue are bounded: when both are full, further calls fail immediately with a
+ * {@link org.springframework.core.task.TaskRejectedException} instead of piling up work that would
+ * miss its deadline anyway. The pool should not be larger than the connection pool, since every task
+ * holds a connection while it runs.</p>
+ */
+@Configuration
+@EnableAsync
+public class AsyncConfig {
+
+    public static final String CATALOG_QUERY_EXECUTOR = "catalogQueryExecutor";
+
+    @Bean(name = CATALOG_QUERY_EXECUTOR)
+    public ThreadPoolTaskExecutor catalogQueryExecutor(
+            @Value("${catalog.async.pool-size:8}") int poolSize,
+            @Value("${catalog.async.queue-capacity:200}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("catalog-query-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        return executor;
+    }
+}
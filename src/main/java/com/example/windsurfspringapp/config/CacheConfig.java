@@ -0,0 +1,161 @@
+package com.example.windsurfspringapp.config;
+
+import com.example.windsurfspringapp.cache.EvictionFencedCache;
+import com.example.windsurfspringapp.model.Category;
+import com.example.windsurfspringapp.model.Product;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.jcache.MissingCacheStrategy;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import java.net.URI;
+import java.time.Duration;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * Configuration of the in-process entity caches in front of the product and category lookups by ID.
+ *
+ * <p>Each cache is bounded by the estimated heap footprint of its entries rather than by entry count,
+ * so a few products with long descriptions cannot crowd out the hot set. Entries expire after a
+ * configurable TTL and are evicted as soon as a change to the entity commits. An {@link EvictionFencedCache}
+ * refuses values loaded before such an eviction, so a read racing the commit cannot cache the old row.</p>
+ *
+ * <p>Below them, Hibernate's second-level cache holds {@link Category} entities, their {@code products}
+ * collections and the results of the category repository queries, in bounded Caffeine caches behind a
+ * JCache manager. Hibernate keeps these regions consistent with its own writes; writes that bypass it
+ * are evicted through {@link com.example.windsurfspringapp.cache.SecondLevelCacheRegions}.</p>
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String PRODUCTS = "products";
+    public static final String CATEGORIES = "categories";
+
+    // Second-level cache regions
+    public static final String CATEGORY_REGION = "catalog.category";
+    public static final String CATEGORY_PRODUCTS_REGION = "catalog.category.products";
+    public static final String CATEGORY_QUERIES_REGION = "catalog.category.queries";
+
+    // Rough per-object overhead of an entity, its boxed fields and its cache entry
+    private static final int ENTITY_OVERHEAD_BYTES = 256;
+
+    @Bean
+    public CacheManager cacheManager(
+            @Value("${catalog.cache.ttl:10m}") Duration ttl,
+            @Value("${catalog.cache.products.max-size:64MB}") DataSize productsMaxSize,
+            @Value("${catalog.cache.categories.max-size:4MB}") DataSize categoriesMaxSize) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager() {
+            @Override
+            protected org.springframework.cache.Cache adaptCaffeineCache(
+                    String name, com.github.benmanes.caffeine.cache.Cache<Object, Object> cache) {
+                return new EvictionFencedCache(name, cache, isAllowNullValues());
+            }
+        };
+        cacheManager.setAllowNullValues(false);
+        cacheManager.registerCustomCache(PRODUCTS, Caffeine.newBuilder()
+                .maximumWeight(productsMaxSize.toBytes())
+                .weigher((Object id, Object product) -> weigh((Product) product))
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build());
+        cacheManager.registerCustomCache(CATEGORIES, Caffeine.newBuilder()
+                .maximumWeight(categoriesMaxSize.toBytes())
+                .weigher((Object id, Object category) -> weigh((Category) category))
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build());
+        return cacheManager;
+    }
+
+    /**
+     * The JCache manager behind Hibernate's second-level cache, holding one Caffeine cache per region.
+     *
+     * <p>Every application context gets a manager of its own, so that contexts sharing a JVM, such as
+     * test contexts, never see each other's entries.</p>
+     */
+    @Bean
+    public javax.cache.CacheManager hibernateCacheManager(
+            @Value("${catalog.cache.ttl:10m}") Duration ttl,
+            @Value("${catalog.cache.second-level.max-entries:10000}") long maxEntries,
+            @Value("${catalog.cache.second-level.query-max-entries:1000}") long queryMaxEntries) {
+        CachingProvider provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        javax.cache.CacheManager cacheManager = provider.getCacheManager(
+                URI.create("catalog:second-level:" + UUID.randomUUID()), provider.getDefaultClassLoader());
+        cacheManager.createCache(CATEGORY_REGION, region(maxEntries, ttl));
+        cacheManager.createCache(CATEGORY_PRODUCTS_REGION, region(maxEntries, ttl));
+        cacheManager.createCache(CATEGORY_QUERIES_REGION, region(queryMaxEntries, ttl));
+        cacheManager.createCache(RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME,
+                region(queryMaxEntries, ttl));
+        // One entry per table; Hibernate trusts cached query results whose table timestamps are gone, so no expiry
+        cacheManager.createCache(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME,
+                region(OptionalLong.empty(), OptionalLong.empty()));
+        return cacheManager;
+    }
+
+    /**
+     * Enable Hibernate's second-level and query caches on the regions of {@link #hibernateCacheManager}.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCache(javax.cache.CacheManager hibernateCacheManager) {
+        return properties -> {
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            properties.put(AvailableSettings.USE_QUERY_CACHE, true);
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, ConfigSettings.SIMPLE_FACTORY_NAME);
+            properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+            // Every region must be created above, with bounds, rather than implicitly without
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, MissingCacheStrategy.FAIL.getExternalRepresentation());
+            // Category.products is the inverse side of Product.category, so Hibernate only evicts it when told to
+            properties.put(AvailableSettings.AUTO_EVICT_COLLECTION_CACHE, true);
+        };
+    }
+
+    private static CaffeineConfiguration<Object, Object> region(long maxEntries, Duration ttl) {
+        return region(OptionalLong.of(maxEntries), OptionalLong.of(ttl.toNanos()));
+    }
+
+    private static CaffeineConfiguration<Object, Object> region(OptionalLong maxEntries, OptionalLong ttlNanos) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(maxEntries);
+        configuration.setExpireAfterWrite(ttlNanos);
+        // Hibernate caches disassembled, immutable state; copying it on every access would buy nothing
+        configuration.setStoreByValue(false);
+        return configuration;
+    }
+
+    /**
+     * Estimate the heap footprint of a cached product, including its category.
+     */
+    static int weigh(Product product) {
+        int weight = ENTITY_OVERHEAD_BYTES + chars(product.getName()) + chars(product.getDescription());
+        if (product.getCategory() != null) {
+            weight += weigh(product.getCategory());
+        }
+        return weight;
+    }
+
+    /**
+     * Estimate the heap footprint of a cached category.
+     */
+    static int weigh(Category category) {
+        return ENTITY_OVERHEAD_BYTES + chars(category.getName()) + chars(category.getDescription());
+    }
+
+    private static int chars(String value) {
+        return value == null ? 0 : 2 * value.length();
+    }
+}
@@ -8,6 +8,8 @@ import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
 
 import java.math.BigDecimal;
 import java.util.Arrays;
@@ -21,9 +23,15 @@ import java.util.List;
 @Profile("dev")
 public class DataInitializer {
 
+    // Run right after a catalog snapshot restore, and leave a restored catalog alone
     @Bean
+    @Order(Ordered.HIGHEST_PRECEDENCE + 1)
     public CommandLineRunner initData(CategoryRepository categoryRepository, ProductRepository productRepository) {
         return args -> {
+            if (categoryRepository.count() > 0) {
+                return;
+            }
+
             // Create categories
             Category electronics = new Category("Electronics", "Electronic devices and gadgets");
             Category clothing = new Category("Clothing", "Apparel and accessories");
@@ -0,0 +1,77 @@
+package com.example.windsurfspringapp.config;
+
+import com.example.windsurfspringapp.metrics.QueryTimingDataSource;
+import com.example.windsurfspringapp.metrics.RepositoryQueryAttribution;
+import com.example.windsurfspringapp.metrics.SlowQueryLog;
+import com.example.windsurfspringapp.metrics.SqlStatementCounter;
+import com.example.windsurfspringapp.metrics.SqlStatementsPerRequestFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Metrics beyond the ones Spring Boot binds on its own.
+ *
+ * <p>Request timers, Hibernate statistics, connection pool and cache gauges come from Spring Boot's
+ * auto-configuration; see the {@code management} settings in application.yml. This class adds the
+ * number of SQL statements per request, counted by a Hibernate statement inspector, and the execution
+ * time of every statement, measured by wrapping the data source and listed by {@code /api/queries/top}.</p>
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public SqlStatementCounter sqlStatementCounter() {
+        return new SqlStatementCounter();
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer sqlStatementCounterCustomizer(SqlStatementCounter sqlStatementCounter) {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, sqlStatementCounter);
+    }
+
+    @Bean
+    public FilterRegistrationBean<SqlStatementsPerRequestFilter> sqlStatementsPerRequestFilter(
+            SqlStatementCounter sqlStatementCounter, MeterRegistry meterRegistry) {
+        FilterRegistrationBean<SqlStatementsPerRequestFilter> registration = new FilterRegistrationBean<>(
+                new SqlStatementsPerRequestFilter(sqlStatementCounter, meterRegistry));
+        registration.addUrlPatterns("/api/*");
+        return registration;
+    }
+
+    @Bean
+    public SlowQueryLog slowQueryLog(@Value("${catalog.sql.slow-query.threshold:100ms}") Duration threshold,
+                                     @Value("${catalog.sql.slow-query.max-shapes:1000}") int maxShapes) {
+        return new SlowQueryLog(threshold, maxShapes);
+    }
+
+    @Bean
+    public RepositoryQueryAttribution repositoryQueryAttribution(SlowQueryLog slowQueryLog) {
+        return new RepositoryQueryAttribution(slowQueryLog);
+    }
+
+    // Static so that it can post-process the data source without initializing this configuration early
+    @Bean
+    public static BeanPostProcessor queryTimingDataSourcePostProcessor(
+            ObjectProvider<SlowQueryLog> slowQueryLog,
+            @Value("${catalog.sql.slow-query.enabled:true}") boolean enabled) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (enabled && bean instanceof DataSource dataSource && !(bean instanceof QueryTimingDataSource)) {
+                    return new QueryTimingDataSource(dataSource, slowQueryLog::getObject);
+                }
+                return bean;
+            }
+        };
+    }
+}
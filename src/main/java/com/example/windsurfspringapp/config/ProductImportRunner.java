@@ -0,0 +1,47 @@
+package com.example.windsurfspringapp.config;
+
+import com.example.windsurfspringapp.dto.ProductImportResult;
+import com.example.windsurfspringapp.service.ProductImportService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Configuration class to import products from a CSV file at startup, e.g.
+ * {@code java -jar app.jar --catalog.import.file=supplier.csv}.
+ * This will only run when {@code catalog.import.file} is set.
+ */
+@Configuration
+@ConditionalOnProperty("catalog.import.file")
+public class ProductImportRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductImportRunner.class);
+
+    // Run after the other runners, such as the dev sample data, so the file can reference the categories they create
+    @Bean
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public CommandLineRunner importProducts(ProductImportService productImportService,
+                                            @Value("${catalog.import.file}") Path file) {
+        return args -> {
+            log.info("Importing products from {}", file);
+            ProductImportResult result;
+            try (InputStream csv = Files.newInputStream(file)) {
+                result = productImportService.importProducts(csv);
+            }
+            result.errors().forEach(error -> log.warn("{} line {}: {}", file, error.line(), error.error()));
+            if (result.failed() > result.errors().size()) {
+                log.warn("{}: {} more rows failed", file, result.failed() - result.errors().size());
+            }
+        };
+    }
+}
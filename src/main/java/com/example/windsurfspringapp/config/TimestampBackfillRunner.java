@@ -0,0 +1,39 @@
+package com.example.windsurfspringapp.config;
+
+import com.example.windsurfspringapp.repository.CategoryRepository;
+import com.example.windsurfspringapp.repository.ProductRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+
+import java.time.LocalDateTime;
+
+/**
+ * Configuration class to fill in {@code updated_at} at startup for rows of an existing database written
+ * before the column was mandatory. Keyset pages sorted by {@code updatedAt} cannot seek past a NULL,
+ * so every row needs a value.
+ */
+@Configuration
+public class TimestampBackfillRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(TimestampBackfillRunner.class);
+
+    // Run before the other runners, so rows they page over or restore next to are complete
+    @Bean
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public CommandLineRunner backfillUpdatedAt(CategoryRepository categoryRepository,
+                                               ProductRepository productRepository) {
+        return args -> {
+            LocalDateTime now = LocalDateTime.now();
+            int categories = categoryRepository.backfillUpdatedAt(now);
+            int products = productRepository.backfillUpdatedAt(now);
+            if (categories > 0 || products > 0) {
+                log.info("Backfilled updated_at of {} categories and {} products", categories, products);
+            }
+        };
+    }
+}
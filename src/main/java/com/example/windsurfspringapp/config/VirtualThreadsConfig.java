@@ -0,0 +1,24 @@
+package com.example.windsurfspringapp.config;
+
+import org.springframework.boot.system.JavaVersion;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * Guard for the "virtual-threads" profile.
+ *
+ * <p>Spring Boot silently ignores {@code spring.threads.virtual.enabled} before Java 21, which would leave
+ * the profile's raised connection limits in front of the fixed platform worker pool. Fail at startup
+ * instead, so a deployment never runs in that mode by accident.</p>
+ */
+@Configuration
+@Profile("virtual-threads")
+public class VirtualThreadsConfig {
+
+    public VirtualThreadsConfig() {
+        if (!JavaVersion.getJavaVersion().isEqualOrNewerThan(JavaVersion.TWENTY_ONE)) {
+            throw new IllegalStateException("The virtual-threads profile requires Java 21 or later, running on "
+                    + JavaVersion.getJavaVersion());
+        }
+    }
+}
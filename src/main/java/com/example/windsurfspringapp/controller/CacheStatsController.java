@@ -0,0 +1,92 @@
+package com.example.windsurfspringapp.controller;
+
+import com.example.windsurfspringapp.cache.SecondLevelCacheRegions;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * REST controller exposing hit, miss and eviction statistics of the in-process caches and of the regions
+ * of Hibernate's second-level cache.
+ */
+@RestController
+@RequestMapping("/api/caches")
+public class CacheStatsController {
+
+    private final CacheManager cacheManager;
+    private final SecondLevelCacheRegions secondLevelCache;
+
+    @Autowired
+    public CacheStatsController(CacheManager cacheManager, SecondLevelCacheRegions secondLevelCache) {
+        this.cacheManager = cacheManager;
+        this.secondLevelCache = secondLevelCache;
+    }
+
+    /**
+     * Get statistics for every cache since startup.
+     *
+     * @return Statistics keyed by cache name
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<Map<String, Map<String, Object>>> getCacheStats() {
+        Map<String, Map<String, Object>> stats = new TreeMap<>();
+        for (String name : cacheManager.getCacheNames()) {
+            org.springframework.cache.Cache cache = cacheManager.getCache(name);
+            if (cache != null && cache.getNativeCache() instanceof Cache<?, ?> caffeine) {
+                stats.put(name, describe(caffeine));
+            }
+        }
+        return ResponseEntity.ok(stats);
+    }
+
+    /**
+     * Get statistics for every second-level cache region since startup.
+     *
+     * @return Statistics keyed by region name
+     */
+    @GetMapping("/regions")
+    public ResponseEntity<Map<String, Map<String, Object>>> getRegionStats() {
+        Map<String, Map<String, Object>> stats = new TreeMap<>();
+        for (CacheRegionStatistics region : secondLevelCache.regionStatistics()) {
+            stats.put(region.getRegionName(), describe(region));
+        }
+        return ResponseEntity.ok(stats);
+    }
+
+    private static Map<String, Object> describe(CacheRegionStatistics region) {
+        long hits = region.getHitCount();
+        long requests = hits + region.getMissCount();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("hitCount", hits);
+        result.put("missCount", region.getMissCount());
+        result.put("hitRate", requests == 0 ? 1.0 : (double) hits / requests);
+        result.put("putCount", region.getPutCount());
+        return result;
+    }
+
+    private static Map<String, Object> describe(Cache<?, ?> cache) {
+        CacheStats stats = cache.stats();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("hitCount", stats.hitCount());
+        result.put("missCount", stats.missCount());
+        result.put("hitRate", stats.hitRate());
+        result.put("evictionCount", stats.evictionCount());
+        result.put("evictionWeight", stats.evictionWeight());
+        result.put("estimatedSize", cache.estimatedSize());
+        cache.policy().eviction().ifPresent(eviction -> {
+            eviction.weightedSize().ifPresent(weight -> result.put("weightedSize", weight));
+            result.put("maximumWeight", eviction.getMaximum());
+        });
+        return result;
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.windsurfspringapp.controller;
+
+import com.example.windsurfspringapp.dto.CatalogOverview;
+import com.example.windsurfspringapp.dto.CategoryView;
+import com.example.windsurfspringapp.dto.ProductView;
+import com.example.windsurfspringapp.model.Category;
+import com.example.windsurfspringapp.model.Product;
+import com.example.windsurfspringapp.paging.CategorySort;
+import com.example.windsurfspringapp.paging.CursorRequest;
+import com.example.windsurfspringapp.paging.ProductSort;
+import com.example.windsurfspringapp.service.CategoryService;
+import com.example.windsurfspringapp.service.ProductService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.domain.Window;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * REST controller for composite views over products and categories.
+ * The queries behind a view run in parallel on the catalog query executor and the response is completed
+ * from there, so no request thread waits for them.
+ */
+@RestController
+@RequestMapping("/api/catalog")
+public class CatalogController {
+
+    private final ProductService productService;
+    private final CategoryService categoryService;
+    private final Duration overviewTimeout;
+
+    @Autowired
+    public CatalogController(ProductService productService,
+                             CategoryService categoryService,
+                             @Value("${catalog.async.overview-timeout:10s}") Duration overviewTimeout) {
+        this.productService = productService;
+        this.categoryService = categoryService;
+        this.overviewTimeout = overviewTimeout;
+    }
+
+    /**
+     * Get a dashboard overview: categories with their product counts, low-stock products and,
+     * optionally, the products of one category.
+     *
+     * @param categoryId Category whose products to include (optional)
+     * @param threshold Stock threshold for low-stock products (default: 10)
+     * @param limit Rows per list (default: 50, max: 500)
+     * @return The overview, or 503 if the executor is saturated or the queries time out
+     */
+    @GetMapping("/overview")
+    public DeferredResult<ResponseEntity<?>> getOverview(
+            @RequestParam(required = false) Long categoryId,
+            @RequestParam(defaultValue = "10") Integer threshold,
+            @RequestParam(required = false) Integer limit) {
+
+        DeferredResult<ResponseEntity<?>> result = new DeferredResult<>(overviewTimeout.toMillis());
+        result.onTimeout(() -> result.setErrorResult(unavailable("Overview timed out")));
+
+        CursorRequest productPage = CursorRequest.of(null, ProductSort.ID, limit);
+        CursorRequest categoryPage = CursorRequest.of(null, CategorySort.ID, limit);
+        CompletableFuture<Window<Category>> categories;
+        CompletableFuture<Map<Long, Long>> productCounts;
+        CompletableFuture<Window<Product>> lowStock;
+        CompletableFuture<Window<Product>> categoryProducts;
+        try {
+            categories = categoryService.findAllCategoriesAsync(categoryPage);
+            productCounts = categoryService.getCategoryProductCountsAsync();
+            lowStock = productService.findLowStockProductsAsync(threshold, productPage);
+            categoryProducts = categoryId == null
+                    ? CompletableFuture.completedFuture(Window.from(List.of(), index -> null))
+                    : productService.findProductsByCategoryAsync(categoryId, productPage);
+        } catch (TaskRejectedException e) {
+            result.setErrorResult(unavailable("Too many overview requests in progress"));
+            return result;
+        }
+
+        CompletableFuture.allOf(categories, productCounts, lowStock, categoryProducts)
+                .thenApply(done -> new CatalogOverview(
+                        categories.join().map(CategoryView::from).getContent(),
+                        productCounts.join(),
+                        lowStock.join().map(ProductView::from).getContent(),
+                        categoryProducts.join().map(ProductView::from).getContent()))
+                .whenComplete((overview, error) -> {
+                    if (error == null) {
+                        result.setResult(ResponseEntity.ok(overview));
+                    } else {
+                        result.setErrorResult(error instanceof CompletionException ? error.getCause() : error);
+                    }
+                });
+        return result;
+    }
+
+    private static ResponseEntity<Map<String, String>> unavailable(String message) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(Map.of("error", message));
+    }
+}
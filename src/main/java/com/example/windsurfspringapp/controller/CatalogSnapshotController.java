@@ -0,0 +1,51 @@
+package com.example.windsurfspringapp.controller;
+
+import com.example.windsurfspringapp.dto.SnapshotSummary;
+import com.example.windsurfspringapp.service.CatalogSnapshotService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Map;
+
+/**
+ * REST controller for writing catalog snapshots on demand.
+ * Snapshots are only written to the configured {@code catalog.snapshot.path}, never to a path taken from
+ * the request.
+ */
+@RestController
+@RequestMapping("/api/catalog/snapshot")
+public class CatalogSnapshotController {
+
+    private final CatalogSnapshotService catalogSnapshotService;
+    private final String path;
+
+    @Autowired
+    public CatalogSnapshotController(CatalogSnapshotService catalogSnapshotService,
+                                     @Value("${catalog.snapshot.path:}") String path) {
+        this.catalogSnapshotService = catalogSnapshotService;
+        this.path = path;
+    }
+
+    /**
+     * Write a snapshot of the catalog, replacing the previous one once it is complete.
+     *
+     * @return What was written, or 409 if no snapshot path is configured
+     * @throws IOException if the snapshot cannot be written
+     */
+    @PostMapping
+    public ResponseEntity<?> writeSnapshot() throws IOException {
+        if (path.isBlank()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("error", "No snapshot path is configured (catalog.snapshot.path)"));
+        }
+        SnapshotSummary summary = catalogSnapshotService.writeSnapshot(Path.of(path));
+        return ResponseEntity.ok(summary);
+    }
+}
@@ -1,49 +1,92 @@
 package com.example.windsurfspringapp.controller;
 
+import com.example.windsurfspringapp.dto.BatchItemResult;
+import com.example.windsurfspringapp.dto.CategoryStats;
+import com.example.windsurfspringapp.dto.CategoryView;
 import com.example.windsurfspringapp.model.Category;
+import com.example.windsurfspringapp.paging.CategorySort;
+import com.example.windsurfspringapp.paging.CursorRequest;
+import com.example.windsurfspringapp.paging.CursorResponses;
+import com.example.windsurfspringapp.service.CatalogBatchService;
 import com.example.windsurfspringapp.service.CategoryService;
+import com.example.windsurfspringapp.web.EntityTags;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 /**
  * REST controller for managing product categories.
+ * List endpoints return keyset pages: at most {@code limit} rows ordered by {@code sort} and the ID,
+ * with the cursor for the next page in the {@value CursorResponses#NEXT_CURSOR_HEADER} header.
  */
 @RestController
 @RequestMapping("/api/categories")
 public class CategoryController {
 
     private final CategoryService categoryService;
+    private final CatalogBatchService catalogBatchService;
+    private final int maxBatchItems;
 
     @Autowired
-    public CategoryController(CategoryService categoryService) {
+    public CategoryController(CategoryService categoryService,
+                              CatalogBatchService catalogBatchService,
+                              @Value("${catalog.batch.max-items:10000}") int maxBatchItems) {
         this.categoryService = categoryService;
+        this.catalogBatchService = catalogBatchService;
+        this.maxBatchItems = maxBatchItems;
     }
 
     /**
-     * Get all categories.
+     * Get a page of all categories.
      *
-     * @return List of all categories
+     * @param cursor Continuation token from the previous page (optional)
+     * @param sort Sort key: id, name or updatedAt (default: id)
+     * @param limit Page size (default: 50, max: 500)
+     * @return Page of categories
      */
     @GetMapping
-    public ResponseEntity<List<Category>> getAllCategories() {
-        return ResponseEntity.ok(categoryService.findAllCategories());
+    public ResponseEntity<List<CategoryView>> getAllCategories(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "id") String sort,
+            @RequestParam(required = false) Integer limit) {
+
+        CursorRequest page = CursorRequest.of(cursor, CategorySort.fromParameter(sort), limit);
+        return CursorResponses.ok(categoryService.findAllCategories(page).map(CategoryView::from), page, EntityTags::of);
     }
 
     /**
      * Get a category by ID.
+     * Conditional requests whose ETag or Last-Modified still match are answered with 304 from the
+     * category's timestamp alone, without loading or serializing the category.
      *
      * @param id Category ID
-     * @return Category if found, 404 otherwise
+     * @param request The request, for its conditional headers
+     * @return Category if found, 304 if the client's copy is current, 404 otherwise
      */
     @GetMapping("/{id}")
-    public ResponseEntity<Category> getCategoryById(@PathVariable Long id) {
+    public ResponseEntity<CategoryView> getCategoryById(@PathVariable Long id, WebRequest request) {
+        if (EntityTags.isConditional(request)) {
+            Optional<LocalDateTime> version = categoryService.findCategoryVersion(id);
+            if (version.isPresent() && request.checkNotModified(
+                    EntityTags.category(id, version.get()), EntityTags.lastModified(version.get()))) {
+                // checkNotModified has already set the 304 status and validator headers
+                return null;
+            }
+        }
         return categoryService.findCategoryById(id)
-                .map(ResponseEntity::ok)
+                .map(CategoryView::from)
+                .map(category -> ResponseEntity.ok()
+                        .eTag(EntityTags.of(category))
+                        .headers(headers -> EntityTags.setLastModified(headers, category.updatedAt()))
+                        .body(category))
                 .orElse(ResponseEntity.notFound().build());
     }
 
@@ -63,7 +106,24 @@ public class CategoryController {
         }
         
         Category savedCategory = categoryService.saveCategory(category);
-        return ResponseEntity.status(HttpStatus.CREATED).body(savedCategory);
+        return ResponseEntity.status(HttpStatus.CREATED).body(CategoryView.from(savedCategory));
+    }
+
+    /**
+     * Create or update many categories in one call.
+     * Categories without an ID are created, categories with an ID are updated.
+     *
+     * @param categories Categories to write
+     * @return One result per category in request order, or 400 if the batch is too large
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<?> saveCategories(@RequestBody List<Category> categories) {
+        if (categories.size() > maxBatchItems) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "Batch must contain at most " + maxBatchItems + " categories"));
+        }
+        List<BatchItemResult> results = catalogBatchService.saveCategories(categories);
+        return ResponseEntity.ok(results);
     }
 
     /**
@@ -86,7 +146,7 @@ public class CategoryController {
                     }
                     
                     category.setId(id);
-                    return ResponseEntity.ok(categoryService.saveCategory(category));
+                    return ResponseEntity.ok(CategoryView.from(categoryService.saveCategory(category)));
                 })
                 .orElse(ResponseEntity.notFound().build());
     }
@@ -109,11 +169,20 @@ public class CategoryController {
      * Search categories by name.
      *
      * @param name Name to search for
-     * @return List of matching categories
+     * @param cursor Continuation token from the previous page (optional)
+     * @param sort Sort key: id, name or updatedAt (default: id)
+     * @param limit Page size (default: 50, max: 500)
+     * @return Page of matching categories
      */
     @GetMapping("/search")
-    public ResponseEntity<List<Category>> searchCategories(@RequestParam String name) {
-        return ResponseEntity.ok(categoryService.searchCategoriesByName(name));
+    public ResponseEntity<List<CategoryView>> searchCategories(
+            @RequestParam String name,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "id") String sort,
+            @RequestParam(required = false) Integer limit) {
+
+        CursorRequest page = CursorRequest.of(cursor, CategorySort.fromParameter(sort), limit);
+        return CursorResponses.ok(categoryService.searchCategoriesByName(name, page).map(CategoryView::from), page, EntityTags::of);
     }
 
     /**
@@ -122,8 +191,10 @@ public class CategoryController {
      * @return List of categories with products
      */
     @GetMapping("/with-products")
-    public ResponseEntity<List<Category>> getCategoriesWithProducts() {
-        return ResponseEntity.ok(categoryService.findCategoriesWithProducts());
+    public ResponseEntity<List<CategoryView>> getCategoriesWithProducts() {
+        return ResponseEntity.ok(categoryService.findCategoriesWithProducts().stream()
+                .map(CategoryView::from)
+                .toList());
     }
 
     /**
@@ -135,4 +206,15 @@ public class CategoryController {
     public ResponseEntity<Map<Long, Long>> getCategoryProductCounts() {
         return ResponseEntity.ok(categoryService.getCategoryProductCounts());
     }
+
+    /**
+     * Get price and stock aggregates for each category: product count, lowest, highest and average
+     * price, total stock and inventory value (price times stock quantity).
+     *
+     * @return Aggregates ordered by category ID
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<List<CategoryStats>> getCategoryStatistics() {
+        return ResponseEntity.ok(categoryService.getCategoryStatistics());
+    }
 }
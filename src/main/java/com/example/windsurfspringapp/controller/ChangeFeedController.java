@@ -0,0 +1,108 @@
+package com.example.windsurfspringapp.controller;
+
+import com.example.windsurfspringapp.dto.ChangeFeedEvent;
+import com.example.windsurfspringapp.feed.ChangeFeed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * REST controller exposing the {@link ChangeFeed} as Server-Sent Events, so that mirrors of the catalog
+ * can apply changes instead of reloading it.
+ */
+@RestController
+@RequestMapping("/api/changes")
+public class ChangeFeedController {
+
+    static final String RESET_EVENT = "reset";
+
+    private final ChangeFeed changeFeed;
+    private final Duration streamTimeout;
+
+    @Autowired
+    public ChangeFeedController(ChangeFeed changeFeed,
+                                @Value("${catalog.feed.stream-timeout:30m}") Duration streamTimeout) {
+        this.changeFeed = changeFeed;
+        this.streamTimeout = streamTimeout;
+    }
+
+    /**
+     * Stream committed changes.
+     * Each event is named after its topic ({@code product}, {@code stock} or {@code category}) and carries
+     * an ID to resume from. A {@value #RESET_EVENT} event means changes were missed and the catalog must be
+     * reloaded before applying the events that follow.
+     *
+     * @param lastEventId ID of the last change seen, sent by EventSource clients when they reconnect (optional)
+     * @param after ID of the last change seen, for clients that cannot set headers (optional)
+     * @return The event stream
+     */
+    @GetMapping
+    public SseEmitter streamChanges(
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId,
+            @RequestParam(required = false) String after) {
+
+        SseEmitter emitter = new SseEmitter(streamTimeout.toMillis());
+        Runnable cancel = changeFeed.subscribe(lastEventId != null ? lastEventId : after, new EmitterSubscriber(emitter));
+        emitter.onCompletion(cancel);
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(error -> cancel.run());
+        return emitter;
+    }
+
+    /**
+     * Get the ID of the newest change.
+     * A mirror that reads this ID, then loads the catalog and streams changes after the ID receives every
+     * change committed after its load, as long as it is not reset. It may also receive changes its load
+     * already saw, in another order than they committed; it must skip those whose version is older than
+     * the one it holds for the same product, stock level or category.
+     *
+     * @return The event ID
+     */
+    @GetMapping("/latest")
+    public ResponseEntity<Map<String, String>> getLatestEventId() {
+        return ResponseEntity.ok(Map.of("lastEventId", changeFeed.latestEventId()));
+    }
+
+    /**
+     * Forwards the changes of one subscription to an SSE connection.
+     */
+    private record EmitterSubscriber(SseEmitter emitter) implements ChangeFeed.Subscriber {
+
+        @Override
+        public void onEvent(String eventId, ChangeFeedEvent event) {
+            send(SseEmitter.event()
+                    .id(eventId)
+                    .name(event.topic().name().toLowerCase(Locale.ROOT))
+                    .data(event, MediaType.APPLICATION_JSON));
+        }
+
+        @Override
+        public void onReset(String eventId, String reason) {
+            send(SseEmitter.event()
+                    .id(eventId)
+                    .name(RESET_EVENT)
+                    .data(Map.of("reason", reason), MediaType.APPLICATION_JSON));
+        }
+
+        private void send(SseEmitter.SseEventBuilder event) {
+            try {
+                emitter.send(event);
+            } catch (IOException | IllegalStateException e) {
+                // The client went away or the stream has already completed
+                emitter.completeWithError(e);
+            }
+        }
+    }
+}
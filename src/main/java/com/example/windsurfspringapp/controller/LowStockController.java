@@ -0,0 +1,126 @@
+package com.example.windsurfspringapp.controller;
+
+import com.example.windsurfspringapp.dto.LowStockAlert;
+import com.example.windsurfspringapp.dto.StockLevel;
+import com.example.windsurfspringapp.inventory.LowStockWatcher;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * REST controller for the low-stock set kept in memory by the {@link LowStockWatcher}.
+ * Replenishment clients subscribe to the alert stream instead of polling the low-stock product list.
+ */
+@RestController
+@RequestMapping("/api/low-stock")
+public class LowStockController {
+
+    static final String SNAPSHOT_EVENT = "snapshot";
+    static final String ALERT_EVENT = "alert";
+
+    private final LowStockWatcher lowStockWatcher;
+    private final Duration streamTimeout;
+
+    @Autowired
+    public LowStockController(LowStockWatcher lowStockWatcher,
+                              @Value("${catalog.inventory.low-stock.stream-timeout:30m}") Duration streamTimeout) {
+        this.lowStockWatcher = lowStockWatcher;
+        this.streamTimeout = streamTimeout;
+    }
+
+    /**
+     * Get the stock levels of the products below a threshold, without querying the database.
+     *
+     * @param threshold Stock threshold (default: 10), at most the highest configured threshold
+     * @return Levels ordered by product ID, 400 if the threshold is not tracked,
+     *         503 if the levels are still loading
+     */
+    @GetMapping
+    public ResponseEntity<?> getLowStockLevels(@RequestParam(defaultValue = "10") int threshold) {
+        if (!lowStockWatcher.isReady()) {
+            return unavailable();
+        }
+        if (!lowStockWatcher.covers(threshold)) {
+            int[] thresholds = lowStockWatcher.thresholds();
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "Threshold must be at most " + thresholds[thresholds.length - 1]));
+        }
+        return ResponseEntity.ok(lowStockWatcher.lowStockLevels(threshold));
+    }
+
+    /**
+     * Stream low-stock alerts as Server-Sent Events.
+     * The first event, {@value #SNAPSHOT_EVENT}, lists the products below the threshold; every
+     * {@value #ALERT_EVENT} event after it reports a product crossing the threshold. Clients reconnect
+     * after {@code catalog.inventory.low-stock.stream-timeout} and receive a fresh snapshot.
+     *
+     * @param threshold Stock threshold (default: 10), one of the configured thresholds
+     * @return The event stream, 400 if alerts are not raised for the threshold,
+     *         503 if the levels are still loading
+     */
+    @GetMapping("/stream")
+    public ResponseEntity<?> streamLowStockAlerts(@RequestParam(defaultValue = "10") int threshold) {
+        if (!lowStockWatcher.isReady()) {
+            return unavailable();
+        }
+        if (Arrays.binarySearch(lowStockWatcher.thresholds(), threshold) < 0) {
+            return ResponseEntity.badRequest().body(Map.of("error",
+                    "Threshold must be one of " + Arrays.toString(lowStockWatcher.thresholds())));
+        }
+        SseEmitter emitter = new SseEmitter(streamTimeout.toMillis());
+        Runnable cancel = lowStockWatcher.subscribe(threshold, new EmitterSubscriber(emitter));
+        emitter.onCompletion(cancel);
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(error -> cancel.run());
+        return ResponseEntity.ok(emitter);
+    }
+
+    private static ResponseEntity<Map<String, String>> unavailable() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body(Map.of("error", "Low-stock levels are still loading"));
+    }
+
+    /**
+     * Forwards the events of one subscription to an SSE connection.
+     */
+    private record EmitterSubscriber(SseEmitter emitter) implements LowStockWatcher.Subscriber {
+
+        @Override
+        public void onSnapshot(List<StockLevel> levels) {
+            send(SNAPSHOT_EVENT, levels);
+        }
+
+        @Override
+        public void onAlert(LowStockAlert alert) {
+            send(ALERT_EVENT, alert);
+        }
+
+        @Override
+        public void onDisconnected(String reason) {
+            // The EventSource reconnects and starts over from a fresh snapshot
+            emitter.complete();
+        }
+
+        private void send(String name, Object data) {
+            try {
+                emitter.send(SseEmitter.event().name(name).data(data, MediaType.APPLICATION_JSON));
+            } catch (IOException | IllegalStateException e) {
+                // The client went away or the stream has already completed
+                emitter.completeWithError(e);
+            }
+        }
+    }
+}
@@ -1,49 +1,149 @@
 package com.example.windsurfspringapp.controller;
 
+import com.example.windsurfspringapp.dto.BatchItemResult;
+import com.example.windsurfspringapp.dto.ProductFacets;
+import com.example.windsurfspringapp.dto.ProductQuery;
+import com.example.windsurfspringapp.dto.ProductQueryResult;
+import com.example.windsurfspringapp.dto.ProductVersion;
+import com.example.windsurfspringapp.dto.ProductView;
+import com.example.windsurfspringapp.dto.StockAdjustment;
 import com.example.windsurfspringapp.model.Product;
+import com.example.windsurfspringapp.paging.CursorRequest;
+import com.example.windsurfspringapp.paging.CursorResponses;
+import com.example.windsurfspringapp.paging.ProductSort;
+import com.example.windsurfspringapp.service.CatalogBatchService;
+import com.example.windsurfspringapp.service.CsvFormatException;
+import com.example.windsurfspringapp.service.ExportFormat;
+import com.example.windsurfspringapp.service.ProductExportService;
+import com.example.windsurfspringapp.service.ProductImportService;
 import com.example.windsurfspringapp.service.ProductService;
+import com.example.windsurfspringapp.web.EntityTags;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Window;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 /**
  * REST controller for managing products.
+ * List endpoints return keyset pages: at most {@code limit} rows ordered by {@code sort} and the ID,
+ * with the cursor for the next page in the {@value CursorResponses#NEXT_CURSOR_HEADER} header.
  */
 @RestController
 @RequestMapping("/api/products")
 public class ProductController {
 
+    // Upper bound for the number of price bucket bounds a query may request
+    static final int MAX_PRICE_BUCKETS = 50;
+
     private final ProductService productService;
+    private final ProductExportService productExportService;
+    private final CatalogBatchService catalogBatchService;
+    private final ProductImportService productImportService;
+    private final int maxBatchItems;
+    private final int maxStockLevels;
+    private final int maxQueryCategories;
+    private final List<BigDecimal> defaultPriceBuckets;
 
     @Autowired
-    public ProductController(ProductService productService) {
+    public ProductController(ProductService productService,
+                             ProductExportService productExportService,
+                             CatalogBatchService catalogBatchService,
+                             ProductImportService productImportService,
+                             @Value("${catalog.batch.max-items:10000}") int maxBatchItems,
+                             @Value("${catalog.batch.max-stock-levels:500000}") int maxStockLevels,
+                             @Value("${catalog.query.max-category-ids:1000}") int maxQueryCategories,
+                             @Value("${catalog.query.price-buckets:10,25,50,100,250,500,1000}") List<BigDecimal> defaultPriceBuckets) {
         this.productService = productService;
+        this.productExportService = productExportService;
+        this.catalogBatchService = catalogBatchService;
+        this.productImportService = productImportService;
+        this.maxBatchItems = maxBatchItems;
+        this.maxStockLevels = maxStockLevels;
+        this.maxQueryCategories = maxQueryCategories;
+        this.defaultPriceBuckets = List.copyOf(defaultPriceBuckets);
     }
 
     /**
-     * Get all products.
+     * Get a page of all products.
      *
-     * @return List of all products
+     * @param cursor Continuation token from the previous page (optional)
+     * @param sort Sort key: id, name, price or updatedAt (default: id)
+     * @param limit Page size (default: 50, max: 500)
+     * @return Page of products
      */
     @GetMapping
-    public ResponseEntity<List<Product>> getAllProducts() {
-        return ResponseEntity.ok(productService.findAllProducts());
+    public ResponseEntity<List<ProductView>> getAllProducts(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "id") String sort,
+            @RequestParam(required = false) Integer limit) {
+
+        CursorRequest page = CursorRequest.of(cursor, ProductSort.fromParameter(sort), limit);
+        return CursorResponses.ok(productService.findAllProducts(page).map(ProductView::from), page, EntityTags::of);
+    }
+
+    /**
+     * Export the whole catalog as a stream of rows.
+     * The response is written incrementally from a database cursor, so memory use does not
+     * depend on the number of products.
+     *
+     * @param format Output format: ndjson or csv (default: ndjson)
+     * @return Streaming response body, or 400 if the format is not supported
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportProducts(@RequestParam(defaultValue = "ndjson") String format) {
+        return ExportFormat.fromParameter(format)
+                .map(exportFormat -> {
+                    StreamingResponseBody body = out -> productExportService.exportProducts(exportFormat, out);
+                    return ResponseEntity.ok()
+                            .contentType(exportFormat.getMediaType())
+                            .header(HttpHeaders.CONTENT_DISPOSITION,
+                                    "attachment; filename=\"products." + exportFormat.getExtension() + "\"")
+                            .body(body);
+                })
+                .orElse(ResponseEntity.badRequest().build());
     }
 
     /**
      * Get a product by ID.
+     * Conditional requests whose ETag or Last-Modified still match are answered with 304 from the
+     * product's version alone, without loading or serializing the product.
      *
      * @param id Product ID
-     * @return Product if found, 404 otherwise
+     * @param request The request, for its conditional headers
+     * @return Product if found, 304 if the client's copy is current, 404 otherwise
      */
     @GetMapping("/{id}")
-    public ResponseEntity<Product> getProductById(@PathVariable Long id) {
+    public ResponseEntity<ProductView> getProductById(@PathVariable Long id, WebRequest request) {
+        if (EntityTags.isConditional(request)) {
+            Optional<ProductVersion> version = productService.findProductVersion(id);
+            if (version.isPresent() && request.checkNotModified(
+                    EntityTags.of(version.get()), EntityTags.lastModified(version.get().updatedAt()))) {
+                // checkNotModified has already set the 304 status and validator headers
+                return null;
+            }
+        }
         return productService.findProductById(id)
-                .map(ResponseEntity::ok)
+                .map(ProductView::from)
+                .map(product -> ResponseEntity.ok()
+                        .eTag(EntityTags.of(product))
+                        .headers(headers -> EntityTags.setLastModified(headers, product.updatedAt()))
+                        .body(product))
                 .orElse(ResponseEntity.notFound().build());
     }
 
@@ -54,9 +154,45 @@ public class ProductController {
      * @return Created product with ID
      */
     @PostMapping
-    public ResponseEntity<Product> createProduct(@RequestBody Product product) {
+    public ResponseEntity<ProductView> createProduct(@RequestBody Product product) {
         Product savedProduct = productService.saveProduct(product);
-        return ResponseEntity.status(HttpStatus.CREATED).body(savedProduct);
+        return ResponseEntity.status(HttpStatus.CREATED).body(ProductView.from(savedProduct));
+    }
+
+    /**
+     * Create or update many products in one call.
+     * Products without an ID are created, products with an ID are updated.
+     *
+     * @param products Products to write
+     * @return One result per product in request order, or 400 if the batch is too large
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<?> saveProducts(@RequestBody List<Product> products) {
+        if (products.size() > maxBatchItems) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "Batch must contain at most " + maxBatchItems + " products"));
+        }
+        List<BatchItemResult> results = catalogBatchService.saveProducts(products);
+        return ResponseEntity.ok(results);
+    }
+
+    /**
+     * Create products from a CSV file, e.g. a supplier catalog.
+     * The header names the columns: {@code name}, {@code price} and {@code stockQuantity} are required,
+     * {@code description} and {@code category} (a category name) or {@code categoryId} are optional.
+     * The body is parsed as it arrives and written in chunks, so files of any size can be imported.
+     *
+     * @param csv The request body
+     * @return Counts of imported and failed rows with the first row errors, or 400 if the header is invalid
+     * @throws IOException if the body cannot be read
+     */
+    @PostMapping(value = "/import", consumes = "text/csv")
+    public ResponseEntity<?> importProducts(InputStream csv) throws IOException {
+        try {
+            return ResponseEntity.ok(productImportService.importProducts(csv));
+        } catch (CsvFormatException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
     }
 
     /**
@@ -67,11 +203,11 @@ public class ProductController {
      * @return Updated product if found, 404 otherwise
      */
     @PutMapping("/{id}")
-    public ResponseEntity<Product> updateProduct(@PathVariable Long id, @RequestBody Product product) {
+    public ResponseEntity<ProductView> updateProduct(@PathVariable Long id, @RequestBody Product product) {
         return productService.findProductById(id)
                 .map(existingProduct -> {
                     product.setId(id);
-                    return ResponseEntity.ok(productService.saveProduct(product));
+                    return ResponseEntity.ok(ProductView.from(productService.saveProduct(product)));
                 })
                 .orElse(ResponseEntity.notFound().build());
     }
@@ -94,22 +230,40 @@ public class ProductController {
      * Search products by name.
      *
      * @param name Name to search for
-     * @return List of matching products
+     * @param cursor Continuation token from the previous page (optional)
+     * @param sort Sort key: id, name, price or updatedAt (default: id)
+     * @param limit Page size (default: 50, max: 500)
+     * @return Page of matching products
      */
     @GetMapping("/search")
-    public ResponseEntity<List<Product>> searchProducts(@RequestParam String name) {
-        return ResponseEntity.ok(productService.searchProductsByName(name));
+    public ResponseEntity<List<ProductView>> searchProducts(
+            @RequestParam String name,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "id") String sort,
+            @RequestParam(required = false) Integer limit) {
+
+        CursorRequest page = CursorRequest.of(cursor, ProductSort.fromParameter(sort), limit);
+        return CursorResponses.ok(productService.searchProductsByName(name, page).map(ProductView::from), page, EntityTags::of);
     }
 
     /**
      * Find products by category.
      *
      * @param categoryId Category ID
-     * @return List of products in the category
+     * @param cursor Continuation token from the previous page (optional)
+     * @param sort Sort key: id, name, price or updatedAt (default: id)
+     * @param limit Page size (default: 50, max: 500)
+     * @return Page of products in the category
      */
     @GetMapping("/category/{categoryId}")
-    public ResponseEntity<List<Product>> getProductsByCategory(@PathVariable Long categoryId) {
-        return ResponseEntity.ok(productService.findProductsByCategory(categoryId));
+    public ResponseEntity<List<ProductView>> getProductsByCategory(
+            @PathVariable Long categoryId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "id") String sort,
+            @RequestParam(required = false) Integer limit) {
+
+        CursorRequest page = CursorRequest.of(cursor, ProductSort.fromParameter(sort), limit);
+        return CursorResponses.ok(productService.findProductsByCategory(categoryId, page).map(ProductView::from), page, EntityTags::of);
     }
 
     /**
@@ -118,19 +272,86 @@ public class ProductController {
      * @param name Product name (optional)
      * @param minPrice Minimum price
      * @param maxPrice Maximum price
-     * @return List of matching products
+     * @param cursor Continuation token from the previous page (optional)
+     * @param sort Sort key: id, name, price or updatedAt (default: id)
+     * @param limit Page size (default: 50, max: 500)
+     * @return Page of matching products
      */
     @GetMapping("/filter")
-    public ResponseEntity<List<Product>> filterProducts(
+    public ResponseEntity<List<ProductView>> filterProducts(
             @RequestParam(required = false) String name,
             @RequestParam BigDecimal minPrice,
-            @RequestParam BigDecimal maxPrice) {
-        
-        if (name != null && !name.trim().isEmpty()) {
-            return ResponseEntity.ok(productService.findProductsByNameAndPriceRange(name, minPrice, maxPrice));
-        } else {
-            return ResponseEntity.ok(productService.findProductsByMaxPrice(maxPrice));
+            @RequestParam BigDecimal maxPrice,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "id") String sort,
+            @RequestParam(required = false) Integer limit) {
+
+        CursorRequest page = CursorRequest.of(cursor, ProductSort.fromParameter(sort), limit);
+        return CursorResponses.ok(productService.findProductsByPriceRange(name, minPrice, maxPrice, page).map(ProductView::from), page, EntityTags::of);
+    }
+
+    /**
+     * Find products by any combination of filters, with facet counts over all matching products.
+     * The filters are compiled into one query; the facets cost one query per breakdown.
+     *
+     * @param name Substring of the product name (optional)
+     * @param categoryId IDs of the categories to include (optional, repeatable)
+     * @param minPrice Minimum price (optional)
+     * @param maxPrice Maximum price (optional)
+     * @param minStock Minimum stock quantity (optional)
+     * @param maxStock Maximum stock quantity (optional)
+     * @param updatedSince Earliest last modification timestamp, ISO-8601 (optional)
+     * @param priceBuckets Ascending bounds between the price buckets of the facets (default: catalog.query.price-buckets)
+     * @param facets Whether to compute the facets (default: true)
+     * @param cursor Continuation token from the previous page (optional)
+     * @param sort Sort key: id, name, price or updatedAt (default: id)
+     * @param limit Page size (default: 50, max: 500)
+     * @return Page of matching products and their facets, or 400 if the filters are inconsistent
+     */
+    @GetMapping("/query")
+    public ResponseEntity<?> queryProducts(
+            @RequestParam(required = false) String name,
+            @RequestParam(required = false) List<Long> categoryId,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestParam(required = false) Integer minStock,
+            @RequestParam(required = false) Integer maxStock,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime updatedSince,
+            @RequestParam(required = false) List<BigDecimal> priceBuckets,
+            @RequestParam(defaultValue = "true") boolean facets,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "id") String sort,
+            @RequestParam(required = false) Integer limit) {
+
+        if (minPrice != null && maxPrice != null && minPrice.compareTo(maxPrice) > 0) {
+            return ResponseEntity.badRequest().body(Map.of("error", "minPrice must not exceed maxPrice"));
+        }
+        if (minStock != null && maxStock != null && minStock > maxStock) {
+            return ResponseEntity.badRequest().body(Map.of("error", "minStock must not exceed maxStock"));
+        }
+        if (categoryId != null && categoryId.size() > maxQueryCategories) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "Query must name at most " + maxQueryCategories + " categories"));
+        }
+        List<BigDecimal> bounds = priceBuckets == null ? defaultPriceBuckets : priceBuckets;
+        if (bounds.size() > MAX_PRICE_BUCKETS) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "Query must have at most " + MAX_PRICE_BUCKETS + " price bucket bounds"));
         }
+        for (int i = 1; i < bounds.size(); i++) {
+            if (bounds.get(i - 1).compareTo(bounds.get(i)) >= 0) {
+                return ResponseEntity.badRequest().body(Map.of("error", "Price bucket bounds must be ascending"));
+            }
+        }
+
+        ProductQuery query = new ProductQuery(name, categoryId, minPrice, maxPrice, minStock, maxStock, updatedSince);
+        CursorRequest page = CursorRequest.of(cursor, ProductSort.fromParameter(sort), limit);
+        Window<ProductView> window = productService.queryProducts(query, page).map(ProductView::from);
+        ProductFacets productFacets = facets ? productService.findProductFacets(query, bounds) : null;
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        page.nextCursor(window).ifPresent(next -> response.header(CursorResponses.NEXT_CURSOR_HEADER, next));
+        return response.body(new ProductQueryResult(window.getContent(), productFacets));
     }
 
     /**
@@ -141,25 +362,91 @@ public class ProductController {
      * @return Updated product if found, 404 otherwise
      */
     @PatchMapping("/{id}/stock")
-    public ResponseEntity<Product> updateProductStock(
+    public ResponseEntity<ProductView> updateProductStock(
             @PathVariable Long id,
             @RequestParam Integer quantity) {
         
         return productService.updateProductStock(id, quantity)
-                .map(ResponseEntity::ok)
+                .map(product -> ResponseEntity.ok(ProductView.from(product)))
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    /**
+     * Replace the stock levels of many products in one call, e.g. from a warehouse sync.
+     * The body is a JSON array of {@code {"id": ..., "quantity": ...}} objects. It is parsed as it
+     * arrives and applied in chunks of JDBC batch updates, without loading the products.
+     *
+     * @param levels The request body
+     * @return Counts of updated and unchanged products, unknown IDs, IDs of failed chunks and rejected
+     *         entries, or 400 if the body is malformed or too large
+     * @throws IOException if the body cannot be read
+     */
+    @PatchMapping(value = "/stock", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> syncProductStock(InputStream levels) throws IOException {
+        try {
+            return ResponseEntity.ok(catalogBatchService.syncStockLevels(levels, maxStockLevels));
+        } catch (JsonProcessingException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getOriginalMessage()));
+        }
+    }
+
+    /**
+     * Take stock from a product, e.g. at checkout.
+     *
+     * @param id Product ID
+     * @param by Amount to take, must be positive
+     * @return The new stock level, 409 with the current level if there is not enough stock,
+     *         404 if the product doesn't exist
+     */
+    @PostMapping("/{id}/stock/decrement")
+    public ResponseEntity<?> decrementProductStock(@PathVariable Long id, @RequestParam int by) {
+        if (by <= 0) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Amount must be positive"));
+        }
+        return stockResponse(productService.decrementStock(id, by));
+    }
+
+    /**
+     * Add stock to a product, e.g. on a return or a delivery.
+     *
+     * @param id Product ID
+     * @param by Amount to add, must be positive
+     * @return The new stock level, 409 with the current level if the level would pass the largest int,
+     *         404 if the product doesn't exist
+     */
+    @PostMapping("/{id}/stock/increment")
+    public ResponseEntity<?> incrementProductStock(@PathVariable Long id, @RequestParam int by) {
+        if (by <= 0) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Amount must be positive"));
+        }
+        return stockResponse(productService.incrementStock(id, by));
+    }
+
+    private static ResponseEntity<StockAdjustment> stockResponse(StockAdjustment adjustment) {
+        return switch (adjustment.status()) {
+            case APPLIED -> ResponseEntity.ok(adjustment);
+            case INSUFFICIENT_STOCK, TOO_MUCH_STOCK -> ResponseEntity.status(HttpStatus.CONFLICT).body(adjustment);
+            case NOT_FOUND -> ResponseEntity.notFound().build();
+        };
+    }
+
     /**
      * Get products with low stock.
      *
      * @param threshold Stock threshold (default: 10)
-     * @return List of products with stock below threshold
+     * @param cursor Continuation token from the previous page (optional)
+     * @param sort Sort key: id, name, price or updatedAt (default: id)
+     * @param limit Page size (default: 50, max: 500)
+     * @return Page of products with stock below threshold
      */
     @GetMapping("/low-stock")
-    public ResponseEntity<List<Product>> getLowStockProducts(
-            @RequestParam(defaultValue = "10") Integer threshold) {
-        
-        return ResponseEntity.ok(productService.findLowStockProducts(threshold));
+    public ResponseEntity<List<ProductView>> getLowStockProducts(
+            @RequestParam(defaultValue = "10") Integer threshold,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "id") String sort,
+            @RequestParam(required = false) Integer limit) {
+
+        CursorRequest page = CursorRequest.of(cursor, ProductSort.fromParameter(sort), limit);
+        return CursorResponses.ok(productService.findLowStockProducts(threshold, page).map(ProductView::from), page, EntityTags::of);
     }
 }
@@ -0,0 +1,53 @@
+package com.example.windsurfspringapp.controller;
+
+import com.example.windsurfspringapp.dto.SqlQueryStats;
+import com.example.windsurfspringapp.metrics.SlowQueryLog;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * REST controller exposing the execution statistics of SQL statements collected by the {@link SlowQueryLog}.
+ */
+@RestController
+@RequestMapping("/api/queries")
+public class SqlQueryController {
+
+    // Upper bound for the number of statements listed
+    static final int MAX_LIMIT = 500;
+
+    private final SlowQueryLog slowQueryLog;
+
+    @Autowired
+    public SqlQueryController(SlowQueryLog slowQueryLog) {
+        this.slowQueryLog = slowQueryLog;
+    }
+
+    /**
+     * Get the statements with the highest total execution time since startup or the last reset.
+     *
+     * @param limit Number of statements (default: 20, max: 500)
+     * @return Statement statistics by descending total time, with the plan of those that were slow
+     */
+    @GetMapping("/top")
+    public ResponseEntity<List<SqlQueryStats>> getTopQueries(@RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(slowQueryLog.top(Math.max(0, Math.min(limit, MAX_LIMIT))));
+    }
+
+    /**
+     * Forget all statistics and captured plans, e.g. before measuring a workload.
+     *
+     * @return 204 No Content
+     */
+    @DeleteMapping
+    public ResponseEntity<Void> resetQueries() {
+        slowQueryLog.reset();
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,159 @@
+package com.example.windsurfspringapp.counter;
+
+import com.example.windsurfspringapp.event.CategoryChangedEvent;
+import com.example.windsurfspringapp.event.ChangeType;
+import com.example.windsurfspringapp.event.ProductChangedEvent;
+import com.example.windsurfspringapp.event.ProductsImportedEvent;
+import com.example.windsurfspringapp.repository.CategoryRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Materialized number of products in each category.
+ *
+ * <p>The counters are loaded with one grouped query at startup and then adjusted from committed product
+ * and category change events, so reading them never touches the products table. A change that races
+ * with a reload can be counted twice or not at all; the periodic reconcile job reloads the counters
+ * from the database and logs how many categories had drifted.</p>
+ */
+@Component
+public class CategoryProductCounters {
+
+    private static final Logger log = LoggerFactory.getLogger(CategoryProductCounters.class);
+
+    private final CategoryRepository categoryRepository;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private LongLongHashMap counts = new LongLongHashMap();
+    private volatile boolean ready;
+
+    @Autowired
+    public CategoryProductCounters(CategoryRepository categoryRepository) {
+        this.categoryRepository = categoryRepository;
+    }
+
+    /**
+     * Whether the counters have been loaded and can be served.
+     *
+     * @return true once the first load has completed
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Copy the current counters.
+     *
+     * @return Product count keyed by category ID, including categories without products
+     */
+    public Map<Long, Long> snapshot() {
+        lock.readLock().lock();
+        try {
+            Map<Long, Long> result = new HashMap<>(counts.size() * 4 / 3 + 1);
+            counts.forEach(result::put);
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        reload();
+    }
+
+    /**
+     * Reload the counters from the database, correcting any drift.
+     */
+    @Scheduled(initialDelayString = "${catalog.counters.reconcile-interval:5m}",
+               fixedDelayString = "${catalog.counters.reconcile-interval:5m}")
+    public void reconcile() {
+        reload();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        Long from = event.before() == null ? null : event.before().categoryId();
+        Long to = event.after() == null ? null : event.after().categoryId();
+        if (Objects.equals(from, to)) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (from != null && counts.containsKey(from)) {
+                counts.addTo(from, -1);
+            }
+            if (to != null) {
+                counts.addTo(to, 1);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductsImported(ProductsImportedEvent event) {
+        event.changes().forEach(this::onProductChanged);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            if (event.type() == ChangeType.DELETED) {
+                counts.remove(event.categoryId());
+            } else if (!counts.containsKey(event.categoryId())) {
+                counts.put(event.categoryId(), 0);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void reload() {
+        List<Object[]> rows = categoryRepository.countProductsByCategory();
+        LongLongHashMap fresh = new LongLongHashMap(rows.size());
+        for (Object[] row : rows) {
+            fresh.put((Long) row[0], (Long) row[1]);
+        }
+
+        int drifted;
+        lock.writeLock().lock();
+        try {
+            drifted = ready ? countDifferences(counts, fresh) : 0;
+            counts = fresh;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if (drifted > 0) {
+            log.warn("Corrected product counts of {} categories", drifted);
+        }
+    }
+
+    private static int countDifferences(LongLongHashMap current, LongLongHashMap expected) {
+        int[] differences = {0};
+        expected.forEach((key, value) -> {
+            if (current.get(key, -1) != value) {
+                differences[0]++;
+            }
+        });
+        current.forEach((key, value) -> {
+            if (!expected.containsKey(key)) {
+                differences[0]++;
+            }
+        });
+        return differences[0];
+    }
+}
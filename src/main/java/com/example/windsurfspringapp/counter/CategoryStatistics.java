@@ -0,0 +1,383 @@
+package com.example.windsurfspringapp.counter;
+
+import com.example.windsurfspringapp.dto.CategoryStats;
+import com.example.windsurfspringapp.dto.ProductSnapshot;
+import com.example.windsurfspringapp.event.CategoryChangedEvent;
+import com.example.windsurfspringapp.event.ChangeType;
+import com.example.windsurfspringapp.event.ProductChangedEvent;
+import com.example.windsurfspringapp.event.ProductsImportedEvent;
+import com.example.windsurfspringapp.event.StockChangedEvent;
+import com.example.windsurfspringapp.repository.CategoryRepository;
+import com.example.windsurfspringapp.repository.ProductRepository;
+import com.example.windsurfspringapp.search.ProductPriceIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Materialized price and stock aggregates of each category.
+ *
+ * <p>The aggregates are loaded with one grouped query at startup and then adjusted from committed
+ * product and category change events, so reading them touches the products table only for what the
+ * events cannot express:</p>
+ * <ul>
+ *   <li>relative stock adjustments carry neither price nor category, so their deltas are kept per product
+ *       and priced with one query for all of them on the next read;</li>
+ *   <li>removing the cheapest or most expensive product of a category leaves its range unknown, so the
+ *       range of those categories is queried again on the next read.</li>
+ * </ul>
+ *
+ * <p>As with {@link CategoryProductCounters}, a change that races with a reload or a read can be
+ * applied twice or not at all; the periodic reconcile job reloads the aggregates from the database and
+ * logs how many categories had drifted.</p>
+ */
+@Component
+public class CategoryStatistics {
+
+    private static final Logger log = LoggerFactory.getLogger(CategoryStatistics.class);
+
+    // Products priced per query when resolving stock adjustments
+    private static final int RESOLVE_CHUNK_SIZE = 1000;
+
+    private final CategoryRepository categoryRepository;
+    private final ProductRepository productRepository;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private Map<Long, Accumulator> accumulators = new HashMap<>();
+    // Unpriced stock adjustments keyed by product ID
+    private LongLongHashMap pendingStock = new LongLongHashMap();
+    private volatile boolean ready;
+
+    @Autowired
+    public CategoryStatistics(CategoryRepository categoryRepository, ProductRepository productRepository) {
+        this.categoryRepository = categoryRepository;
+        this.productRepository = productRepository;
+    }
+
+    /**
+     * Whether the aggregates have been loaded and can be served.
+     *
+     * @return true once the first load has completed
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Compute the current aggregates, first resolving the stock adjustments and price ranges the
+     * events left open.
+     *
+     * @return Aggregates ordered by category ID, including categories without products
+     */
+    public List<CategoryStats> snapshot() {
+        Map<Long, long[]> ranges = resolvePending();
+        lock.readLock().lock();
+        try {
+            List<CategoryStats> result = new ArrayList<>(accumulators.size());
+            new TreeMap<>(accumulators).forEach((categoryId, accumulator) ->
+                    result.add(accumulator.toStats(categoryId, ranges.get(categoryId))));
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        reload();
+    }
+
+    /**
+     * Reload the aggregates from the database, correcting any drift.
+     */
+    @Scheduled(initialDelayString = "${catalog.counters.reconcile-interval:5m}",
+               fixedDelayString = "${catalog.counters.reconcile-interval:5m}")
+    public void reconcile() {
+        reload();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            if (event.before() != null) {
+                // The snapshot already includes any unpriced adjustment; price it at the old values first
+                long stockDelta = pendingStock.get(event.productId(), 0);
+                if (stockDelta != 0) {
+                    pendingStock.remove(event.productId());
+                    Accumulator accumulator = accumulatorOf(event.before());
+                    if (accumulator != null) {
+                        accumulator.adjustStock(ProductPriceIndex.toCents(event.before().price()), stockDelta);
+                    }
+                }
+                Accumulator accumulator = accumulatorOf(event.before());
+                if (accumulator != null) {
+                    accumulator.remove(event.before());
+                }
+            }
+            if (event.after() != null) {
+                Accumulator accumulator = accumulatorOf(event.after());
+                if (accumulator != null) {
+                    accumulator.add(event.after());
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductsImported(ProductsImportedEvent event) {
+        event.changes().forEach(this::onProductChanged);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStockChanged(StockChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            pendingStock.addTo(event.productId(), (long) event.quantity() - event.previousQuantity());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            if (event.type() == ChangeType.DELETED) {
+                accumulators.remove(event.categoryId());
+            } else {
+                accumulators.putIfAbsent(event.categoryId(), new Accumulator());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Convert the rows of {@link CategoryRepository#aggregateProductsByCategory()} into aggregates.
+     *
+     * @param rows The grouped rows
+     * @return Aggregates ordered by category ID
+     */
+    public static List<CategoryStats> fromAggregates(List<Object[]> rows) {
+        Map<Long, Accumulator> byCategory = new TreeMap<>();
+        for (Object[] row : rows) {
+            byCategory.put((Long) row[0], Accumulator.of(row));
+        }
+        List<CategoryStats> result = new ArrayList<>(byCategory.size());
+        byCategory.forEach((categoryId, accumulator) -> result.add(accumulator.toStats(categoryId, null)));
+        return result;
+    }
+
+    private Accumulator accumulatorOf(ProductSnapshot product) {
+        return product.categoryId() == null ? null : accumulators.get(product.categoryId());
+    }
+
+    // Price the pending stock adjustments and re-query the stale ranges; returns the queried ranges
+    private Map<Long, long[]> resolvePending() {
+        LongLongHashMap stockDeltas;
+        Map<Long, Long> staleGenerations = new HashMap<>();
+        lock.writeLock().lock();
+        try {
+            stockDeltas = pendingStock;
+            pendingStock = new LongLongHashMap();
+            accumulators.forEach((categoryId, accumulator) -> {
+                if (accumulator.rangeStale) {
+                    staleGenerations.put(categoryId, accumulator.generation);
+                }
+            });
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if (stockDeltas.size() == 0 && staleGenerations.isEmpty()) {
+            return Map.of();
+        }
+
+        List<Object[]> priced = new ArrayList<>(stockDeltas.size());
+        List<Long> productIds = new ArrayList<>(stockDeltas.size());
+        stockDeltas.forEach((productId, delta) -> productIds.add(productId));
+        for (int from = 0; from < productIds.size(); from += RESOLVE_CHUNK_SIZE) {
+            priced.addAll(productRepository.findCategoryAndPriceByIdIn(
+                    productIds.subList(from, Math.min(from + RESOLVE_CHUNK_SIZE, productIds.size()))));
+        }
+        Map<Long, long[]> ranges = new HashMap<>();
+        if (!staleGenerations.isEmpty()) {
+            for (Object[] row : productRepository.findPriceRangeByCategoryIdIn(staleGenerations.keySet())) {
+                ranges.put((Long) row[0], new long[]{
+                        ProductPriceIndex.toCents((BigDecimal) row[1]), ProductPriceIndex.toCents((BigDecimal) row[2])});
+            }
+        }
+
+        lock.writeLock().lock();
+        try {
+            for (Object[] row : priced) {
+                Accumulator accumulator = row[1] == null ? null : accumulators.get((Long) row[1]);
+                if (accumulator != null) {
+                    accumulator.adjustStock(ProductPriceIndex.toCents((BigDecimal) row[2]), stockDeltas.get((Long) row[0], 0));
+                }
+            }
+            staleGenerations.forEach((categoryId, generation) -> {
+                Accumulator accumulator = accumulators.get(categoryId);
+                if (accumulator != null && accumulator.generation == generation) {
+                    accumulator.mergeRange(ranges.get(categoryId));
+                }
+            });
+        } finally {
+            lock.writeLock().unlock();
+        }
+        return ranges;
+    }
+
+    private void reload() {
+        List<Object[]> rows = categoryRepository.aggregateProductsByCategory();
+        Map<Long, Accumulator> fresh = new HashMap<>(rows.size() * 4 / 3 + 1);
+        for (Object[] row : rows) {
+            fresh.put((Long) row[0], Accumulator.of(row));
+        }
+
+        int drifted = 0;
+        lock.writeLock().lock();
+        try {
+            if (ready) {
+                for (Map.Entry<Long, Accumulator> entry : fresh.entrySet()) {
+                    Accumulator current = accumulators.get(entry.getKey());
+                    if (current == null || !current.matches(entry.getValue())) {
+                        drifted++;
+                    }
+                }
+                for (Long categoryId : accumulators.keySet()) {
+                    if (!fresh.containsKey(categoryId)) {
+                        drifted++;
+                    }
+                }
+            }
+            accumulators = fresh;
+            // The reloaded stock levels already include every adjustment made so far
+            pendingStock = new LongLongHashMap();
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if (drifted > 0) {
+            log.warn("Corrected statistics of {} categories", drifted);
+        }
+    }
+
+    /**
+     * Running aggregates of one category, in cents. While the range is stale, the minimum and maximum
+     * only cover products added since it went stale.
+     */
+    private static final class Accumulator {
+
+        long count;
+        long priceSum;
+        long minPrice = Long.MAX_VALUE;
+        long maxPrice = Long.MIN_VALUE;
+        long stock;
+        long value;
+        boolean rangeStale;
+        // Bumped by removals from a stale range, so that a range queried before them is discarded
+        long generation;
+
+        static Accumulator of(Object[] row) {
+            Accumulator accumulator = new Accumulator();
+            accumulator.count = ((Number) row[1]).longValue();
+            if (accumulator.count > 0) {
+                accumulator.priceSum = ProductPriceIndex.toCents((BigDecimal) row[2]);
+                accumulator.minPrice = ProductPriceIndex.toCents((BigDecimal) row[3]);
+                accumulator.maxPrice = ProductPriceIndex.toCents((BigDecimal) row[4]);
+                accumulator.stock = row[5] == null ? 0 : ((Number) row[5]).longValue();
+                accumulator.value = row[6] == null ? 0 : ProductPriceIndex.toCents((BigDecimal) row[6]);
+            }
+            return accumulator;
+        }
+
+        void add(ProductSnapshot product) {
+            long price = ProductPriceIndex.toCents(product.price());
+            long quantity = stockOf(product);
+            count++;
+            priceSum += price;
+            stock += quantity;
+            value += price * quantity;
+            minPrice = Math.min(minPrice, price);
+            maxPrice = Math.max(maxPrice, price);
+        }
+
+        void remove(ProductSnapshot product) {
+            long price = ProductPriceIndex.toCents(product.price());
+            long quantity = stockOf(product);
+            count--;
+            priceSum -= price;
+            stock -= quantity;
+            value -= price * quantity;
+            if (count <= 0) {
+                minPrice = Long.MAX_VALUE;
+                maxPrice = Long.MIN_VALUE;
+                rangeStale = false;
+            } else if (rangeStale) {
+                generation++;
+            } else if (price <= minPrice || price >= maxPrice) {
+                rangeStale = true;
+                generation++;
+                minPrice = Long.MAX_VALUE;
+                maxPrice = Long.MIN_VALUE;
+            }
+        }
+
+        void adjustStock(long price, long delta) {
+            stock += delta;
+            value += price * delta;
+        }
+
+        // Combine a queried range with the products added since the range went stale
+        void mergeRange(long[] range) {
+            if (range != null) {
+                minPrice = Math.min(minPrice, range[0]);
+                maxPrice = Math.max(maxPrice, range[1]);
+            }
+            rangeStale = false;
+        }
+
+        boolean matches(Accumulator other) {
+            return count == other.count && priceSum == other.priceSum && stock == other.stock && value == other.value
+                    && (rangeStale || minPrice == other.minPrice && maxPrice == other.maxPrice);
+        }
+
+        CategoryStats toStats(Long categoryId, long[] queriedRange) {
+            if (count <= 0) {
+                return new CategoryStats(categoryId, 0, null, null, null, stock, BigDecimal.valueOf(value, 2));
+            }
+            long min = minPrice;
+            long max = maxPrice;
+            if (rangeStale && queriedRange != null) {
+                // A removal raced with the range query; the queried range is still the best estimate
+                min = Math.min(min, queriedRange[0]);
+                max = Math.max(max, queriedRange[1]);
+            }
+            BigDecimal average = BigDecimal.valueOf(priceSum, 2).divide(BigDecimal.valueOf(count), 2, RoundingMode.HALF_UP);
+            return new CategoryStats(categoryId, count,
+                    min == Long.MAX_VALUE ? null : BigDecimal.valueOf(min, 2),
+                    max == Long.MIN_VALUE ? null : BigDecimal.valueOf(max, 2),
+                    average, stock, BigDecimal.valueOf(value, 2));
+        }
+
+        private static long stockOf(ProductSnapshot product) {
+            return product.stockQuantity() == null ? 0 : product.stockQuantity();
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package com.example.windsurfspringapp.counter;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing hash map from {@code long} keys to {@code long} values.
+ *
+ * <p>Keys and values live in two parallel primitive arrays, so an entry costs 16 bytes and lookups
+ * never allocate or box. Collisions are resolved by linear probing and removals shift later entries
+ * back, so no tombstones accumulate.</p>
+ *
+ * <p>Not thread safe; callers must synchronize access.</p>
+ */
+public class LongLongHashMap {
+
+    /**
+     * Receives the entries of a map.
+     */
+    @FunctionalInterface
+    public interface EntryConsumer {
+        void accept(long key, long value);
+    }
+
+    // Marks a free slot; cannot be used as a key
+    private static final long EMPTY = Long.MIN_VALUE;
+    private static final int MIN_CAPACITY = 16;
+
+    private long[] keys;
+    private long[] values;
+    private int size;
+    private int mask;
+    private int resizeAt;
+
+    public LongLongHashMap() {
+        this(MIN_CAPACITY);
+    }
+
+    /**
+     * Create a map sized for the expected number of entries.
+     *
+     * @param expectedSize The number of entries the map should hold without resizing
+     */
+    public LongLongHashMap(int expectedSize) {
+        allocate(capacityFor(expectedSize));
+    }
+
+    /**
+     * Get the value for a key.
+     *
+     * @param key The key
+     * @param defaultValue The value to return if the key is absent
+     * @return The value, or the default if the key is absent
+     */
+    public long get(long key, long defaultValue) {
+        int slot = find(key);
+        return slot < 0 ? defaultValue : values[slot];
+    }
+
+    /**
+     * Whether the map contains a key.
+     *
+     * @param key The key
+     * @return true if the key is present
+     */
+    public boolean containsKey(long key) {
+        return find(key) >= 0;
+    }
+
+    /**
+     * Set the value for a key.
+     *
+     * @param key The key; must not be {@link Long#MIN_VALUE}
+     * @param value The value
+     */
+    public void put(long key, long value) {
+        // Resolve the slot first: inserting may replace the values array
+        int slot = insertionSlot(key);
+        values[slot] = value;
+    }
+
+    /**
+     * Add a delta to the value for a key, treating an absent key as zero.
+     *
+     * @param key The key; must not be {@link Long#MIN_VALUE}
+     * @param delta The amount to add
+     * @return The new value
+     */
+    public long addTo(long key, long delta) {
+        int slot = insertionSlot(key);
+        values[slot] += delta;
+        return values[slot];
+    }
+
+    /**
+     * Remove a key.
+     *
+     * @param key The key
+     * @return true if the key was present
+     */
+    public boolean remove(long key) {
+        int slot = find(key);
+        if (slot < 0) {
+            return false;
+        }
+        // Backward-shift deletion: move later entries of the probe chain into the gap
+        int gap = slot;
+        int next = (gap + 1) & mask;
+        while (keys[next] != EMPTY) {
+            int home = hash(keys[next]) & mask;
+            if (((next - home) & mask) >= ((next - gap) & mask)) {
+                keys[gap] = keys[next];
+                values[gap] = values[next];
+                gap = next;
+            }
+            next = (next + 1) & mask;
+        }
+        keys[gap] = EMPTY;
+        values[gap] = 0;
+        size--;
+        return true;
+    }
+
+    /**
+     * Number of entries.
+     *
+     * @return The entry count
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Visit every entry, in no particular order.
+     *
+     * @param consumer Receives each key and value
+     */
+    public void forEach(EntryConsumer consumer) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != EMPTY) {
+                consumer.accept(keys[i], values[i]);
+            }
+        }
+    }
+
+    private int find(long key) {
+        int slot = hash(key) & mask;
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == key) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    private int insertionSlot(long key) {
+        if (key == EMPTY) {
+            throw new IllegalArgumentException("Key " + EMPTY + " is reserved");
+        }
+        int slot = hash(key) & mask;
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == key) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        if (size >= resizeAt) {
+            rehash(keys.length << 1);
+            return insertionSlot(key);
+        }
+        keys[slot] = key;
+        values[slot] = 0;
+        size++;
+        return slot;
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        long[] oldValues = values;
+        int oldSize = size;
+        allocate(capacity);
+        size = oldSize;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                int slot = hash(oldKeys[i]) & mask;
+                while (keys[slot] != EMPTY) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        Arrays.fill(keys, EMPTY);
+        values = new long[capacity];
+        mask = capacity - 1;
+        // Keep the load factor at or below 0.75
+        resizeAt = capacity - (capacity >>> 2);
+        size = 0;
+    }
+
+    private static int capacityFor(int expectedSize) {
+        long needed = Math.max(MIN_CAPACITY, (long) Math.ceil(expectedSize / 0.75));
+        if (needed > (1 << 30)) {
+            throw new IllegalArgumentException("Too many entries: " + expectedSize);
+        }
+        return Integer.highestOneBit((int) needed - 1) << 1;
+    }
+
+    // Spread sequential IDs across the table (fmix64 finalizer from MurmurHash3)
+    private static int hash(long key) {
+        long h = key;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb93e3e0a4cdfL;
+        h ^= h >>> 33;
+        return (int) h;
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.windsurfspringapp.dto;
+
+/**
+ * Outcome of one item in a batch create/update request.
+ *
+ * @param index Position of the item in the request
+ * @param id ID of the created or updated entity, or the requested ID if the item failed
+ * @param status Whether the item was created, updated or rejected
+ * @param error Reason the item failed, null otherwise
+ */
+public record BatchItemResult(int index, Long id, Status status, String error) {
+
+    public enum Status {
+        CREATED,
+        UPDATED,
+        FAILED
+    }
+
+    public static BatchItemResult created(int index, Long id) {
+        return new BatchItemResult(index, id, Status.CREATED, null);
+    }
+
+    public static BatchItemResult updated(int index, Long id) {
+        return new BatchItemResult(index, id, Status.UPDATED, null);
+    }
+
+    public static BatchItemResult failed(int index, Long id, String error) {
+        return new BatchItemResult(index, id, Status.FAILED, error);
+    }
+}
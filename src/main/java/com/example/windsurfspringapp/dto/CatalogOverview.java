@@ -0,0 +1,16 @@
+package com.example.windsurfspringapp.dto;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Dashboard view of the catalog, assembled from independent queries.
+ *
+ * @param categories The first page of categories
+ * @param productCounts Map of category ID to product count
+ * @param lowStock The first page of products that are low in stock
+ * @param categoryProducts The first page of products in the requested category, or empty if none was requested
+ */
+public record CatalogOverview(List<CategoryView> categories, Map<Long, Long> productCounts,
+                              List<ProductView> lowStock, List<ProductView> categoryProducts) {
+}
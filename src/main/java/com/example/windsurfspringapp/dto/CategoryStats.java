@@ -0,0 +1,18 @@
+package com.example.windsurfspringapp.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Price and stock aggregates over the products of one category.
+ *
+ * @param categoryId The category ID
+ * @param productCount Number of products in the category
+ * @param minPrice Lowest price, null if the category has no products
+ * @param maxPrice Highest price, null if the category has no products
+ * @param averagePrice Mean price rounded to cents, null if the category has no products
+ * @param totalStock Sum of the stock quantities
+ * @param inventoryValue Sum of price times stock quantity
+ */
+public record CategoryStats(Long categoryId, long productCount, BigDecimal minPrice, BigDecimal maxPrice,
+                            BigDecimal averagePrice, long totalStock, BigDecimal inventoryValue) {
+}
@@ -0,0 +1,29 @@
+package com.example.windsurfspringapp.dto;
+
+import com.example.windsurfspringapp.model.Category;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read model of a category as returned by the category endpoints.
+ *
+ * @param id The category ID
+ * @param name The category name
+ * @param description The category description
+ * @param createdAt The creation timestamp
+ * @param updatedAt The last modification timestamp
+ */
+public record CategoryView(Long id, String name, String description,
+                           LocalDateTime createdAt, LocalDateTime updatedAt) {
+
+    /**
+     * Map a category entity without touching its products.
+     *
+     * @param category The category
+     * @return The read model
+     */
+    public static CategoryView from(Category category) {
+        return new CategoryView(category.getId(), category.getName(), category.getDescription(),
+                category.getCreatedAt(), category.getUpdatedAt());
+    }
+}
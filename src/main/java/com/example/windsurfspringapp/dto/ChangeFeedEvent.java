@@ -0,0 +1,31 @@
+package com.example.windsurfspringapp.dto;
+
+import com.example.windsurfspringapp.event.ChangeType;
+
+import java.time.LocalDateTime;
+
+/**
+ * One committed change in the catalog change feed.
+ *
+ * @param sequence Position of the change in the feed, starting at 1 when the application starts
+ * @param topic What changed
+ * @param type The kind of change
+ * @param id ID of the changed product or category
+ * @param data State after the change: a {@link ProductSnapshot} for products, a {@link StockLevel} for
+ *             stock, {@code {"name": ...}} for categories; null for deletes
+ * @param version The row's {@code updatedAt} after the change, or the last one before it for a delete.
+ *                Sequences follow the order changes are announced in, which may differ from the order
+ *                they committed in, so consumers skip a change older than the version they hold.
+ */
+public record ChangeFeedEvent(long sequence, Topic topic, ChangeType type, Long id, Object data,
+                              LocalDateTime version) {
+
+    public enum Topic {
+        /** A product was created, updated or deleted. */
+        PRODUCT,
+        /** Only the stock level of a product changed. */
+        STOCK,
+        /** A category was created, updated or deleted. */
+        CATEGORY
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.windsurfspringapp.dto;
+
+/**
+ * A CSV row that was not imported.
+ *
+ * @param line Line of the input file the row starts on (the header is line 1)
+ * @param error Reason the row was not imported
+ */
+public record ImportRowError(long line, String error) {
+}
@@ -0,0 +1,20 @@
+package com.example.windsurfspringapp.dto;
+
+/**
+ * Published when a product crosses a low-stock threshold.
+ *
+ * @param productId The product ID
+ * @param threshold The threshold that was crossed
+ * @param transition Whether the product fell below the threshold or got back to it
+ * @param quantity The stock level after the change, or null if it is unknown: the product was deleted,
+ *                 or a reconcile found it back above every threshold
+ */
+public record LowStockAlert(Long productId, int threshold, Transition transition, Integer quantity) {
+
+    public enum Transition {
+        /** The stock level fell below the threshold. */
+        ENTERED,
+        /** The stock level got back to the threshold or above, or the product was deleted. */
+        LEFT
+    }
+}
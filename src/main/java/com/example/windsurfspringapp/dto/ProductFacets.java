@@ -0,0 +1,26 @@
+package com.example.windsurfspringapp.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Counts of the products matching a query, broken down by category and by price.
+ *
+ * @param total Number of matching products
+ * @param categories Map of category ID to the number of matching products in it; products without a
+ *                   category are only counted in the total
+ * @param prices Number of matching products per price bucket, in ascending price order
+ */
+public record ProductFacets(long total, Map<Long, Long> categories, List<PriceBucket> prices) {
+
+    /**
+     * Products priced in {@code [from, to)}.
+     *
+     * @param from The lower bound (inclusive), or null for no lower bound
+     * @param to The upper bound (exclusive), or null for no upper bound
+     * @param count Number of matching products in the bucket
+     */
+    public record PriceBucket(BigDecimal from, BigDecimal to, long count) {
+    }
+}
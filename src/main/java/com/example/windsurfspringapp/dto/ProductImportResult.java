@@ -0,0 +1,17 @@
+package com.example.windsurfspringapp.dto;
+
+import java.util.List;
+
+/**
+ * Outcome of a CSV product import.
+ *
+ * @param rows Number of rows read, not counting the header
+ * @param imported Number of products created
+ * @param failed Number of rows that were not imported
+ * @param complete Whether the whole file was read; false if the import stopped at a row it could not delimit
+ * @param errors The first failed rows; further failures are only counted
+ * @param elapsedMillis Time taken by the import
+ */
+public record ProductImportResult(long rows, long imported, long failed, boolean complete,
+                                  List<ImportRowError> errors, long elapsedMillis) {
+}
@@ -0,0 +1,30 @@
+package com.example.windsurfspringapp.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Filters of a faceted product query. Every filter is optional; a null filter matches every product,
+ * and the filters that are present must all match.
+ *
+ * @param name Substring of the product name (case insensitive)
+ * @param categoryIds IDs of the categories to include, or null/empty for any category
+ * @param minPrice The minimum price (inclusive)
+ * @param maxPrice The maximum price (inclusive)
+ * @param minStock The minimum stock quantity (inclusive)
+ * @param maxStock The maximum stock quantity (inclusive)
+ * @param updatedSince The earliest last modification timestamp (inclusive)
+ */
+public record ProductQuery(String name, List<Long> categoryIds, BigDecimal minPrice, BigDecimal maxPrice,
+                           Integer minStock, Integer maxStock, LocalDateTime updatedSince) {
+
+    /**
+     * Whether the query filters on the stock quantity.
+     *
+     * @return true if a stock bound is present
+     */
+    public boolean filtersStock() {
+        return minStock != null || maxStock != null;
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.windsurfspringapp.dto;
+
+import java.util.List;
+
+/**
+ * One page of a faceted product query.
+ *
+ * @param products The page of matching products
+ * @param facets Counts over all matching products, or null if they were not requested
+ */
+public record ProductQueryResult(List<ProductView> products, ProductFacets facets) {
+}
@@ -0,0 +1,33 @@
+package com.example.windsurfspringapp.dto;
+
+import com.example.windsurfspringapp.model.Product;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Immutable copy of the scalar columns of a product row.
+ * Used to describe product changes without holding on to managed entities.
+ *
+ * @param id The product ID
+ * @param name The product name
+ * @param price The product price
+ * @param stockQuantity The stock quantity
+ * @param categoryId The category ID, or null if the product has no category
+ * @param updatedAt The last modification timestamp
+ */
+public record ProductSnapshot(Long id, String name, BigDecimal price, Integer stockQuantity,
+                              Long categoryId, LocalDateTime updatedAt) {
+
+    /**
+     * Take a snapshot of a product entity without initializing its category proxy.
+     *
+     * @param product The product
+     * @return The snapshot
+     */
+    public static ProductSnapshot from(Product product) {
+        Long categoryId = product.getCategory() == null ? null : product.getCategory().getId();
+        return new ProductSnapshot(product.getId(), product.getName(), product.getPrice(),
+                product.getStockQuantity(), categoryId, product.getUpdatedAt());
+    }
+}
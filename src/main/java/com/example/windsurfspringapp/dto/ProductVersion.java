@@ -0,0 +1,15 @@
+package com.example.windsurfspringapp.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * The columns a product's representation can change with, used to validate cached copies
+ * without loading the product.
+ *
+ * @param id The product ID
+ * @param updatedAt The product's last modification timestamp
+ * @param categoryId The category ID, or null if the product has no category
+ * @param categoryName The category name, or null if the product has no category
+ */
+public record ProductVersion(Long id, LocalDateTime updatedAt, Long categoryId, String categoryName) {
+}
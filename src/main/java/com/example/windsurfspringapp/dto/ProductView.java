@@ -0,0 +1,47 @@
+package com.example.windsurfspringapp.dto;
+
+import com.example.windsurfspringapp.model.Category;
+import com.example.windsurfspringapp.model.Product;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Read model of a product as returned by the product endpoints.
+ * Only the category's ID and name are included, so rendering a product never walks the category.
+ *
+ * @param id The product ID
+ * @param name The product name
+ * @param description The product description
+ * @param price The product price
+ * @param stockQuantity The stock quantity
+ * @param createdAt The creation timestamp
+ * @param updatedAt The last modification timestamp
+ * @param category The product's category, or null if it has none
+ */
+public record ProductView(Long id, String name, String description, BigDecimal price, Integer stockQuantity,
+                          LocalDateTime createdAt, LocalDateTime updatedAt, CategoryRef category) {
+
+    /**
+     * Reference from a product to its category.
+     *
+     * @param id The category ID
+     * @param name The category name
+     */
+    public record CategoryRef(Long id, String name) {
+    }
+
+    /**
+     * Map a product entity. The category must have been fetched with the product, e.g. through an entity
+     * graph, or reading its name costs one more query.
+     *
+     * @param product The product
+     * @return The read model
+     */
+    public static ProductView from(Product product) {
+        Category category = product.getCategory();
+        return new ProductView(product.getId(), product.getName(), product.getDescription(), product.getPrice(),
+                product.getStockQuantity(), product.getCreatedAt(), product.getUpdatedAt(),
+                category == null ? null : new CategoryRef(category.getId(), category.getName()));
+    }
+}
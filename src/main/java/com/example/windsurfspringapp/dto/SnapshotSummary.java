@@ -0,0 +1,16 @@
+package com.example.windsurfspringapp.dto;
+
+/**
+ * Outcome of writing or restoring a catalog snapshot.
+ *
+ * @param path The snapshot file
+ * @param categories Number of categories in the snapshot
+ * @param products Number of products in the snapshot
+ * @param cachedCategories Number of categories whose cache entries the snapshot holds
+ * @param cachedProducts Number of products whose cache entries the snapshot holds
+ * @param bytes Size of the snapshot file
+ * @param elapsedMillis Time taken to write or restore the snapshot
+ */
+public record SnapshotSummary(String path, long categories, long products, long cachedCategories,
+                              long cachedProducts, long bytes, long elapsedMillis) {
+}
@@ -0,0 +1,17 @@
+package com.example.windsurfspringapp.dto;
+
+/**
+ * Execution statistics of one SQL statement shape.
+ *
+ * @param sql The SQL text, with parameter placeholders
+ * @param repositoryMethod The repository method that first issued the statement, or null if none did
+ * @param executions Number of executions
+ * @param slowExecutions Number of executions over the slow-query threshold
+ * @param totalMillis Total execution time
+ * @param meanMillis Mean execution time
+ * @param maxMillis Longest execution time
+ * @param plan The database's plan, captured the first time the statement was slow, or null
+ */
+public record SqlQueryStats(String sql, String repositoryMethod, long executions, long slowExecutions,
+                            double totalMillis, double meanMillis, double maxMillis, String plan) {
+}
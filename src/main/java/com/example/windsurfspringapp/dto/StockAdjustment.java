@@ -0,0 +1,35 @@
+package com.example.windsurfspringapp.dto;
+
+/**
+ * Outcome of a relative stock adjustment.
+ *
+ * @param productId The product ID
+ * @param status Whether the adjustment was applied
+ * @param quantity The stock level after the adjustment, or the unchanged level if there was not
+ *                 enough stock or no room for the amount; null if the product doesn't exist
+ */
+public record StockAdjustment(Long productId, Status status, Integer quantity) {
+
+    public enum Status {
+        APPLIED,
+        INSUFFICIENT_STOCK,
+        TOO_MUCH_STOCK,
+        NOT_FOUND
+    }
+
+    public static StockAdjustment applied(Long productId, int quantity) {
+        return new StockAdjustment(productId, Status.APPLIED, quantity);
+    }
+
+    public static StockAdjustment insufficientStock(Long productId, int quantity) {
+        return new StockAdjustment(productId, Status.INSUFFICIENT_STOCK, quantity);
+    }
+
+    public static StockAdjustment tooMuchStock(Long productId, int quantity) {
+        return new StockAdjustment(productId, Status.TOO_MUCH_STOCK, quantity);
+    }
+
+    public static StockAdjustment notFound(Long productId) {
+        return new StockAdjustment(productId, Status.NOT_FOUND, null);
+    }
+}
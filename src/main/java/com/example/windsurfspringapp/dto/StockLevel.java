@@ -0,0 +1,10 @@
+package com.example.windsurfspringapp.dto;
+
+/**
+ * Stock level of one product.
+ *
+ * @param productId The product ID
+ * @param quantity The stock quantity
+ */
+public record StockLevel(Long productId, int quantity) {
+}
@@ -0,0 +1,18 @@
+package com.example.windsurfspringapp.dto;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk stock level sync.
+ *
+ * @param received Number of stock levels in the request, including duplicates and rejected entries
+ * @param updated Number of products whose stock level changed
+ * @param unchanged Number of products that already had the requested stock level
+ * @param unknownIds IDs of requested products that don't exist, in ascending order
+ * @param failedIds IDs of requested products whose chunk failed to commit and was rolled back, in ascending
+ *                  order; their stock level was not changed
+ * @param rejected Entries that were not applied because they were incomplete or invalid
+ */
+public record StockSyncResult(int received, int updated, int unchanged,
+                              List<Long> unknownIds, List<Long> failedIds, List<BatchItemResult> rejected) {
+}
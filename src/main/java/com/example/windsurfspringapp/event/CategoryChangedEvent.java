@@ -0,0 +1,28 @@
+package com.example.windsurfspringapp.event;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published when a category is created, updated or deleted.
+ * Listeners that maintain derived state should use {@code @TransactionalEventListener}
+ * so that they only see committed changes.
+ *
+ * @param type The kind of change
+ * @param categoryId The category ID
+ * @param name The category name after the change, null for {@link ChangeType#DELETED}
+ * @param updatedAt The modification timestamp after the change, or the last one before it for a delete
+ */
+public record CategoryChangedEvent(ChangeType type, Long categoryId, String name, LocalDateTime updatedAt) {
+
+    public static CategoryChangedEvent created(Long categoryId, String name, LocalDateTime updatedAt) {
+        return new CategoryChangedEvent(ChangeType.CREATED, categoryId, name, updatedAt);
+    }
+
+    public static CategoryChangedEvent updated(Long categoryId, String name, LocalDateTime updatedAt) {
+        return new CategoryChangedEvent(ChangeType.UPDATED, categoryId, name, updatedAt);
+    }
+
+    public static CategoryChangedEvent deleted(Long categoryId, LocalDateTime updatedAt) {
+        return new CategoryChangedEvent(ChangeType.DELETED, categoryId, null, updatedAt);
+    }
+}
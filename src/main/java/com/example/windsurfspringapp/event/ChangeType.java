@@ -0,0 +1,10 @@
+package com.example.windsurfspringapp.event;
+
+/**
+ * Kind of change made to a catalog entity.
+ */
+public enum ChangeType {
+    CREATED,
+    UPDATED,
+    DELETED
+}
@@ -0,0 +1,40 @@
+package com.example.windsurfspringapp.event;
+
+import com.example.windsurfspringapp.dto.ProductSnapshot;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published when a product is created, updated or deleted.
+ * Listeners that maintain derived state (indexes, counters, caches) should use
+ * {@code @TransactionalEventListener} so that they only see committed changes.
+ *
+ * @param type The kind of change
+ * @param productId The product ID
+ * @param before The product before the change, null for {@link ChangeType#CREATED}
+ * @param after The product after the change, null for {@link ChangeType#DELETED}
+ */
+public record ProductChangedEvent(ChangeType type, Long productId, ProductSnapshot before, ProductSnapshot after) {
+
+    public static ProductChangedEvent created(ProductSnapshot after) {
+        return new ProductChangedEvent(ChangeType.CREATED, after.id(), null, after);
+    }
+
+    public static ProductChangedEvent updated(ProductSnapshot before, ProductSnapshot after) {
+        return new ProductChangedEvent(ChangeType.UPDATED, after.id(), before, after);
+    }
+
+    public static ProductChangedEvent deleted(ProductSnapshot before) {
+        return new ProductChangedEvent(ChangeType.DELETED, before.id(), before, null);
+    }
+
+    /**
+     * The version the change leaves the product at: the modification timestamp after the change,
+     * or the last one before it for a delete.
+     *
+     * @return The timestamp, or null if the snapshot was taken before the row was flushed
+     */
+    public LocalDateTime updatedAt() {
+        return after != null ? after.updatedAt() : before.updatedAt();
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.windsurfspringapp.event;
+
+import com.example.windsurfspringapp.dto.ProductSnapshot;
+
+import java.util.List;
+
+/**
+ * Published once per chunk of a CSV import instead of one {@link ProductChangedEvent} per product,
+ * so that listeners can apply thousands of creations in one pass.
+ *
+ * @param products The created products
+ */
+public record ProductsImportedEvent(List<ProductSnapshot> products) {
+
+    /**
+     * The creations as individual change events, for listeners without a bulk path.
+     *
+     * @return One {@link ChangeType#CREATED} event per product
+     */
+    public List<ProductChangedEvent> changes() {
+        return products.stream().map(ProductChangedEvent::created).toList();
+    }
+}
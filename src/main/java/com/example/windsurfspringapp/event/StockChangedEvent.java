@@ -0,0 +1,15 @@
+package com.example.windsurfspringapp.event;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published when the stock level of a product changes through a relative adjustment,
+ * which updates the row without loading the product.
+ *
+ * @param productId The product ID
+ * @param previousQuantity The stock level before the change
+ * @param quantity The stock level after the change
+ * @param updatedAt The modification timestamp the change wrote to the row
+ */
+public record StockChangedEvent(Long productId, int previousQuantity, int quantity, LocalDateTime updatedAt) {
+}
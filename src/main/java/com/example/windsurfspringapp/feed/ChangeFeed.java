@@ -0,0 +1,274 @@
+package com.example.windsurfspringapp.feed;
+
+import com.example.windsurfspringapp.dto.ChangeFeedEvent;
+import com.example.windsurfspringapp.dto.ChangeFeedEvent.Topic;
+import com.example.windsurfspringapp.dto.StockLevel;
+import com.example.windsurfspringapp.event.CategoryChangedEvent;
+import com.example.windsurfspringapp.event.ChangeType;
+import com.example.windsurfspringapp.event.ProductChangedEvent;
+import com.example.windsurfspringapp.event.ProductsImportedEvent;
+import com.example.windsurfspringapp.event.StockChangedEvent;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-process feed of committed product, stock and category changes.
+ *
+ * <p>Every committed change event is numbered and appended to a ring buffer holding the last
+ * {@code catalog.feed.capacity} changes. Each subscriber reads the buffer from its own position on a
+ * shared pool of delivery threads, so a slow subscriber delays only itself. A subscriber that resumes
+ * from an event ID still in the buffer receives every change after it. If the changes it needs have
+ * been overwritten, or the ID was issued before a restart, it receives a reset and continues from the
+ * newest change; it must then reload the catalog.</p>
+ *
+ * <p>Changes are numbered as their transactions announce them after commit, and concurrent
+ * transactions may announce theirs in another order than they committed. Every change therefore
+ * carries the {@code updatedAt} it left its row at as its version; a consumer skips a change to a
+ * product, its stock or a category whose version is older than the one it already holds.</p>
+ *
+ * <p>Event IDs are {@code <stream>:<sequence>}, where the stream is fixed for the lifetime of the
+ * application, so IDs from before a restart are recognized.</p>
+ */
+@Component
+public class ChangeFeed {
+
+    /**
+     * Receives the changes of one subscription, one at a time and in sequence order.
+     */
+    public interface Subscriber {
+
+        /**
+         * Called for every change after the subscriber's position.
+         *
+         * @param eventId The ID to resume after this change
+         * @param event The change
+         */
+        void onEvent(String eventId, ChangeFeedEvent event);
+
+        /**
+         * Called when changes the subscriber needs are no longer available. Changes after
+         * {@code eventId} follow.
+         *
+         * @param eventId The ID to resume after the reset
+         * @param reason Why the changes are unavailable
+         */
+        void onReset(String eventId, String reason);
+    }
+
+    private static final Logger log = LoggerFactory.getLogger(ChangeFeed.class);
+
+    // Changes handed to a subscriber per buffer read
+    private static final int MAX_BATCH = 256;
+
+    private final ChangeFeedEvent[] ring;
+    private final String stream = Long.toString(System.currentTimeMillis(), 36);
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Set<Subscription> subscriptions = ConcurrentHashMap.newKeySet();
+    private final ExecutorService delivery;
+    private volatile long head;
+
+    @Autowired
+    public ChangeFeed(@Value("${catalog.feed.capacity:10000}") int capacity,
+                      @Value("${catalog.feed.delivery-threads:4}") int deliveryThreads) {
+        if (capacity < 1 || deliveryThreads < 1) {
+            throw new IllegalArgumentException("Change feed capacity and delivery threads must be positive");
+        }
+        this.ring = new ChangeFeedEvent[capacity];
+        AtomicInteger threads = new AtomicInteger();
+        this.delivery = Executors.newFixedThreadPool(deliveryThreads, runnable -> {
+            Thread thread = new Thread(runnable, "change-feed-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * ID of the newest change, to resume from without replay.
+     *
+     * @return The event ID
+     */
+    public String latestEventId() {
+        return eventId(head);
+    }
+
+    /**
+     * Subscribe to the feed.
+     *
+     * @param lastEventId ID of the last change the subscriber has seen, or null to receive only new changes
+     * @param subscriber The subscriber
+     * @return Cancels the subscription
+     */
+    public Runnable subscribe(String lastEventId, Subscriber subscriber) {
+        Subscription subscription = new Subscription(subscriber);
+        lock.readLock().lock();
+        try {
+            long newest = head;
+            long sequence = lastEventId == null ? newest : sequenceOf(lastEventId);
+            if (sequence < 0 || sequence > newest) {
+                subscription.resetReason = "Event " + lastEventId + " is not from this feed";
+                sequence = newest;
+            } else if (newest - sequence > ring.length) {
+                subscription.resetReason = "Changes after " + lastEventId + " are no longer available";
+                sequence = newest;
+            }
+            subscription.position = sequence;
+        } finally {
+            lock.readLock().unlock();
+        }
+        subscriptions.add(subscription);
+        schedule(subscription);
+        return () -> {
+            subscription.cancelled = true;
+            subscriptions.remove(subscription);
+        };
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        append(Topic.PRODUCT, event.type(), event.productId(), event.after(), event.updatedAt());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductsImported(ProductsImportedEvent event) {
+        event.changes().forEach(this::onProductChanged);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStockChanged(StockChangedEvent event) {
+        append(Topic.STOCK, ChangeType.UPDATED, event.productId(), new StockLevel(event.productId(), event.quantity()),
+                event.updatedAt());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        append(Topic.CATEGORY, event.type(), event.categoryId(),
+                event.type() == ChangeType.DELETED ? null : Map.of("name", event.name()), event.updatedAt());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        delivery.shutdownNow();
+    }
+
+    private void append(Topic topic, ChangeType type, Long id, Object data, LocalDateTime version) {
+        lock.writeLock().lock();
+        try {
+            long sequence = head + 1;
+            ring[slot(sequence)] = new ChangeFeedEvent(sequence, topic, type, id, data, version);
+            head = sequence;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        subscriptions.forEach(this::schedule);
+    }
+
+    private void schedule(Subscription subscription) {
+        if (!subscription.cancelled && subscription.scheduled.compareAndSet(false, true)) {
+            delivery.execute(() -> drain(subscription));
+        }
+    }
+
+    // Runs on one delivery thread at a time per subscription, guarded by its scheduled flag
+    private void drain(Subscription subscription) {
+        try {
+            while (!subscription.cancelled) {
+                if (subscription.resetReason != null) {
+                    String reason = subscription.resetReason;
+                    subscription.resetReason = null;
+                    subscription.subscriber.onReset(eventId(subscription.position), reason);
+                }
+                List<ChangeFeedEvent> batch = read(subscription);
+                if (batch.isEmpty()) {
+                    if (subscription.resetReason != null) {
+                        continue;
+                    }
+                    subscription.scheduled.set(false);
+                    // A change appended after the read saw the flag still set; take it unless another run did
+                    if (head == subscription.position || !subscription.scheduled.compareAndSet(false, true)) {
+                        return;
+                    }
+                    continue;
+                }
+                for (ChangeFeedEvent event : batch) {
+                    subscription.subscriber.onEvent(eventId(event.sequence()), event);
+                    subscription.position = event.sequence();
+                }
+            }
+        } catch (RuntimeException e) {
+            log.warn("Change feed subscriber failed; cancelling its subscription", e);
+            subscription.cancelled = true;
+            subscriptions.remove(subscription);
+        }
+    }
+
+    private List<ChangeFeedEvent> read(Subscription subscription) {
+        lock.readLock().lock();
+        try {
+            long from = subscription.position;
+            if (head - from > ring.length) {
+                subscription.resetReason = "Subscriber fell more than " + ring.length + " changes behind";
+                subscription.position = head;
+                return List.of();
+            }
+            int count = (int) Math.min(head - from, MAX_BATCH);
+            List<ChangeFeedEvent> batch = new ArrayList<>(count);
+            for (long sequence = from + 1; sequence <= from + count; sequence++) {
+                batch.add(ring[slot(sequence)]);
+            }
+            return batch;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int slot(long sequence) {
+        return (int) ((sequence - 1) % ring.length);
+    }
+
+    private String eventId(long sequence) {
+        return stream + ":" + sequence;
+    }
+
+    // The sequence in an event ID of this stream, or -1 for any other ID
+    private long sequenceOf(String eventId) {
+        int separator = eventId.indexOf(':');
+        if (separator < 0 || !stream.equals(eventId.substring(0, separator))) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(eventId.substring(separator + 1));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static final class Subscription {
+
+        private final Subscriber subscriber;
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private volatile boolean cancelled;
+        private volatile String resetReason;
+        private volatile long position;
+
+        private Subscription(Subscriber subscriber) {
+            this.subscriber = subscriber;
+        }
+    }
+}
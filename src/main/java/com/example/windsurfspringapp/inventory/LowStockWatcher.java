@@ -0,0 +1,406 @@
+package com.example.windsurfspringapp.inventory;
+
+import com.example.windsurfspringapp.counter.LongLongHashMap;
+import com.example.windsurfspringapp.dto.LowStockAlert;
+import com.example.windsurfspringapp.dto.LowStockAlert.Transition;
+import com.example.windsurfspringapp.dto.StockLevel;
+import com.example.windsurfspringapp.event.ProductChangedEvent;
+import com.example.windsurfspringapp.event.ProductsImportedEvent;
+import com.example.windsurfspringapp.event.StockChangedEvent;
+import com.example.windsurfspringapp.repository.ProductRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Tracks which products are below the configured low-stock thresholds.
+ *
+ * <p>The stock levels below the highest threshold are loaded with one query at startup and then follow
+ * committed product and stock change events, so the low-stock set is read from memory and each change
+ * costs one lookup per threshold. Stock of products held in the {@link StockLedger} is seen when the
+ * ledger flushes. A change that races with a reload can be missed; the periodic reconcile job reloads
+ * the levels from the database and alerts on every crossing it finds.</p>
+ *
+ * <p>When a product crosses a threshold in either direction, the subscribers to that threshold receive a
+ * {@link LowStockAlert}. Each subscription queues its alerts in the order the crossings were observed and
+ * is drained on a shared pool of delivery threads, so a slow subscriber delays only itself and never the
+ * write that caused the crossing. A subscriber that falls {@code catalog.inventory.low-stock.queue-capacity}
+ * alerts behind is disconnected; it catches up by subscribing again and starting from a fresh snapshot.</p>
+ */
+@Component
+public class LowStockWatcher {
+
+    /**
+     * Receives the low-stock set of one threshold and then every crossing of that threshold.
+     */
+    public interface Subscriber {
+
+        /**
+         * Called once, before any alert, with the products that are below the threshold.
+         *
+         * @param levels The low-stock products, ordered by ID
+         */
+        void onSnapshot(List<StockLevel> levels);
+
+        /**
+         * Called for every crossing of the threshold after the snapshot.
+         *
+         * @param alert The crossing
+         */
+        void onAlert(LowStockAlert alert);
+
+        /**
+         * Called once when the subscription is cancelled because the subscriber fell too far behind.
+         * No call follows.
+         *
+         * @param reason Why the subscription was cancelled
+         */
+        void onDisconnected(String reason);
+    }
+
+    private static final Logger log = LoggerFactory.getLogger(LowStockWatcher.class);
+
+    // Level of a product that is not below the highest threshold, or doesn't exist
+    private static final long NOT_LOW = Long.MAX_VALUE;
+
+    private final ProductRepository productRepository;
+    private final int[] thresholds;
+    private final int queueCapacity;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Set<Subscription> subscriptions = ConcurrentHashMap.newKeySet();
+    private final ExecutorService delivery;
+    private LongLongHashMap levels = new LongLongHashMap();
+    private volatile boolean ready;
+
+    @Autowired
+    public LowStockWatcher(ProductRepository productRepository,
+                           @Value("${catalog.inventory.low-stock.thresholds:10}") int[] thresholds,
+                           @Value("${catalog.inventory.low-stock.queue-capacity:1000}") int queueCapacity,
+                           @Value("${catalog.inventory.low-stock.delivery-threads:2}") int deliveryThreads) {
+        this.productRepository = productRepository;
+        this.thresholds = Arrays.stream(thresholds).distinct().sorted().toArray();
+        if (this.thresholds.length == 0 || this.thresholds[0] < 1) {
+            throw new IllegalArgumentException("Low-stock thresholds must be positive, got " + Arrays.toString(thresholds));
+        }
+        if (queueCapacity < 1 || deliveryThreads < 1) {
+            throw new IllegalArgumentException("Low-stock queue capacity and delivery threads must be positive");
+        }
+        this.queueCapacity = queueCapacity;
+        AtomicInteger threads = new AtomicInteger();
+        this.delivery = Executors.newFixedThreadPool(deliveryThreads, runnable -> {
+            Thread thread = new Thread(runnable, "low-stock-alerts-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Whether the stock levels have been loaded and can be served.
+     *
+     * @return true once the first load has completed
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * The thresholds that alerts are raised for.
+     *
+     * @return The thresholds in ascending order
+     */
+    public int[] thresholds() {
+        return thresholds.clone();
+    }
+
+    /**
+     * Whether the low-stock set for a threshold can be answered from memory.
+     *
+     * @param threshold The stock threshold
+     * @return true if the levels are loaded and the threshold is at most the highest configured one
+     */
+    public boolean covers(int threshold) {
+        return ready && threshold <= thresholds[thresholds.length - 1];
+    }
+
+    /**
+     * IDs of the products below a threshold.
+     *
+     * @param threshold A threshold this watcher {@link #covers(int) covers}
+     * @return The product IDs in ascending order
+     */
+    public long[] lowStockIds(int threshold) {
+        lock.readLock().lock();
+        try {
+            long[] ids = new long[levels.size()];
+            int[] size = {0};
+            levels.forEach((id, quantity) -> {
+                if (quantity < threshold) {
+                    ids[size[0]++] = id;
+                }
+            });
+            long[] result = Arrays.copyOf(ids, size[0]);
+            Arrays.sort(result);
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Stock levels of the products below a threshold.
+     *
+     * @param threshold A threshold this watcher {@link #covers(int) covers}
+     * @return The levels, ordered by product ID
+     */
+    public List<StockLevel> lowStockLevels(int threshold) {
+        lock.readLock().lock();
+        try {
+            return levelsBelow(threshold);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Subscribe to the crossings of a threshold.
+     * The subscriber first receives the current low-stock set, then every crossing after it.
+     *
+     * @param threshold One of the configured {@link #thresholds()}
+     * @param subscriber The subscriber
+     * @return Cancels the subscription
+     * @throws IllegalArgumentException if the threshold is not configured
+     */
+    public Runnable subscribe(int threshold, Subscriber subscriber) {
+        if (Arrays.binarySearch(thresholds, threshold) < 0) {
+            throw new IllegalArgumentException("Threshold must be one of " + Arrays.toString(thresholds));
+        }
+        Subscription subscription = new Subscription(threshold, subscriber, queueCapacity);
+        // Under the write lock no crossing can be queued between the snapshot and the subscription
+        lock.writeLock().lock();
+        try {
+            subscription.snapshot = levelsBelow(threshold);
+            subscriptions.add(subscription);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        schedule(subscription);
+        return () -> cancel(subscription);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        reload();
+    }
+
+    /**
+     * Reload the stock levels from the database, correcting any drift.
+     */
+    @Scheduled(initialDelayString = "${catalog.inventory.low-stock.reconcile-interval:5m}",
+               fixedDelayString = "${catalog.inventory.low-stock.reconcile-interval:5m}")
+    public void reconcile() {
+        reload();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        update(event.productId(), event.after() == null ? null : event.after().stockQuantity());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductsImported(ProductsImportedEvent event) {
+        event.products().forEach(product -> update(product.id(), product.stockQuantity()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStockChanged(StockChangedEvent event) {
+        update(event.productId(), event.quantity());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        delivery.shutdownNow();
+    }
+
+    private void update(Long productId, Integer quantity) {
+        long current = quantity == null || quantity >= thresholds[thresholds.length - 1] ? NOT_LOW : quantity;
+        lock.writeLock().lock();
+        try {
+            long previous = levels.get(productId, NOT_LOW);
+            if (previous == current) {
+                return;
+            }
+            if (current == NOT_LOW) {
+                levels.remove(productId);
+            } else {
+                levels.put(productId, current);
+            }
+            List<LowStockAlert> alerts = new ArrayList<>();
+            collectCrossings(productId, previous, current, quantity, alerts);
+            deliver(alerts);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void reload() {
+        List<Object[]> rows = productRepository.findStockLevelsBelow(thresholds[thresholds.length - 1]);
+        LongLongHashMap fresh = new LongLongHashMap(rows.size());
+        for (Object[] row : rows) {
+            fresh.put((Long) row[0], (Integer) row[1]);
+        }
+
+        List<LowStockAlert> alerts = new ArrayList<>();
+        lock.writeLock().lock();
+        try {
+            if (ready) {
+                LongLongHashMap stale = levels;
+                fresh.forEach((id, quantity) ->
+                        collectCrossings(id, stale.get(id, NOT_LOW), quantity, (int) quantity, alerts));
+                stale.forEach((id, quantity) -> {
+                    if (!fresh.containsKey(id)) {
+                        collectCrossings(id, quantity, NOT_LOW, null, alerts);
+                    }
+                });
+            }
+            levels = fresh;
+            ready = true;
+            deliver(alerts);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if (!alerts.isEmpty()) {
+            log.warn("Corrected {} low-stock crossings that were missed", alerts.size());
+        }
+    }
+
+    private void collectCrossings(long productId, long previous, long current, Integer quantity,
+                                  List<LowStockAlert> alerts) {
+        for (int threshold : thresholds) {
+            boolean wasLow = previous < threshold;
+            boolean isLow = current < threshold;
+            if (wasLow != isLow) {
+                alerts.add(new LowStockAlert(productId, threshold,
+                        isLow ? Transition.ENTERED : Transition.LEFT, quantity));
+            }
+        }
+    }
+
+    // Called under the write lock, so alerts are queued in the order the crossings happened
+    private void deliver(List<LowStockAlert> alerts) {
+        if (alerts.isEmpty() || subscriptions.isEmpty()) {
+            return;
+        }
+        for (Subscription subscription : subscriptions) {
+            boolean queued = false;
+            for (LowStockAlert alert : alerts) {
+                if (subscription.threshold == alert.threshold() && !subscription.overflowed) {
+                    if (subscription.pending.offer(alert)) {
+                        queued = true;
+                    } else {
+                        // Stop queueing for it; the delivery thread disconnects it
+                        subscription.overflowed = true;
+                        subscription.pending.clear();
+                        subscriptions.remove(subscription);
+                        queued = true;
+                    }
+                }
+            }
+            if (queued) {
+                schedule(subscription);
+            }
+        }
+    }
+
+    private void schedule(Subscription subscription) {
+        if (!subscription.cancelled && subscription.scheduled.compareAndSet(false, true)) {
+            delivery.execute(() -> drain(subscription));
+        }
+    }
+
+    // Runs on one delivery thread at a time per subscription, guarded by its scheduled flag
+    private void drain(Subscription subscription) {
+        try {
+            while (!subscription.cancelled) {
+                List<StockLevel> snapshot = subscription.snapshot;
+                if (snapshot != null) {
+                    subscription.snapshot = null;
+                    subscription.subscriber.onSnapshot(snapshot);
+                    continue;
+                }
+                if (subscription.overflowed) {
+                    log.warn("Low-stock subscriber fell {} alerts behind; disconnecting it", queueCapacity);
+                    cancel(subscription);
+                    subscription.subscriber.onDisconnected("Subscriber fell more than " + queueCapacity + " alerts behind");
+                    return;
+                }
+                LowStockAlert alert = subscription.pending.poll();
+                if (alert == null) {
+                    subscription.scheduled.set(false);
+                    // An alert queued after the poll saw the flag still set; take it unless another run did
+                    boolean missed = !subscription.pending.isEmpty() || subscription.overflowed;
+                    if (!missed || !subscription.scheduled.compareAndSet(false, true)) {
+                        return;
+                    }
+                    continue;
+                }
+                subscription.subscriber.onAlert(alert);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Low-stock subscriber failed; cancelling its subscription", e);
+            cancel(subscription);
+        }
+    }
+
+    private void cancel(Subscription subscription) {
+        subscription.cancelled = true;
+        subscriptions.remove(subscription);
+    }
+
+    private List<StockLevel> levelsBelow(int threshold) {
+        List<StockLevel> result = new ArrayList<>();
+        levels.forEach((id, quantity) -> {
+            if (quantity < threshold) {
+                result.add(new StockLevel(id, (int) quantity));
+            }
+        });
+        result.sort((a, b) -> Long.compare(a.productId(), b.productId()));
+        return result;
+    }
+
+    private static final class Subscription {
+
+        private final int threshold;
+        private final Subscriber subscriber;
+        private final BlockingQueue<LowStockAlert> pending;
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private volatile List<StockLevel> snapshot;
+        private volatile boolean overflowed;
+        private volatile boolean cancelled;
+
+        private Subscription(int threshold, Subscriber subscriber, int queueCapacity) {
+            this.threshold = threshold;
+            this.subscriber = subscriber;
+            this.pending = new ArrayBlockingQueue<>(queueCapacity);
+        }
+    }
+}
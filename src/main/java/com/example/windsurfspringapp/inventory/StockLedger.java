@@ -0,0 +1,371 @@
+package com.example.windsurfspringapp.inventory;
+
+import com.example.windsurfspringapp.dto.StockAdjustment;
+import com.example.windsurfspringapp.event.ChangeType;
+import com.example.windsurfspringapp.event.ProductChangedEvent;
+import com.example.windsurfspringapp.event.StockChangedEvent;
+import com.example.windsurfspringapp.repository.ProductRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+/**
+ * In-memory stock ledger for designated hot products.
+ *
+ * <p>When enabled, stock adjustments of the products listed in
+ * {@code catalog.inventory.ledger.hot-product-ids} are applied to a {@link StripedStockCounter}
+ * instead of the products row, so a flash sale on one product does not serialize on a row lock.
+ * Each counter is loaded from the database on first use. Net changes are written back in one JDBC
+ * batch every {@code catalog.inventory.ledger.flush-interval}, on demand and at shutdown.</p>
+ *
+ * <p>Between flushes the products row lags the ledger. Readers that filter on stock call
+ * {@link #flush()} first. An entity write of a hot product (a full update or a delete) replaces its
+ * row outright, so the writing transaction {@link #fence(Long) fences} the product first: its counter
+ * is retired and adjustments wait until the transaction completes. On commit the ledger drops the
+ * counter and its unflushed changes, which the new row supersedes, and reloads it on next use; on
+ * rollback the counter is reopened. A flush only adds to a row still holding the level the ledger last
+ * wrote or loaded, so changes drained just before an entity write replaced the stock are dropped rather
+ * than added on top of the new level. Dropped changes are logged and counted in
+ * {@link #droppedChanges()}.</p>
+ *
+ * <p>Flushes run in their own transaction, so a failed flush never rolls back the caller's.</p>
+ */
+@Component
+public class StockLedger {
+
+    private static final Logger log = LoggerFactory.getLogger(StockLedger.class);
+
+    private static final String FLUSH_SQL = "UPDATE products SET stock_quantity = stock_quantity + ?, updated_at = ? "
+            + "WHERE id = ? AND stock_quantity = ?";
+
+    private final ProductRepository productRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final boolean enabled;
+    private final Set<Long> hotProductIds;
+    private final int stripes;
+    private final Map<Long, HeldStock> counters = new ConcurrentHashMap<>();
+    private final Map<Long, Fence> fences = new ConcurrentHashMap<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final AtomicLong droppedChanges = new AtomicLong();
+
+    @Autowired
+    public StockLedger(ProductRepository productRepository,
+                       JdbcTemplate jdbcTemplate,
+                       PlatformTransactionManager transactionManager,
+                       ApplicationEventPublisher eventPublisher,
+                       @Value("${catalog.inventory.ledger.enabled:false}") boolean enabled,
+                       @Value("${catalog.inventory.ledger.hot-product-ids:}") long[] hotProductIds,
+                       @Value("${catalog.inventory.ledger.stripes:0}") int stripes) {
+        this.productRepository = productRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.eventPublisher = eventPublisher;
+        this.enabled = enabled;
+        this.hotProductIds = LongStream.of(hotProductIds).boxed().collect(Collectors.toUnmodifiableSet());
+        this.stripes = stripes > 0 ? stripes : Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * Whether stock of the given product is held in the ledger.
+     *
+     * @param productId The product ID
+     * @return true if the ledger is enabled and the product is designated hot
+     */
+    public boolean manages(Long productId) {
+        return enabled && hotProductIds.contains(productId);
+    }
+
+    /**
+     * Take stock if at least the given amount is available.
+     *
+     * @param productId A product managed by the ledger
+     * @param amount The amount to take, must be positive
+     * @return The new level, or why the stock was not changed
+     */
+    public StockAdjustment take(Long productId, int amount) {
+        for (;;) {
+            StripedStockCounter counter = counterFor(productId);
+            if (counter == null) {
+                return StockAdjustment.notFound(productId);
+            }
+            long level = counter.tryTake(amount);
+            if (level != StripedStockCounter.RETIRED) {
+                return level < 0
+                        ? StockAdjustment.insufficientStock(productId, (int) counter.level())
+                        : StockAdjustment.applied(productId, (int) level);
+            }
+            awaitFence(productId);
+        }
+    }
+
+    /**
+     * Add stock.
+     *
+     * @param productId A product managed by the ledger
+     * @param amount The amount to add, must be positive
+     * @return The new level, or why the stock was not changed
+     */
+    public StockAdjustment give(Long productId, int amount) {
+        for (;;) {
+            StripedStockCounter counter = counterFor(productId);
+            if (counter == null) {
+                return StockAdjustment.notFound(productId);
+            }
+            long level = counter.tryAdd(amount, Integer.MAX_VALUE);
+            if (level != StripedStockCounter.RETIRED) {
+                return level < 0
+                        ? StockAdjustment.tooMuchStock(productId, (int) counter.level())
+                        : StockAdjustment.applied(productId, (int) level);
+            }
+            awaitFence(productId);
+        }
+    }
+
+    /**
+     * Replace the stock level.
+     *
+     * @param productId A product managed by the ledger
+     * @param quantity The new level
+     * @return The level before the change, or empty if the product doesn't exist
+     */
+    public Optional<Integer> set(Long productId, int quantity) {
+        for (;;) {
+            StripedStockCounter counter = counterFor(productId);
+            if (counter == null) {
+                return Optional.empty();
+            }
+            long previous = counter.set(quantity);
+            if (previous != StripedStockCounter.RETIRED) {
+                return Optional.of((int) previous);
+            }
+            awaitFence(productId);
+        }
+    }
+
+    /**
+     * Hold back adjustments of a product until the current transaction completes, because it is about
+     * to replace the product's row with an entity write. Call before the write; adjustments acknowledged
+     * before the fence are superseded by the new row if the transaction commits.
+     *
+     * @param productId The product ID; products the ledger does not manage are ignored
+     */
+    public void fence(Long productId) {
+        if (!manages(productId) || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        fences.compute(productId, (id, fence) -> fence == null ? new Fence() : fence.join());
+        // A counter loaded from here on sees the fence and starts retired
+        counters.computeIfPresent(productId, (id, stock) -> {
+            stock.counter.retire();
+            return stock;
+        });
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                lift(productId, status == STATUS_COMMITTED);
+            }
+        });
+    }
+
+    /**
+     * Number of ledger changes discarded because an entity write replaced the stock they applied to.
+     *
+     * @return The count since startup
+     */
+    public long droppedChanges() {
+        return droppedChanges.get();
+    }
+
+    /**
+     * Write the net change of every counter back to the products table in one batch.
+     */
+    @Scheduled(fixedDelayString = "${catalog.inventory.ledger.flush-interval:1s}")
+    public void flush() {
+        if (!enabled || counters.isEmpty()) {
+            return;
+        }
+        flushLock.lock();
+        try {
+            List<Long> ids = new ArrayList<>();
+            List<HeldStock> held = new ArrayList<>();
+            List<Long> deltas = new ArrayList<>();
+            counters.forEach((id, stock) -> {
+                long delta = stock.counter.drainDelta();
+                if (delta != 0) {
+                    ids.add(id);
+                    held.add(stock);
+                    deltas.add(delta);
+                }
+            });
+            if (ids.isEmpty()) {
+                return;
+            }
+            try {
+                write(ids, held, deltas);
+            } catch (RuntimeException e) {
+                log.warn("Flushing stock ledger failed; {} changes will be retried", ids.size(), e);
+                for (int i = 0; i < ids.size(); i++) {
+                    held.get(i).counter.restoreDelta(deltas.get(i));
+                }
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    // Writes made without a fence still drop the counter once they commit
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (!manages(event.productId()) || fences.containsKey(event.productId())) {
+            return;
+        }
+        boolean replaced = event.type() == ChangeType.DELETED
+                || !Objects.equals(event.before().stockQuantity(), event.after().stockQuantity());
+        if (replaced) {
+            counters.remove(event.productId());
+        }
+    }
+
+    private void write(List<Long> ids, List<HeldStock> held, List<Long> deltas) {
+        LocalDateTime now = LocalDateTime.now();
+        Timestamp timestamp = Timestamp.valueOf(now);
+        transactionTemplate.executeWithoutResult(status -> {
+            List<Object[]> rows = new ArrayList<>(ids.size());
+            for (int i = 0; i < ids.size(); i++) {
+                rows.add(new Object[]{deltas.get(i), timestamp, ids.get(i), held.get(i).persisted});
+            }
+            int[] counts = jdbcTemplate.batchUpdate(FLUSH_SQL, rows);
+            for (int i = 0; i < ids.size(); i++) {
+                HeldStock stock = held.get(i);
+                if (counts[i] == 0) {
+                    // An entity write replaced or deleted the row since the counter was loaded
+                    counters.remove(ids.get(i), stock);
+                    dropped(ids.get(i), deltas.get(i));
+                    continue;
+                }
+                long previous = stock.persisted;
+                stock.persisted += deltas.get(i);
+                eventPublisher.publishEvent(new StockChangedEvent(ids.get(i), (int) previous, (int) stock.persisted,
+                        now));
+            }
+        });
+    }
+
+    private StripedStockCounter counterFor(Long productId) {
+        awaitFence(productId);
+        HeldStock stock = counters.computeIfAbsent(productId, id -> productRepository.findStockQuantityById(id)
+                .map(quantity -> {
+                    StripedStockCounter counter = new StripedStockCounter(quantity, stripes);
+                    if (fences.containsKey(id)) {
+                        counter.retire();
+                    }
+                    return new HeldStock(counter, quantity);
+                })
+                .orElse(null));
+        return stock != null ? stock.counter : null;
+    }
+
+    private void awaitFence(Long productId) {
+        Fence fence = fences.get(productId);
+        if (fence == null) {
+            return;
+        }
+        try {
+            fence.lifted.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted waiting for a write of product " + productId, e);
+        }
+    }
+
+    // The last transaction to leave the fence drops the counter if any of them committed, else reopens it
+    private void lift(Long productId, boolean committed) {
+        Fence[] lifted = new Fence[1];
+        fences.computeIfPresent(productId, (id, fence) -> {
+            fence.replaced |= committed;
+            if (--fence.holders > 0) {
+                return fence;
+            }
+            HeldStock stock = counters.get(id);
+            if (stock != null && fence.replaced) {
+                counters.remove(id, stock);
+                dropped(id, stock.counter.drainDelta());
+            } else if (stock != null) {
+                stock.counter.reopen();
+            }
+            lifted[0] = fence;
+            return null;
+        });
+        if (lifted[0] != null) {
+            lifted[0].lifted.countDown();
+        }
+    }
+
+    private void dropped(Long productId, long delta) {
+        if (delta != 0) {
+            droppedChanges.incrementAndGet();
+            log.warn("Dropped unflushed stock change of {} for product {}; an entity write replaced its stock",
+                    delta, productId);
+        }
+    }
+
+    // Transactions replacing a product's row; fields are only touched inside fences.compute*
+    private static final class Fence {
+
+        private final CountDownLatch lifted = new CountDownLatch(1);
+        private int holders = 1;
+        private boolean replaced;
+
+        private Fence join() {
+            holders++;
+            return this;
+        }
+    }
+
+    // A counter and the level its row held when last loaded or flushed; persisted is only touched under flushLock
+    private static final class HeldStock {
+
+        private final StripedStockCounter counter;
+        private long persisted;
+
+        private HeldStock(StripedStockCounter counter, long persisted) {
+            this.counter = counter;
+            this.persisted = persisted;
+        }
+    }
+}
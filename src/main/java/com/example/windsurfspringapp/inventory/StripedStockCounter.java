@@ -0,0 +1,244 @@
+package com.example.windsurfspringapp.inventory;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Stock level of one product split across independently updated stripes.
+ *
+ * <p>Each thread takes from and returns to its own stripe with a compare-and-set, so concurrent
+ * checkouts on the same product rarely touch the same cache line. Only when a thread's stripe cannot
+ * cover a take does it fall back to a locked slow path that pools all stripes and spreads the remainder
+ * evenly again. Stripes never go negative, so the counter never oversells.</p>
+ *
+ * <p>The level is kept in a single total beside the stripes. Every take is applied to it with one
+ * fetch-and-add, and every addition with a compare-and-set that refuses to pass the caller's maximum, so
+ * the level a change returns is the total right after that change rather than a sum of stripes that a
+ * concurrent rebalance may have emptied. Stock is added to the total before its stripe and taken from its
+ * stripe before the total, so the total never drops below zero and never understates the stripes.</p>
+ *
+ * <p>Besides the level, the counter records the net change since the last {@link #drainDelta()},
+ * striped the same way, so the change can be written back to the database in one statement.</p>
+ *
+ * <p>A counter can be {@link #retire() retired} while the stock it mirrors is being replaced elsewhere.
+ * Retiring swaps every stripe for a negative marker, so a change either lands on a stripe before the
+ * swap or is refused with {@link #RETIRED}; no change can land afterwards and go unnoticed.</p>
+ */
+public class StripedStockCounter {
+
+    /**
+     * Returned instead of a level by changes refused because the counter is retired.
+     */
+    public static final long RETIRED = -2;
+
+    // Longs per stripe: one stripe per 64-byte cache line
+    private static final int PADDING = 8;
+    // Held by every stripe of a retired counter; below any amount a take or an add could bring it to zero
+    private static final long RETIRED_STRIPE = Long.MIN_VALUE / 2;
+
+    private final int mask;
+    private final AtomicLongArray levels;
+    private final AtomicLongArray deltas;
+    private final AtomicLong total;
+    private final ReentrantLock rebalanceLock = new ReentrantLock();
+    // Guarded by rebalanceLock; the stock the stripes held when the counter was retired
+    private long retiredLevel = -1;
+
+    /**
+     * Create a counter.
+     *
+     * @param initialLevel The starting stock level
+     * @param stripes The number of stripes, rounded up to a power of two
+     */
+    public StripedStockCounter(long initialLevel, int stripes) {
+        int count = stripes <= 1 ? 1 : Integer.highestOneBit(stripes - 1) << 1;
+        this.mask = count - 1;
+        this.levels = new AtomicLongArray(count * PADDING);
+        this.deltas = new AtomicLongArray(count * PADDING);
+        this.total = new AtomicLong(initialLevel);
+        spread(initialLevel);
+    }
+
+    /**
+     * Take stock if at least the given amount is available.
+     *
+     * @param amount The amount to take, must be positive
+     * @return The level after the take, -1 if less than the amount was available, or {@link #RETIRED}
+     */
+    public long tryTake(long amount) {
+        int slot = slot();
+        long current = levels.get(slot);
+        while (current >= amount) {
+            if (levels.compareAndSet(slot, current, current - amount)) {
+                deltas.addAndGet(slot, -amount);
+                return total.addAndGet(-amount);
+            }
+            current = levels.get(slot);
+        }
+        return takeSlow(slot, amount);
+    }
+
+    /**
+     * Add stock if the level stays at or below the given maximum.
+     *
+     * @param amount The amount to add, must be positive
+     * @param maxLevel The highest level the addition may reach
+     * @return The level after the addition, -1 if the level would pass the maximum, or {@link #RETIRED}
+     */
+    public long tryAdd(long amount, long maxLevel) {
+        int slot = slot();
+        long level;
+        do {
+            level = total.get();
+            if (level > maxLevel - amount) {
+                return -1;
+            }
+        } while (!total.compareAndSet(level, level + amount));
+        level += amount;
+        long current = levels.get(slot);
+        while (current >= 0) {
+            if (levels.compareAndSet(slot, current, current + amount)) {
+                deltas.addAndGet(slot, amount);
+                return level;
+            }
+            current = levels.get(slot);
+        }
+        total.addAndGet(-amount);
+        return RETIRED;
+    }
+
+    /**
+     * Replace the stock level, recording the difference as a change.
+     *
+     * @param newLevel The new level
+     * @return The level before the change, or {@link #RETIRED}
+     */
+    public long set(long newLevel) {
+        rebalanceLock.lock();
+        try {
+            if (retiredLevel >= 0) {
+                return RETIRED;
+            }
+            long current = drainLevels();
+            // Relative, because fast-path takes that emptied their stripe before the drain have yet to reach the total
+            total.addAndGet(newLevel - current);
+            deltas.addAndGet(slot(), newLevel - current);
+            spread(newLevel);
+            return current;
+        } finally {
+            rebalanceLock.unlock();
+        }
+    }
+
+    /**
+     * Current stock level.
+     *
+     * @return The total of every change applied so far
+     */
+    public long level() {
+        return total.get();
+    }
+
+    /**
+     * Take the net change recorded since the previous call.
+     *
+     * @return The net change
+     */
+    public long drainDelta() {
+        long sum = 0;
+        for (int i = 0; i <= mask; i++) {
+            sum += deltas.getAndSet(i * PADDING, 0);
+        }
+        return sum;
+    }
+
+    /**
+     * Record a change that could not be written back, so the next drain includes it again.
+     *
+     * @param delta The change returned by {@link #drainDelta()}
+     */
+    public void restoreDelta(long delta) {
+        deltas.addAndGet(slot(), delta);
+    }
+
+    /**
+     * Refuse every further change until the counter is {@link #reopen() reopened}.
+     */
+    public void retire() {
+        rebalanceLock.lock();
+        try {
+            if (retiredLevel >= 0) {
+                return;
+            }
+            long held = 0;
+            for (int i = 0; i <= mask; i++) {
+                held += levels.getAndSet(i * PADDING, RETIRED_STRIPE);
+            }
+            retiredLevel = held;
+        } finally {
+            rebalanceLock.unlock();
+        }
+    }
+
+    /**
+     * Accept changes again after {@link #retire()}, starting from the level the counter was retired at.
+     */
+    public void reopen() {
+        rebalanceLock.lock();
+        try {
+            if (retiredLevel < 0) {
+                return;
+            }
+            for (int i = 0; i <= mask; i++) {
+                levels.set(i * PADDING, 0);
+            }
+            spread(retiredLevel);
+            retiredLevel = -1;
+        } finally {
+            rebalanceLock.unlock();
+        }
+    }
+
+    private long takeSlow(int slot, long amount) {
+        rebalanceLock.lock();
+        try {
+            if (retiredLevel >= 0) {
+                return RETIRED;
+            }
+            long available = drainLevels();
+            if (available < amount) {
+                spread(available);
+                return -1;
+            }
+            deltas.addAndGet(slot, -amount);
+            spread(available - amount);
+            return total.addAndGet(-amount);
+        } finally {
+            rebalanceLock.unlock();
+        }
+    }
+
+    // Empty every stripe and return what they held; concurrent fast-path takes then see empty stripes and queue on the lock
+    private long drainLevels() {
+        long total = 0;
+        for (int i = 0; i <= mask; i++) {
+            total += levels.getAndSet(i * PADDING, 0);
+        }
+        return total;
+    }
+
+    private void spread(long total) {
+        int stripes = mask + 1;
+        long share = total / stripes;
+        long remainder = total % stripes;
+        for (int i = 0; i < stripes; i++) {
+            levels.addAndGet(i * PADDING, share + (i < remainder ? 1 : 0));
+        }
+    }
+
+    private int slot() {
+        long h = Thread.currentThread().getId() * 0x9E3779B97F4A7C15L;
+        return ((int) (h >>> 32) & mask) * PADDING;
+    }
+}
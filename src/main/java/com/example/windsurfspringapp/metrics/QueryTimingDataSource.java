@@ -0,0 +1,157 @@
+package com.example.windsurfspringapp.metrics;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+/**
+ * Data source that times every statement executed through its connections and reports it to the
+ * {@link SlowQueryLog}.
+ *
+ * <p>Connections and statements are wrapped in JDK proxies. Prepared statements remember the values
+ * passed to their {@code setXxx(index, value, ...)} methods, so that a slow statement can be logged and
+ * explained with its parameters. Batches are reported once per {@code executeBatch} without parameters.
+ * Query times cover the execution up to the returned result set, which H2 materializes before
+ * returning.</p>
+ */
+public class QueryTimingDataSource extends DelegatingDataSource implements AutoCloseable {
+
+    private final Supplier<SlowQueryLog> slowQueryLog;
+
+    /**
+     * @param target The data source to wrap
+     * @param slowQueryLog Supplies the log on first use, so that wrapping the data source does not
+     *                     initialize it early
+     */
+    public QueryTimingDataSource(DataSource target, Supplier<SlowQueryLog> slowQueryLog) {
+        super(target);
+        this.slowQueryLog = slowQueryLog;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrap(obtainTargetDataSource().getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrap(obtainTargetDataSource().getConnection(username, password));
+    }
+
+    /**
+     * Close the wrapped data source, such as a connection pool, when the context shuts down.
+     */
+    @Override
+    public void close() throws Exception {
+        if (obtainTargetDataSource() instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+
+    private Connection wrap(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Connection.class},
+                new ConnectionHandler(connection));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private final class ConnectionHandler implements InvocationHandler {
+
+        private final Connection connection;
+
+        ConnectionHandler(Connection connection) {
+            this.connection = connection;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            // Compare connections by proxy identity, as the pool's own proxies do
+            if (name.equals("equals")) {
+                return proxy == args[0];
+            }
+            if (name.equals("hashCode")) {
+                return System.identityHashCode(proxy);
+            }
+            Object result = QueryTimingDataSource.invoke(connection, method, args);
+            if (name.equals("prepareStatement") || name.equals("prepareCall")) {
+                Class<?> type = name.equals("prepareCall") ? CallableStatement.class : PreparedStatement.class;
+                return Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{type},
+                        new StatementHandler((Statement) result, (String) args[0], connection));
+            }
+            if (name.equals("createStatement")) {
+                return Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Statement.class},
+                        new StatementHandler((Statement) result, null, connection));
+            }
+            return result;
+        }
+    }
+
+    private final class StatementHandler implements InvocationHandler {
+
+        private final Statement statement;
+        // SQL of a prepared statement, null for plain statements which take it per execution
+        private final String preparedSql;
+        private final Connection connection;
+        // Bind parameters by index; index 0 is unused
+        private Object[] parameters = new Object[8];
+        private int highestIndex;
+
+        StatementHandler(Statement statement, String preparedSql, Connection connection) {
+            this.statement = statement;
+            this.preparedSql = preparedSql;
+            this.connection = connection;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index
+                    && preparedSql != null) {
+                // setNull passes the SQL type where the other setters pass the value
+                bind(index, name.equals("setNull") ? null : args[1]);
+            } else if (name.equals("clearParameters")) {
+                Arrays.fill(parameters, null);
+                highestIndex = 0;
+            } else if (name.startsWith("execute")) {
+                boolean batch = name.equals("executeBatch") || name.equals("executeLargeBatch");
+                String sql = preparedSql != null ? preparedSql : args != null && args.length > 0 ? (String) args[0] : null;
+                long start = System.nanoTime();
+                try {
+                    return QueryTimingDataSource.invoke(statement, method, args);
+                } finally {
+                    if (sql != null) {
+                        Object[] bound = batch || preparedSql == null ? null : Arrays.copyOf(parameters, highestIndex + 1);
+                        slowQueryLog.get().record(sql, bound, System.nanoTime() - start, connection);
+                    }
+                }
+            }
+            return QueryTimingDataSource.invoke(statement, method, args);
+        }
+
+        private void bind(int index, Object value) {
+            if (index >= parameters.length) {
+                parameters = Arrays.copyOf(parameters, Math.max(index + 1, parameters.length * 2));
+            }
+            parameters[index] = value;
+            highestIndex = Math.max(highestIndex, index);
+        }
+    }
+}
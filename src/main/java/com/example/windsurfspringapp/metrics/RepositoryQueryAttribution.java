@@ -0,0 +1,50 @@
+package com.example.windsurfspringapp.metrics;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.aop.framework.AopProxyUtils;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tells the {@link SlowQueryLog} which repository method is running, so that statements can be traced
+ * back to methods such as {@code ProductRepository.findByCategoryId}. Statements issued by an inner call
+ * are attributed to the outermost repository method.
+ */
+@Aspect
+public class RepositoryQueryAttribution {
+
+    private final SlowQueryLog slowQueryLog;
+    // Simple name of the application's repository interface, per proxy class
+    private final Map<Class<?>, String> repositoryNames = new ConcurrentHashMap<>();
+
+    public RepositoryQueryAttribution(SlowQueryLog slowQueryLog) {
+        this.slowQueryLog = slowQueryLog;
+    }
+
+    @Around("this(org.springframework.data.repository.Repository)")
+    public Object attribute(ProceedingJoinPoint joinPoint) throws Throwable {
+        String repository = repositoryNames.computeIfAbsent(joinPoint.getThis().getClass(),
+                type -> repositoryName(joinPoint.getThis()));
+        boolean entered = slowQueryLog.enterRepository(repository + "." + joinPoint.getSignature().getName());
+        try {
+            return joinPoint.proceed();
+        } finally {
+            if (entered) {
+                slowQueryLog.exitRepository();
+            }
+        }
+    }
+
+    // The first proxied interface outside Spring, e.g. ProductRepository rather than JpaRepository
+    private static String repositoryName(Object proxy) {
+        for (Class<?> type : AopProxyUtils.proxiedUserInterfaces(proxy)) {
+            if (!type.getName().startsWith("org.springframework.")) {
+                return type.getSimpleName();
+            }
+        }
+        return proxy.getClass().getSimpleName();
+    }
+}
@@ -0,0 +1,219 @@
+package com.example.windsurfspringapp.metrics;
+
+import com.example.windsurfspringapp.dto.SqlQueryStats;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Execution statistics per SQL statement shape, and a log of the statements that take longer than a
+ * threshold.
+ *
+ * <p>Statements are timed by {@link QueryTimingDataSource}. Hibernate binds every value as a parameter,
+ * so the SQL text identifies the shape of a query; statistics are kept per SQL text for up to
+ * {@code maxShapes} shapes. A slow statement is logged with its bind parameters and the repository method
+ * that issued it, as tracked by {@link RepositoryQueryAttribution}. The first time a {@code SELECT} shape is
+ * slow, its plan is read with {@code EXPLAIN} on the same connection and kept with the shape.</p>
+ */
+public class SlowQueryLog {
+
+    private static final Logger log = LoggerFactory.getLogger(SlowQueryLog.class);
+
+    // Longest string parameter rendered in the log
+    private static final int MAX_PARAMETER_LENGTH = 64;
+
+    private final long thresholdNanos;
+    private final int maxShapes;
+    private final Map<String, Shape> shapes = new ConcurrentHashMap<>();
+    private final LongAdder untracked = new LongAdder();
+    // Outermost repository method running on the current thread
+    private final ThreadLocal<String> repositoryMethod = new ThreadLocal<>();
+
+    public SlowQueryLog(Duration threshold, int maxShapes) {
+        this.thresholdNanos = threshold.toNanos();
+        this.maxShapes = maxShapes;
+    }
+
+    /**
+     * Attribute the statements executed on the current thread to a repository method, unless an outer
+     * repository method already claimed them.
+     *
+     * @param method The repository method, e.g. {@code ProductRepository.findByCategoryId}
+     * @return true if the caller must call {@link #exitRepository()} when the method returns
+     */
+    public boolean enterRepository(String method) {
+        if (repositoryMethod.get() != null) {
+            return false;
+        }
+        repositoryMethod.set(method);
+        return true;
+    }
+
+    /**
+     * End the attribution started by {@link #enterRepository(String)}.
+     */
+    public void exitRepository() {
+        repositoryMethod.remove();
+    }
+
+    /**
+     * Record one execution of a statement; logs it and captures its plan if it was slow.
+     *
+     * @param sql The SQL text
+     * @param parameters The bind parameters by index starting at 1, or null for batches and plain statements
+     * @param elapsedNanos The execution time
+     * @param connection The connection the statement ran on, for reading its plan
+     */
+    public void record(String sql, Object[] parameters, long elapsedNanos, Connection connection) {
+        Shape shape = shapes.get(sql);
+        if (shape == null) {
+            if (shapes.size() >= maxShapes) {
+                untracked.increment();
+                shape = null;
+            } else {
+                shape = shapes.computeIfAbsent(sql, Shape::new);
+            }
+        }
+        String method = repositoryMethod.get();
+        if (shape != null) {
+            shape.record(elapsedNanos, method);
+        }
+        if (elapsedNanos < thresholdNanos) {
+            return;
+        }
+        if (shape != null) {
+            shape.slowExecutions.increment();
+        }
+        log.warn("Slow query took {} ms in {}: {} with parameters {}",
+                toMillis(elapsedNanos), method == null ? "no repository" : method, sql, render(parameters));
+        if (shape != null && shape.planRequested.compareAndSet(false, true) && isSelect(sql)) {
+            shape.plan = explain(sql, parameters, connection);
+            log.warn("Plan of {}:\n{}", sql, shape.plan);
+        }
+    }
+
+    /**
+     * Statistics of the statement shapes with the highest total execution time.
+     *
+     * @param limit The maximum number of shapes
+     * @return Shapes by descending total time
+     */
+    public List<SqlQueryStats> top(int limit) {
+        List<Shape> snapshot = new ArrayList<>(shapes.values());
+        snapshot.sort(Comparator.comparingLong((Shape shape) -> shape.totalNanos.sum()).reversed());
+        return snapshot.stream().limit(limit).map(Shape::toStats).toList();
+    }
+
+    /**
+     * Number of executions not tracked because {@code maxShapes} shapes were already tracked.
+     *
+     * @return The count since startup or the last reset
+     */
+    public long untrackedExecutions() {
+        return untracked.sum();
+    }
+
+    /**
+     * Forget all statistics and captured plans.
+     */
+    public void reset() {
+        shapes.clear();
+        untracked.reset();
+    }
+
+    private static boolean isSelect(String sql) {
+        String head = sql.stripLeading().toLowerCase(Locale.ROOT);
+        return head.startsWith("select") || head.startsWith("with");
+    }
+
+    // EXPLAIN does not execute the statement; the parameters let the planner pick the same indexes
+    private static String explain(String sql, Object[] parameters, Connection connection) {
+        try (PreparedStatement explain = connection.prepareStatement("EXPLAIN " + sql)) {
+            if (parameters != null) {
+                for (int i = 1; i < parameters.length; i++) {
+                    explain.setObject(i, parameters[i]);
+                }
+            }
+            StringJoiner plan = new StringJoiner("\n");
+            try (ResultSet rows = explain.executeQuery()) {
+                while (rows.next()) {
+                    plan.add(rows.getString(1));
+                }
+            }
+            return plan.toString();
+        } catch (SQLException e) {
+            return "Plan unavailable: " + e.getMessage();
+        }
+    }
+
+    private static String render(Object[] parameters) {
+        if (parameters == null) {
+            return "[]";
+        }
+        StringJoiner rendered = new StringJoiner(", ", "[", "]");
+        for (int i = 1; i < parameters.length; i++) {
+            Object value = parameters[i];
+            if (value instanceof byte[] bytes) {
+                rendered.add("<" + bytes.length + " bytes>");
+            } else if (value instanceof String text && text.length() > MAX_PARAMETER_LENGTH) {
+                rendered.add("'" + text.substring(0, MAX_PARAMETER_LENGTH) + "...'");
+            } else if (value instanceof String text) {
+                rendered.add("'" + text + "'");
+            } else {
+                rendered.add(String.valueOf(value));
+            }
+        }
+        return rendered.toString();
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private static final class Shape {
+
+        final String sql;
+        final LongAdder executions = new LongAdder();
+        final LongAdder slowExecutions = new LongAdder();
+        final LongAdder totalNanos = new LongAdder();
+        final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+        final AtomicBoolean planRequested = new AtomicBoolean();
+        volatile String repositoryMethod;
+        volatile String plan;
+
+        Shape(String sql) {
+            this.sql = sql;
+        }
+
+        void record(long elapsedNanos, String method) {
+            executions.increment();
+            totalNanos.add(elapsedNanos);
+            maxNanos.accumulate(elapsedNanos);
+            if (repositoryMethod == null && method != null) {
+                repositoryMethod = method;
+            }
+        }
+
+        SqlQueryStats toStats() {
+            long count = executions.sum();
+            long total = totalNanos.sum();
+            return new SqlQueryStats(sql, repositoryMethod, count, slowExecutions.sum(), toMillis(total),
+                    count == 0 ? 0 : toMillis(total / count), toMillis(maxNanos.get()), plan);
+        }
+    }
+}
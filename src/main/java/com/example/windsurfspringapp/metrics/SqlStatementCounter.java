@@ -0,0 +1,42 @@
+package com.example.windsurfspringapp.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts the SQL statements Hibernate prepares on the current thread while a count is open.
+ *
+ * <p>Registered as Hibernate's {@link StatementInspector}, so it sees every statement Hibernate
+ * prepares, including lazy loads and flushes. Statements issued directly through JDBC are not
+ * counted.</p>
+ */
+public class SqlStatementCounter implements StatementInspector {
+
+    private final ThreadLocal<int[]> count = new ThreadLocal<>();
+
+    /**
+     * Start counting statements on the current thread.
+     */
+    public void start() {
+        count.set(new int[1]);
+    }
+
+    /**
+     * Stop counting statements on the current thread.
+     *
+     * @return The number of statements prepared since {@link #start()}, or 0 if no count was open
+     */
+    public int stop() {
+        int[] current = count.get();
+        count.remove();
+        return current == null ? 0 : current[0];
+    }
+
+    @Override
+    public String inspect(String sql) {
+        int[] current = count.get();
+        if (current != null) {
+            current[0]++;
+        }
+        return sql;
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.windsurfspringapp.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Records how many SQL statements each request issued, per endpoint, as the
+ * {@value #METRIC_NAME} distribution summary.
+ *
+ * <p>Only statements issued on the request thread are counted; work handed to another thread, such
+ * as a streamed export, is not attributed to the request.</p>
+ */
+public class SqlStatementsPerRequestFilter extends OncePerRequestFilter {
+
+    public static final String METRIC_NAME = "http.server.requests.sql.statements";
+
+    // Tag value for requests that did not match a handler, so unmatched paths cannot explode tag cardinality
+    private static final String UNKNOWN_URI = "UNKNOWN";
+
+    private final SqlStatementCounter statementCounter;
+    private final MeterRegistry meterRegistry;
+
+    public SqlStatementsPerRequestFilter(SqlStatementCounter statementCounter, MeterRegistry meterRegistry) {
+        this.statementCounter = statementCounter;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        statementCounter.start();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            int statements = statementCounter.stop();
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            DistributionSummary.builder(METRIC_NAME)
+                    .description("SQL statements issued while handling a request")
+                    .baseUnit("statements")
+                    .tag("method", request.getMethod())
+                    .tag("uri", pattern == null ? UNKNOWN_URI : pattern.toString())
+                    .publishPercentileHistogram()
+                    .register(meterRegistry)
+                    .record(statements);
+        }
+    }
+}
@@ -1,19 +1,32 @@
 package com.example.windsurfspringapp.model;
 
+import com.example.windsurfspringapp.config.CacheConfig;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 import java.time.LocalDateTime;
 import java.util.HashSet;
 import java.util.Set;
 
 /**
  * Entity class representing a product category in the system.
+ * Each sortable column is indexed together with the ID so keyset pages can seek on {@code (column, id)}.
+ * Categories rarely change, so they and their product collections are held in the second-level cache.
  */
 @Entity
-@Table(name = "categories")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheConfig.CATEGORY_REGION)
+@Table(name = "categories", indexes = {
+        @Index(name = "idx_categories_updated_at_id", columnList = "updated_at, id")
+})
 public class Category {
 
+    // Pooled sequence IDs let Hibernate batch inserts; each sequence call reserves a block of IDs
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "category_seq")
+    @SequenceGenerator(name = "category_seq", sequenceName = "categories_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, unique = true, length = 50)
@@ -22,13 +35,16 @@ public class Category {
     @Column(length = 200)
     private String description;
 
+    // Not serialized: rendering a category must not walk every product that references it
+    @JsonIgnore
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheConfig.CATEGORY_PRODUCTS_REGION)
     @OneToMany(mappedBy = "category", cascade = CascadeType.ALL, orphanRemoval = false)
     private Set<Product> products = new HashSet<>();
 
     @Column(name = "created_at")
     private LocalDateTime createdAt;
 
-    @Column(name = "updated_at")
+    @Column(name = "updated_at", nullable = false)
     private LocalDateTime updatedAt;
 
     @PrePersist
@@ -1,18 +1,28 @@
 package com.example.windsurfspringapp.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 /**
  * Entity class representing a product in the system.
+ * Each sortable column is indexed together with the ID so keyset pages can seek on {@code (column, id)}.
  */
 @Entity
-@Table(name = "products")
+@Table(name = "products", indexes = {
+        @Index(name = "idx_products_name_id", columnList = "name, id"),
+        @Index(name = "idx_products_price_id", columnList = "price, id"),
+        @Index(name = "idx_products_updated_at_id", columnList = "updated_at, id"),
+        @Index(name = "idx_products_stock_quantity_id", columnList = "stock_quantity, id"),
+        @Index(name = "idx_products_category_id_id", columnList = "category_id, id")
+})
 public class Product {
 
+    // Pooled sequence IDs let Hibernate batch inserts; each sequence call reserves a block of IDs
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "product_seq")
+    @SequenceGenerator(name = "product_seq", sequenceName = "products_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, length = 100)
@@ -30,11 +40,12 @@ public class Product {
     @Column(name = "created_at")
     private LocalDateTime createdAt;
 
-    @Column(name = "updated_at")
+    @Column(name = "updated_at", nullable = false)
     private LocalDateTime updatedAt;
 
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "category_id")
+    @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
     private Category category;
 
     @PrePersist
@@ -0,0 +1,48 @@
+package com.example.windsurfspringapp.paging;
+
+import java.time.LocalDateTime;
+import java.util.function.Function;
+
+/**
+ * Sort keys supported by the category list endpoints.
+ */
+public enum CategorySort implements SortKey {
+
+    ID("id", Long::valueOf),
+    NAME("name", value -> value),
+    UPDATED_AT("updatedAt", LocalDateTime::parse);
+
+    private final String property;
+    private final Function<String, Object> parser;
+
+    CategorySort(String property, Function<String, Object> parser) {
+        this.property = property;
+        this.parser = parser;
+    }
+
+    @Override
+    public String property() {
+        return property;
+    }
+
+    @Override
+    public Object parseValue(String value) {
+        return parser.apply(value);
+    }
+
+    /**
+     * Resolve a sort key from a request parameter such as {@code name} or {@code updatedAt}.
+     *
+     * @param parameter The request parameter value
+     * @return The matching sort key
+     * @throws InvalidCursorException if the parameter does not name a supported key
+     */
+    public static CategorySort fromParameter(String parameter) {
+        for (CategorySort sort : values()) {
+            if (sort.property.equalsIgnoreCase(parameter) || sort.name().equalsIgnoreCase(parameter)) {
+                return sort;
+            }
+        }
+        throw new InvalidCursorException("Unsupported category sort '" + parameter + "'");
+    }
+}
@@ -0,0 +1,175 @@
+package com.example.windsurfspringapp.paging;
+
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * A request for one keyset page: the sort key, the position to continue after and the page size.
+ * Pages are always ordered by {@code (sortKey, id)} so that a seek on the last row of the previous
+ * page is unambiguous and can be served by an index.
+ *
+ * <p>Positions travel between client and server as opaque URL-safe tokens. A token records the sort
+ * key it was issued for, so a token cannot be replayed against a different ordering.</p>
+ *
+ * @param sortKey The leading sort key
+ * @param position The keyset position to continue after, or the initial position for the first page
+ * @param size The maximum number of rows in the page
+ */
+public record CursorRequest(SortKey sortKey, ScrollPosition position, int size) {
+
+    public static final int DEFAULT_LIMIT = 50;
+    public static final int MAX_LIMIT = 500;
+
+    static final String ID_PROPERTY = "id";
+    private static final String SEPARATOR = "\n";
+
+    /**
+     * Build a page request from request parameters.
+     *
+     * @param cursor The continuation token from the previous page, or null for the first page
+     * @param sortKey The leading sort key
+     * @param limit The requested page size, or null for the default; clamped to {@link #MAX_LIMIT}
+     * @return The page request
+     * @throws InvalidCursorException if the cursor is malformed or was issued for another sort key
+     */
+    public static CursorRequest of(String cursor, SortKey sortKey, Integer limit) {
+        int size = limit == null ? DEFAULT_LIMIT : limit;
+        if (size < 1) {
+            throw new InvalidCursorException("Page limit must be positive");
+        }
+        ScrollPosition position = cursor == null || cursor.isBlank()
+                ? ScrollPosition.keyset()
+                : decode(cursor, sortKey);
+        return new CursorRequest(sortKey, position, Math.min(size, MAX_LIMIT));
+    }
+
+    /**
+     * Build a first-page request.
+     *
+     * @param sortKey The leading sort key
+     * @param limit The page size
+     * @return The page request
+     */
+    public static CursorRequest first(SortKey sortKey, int limit) {
+        return of(null, sortKey, limit);
+    }
+
+    /**
+     * Sort order for the page: the sort key followed by the ID tie-breaker.
+     *
+     * @return The sort order
+     */
+    public Sort sort() {
+        if (ID_PROPERTY.equals(sortKey.property())) {
+            return Sort.by(ID_PROPERTY);
+        }
+        return Sort.by(sortKey.property()).and(Sort.by(ID_PROPERTY));
+    }
+
+    /**
+     * Page size as a Spring Data limit.
+     *
+     * @return The limit
+     */
+    public Limit limit() {
+        return Limit.of(size);
+    }
+
+    /**
+     * ID of the last row of the previous page.
+     *
+     * @return The ID to continue after, or null for the first page
+     */
+    public Long afterId() {
+        if (position instanceof KeysetScrollPosition keyset && !keyset.isInitial()) {
+            return (Long) keyset.getKeys().get(ID_PROPERTY);
+        }
+        return null;
+    }
+
+    /**
+     * Sort key value of the last row of the previous page.
+     *
+     * @return The value to continue after, or null for the first page or ID ordering
+     */
+    public Object afterValue() {
+        if (position instanceof KeysetScrollPosition keyset && !keyset.isInitial()) {
+            return keyset.getKeys().get(sortKey.property());
+        }
+        return null;
+    }
+
+    /**
+     * Continuation token for the page after the given window.
+     *
+     * @param window A window returned for this request
+     * @return The token, or empty if the window is the last page
+     */
+    public Optional<String> nextCursor(Window<?> window) {
+        if (!window.hasNext() || window.isEmpty()) {
+            return Optional.empty();
+        }
+        ScrollPosition last = window.positionAt(window.size() - 1);
+        if (!(last instanceof KeysetScrollPosition keyset)) {
+            throw new IllegalStateException("Cursor pages require keyset positions, got " + last);
+        }
+        return Optional.of(encode(sortKey, keyset.getKeys()));
+    }
+
+    /**
+     * Keyset position that continues after a row with the given key values.
+     *
+     * @param sortKey The leading sort key
+     * @param sortValue The row's sort key value (ignored for ID ordering)
+     * @param id The row's ID
+     * @return The keyset position
+     */
+    public static KeysetScrollPosition after(SortKey sortKey, Object sortValue, Long id) {
+        Map<String, Object> keys = new LinkedHashMap<>();
+        if (!ID_PROPERTY.equals(sortKey.property())) {
+            keys.put(sortKey.property(), sortValue);
+        }
+        keys.put(ID_PROPERTY, id);
+        return ScrollPosition.forward(keys);
+    }
+
+    static String encode(SortKey sortKey, Map<String, ?> keys) {
+        StringBuilder raw = new StringBuilder(sortKey.name()).append(SEPARATOR).append(keys.get(ID_PROPERTY));
+        if (!ID_PROPERTY.equals(sortKey.property())) {
+            raw.append(SEPARATOR).append(sortKey.formatValue(keys.get(sortKey.property())));
+        }
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    static KeysetScrollPosition decode(String cursor, SortKey sortKey) {
+        String[] parts;
+        try {
+            parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(SEPARATOR, 3);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException("Malformed cursor", e);
+        }
+        if (!sortKey.name().equals(parts[0])) {
+            throw new InvalidCursorException("Cursor was issued for a different sort order");
+        }
+        boolean idOnly = ID_PROPERTY.equals(sortKey.property());
+        if (parts.length != (idOnly ? 2 : 3)) {
+            throw new InvalidCursorException("Malformed cursor");
+        }
+        try {
+            Long id = Long.valueOf(parts[1]);
+            return after(sortKey, idOnly ? null : sortKey.parseValue(parts[2]), id);
+        } catch (RuntimeException e) {
+            throw new InvalidCursorException("Malformed cursor", e);
+        }
+    }
+}
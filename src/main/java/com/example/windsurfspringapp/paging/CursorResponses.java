@@ -0,0 +1,43 @@
+package com.example.windsurfspringapp.paging;
+
+import com.example.windsurfspringapp.web.EntityTags;
+import org.springframework.data.domain.Window;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Helpers for returning keyset pages from controllers.
+ * The page body stays a plain JSON array; the continuation token travels in the
+ * {@value #NEXT_CURSOR_HEADER} response header and is absent on the last page.
+ * Every page carries an ETag over its rows, so a client re-polling an unchanged page gets a 304
+ * without the page being serialized.
+ */
+public final class CursorResponses {
+
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private CursorResponses() {
+    }
+
+    /**
+     * Build a 200 response for a page. Spring MVC turns it into a 304 if the request's If-None-Match
+     * matches the page's ETag.
+     *
+     * @param window The page returned by the service
+     * @param request The request the page was produced for
+     * @param tagOf The ETag of a row
+     * @return Response with the page content, its ETag and, if there are more rows, the next cursor
+     */
+    public static <T> ResponseEntity<List<T>> ok(Window<T> window, CursorRequest request, Function<T, String> tagOf) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        String nextCursor = request.nextCursor(window).orElse(null);
+        if (nextCursor != null) {
+            response.header(NEXT_CURSOR_HEADER, nextCursor);
+        }
+        List<T> content = window.getContent();
+        return response.eTag(EntityTags.ofPage(content.stream().map(tagOf).toList(), nextCursor))
+                .body(content);
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.windsurfspringapp.paging;
+
+import org.springframework.data.domain.Window;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Builds keyset pages from arrays of matching IDs produced by in-memory indexes,
+ * loading only the rows of the requested page from the database.
+ */
+public final class IndexedPages {
+
+    private IndexedPages() {
+    }
+
+    /**
+     * Cut the page described by the request out of the matching IDs and load its rows.
+     * The request must be ordered by ID.
+     *
+     * @param sortedIds Matching IDs in ascending order
+     * @param page The page request
+     * @param loader Loads entities by ID, in any order; IDs that no longer exist are skipped
+     * @param idOf Extracts the ID of a loaded entity
+     * @return The page, ordered by ID
+     */
+    public static <T> Window<T> byId(long[] sortedIds, CursorRequest page,
+                                     Function<List<Long>, List<T>> loader, Function<T, Long> idOf) {
+        if (!CursorRequest.ID_PROPERTY.equals(page.sortKey().property())) {
+            throw new IllegalArgumentException("Indexed pages must be ordered by ID");
+        }
+        Long afterId = page.afterId();
+        int from = 0;
+        if (afterId != null) {
+            int position = Arrays.binarySearch(sortedIds, afterId);
+            from = position >= 0 ? position + 1 : -position - 1;
+        }
+        int to = (int) Math.min((long) from + page.size(), sortedIds.length);
+        boolean hasNext = to < sortedIds.length;
+
+        return of(Arrays.copyOfRange(sortedIds, from, to), hasNext, page, loader, idOf, entity -> null);
+    }
+
+    /**
+     * Load the rows of a page whose IDs an index has already cut out, in the request's sort order.
+     *
+     * @param pageIds IDs of the page, in the request's sort order
+     * @param hasNext Whether more rows follow the page
+     * @param page The page request
+     * @param loader Loads entities by ID, in any order; IDs that no longer exist are skipped
+     * @param idOf Extracts the ID of a loaded entity
+     * @param sortValueOf Extracts the sort key value of a loaded entity for the next cursor
+     * @return The page
+     */
+    public static <T> Window<T> of(long[] pageIds, boolean hasNext, CursorRequest page,
+                                   Function<List<Long>, List<T>> loader, Function<T, Long> idOf,
+                                   Function<T, Object> sortValueOf) {
+        List<T> content = loadInOrder(pageIds, loader, idOf);
+        return Window.from(content, i -> CursorRequest.after(
+                page.sortKey(), sortValueOf.apply(content.get(i)), idOf.apply(content.get(i))), hasNext);
+    }
+
+    /**
+     * Load entities by ID and return them in the order of the given IDs.
+     *
+     * @param ids IDs in the desired order
+     * @param loader Loads entities by ID, in any order; IDs that no longer exist are skipped
+     * @param idOf Extracts the ID of a loaded entity
+     * @return The loaded entities in ID order
+     */
+    public static <T> List<T> loadInOrder(long[] ids, Function<List<Long>, List<T>> loader, Function<T, Long> idOf) {
+        List<Long> boxed = new ArrayList<>(ids.length);
+        for (long id : ids) {
+            boxed.add(id);
+        }
+        Map<Long, T> byId = new HashMap<>();
+        for (T entity : loader.apply(boxed)) {
+            byId.put(idOf.apply(entity), entity);
+        }
+        List<T> ordered = new ArrayList<>(byId.size());
+        for (Long id : boxed) {
+            T entity = byId.get(id);
+            if (entity != null) {
+                ordered.add(entity);
+            }
+        }
+        return ordered;
+    }
+}
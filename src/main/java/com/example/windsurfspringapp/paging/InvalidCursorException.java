@@ -0,0 +1,20 @@
+package com.example.windsurfspringapp.paging;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when a page request carries a malformed cursor, an unsupported sort key
+ * or a cursor that was issued for a different sort.
+ */
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidCursorException extends RuntimeException {
+
+    public InvalidCursorException(String message) {
+        super(message);
+    }
+
+    public InvalidCursorException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.windsurfspringapp.paging;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.function.Function;
+
+/**
+ * Sort keys supported by the product list endpoints.
+ */
+public enum ProductSort implements SortKey {
+
+    ID("id", Long::valueOf),
+    NAME("name", value -> value),
+    PRICE("price", BigDecimal::new) {
+        @Override
+        public String formatValue(Object value) {
+            return ((BigDecimal) value).toPlainString();
+        }
+    },
+    UPDATED_AT("updatedAt", LocalDateTime::parse);
+
+    private final String property;
+    private final Function<String, Object> parser;
+
+    ProductSort(String property, Function<String, Object> parser) {
+        this.property = property;
+        this.parser = parser;
+    }
+
+    @Override
+    public String property() {
+        return property;
+    }
+
+    @Override
+    public Object parseValue(String value) {
+        return parser.apply(value);
+    }
+
+    /**
+     * Resolve a sort key from a request parameter such as {@code price} or {@code updatedAt}.
+     *
+     * @param parameter The request parameter value
+     * @return The matching sort key
+     * @throws InvalidCursorException if the parameter does not name a supported key
+     */
+    public static ProductSort fromParameter(String parameter) {
+        for (ProductSort sort : values()) {
+            if (sort.property.equalsIgnoreCase(parameter) || sort.name().equalsIgnoreCase(parameter)) {
+                return sort;
+            }
+        }
+        throw new InvalidCursorException("Unsupported product sort '" + parameter + "'");
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.windsurfspringapp.paging;
+
+/**
+ * A sortable entity property that can be used as the leading key of a keyset (cursor) page.
+ * Every key is combined with the entity ID as a tie-breaker, so each key must be backed
+ * by an index on {@code (column, id)}.
+ */
+public interface SortKey {
+
+    /**
+     * Name of the sort key as used in request parameters and cursor tokens.
+     *
+     * @return The sort key name
+     */
+    String name();
+
+    /**
+     * Entity property the key sorts on.
+     *
+     * @return The JPA property name
+     */
+    String property();
+
+    /**
+     * Convert a keyset value to its string form for inclusion in a cursor token.
+     *
+     * @param value The keyset value taken from the last row of a page
+     * @return The string form of the value
+     */
+    default String formatValue(Object value) {
+        return value.toString();
+    }
+
+    /**
+     * Convert the string form of a keyset value back to the property type.
+     *
+     * @param value The string form of the value
+     * @return The keyset value
+     */
+    Object parseValue(String value);
+}
@@ -1,33 +1,93 @@
 package com.example.windsurfspringapp.repository;
 
+import com.example.windsurfspringapp.config.CacheConfig;
 import com.example.windsurfspringapp.model.Category;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 /**
  * Repository interface for Category entity providing CRUD operations and custom queries.
+ *
+ * <p>The lookups run on most requests are marked cacheable and keep their results in the category
+ * query region. Hibernate drops a cached result once a write to one of its tables commits.</p>
  */
 @Repository
 public interface CategoryRepository extends JpaRepository<Category, Long> {
 
+    // All categories, from the query cache
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = CacheConfig.CATEGORY_QUERIES_REGION)})
+    @Override
+    List<Category> findAll();
+
     // Find category by name (case insensitive)
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = CacheConfig.CATEGORY_QUERIES_REGION)})
     Optional<Category> findByNameIgnoreCase(String name);
     
     // Find categories by name containing the given string (case insensitive)
     List<Category> findByNameContainingIgnoreCase(String name);
     
+    // Find categories whose lower-cased name is in the given collection of lower-cased names
+    @Query("SELECT c FROM Category c WHERE LOWER(c.name) IN :names")
+    List<Category> findByLowerCaseNameIn(@Param("names") Collection<String> names);
+
     // Check if a category with the given name exists
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = CacheConfig.CATEGORY_QUERIES_REGION)})
     boolean existsByNameIgnoreCase(String name);
     
-    // Custom query to find categories with products
-    @Query("SELECT DISTINCT c FROM Category c JOIN c.products p")
+    // Custom query to find categories with products; a semi-join reads at most one product row per category
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = CacheConfig.CATEGORY_QUERIES_REGION)})
+    @Query("SELECT c FROM Category c WHERE EXISTS (SELECT 1 FROM Product p WHERE p.category = c)")
     List<Category> findCategoriesWithProducts();
     
     // Custom query to find categories with product count
     @Query("SELECT c, COUNT(p) FROM Category c LEFT JOIN c.products p GROUP BY c")
     List<Object[]> findCategoriesWithProductCount();
+
+    // Count products per category ID, including categories without products, without loading entities
+    @Query("SELECT c.id, COUNT(p.id) FROM Category c LEFT JOIN c.products p GROUP BY c.id")
+    List<Object[]> countProductsByCategory();
+
+    // Product count, price sum, min and max, stock and inventory value per category ID, including categories without products
+    @Query("SELECT c.id, COUNT(p.id), SUM(p.price), MIN(p.price), MAX(p.price), SUM(p.stockQuantity), " +
+           "SUM(p.price * p.stockQuantity) FROM Category c LEFT JOIN c.products p GROUP BY c.id")
+    List<Object[]> aggregateProductsByCategory();
+
+    // Last modification timestamp of a single category, for validating cached copies without loading the entity
+    @Query("SELECT c.updatedAt FROM Category c WHERE c.id = :id")
+    Optional<LocalDateTime> findUpdatedAtById(@Param("id") Long id);
+
+    // Keyset pages over all categories, ordered by the given sort with the ID as tie-breaker
+    Window<Category> findAllBy(ScrollPosition position, Sort sort, Limit limit);
+
+    // Keyset pages over the categories with the given IDs
+    Window<Category> findByIdIn(Collection<Long> ids, ScrollPosition position, Sort sort, Limit limit);
+
+    // Keyset pages of categories whose name contains the given string (case insensitive)
+    Window<Category> findByNameContainingIgnoreCase(String name, ScrollPosition position, Sort sort, Limit limit);
+
+    // Give rows written before updated_at was mandatory a value to page on
+    @Modifying
+    @Transactional
+    @Query("UPDATE Category c SET c.updatedAt = COALESCE(c.createdAt, :now) WHERE c.updatedAt IS NULL")
+    int backfillUpdatedAt(@Param("now") LocalDateTime now);
 }
@@ -0,0 +1,31 @@
+package com.example.windsurfspringapp.repository;
+
+import com.example.windsurfspringapp.model.Product;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Aggregate queries over the products matching a {@link Specification}, mixed into {@link ProductRepository}.
+ */
+public interface ProductFacetQueries {
+
+    /**
+     * Count the matching products per category.
+     *
+     * @param spec The filter
+     * @return Map of category ID to the number of matching products, without products lacking a category
+     */
+    Map<Long, Long> countByCategory(Specification<Product> spec);
+
+    /**
+     * Count the matching products below each price bound, and all of them, in one query.
+     *
+     * @param spec The filter
+     * @param priceBounds Ascending price bounds
+     * @return For each bound, the number of matching products priced below it, followed by the total count
+     */
+    long[] countBelowPrices(Specification<Product> spec, List<BigDecimal> priceBounds);
+}
@@ -0,0 +1,72 @@
+package com.example.windsurfspringapp.repository;
+
+import com.example.windsurfspringapp.model.Product;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Criteria implementation of {@link ProductFacetQueries}; picked up by Spring Data through its name.
+ */
+class ProductFacetQueriesImpl implements ProductFacetQueries {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Map<Long, Long> countByCategory(Specification<Product> spec) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = builder.createTupleQuery();
+        Root<Product> root = query.from(Product.class);
+        Path<Long> categoryId = root.get("category").get("id");
+        query.multiselect(categoryId, builder.count(root))
+                .where(spec.toPredicate(root, query, builder))
+                .groupBy(categoryId);
+
+        Map<Long, Long> counts = new TreeMap<>();
+        for (Tuple row : entityManager.createQuery(query).getResultList()) {
+            Long id = row.get(0, Long.class);
+            if (id != null) {
+                counts.put(id, row.get(1, Long.class));
+            }
+        }
+        return counts;
+    }
+
+    @Override
+    public long[] countBelowPrices(Specification<Product> spec, List<BigDecimal> priceBounds) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = builder.createTupleQuery();
+        Root<Product> root = query.from(Product.class);
+        Path<BigDecimal> price = root.get("price");
+        List<Selection<?>> selections = new ArrayList<>(priceBounds.size() + 1);
+        for (BigDecimal bound : priceBounds) {
+            // COUNT skips the nulls of non-matching rows
+            Expression<Long> below = builder.<Long>selectCase()
+                    .when(builder.lessThan(price, bound), root.get("id"));
+            selections.add(builder.count(below));
+        }
+        selections.add(builder.count(root));
+        query.multiselect(selections).where(spec.toPredicate(root, query, builder));
+
+        Tuple row = entityManager.createQuery(query).getSingleResult();
+        long[] counts = new long[selections.size()];
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = row.get(i, Long.class);
+        }
+        return counts;
+    }
+}
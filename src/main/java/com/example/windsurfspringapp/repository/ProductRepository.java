@@ -1,33 +1,67 @@
 package com.example.windsurfspringapp.repository;
 
+import com.example.windsurfspringapp.dto.ProductSnapshot;
+import com.example.windsurfspringapp.dto.ProductVersion;
 import com.example.windsurfspringapp.model.Product;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repository interface for Product entity providing CRUD operations and custom queries.
  */
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long> {
+public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpecificationExecutor<Product>,
+        ProductFacetQueries {
+
+    // Rows fetched per round trip when streaming the catalog
+    String STREAM_FETCH_SIZE = "500";
+
+    // Load the category in the same query so products can be cached and serialized detached
+    @Override
+    @EntityGraph(attributePaths = "category")
+    Optional<Product> findById(Long id);
+
+    // Finders and keyset pages below fetch the category in the same statement (a join on a
+    // many-to-one never multiplies rows), so a page costs one query however many categories it spans
 
     // Find products by name containing the given string (case insensitive)
+    @EntityGraph(attributePaths = "category")
     List<Product> findByNameContainingIgnoreCase(String name);
     
     // Find products by category id
+    @EntityGraph(attributePaths = "category")
     List<Product> findByCategoryId(Long categoryId);
     
     // Find products with price less than or equal to the given value
+    @EntityGraph(attributePaths = "category")
     List<Product> findByPriceLessThanEqual(BigDecimal maxPrice);
     
     // Find products with stock quantity greater than the given value
+    @EntityGraph(attributePaths = "category")
     List<Product> findByStockQuantityGreaterThan(Integer minStockQuantity);
     
     // Custom query to find products by name and with price in range
+    @EntityGraph(attributePaths = "category")
     @Query("SELECT p FROM Product p WHERE LOWER(p.name) LIKE LOWER(CONCAT('%', :name, '%')) " +
            "AND p.price BETWEEN :minPrice AND :maxPrice")
     List<Product> findByNameAndPriceRange(
@@ -35,7 +69,103 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
             @Param("minPrice") BigDecimal minPrice,
             @Param("maxPrice") BigDecimal maxPrice);
     
+    // ID and stock level of every product below a threshold, without loading the products
+    @Query("SELECT p.id, p.stockQuantity FROM Product p WHERE p.stockQuantity < :threshold")
+    List<Object[]> findStockLevelsBelow(@Param("threshold") int threshold);
+
     // Custom query to find products that are low in stock (below threshold)
+    @EntityGraph(attributePaths = "category")
     @Query("SELECT p FROM Product p WHERE p.stockQuantity < :threshold")
     List<Product> findLowStockProducts(@Param("threshold") Integer threshold);
+
+    // Stream every product in ID order through a server-side cursor; must be consumed within a transaction
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("SELECT p FROM Product p ORDER BY p.id")
+    Stream<Product> streamAllBy();
+
+    // Scalar columns of a single product, without hydrating the entity
+    @Query("SELECT new com.example.windsurfspringapp.dto.ProductSnapshot(p.id, p.name, p.price, p.stockQuantity, c.id, p.updatedAt) " +
+           "FROM Product p LEFT JOIN p.category c WHERE p.id = :id")
+    Optional<ProductSnapshot> findSnapshotById(@Param("id") Long id);
+
+    // Stream scalar columns of every product in ID order; must be consumed within a transaction
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+    @Query("SELECT new com.example.windsurfspringapp.dto.ProductSnapshot(p.id, p.name, p.price, p.stockQuantity, c.id, p.updatedAt) " +
+           "FROM Product p LEFT JOIN p.category c ORDER BY p.id")
+    Stream<ProductSnapshot> streamSnapshotsBy();
+
+    // Version columns of a single product, for validating cached copies without loading the entity
+    @Query("SELECT new com.example.windsurfspringapp.dto.ProductVersion(p.id, p.updatedAt, c.id, c.name) " +
+           "FROM Product p LEFT JOIN p.category c WHERE p.id = :id")
+    Optional<ProductVersion> findVersionById(@Param("id") Long id);
+
+    // Current stock level of a product, without loading the entity
+    @Query("SELECT p.stockQuantity FROM Product p WHERE p.id = :id")
+    Optional<Integer> findStockQuantityById(@Param("id") Long id);
+
+    // Take stock in one statement; matches no row if the product is missing or has less than the amount
+    @Modifying
+    @Query("UPDATE Product p SET p.stockQuantity = p.stockQuantity - :amount, p.updatedAt = :now " +
+           "WHERE p.id = :id AND p.stockQuantity >= :amount")
+    int decrementStock(@Param("id") Long id, @Param("amount") int amount, @Param("now") LocalDateTime now);
+
+    // Return stock in one statement; matches no row if the product is missing or the level would pass max
+    @Modifying
+    @Query("UPDATE Product p SET p.stockQuantity = p.stockQuantity + :amount, p.updatedAt = :now " +
+           "WHERE p.id = :id AND p.stockQuantity <= :max - :amount")
+    int incrementStock(@Param("id") Long id, @Param("amount") int amount, @Param("max") int max,
+                       @Param("now") LocalDateTime now);
+
+    // Products with the given IDs, in no particular order
+    @EntityGraph(attributePaths = "category")
+    List<Product> findWithCategoryByIdIn(Collection<Long> ids);
+
+    // ID, category ID and price of the products with the given IDs
+    @Query("SELECT p.id, c.id, p.price FROM Product p LEFT JOIN p.category c WHERE p.id IN :ids")
+    List<Object[]> findCategoryAndPriceByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Lowest and highest price per category, for the given category IDs
+    @Query("SELECT p.category.id, MIN(p.price), MAX(p.price) FROM Product p " +
+           "WHERE p.category.id IN :categoryIds GROUP BY p.category.id")
+    List<Object[]> findPriceRangeByCategoryIdIn(@Param("categoryIds") Collection<Long> categoryIds);
+
+    // Keyset pages over the products with the given IDs
+    @EntityGraph(attributePaths = "category")
+    Window<Product> findByIdIn(Collection<Long> ids, ScrollPosition position, Sort sort, Limit limit);
+
+    // Keyset pages over all products, ordered by the given sort with the ID as tie-breaker
+    @EntityGraph(attributePaths = "category")
+    Window<Product> findAllBy(ScrollPosition position, Sort sort, Limit limit);
+
+    // Keyset pages of products whose name contains the given string (case insensitive)
+    @EntityGraph(attributePaths = "category")
+    Window<Product> findByNameContainingIgnoreCase(String name, ScrollPosition position, Sort sort, Limit limit);
+
+    // Keyset pages of products in a category
+    @EntityGraph(attributePaths = "category")
+    Window<Product> findByCategoryId(Long categoryId, ScrollPosition position, Sort sort, Limit limit);
+
+    // Keyset pages of products with price in range
+    @EntityGraph(attributePaths = "category")
+    Window<Product> findByPriceBetween(BigDecimal minPrice, BigDecimal maxPrice,
+                                       ScrollPosition position, Sort sort, Limit limit);
+
+    // Keyset pages of products by name and with price in range
+    @EntityGraph(attributePaths = "category")
+    Window<Product> findByNameContainingIgnoreCaseAndPriceBetween(String name, BigDecimal minPrice, BigDecimal maxPrice,
+                                                                  ScrollPosition position, Sort sort, Limit limit);
+
+    // Keyset pages of products that are low in stock (below threshold)
+    @EntityGraph(attributePaths = "category")
+    Window<Product> findByStockQuantityLessThan(Integer threshold, ScrollPosition position, Sort sort, Limit limit);
+
+    // Give rows written before updated_at was mandatory a value to page on
+    @Modifying
+    @Transactional
+    @Query("UPDATE Product p SET p.updatedAt = COALESCE(p.createdAt, :now) WHERE p.updatedAt IS NULL")
+    int backfillUpdatedAt(@Param("now") LocalDateTime now);
 }
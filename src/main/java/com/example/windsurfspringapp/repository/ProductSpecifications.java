@@ -0,0 +1,82 @@
+package com.example.windsurfspringapp.repository;
+
+import com.example.windsurfspringapp.dto.ProductQuery;
+import com.example.windsurfspringapp.model.Product;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Compiles a {@link ProductQuery} into a {@link Specification} for {@link ProductRepository}.
+ *
+ * <p>Only the filters that are present become predicates, and their values are bound as parameters, so
+ * every combination of filters has one SQL shape whatever the values are. Category ID lists are padded
+ * to the next power of two by {@code hibernate.query.in_clause_parameter_padding}, which keeps the number
+ * of shapes per combination small.</p>
+ */
+public final class ProductSpecifications {
+
+    private static final char LIKE_ESCAPE = '\\';
+
+    private ProductSpecifications() {
+    }
+
+    /**
+     * Specification matching the products that pass every filter of a query.
+     *
+     * @param query The filters
+     * @return The specification
+     */
+    public static Specification<Product> matching(ProductQuery query) {
+        return (root, criteria, builder) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (query.name() != null && !query.name().isBlank()) {
+                predicates.add(builder.like(builder.lower(root.get("name")),
+                        "%" + escapeLike(query.name().toLowerCase(Locale.ROOT)) + "%", LIKE_ESCAPE));
+            }
+            if (query.categoryIds() != null && !query.categoryIds().isEmpty()) {
+                // Compares the foreign key column; the category is not joined
+                predicates.add(root.get("category").get("id").in(query.categoryIds()));
+            }
+            if (query.minPrice() != null) {
+                predicates.add(builder.greaterThanOrEqualTo(root.get("price"), query.minPrice()));
+            }
+            if (query.maxPrice() != null) {
+                predicates.add(builder.lessThanOrEqualTo(root.get("price"), query.maxPrice()));
+            }
+            if (query.minStock() != null) {
+                predicates.add(builder.greaterThanOrEqualTo(root.get("stockQuantity"), query.minStock()));
+            }
+            if (query.maxStock() != null) {
+                predicates.add(builder.lessThanOrEqualTo(root.get("stockQuantity"), query.maxStock()));
+            }
+            if (query.updatedSince() != null) {
+                predicates.add(builder.greaterThanOrEqualTo(root.get("updatedAt"), query.updatedSince()));
+            }
+            return builder.and(predicates.toArray(Predicate[]::new));
+        };
+    }
+
+    /**
+     * Specification that fetches the category in the same statement as the products, like the entity
+     * graphs of the repository finders. Count and aggregate queries built from it are left unchanged.
+     *
+     * @return The specification; it does not restrict the products
+     */
+    public static Specification<Product> fetchingCategory() {
+        return (root, criteria, builder) -> {
+            if (Product.class.equals(criteria.getResultType())) {
+                root.fetch("category", JoinType.LEFT);
+            }
+            return null;
+        };
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
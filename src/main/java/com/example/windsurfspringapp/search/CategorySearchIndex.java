@@ -0,0 +1,60 @@
+package com.example.windsurfspringapp.search;
+
+import com.example.windsurfspringapp.event.CategoryChangedEvent;
+import com.example.windsurfspringapp.event.ChangeType;
+import com.example.windsurfspringapp.repository.CategoryRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.function.BiConsumer;
+
+/**
+ * Trigram index over category names, used to answer name searches without a {@code LIKE '%x%'} table scan.
+ */
+@Component
+public class CategorySearchIndex extends NameSearchIndex<CategoryChangedEvent> {
+
+    private final CategoryRepository categoryRepository;
+
+    @Autowired
+    public CategorySearchIndex(CategoryRepository categoryRepository,
+                               @Value("${catalog.search.index.enabled:true}") boolean enabled) {
+        super(enabled);
+        this.categoryRepository = categoryRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    @Scheduled(initialDelayString = "${catalog.search.index.rebuild-interval:1h}",
+               fixedDelayString = "${catalog.search.index.rebuild-interval:1h}")
+    public void reconcile() {
+        rebuild();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        onChange(event);
+    }
+
+    @Override
+    protected void loadAll(Versions versions, BiConsumer<Long, String> sink) {
+        categoryRepository.findAll().forEach(category -> sink.accept(category.getId(), category.getName()));
+    }
+
+    @Override
+    protected void apply(TrigramIndex index, CategoryChangedEvent event) {
+        if (event.type() == ChangeType.DELETED) {
+            index.remove(event.categoryId());
+        } else {
+            index.put(event.categoryId(), event.name());
+        }
+    }
+}
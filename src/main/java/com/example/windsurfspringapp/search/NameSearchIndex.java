@@ -0,0 +1,46 @@
+package com.example.windsurfspringapp.search;
+
+import java.util.function.BiConsumer;
+
+/**
+ * Base class for trigram indexes over entity names.
+ *
+ * @param <E> The change event type
+ */
+public abstract class NameSearchIndex<E> extends RebuildableIndex<TrigramIndex, E> {
+
+    protected NameSearchIndex(boolean enabled) {
+        super(enabled);
+    }
+
+    /**
+     * Find IDs of entities whose name contains the query (case insensitive).
+     *
+     * @param query The substring to look for
+     * @return Matching IDs in ascending order
+     * @throws IllegalStateException if the index is not ready
+     */
+    public long[] search(String query) {
+        return index().search(query);
+    }
+
+    @Override
+    protected TrigramIndex load(Versions versions) {
+        TrigramIndex fresh = new TrigramIndex();
+        loadAll(versions, fresh::put);
+        return fresh;
+    }
+
+    @Override
+    protected int size(TrigramIndex index) {
+        return index.size();
+    }
+
+    /**
+     * Stream the ID and name of every entity from the database.
+     *
+     * @param versions Receives the version of every entity, if entities are versioned
+     * @param sink Receives each ID and name
+     */
+    protected abstract void loadAll(Versions versions, BiConsumer<Long, String> sink);
+}
@@ -0,0 +1,58 @@
+package com.example.windsurfspringapp.search;
+
+import java.util.Arrays;
+
+/**
+ * Sorted set of document IDs stored in a primitive array.
+ * IDs are usually appended in ascending order, which is O(1); out-of-order inserts and removals shift the tail.
+ */
+final class PostingList {
+
+    private long[] ids = new long[4];
+    private int size;
+
+    int size() {
+        return size;
+    }
+
+    void add(long id) {
+        if (size == 0 || ids[size - 1] < id) {
+            ensureCapacity();
+            ids[size++] = id;
+            return;
+        }
+        int position = Arrays.binarySearch(ids, 0, size, id);
+        if (position >= 0) {
+            return;
+        }
+        int insertAt = -position - 1;
+        ensureCapacity();
+        System.arraycopy(ids, insertAt, ids, insertAt + 1, size - insertAt);
+        ids[insertAt] = id;
+        size++;
+    }
+
+    boolean remove(long id) {
+        int position = Arrays.binarySearch(ids, 0, size, id);
+        if (position < 0) {
+            return false;
+        }
+        System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+        size--;
+        return true;
+    }
+
+    boolean contains(long id) {
+        return Arrays.binarySearch(ids, 0, size, id) >= 0;
+    }
+
+    long[] toArray() {
+        return Arrays.copyOf(ids, size);
+    }
+
+    private void ensureCapacity() {
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, size * 2);
+        }
+    }
+}
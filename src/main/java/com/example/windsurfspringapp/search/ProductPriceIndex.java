@@ -0,0 +1,208 @@
+package com.example.windsurfspringapp.search;
+
+import com.example.windsurfspringapp.dto.ProductSnapshot;
+import com.example.windsurfspringapp.event.ChangeType;
+import com.example.windsurfspringapp.event.ProductChangedEvent;
+import com.example.windsurfspringapp.event.ProductsImportedEvent;
+import com.example.windsurfspringapp.repository.ProductRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Sorted index of product prices, used to answer price range filters without a database query.
+ * Prices are held as whole cents, matching the two decimal places of the price column.
+ */
+@Component
+public class ProductPriceIndex extends RebuildableIndex<SortedPriceIndex, ProductChangedEvent> {
+
+    private final ProductRepository productRepository;
+    private final TransactionTemplate readOnlyTransaction;
+
+    @Autowired
+    public ProductPriceIndex(ProductRepository productRepository,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${catalog.search.index.enabled:true}") boolean enabled) {
+        super(enabled);
+        this.productRepository = productRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Convert a price to whole cents, rounding half up like the price column.
+     *
+     * @param price The price
+     * @return The price in cents
+     */
+    public static long toCents(BigDecimal price) {
+        return price.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    /**
+     * Lowest whole-cent price at or above a lower bound.
+     *
+     * @param minPrice The lower bound, or null for no bound
+     * @return The bound in cents
+     */
+    public static long lowerBoundCents(BigDecimal minPrice) {
+        return minPrice == null ? Long.MIN_VALUE
+                : minPrice.setScale(2, RoundingMode.CEILING).unscaledValue().longValueExact();
+    }
+
+    /**
+     * Highest whole-cent price at or below an upper bound.
+     *
+     * @param maxPrice The upper bound, or null for no bound
+     * @return The bound in cents
+     */
+    public static long upperBoundCents(BigDecimal maxPrice) {
+        return maxPrice == null ? Long.MAX_VALUE
+                : maxPrice.setScale(2, RoundingMode.FLOOR).unscaledValue().longValueExact();
+    }
+
+    /**
+     * IDs of products priced within a range.
+     *
+     * @param minCents Lowest price in cents, inclusive
+     * @param maxCents Highest price in cents, inclusive
+     * @return Matching IDs ordered by price, then ID
+     * @throws IllegalStateException if the index is not ready
+     */
+    public long[] range(long minCents, long maxCents) {
+        return index().range(minCents, maxCents);
+    }
+
+    /**
+     * Number of products priced within a range.
+     *
+     * @param minCents Lowest price in cents, inclusive
+     * @param maxCents Highest price in cents, inclusive
+     * @return The number of matching products
+     * @throws IllegalStateException if the index is not ready
+     */
+    public int count(long minCents, long maxCents) {
+        return index().count(minCents, maxCents);
+    }
+
+    /**
+     * One page of products priced within a range, ordered by price, then ID.
+     *
+     * @param minCents Lowest price in cents, inclusive
+     * @param maxCents Highest price in cents, inclusive
+     * @param afterCents Price of the last row of the previous page, ignored if afterId is null
+     * @param afterId ID of the last row of the previous page, or null for the first page
+     * @param limit The page size
+     * @return The page of IDs
+     * @throws IllegalStateException if the index is not ready
+     */
+    public SortedPriceIndex.Slice page(long minCents, long maxCents, long afterCents, Long afterId, int limit) {
+        return index().page(minCents, maxCents, afterCents, afterId, limit);
+    }
+
+    /**
+     * Keep the IDs whose indexed price lies within a range.
+     *
+     * @param ids IDs in any order
+     * @param minCents Lowest price in cents, inclusive
+     * @param maxCents Highest price in cents, inclusive
+     * @return The IDs within the range, in their original order
+     * @throws IllegalStateException if the index is not ready
+     */
+    public long[] retainInRange(long[] ids, long minCents, long maxCents) {
+        return index().retainInRange(ids, minCents, maxCents);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    @Scheduled(initialDelayString = "${catalog.search.index.rebuild-interval:1h}",
+               fixedDelayString = "${catalog.search.index.rebuild-interval:1h}")
+    public void reconcile() {
+        rebuild();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        onChange(event);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductsImported(ProductsImportedEvent event) {
+        onChanges(event.changes());
+    }
+
+    @Override
+    protected SortedPriceIndex load(Versions versions) {
+        return readOnlyTransaction.execute(status -> {
+            long[][] columns = {new long[1024], new long[1024]};
+            int[] size = {0};
+            try (Stream<ProductSnapshot> products = productRepository.streamSnapshotsBy()) {
+                products.forEach(product -> {
+                    if (size[0] == columns[0].length) {
+                        columns[0] = Arrays.copyOf(columns[0], size[0] * 2);
+                        columns[1] = Arrays.copyOf(columns[1], size[0] * 2);
+                    }
+                    columns[0][size[0]] = toCents(product.price());
+                    columns[1][size[0]] = product.id();
+                    size[0]++;
+                    versions.loaded(product.id(), product.updatedAt());
+                });
+            }
+            return SortedPriceIndex.of(columns[0], columns[1], size[0]);
+        });
+    }
+
+    @Override
+    protected boolean advance(Versions versions, ProductChangedEvent event) {
+        return versions.advance(event.productId(), event.updatedAt(), event.type() == ChangeType.DELETED);
+    }
+
+    @Override
+    protected void apply(SortedPriceIndex index, ProductChangedEvent event) {
+        if (event.type() == ChangeType.DELETED) {
+            index.remove(event.productId());
+        } else {
+            index.put(event.productId(), toCents(event.after().price()));
+        }
+    }
+
+    // Prices are merged into the index in one pass rather than shifting its arrays once per product
+    @Override
+    protected void applyAll(SortedPriceIndex index, List<ProductChangedEvent> events) {
+        long[] ids = new long[events.size()];
+        long[] cents = new long[events.size()];
+        int count = 0;
+        for (ProductChangedEvent event : events) {
+            if (event.type() == ChangeType.DELETED) {
+                index.putAll(ids, cents, count);
+                count = 0;
+                index.remove(event.productId());
+            } else {
+                ids[count] = event.productId();
+                cents[count] = toCents(event.after().price());
+                count++;
+            }
+        }
+        index.putAll(ids, cents, count);
+    }
+
+    @Override
+    protected int size(SortedPriceIndex index) {
+        return index.size();
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.windsurfspringapp.search;
+
+import com.example.windsurfspringapp.dto.ProductSnapshot;
+import com.example.windsurfspringapp.event.ChangeType;
+import com.example.windsurfspringapp.event.ProductChangedEvent;
+import com.example.windsurfspringapp.event.ProductsImportedEvent;
+import com.example.windsurfspringapp.repository.ProductRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.function.BiConsumer;
+import java.util.stream.Stream;
+
+/**
+ * Trigram index over product names, used to answer name searches without a {@code LIKE '%x%'} table scan.
+ */
+@Component
+public class ProductSearchIndex extends NameSearchIndex<ProductChangedEvent> {
+
+    private final ProductRepository productRepository;
+    private final TransactionTemplate readOnlyTransaction;
+
+    @Autowired
+    public ProductSearchIndex(ProductRepository productRepository,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${catalog.search.index.enabled:true}") boolean enabled) {
+        super(enabled);
+        this.productRepository = productRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    @Scheduled(initialDelayString = "${catalog.search.index.rebuild-interval:1h}",
+               fixedDelayString = "${catalog.search.index.rebuild-interval:1h}")
+    public void reconcile() {
+        rebuild();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        onChange(event);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductsImported(ProductsImportedEvent event) {
+        onChanges(event.changes());
+    }
+
+    @Override
+    protected void loadAll(Versions versions, BiConsumer<Long, String> sink) {
+        readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<ProductSnapshot> products = productRepository.streamSnapshotsBy()) {
+                products.forEach(product -> {
+                    versions.loaded(product.id(), product.updatedAt());
+                    sink.accept(product.id(), product.name());
+                });
+            }
+        });
+    }
+
+    @Override
+    protected boolean advance(Versions versions, ProductChangedEvent event) {
+        return versions.advance(event.productId(), event.updatedAt(), event.type() == ChangeType.DELETED);
+    }
+
+    @Override
+    protected void apply(TrigramIndex index, ProductChangedEvent event) {
+        if (event.type() == ChangeType.DELETED) {
+            index.remove(event.productId());
+        } else {
+            index.put(event.productId(), event.after().name());
+        }
+    }
+}
@@ -0,0 +1,260 @@
+package com.example.windsurfspringapp.search;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Base class for in-memory indexes that are rebuilt from the database at startup and then kept up
+ * to date from committed change events.
+ *
+ * <p>Changes committed while a rebuild is loading rows are queued and replayed onto the new index
+ * before it is published, so a rebuild never loses an update. Replaying must therefore be idempotent.</p>
+ *
+ * <p>After-commit callbacks of concurrent transactions may run in another order than their commits.
+ * Changes are therefore applied one at a time under a lock, and indexes over versioned rows record the
+ * {@code updatedAt} each entry was applied from in {@link Versions}: a change older than the recorded one
+ * is skipped, and a delete is remembered so that a late update cannot bring the row back. Subclasses
+ * also rebuild periodically to correct whatever slips past that, such as two writes within one
+ * microsecond.</p>
+ *
+ * @param <I> The index structure
+ * @param <E> The change event type
+ */
+public abstract class RebuildableIndex<I, E> {
+
+    private static final Logger log = LoggerFactory.getLogger(RebuildableIndex.class);
+
+    private final boolean enabled;
+    // Held while changes are applied, so they reach the index and its versions one at a time
+    private final ReentrantLock stateLock = new ReentrantLock();
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    private volatile I index;
+    private Versions versions = new Versions();
+    private List<E> backlog;
+
+    protected RebuildableIndex(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Whether the index has been built and can answer queries.
+     *
+     * @return true once the first rebuild has completed
+     */
+    public boolean isReady() {
+        return index != null;
+    }
+
+    /**
+     * Rebuild the index from the database and publish it.
+     */
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        rebuildLock.lock();
+        try {
+            rebuildExclusively();
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    private void rebuildExclusively() {
+        stateLock.lock();
+        try {
+            backlog = new ArrayList<>();
+        } finally {
+            stateLock.unlock();
+        }
+
+        I fresh;
+        Versions freshVersions = new Versions();
+        try {
+            fresh = load(freshVersions);
+        } catch (RuntimeException e) {
+            log.warn("Rebuilding {} failed; queries fall back to the database", getClass().getSimpleName(), e);
+            stateLock.lock();
+            try {
+                backlog = null;
+            } finally {
+                stateLock.unlock();
+            }
+            return;
+        }
+
+        stateLock.lock();
+        try {
+            applyNewer(fresh, freshVersions, backlog);
+            backlog = null;
+            index = fresh;
+            versions = freshVersions;
+        } finally {
+            stateLock.unlock();
+        }
+        log.info("{} built with {} entries", getClass().getSimpleName(), size(fresh));
+    }
+
+    /**
+     * The published index.
+     *
+     * @return The index
+     * @throws IllegalStateException if the index is not ready
+     */
+    protected I index() {
+        I current = index;
+        if (current == null) {
+            throw new IllegalStateException(getClass().getSimpleName() + " is not ready");
+        }
+        return current;
+    }
+
+    /**
+     * Apply a committed change to the index, and queue it for the new index if a rebuild is in progress.
+     *
+     * @param event The change event
+     */
+    protected void onChange(E event) {
+        onChanges(List.of(event));
+    }
+
+    /**
+     * Apply several committed changes to the index at once, and queue them for the new index if a
+     * rebuild is in progress.
+     *
+     * @param events The change events, in commit order
+     */
+    protected void onChanges(List<E> events) {
+        if (!enabled) {
+            return;
+        }
+        stateLock.lock();
+        try {
+            if (backlog != null) {
+                backlog.addAll(events);
+            }
+            if (index != null) {
+                applyNewer(index, versions, events);
+            }
+        } finally {
+            stateLock.unlock();
+        }
+    }
+
+    // Called under stateLock
+    private void applyNewer(I target, Versions targetVersions, List<E> events) {
+        List<E> newer = new ArrayList<>(events.size());
+        for (E event : events) {
+            if (advance(targetVersions, event)) {
+                newer.add(event);
+            }
+        }
+        if (newer.size() == 1) {
+            apply(target, newer.get(0));
+        } else if (!newer.isEmpty()) {
+            applyAll(target, newer);
+        }
+    }
+
+    /**
+     * Build a new index from the database.
+     *
+     * @param versions Receives the version of every loaded row, if the rows are versioned
+     * @return The index
+     */
+    protected abstract I load(Versions versions);
+
+    /**
+     * Record the version a change leaves its row at, unless a newer one is already recorded.
+     * Indexes over rows without a version apply every change.
+     *
+     * @param versions The versions of the index the change is applied to
+     * @param event The change event
+     * @return true if the change should be applied
+     */
+    protected boolean advance(Versions versions, E event) {
+        return true;
+    }
+
+    /**
+     * Apply a change event to an index.
+     *
+     * @param index The index to update
+     * @param event The change event
+     */
+    protected abstract void apply(I index, E event);
+
+    /**
+     * Apply several change events to an index. Indexes with a cheaper bulk update override this.
+     *
+     * @param index The index to update
+     * @param events The change events, in commit order
+     */
+    protected void applyAll(I index, List<E> events) {
+        events.forEach(event -> apply(index, event));
+    }
+
+    /**
+     * Number of entries in an index, for logging.
+     *
+     * @param index The index
+     * @return The entry count
+     */
+    protected abstract int size(I index);
+
+    /**
+     * The {@code updatedAt} each row of an index was last applied from, kept for deleted rows as well.
+     * Versions have the microsecond precision of the database; a delete orders after an update with the
+     * same timestamp.
+     */
+    protected static final class Versions {
+
+        private final Map<Long, Long> byId = new HashMap<>();
+
+        /**
+         * Record the version of a row loaded from the database.
+         *
+         * @param id The row ID
+         * @param updatedAt The row's last modification timestamp, or null if unknown
+         */
+        public void loaded(long id, LocalDateTime updatedAt) {
+            if (updatedAt != null) {
+                byId.put(id, encode(updatedAt, false));
+            }
+        }
+
+        /**
+         * Record the version a change leaves its row at, unless a newer one is already recorded.
+         *
+         * @param id The row ID
+         * @param updatedAt The timestamp the change carries, or null if unknown
+         * @param deleted Whether the change deletes the row
+         * @return false if the change is older than the recorded version
+         */
+        public boolean advance(long id, LocalDateTime updatedAt, boolean deleted) {
+            if (updatedAt == null) {
+                return true;
+            }
+            long version = encode(updatedAt, deleted);
+            Long current = byId.get(id);
+            if (current != null && version < current) {
+                return false;
+            }
+            byId.put(id, version);
+            return true;
+        }
+
+        private static long encode(LocalDateTime updatedAt, boolean deleted) {
+            long micros = updatedAt.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + (updatedAt.getNano() + 500) / 1_000;
+            return micros * 2 + (deleted ? 1 : 0);
+        }
+    }
+}
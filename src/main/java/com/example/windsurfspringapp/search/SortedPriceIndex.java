@@ -0,0 +1,377 @@
+package com.example.windsurfspringapp.search;
+
+import com.example.windsurfspringapp.counter.LongLongHashMap;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory index of prices in cents, kept as a {@code long[]} sorted by {@code (cents, id)} beside a
+ * parallel {@code long[]} of IDs.
+ *
+ * <p>Range queries are two binary searches followed by an array copy, and comparisons never leave
+ * primitive {@code long}s. Updates shift the tail of the arrays, which is cheap next to the database
+ * write that triggers them; bulk inserts are merged in one pass instead.</p>
+ *
+ * <p>The index is safe for concurrent use: queries share a read lock, updates take the write lock.</p>
+ */
+public class SortedPriceIndex {
+
+    /**
+     * A slice of IDs in {@code (price, id)} order.
+     *
+     * @param ids The IDs in the slice
+     * @param hasNext Whether more IDs follow the slice within the queried range
+     */
+    public record Slice(long[] ids, boolean hasNext) {
+    }
+
+    private static final int MIN_CAPACITY = 16;
+    // Below this length a range is sorted by insertion rather than partitioned
+    private static final int INSERTION_SORT_THRESHOLD = 24;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final LongLongHashMap centsById;
+    private long[] cents;
+    private long[] ids;
+    private int size;
+
+    public SortedPriceIndex() {
+        this(new long[0], new long[0], 0);
+    }
+
+    private SortedPriceIndex(long[] cents, long[] ids, int size) {
+        this.cents = cents.length < MIN_CAPACITY ? Arrays.copyOf(cents, MIN_CAPACITY) : cents;
+        this.ids = ids.length < MIN_CAPACITY ? Arrays.copyOf(ids, MIN_CAPACITY) : ids;
+        this.size = size;
+        this.centsById = new LongLongHashMap(size);
+        for (int i = 0; i < size; i++) {
+            centsById.put(ids[i], cents[i]);
+        }
+    }
+
+    /**
+     * Build an index from unordered pairs in one pass and one sort.
+     *
+     * @param cents Prices in cents; the array is taken over and sorted in place
+     * @param ids IDs parallel to the prices; the array is taken over and sorted in place
+     * @param size The number of pairs
+     * @return The index
+     */
+    public static SortedPriceIndex of(long[] cents, long[] ids, int size) {
+        sort(cents, ids, 0, size - 1);
+        return new SortedPriceIndex(cents, ids, size);
+    }
+
+    /**
+     * Index a price, replacing any previous price of the same ID.
+     *
+     * @param id The ID
+     * @param priceCents The price in cents
+     */
+    public void put(long id, long priceCents) {
+        lock.writeLock().lock();
+        try {
+            if (centsById.containsKey(id)) {
+                long previous = centsById.get(id, 0);
+                if (previous == priceCents) {
+                    return;
+                }
+                removeAt(lowerBound(previous, id));
+            }
+            centsById.put(id, priceCents);
+            insertAt(lowerBound(priceCents, id), priceCents, id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Index many prices at once, replacing any previous prices of the same IDs. New entries are sorted
+     * and merged into the index in one pass, so the cost is linear in the index size per call rather
+     * than per price. A later price for the same ID replaces an earlier one.
+     *
+     * @param ids The IDs
+     * @param priceCents Prices in cents, parallel to the IDs
+     * @param count The number of pairs
+     */
+    public void putAll(long[] ids, long[] priceCents, int count) {
+        if (count == 0) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            long[] addedCents = new long[count];
+            long[] addedIds = new long[count];
+            LongLongHashMap positions = new LongLongHashMap(count);
+            int added = 0;
+            for (int i = 0; i < count; i++) {
+                long id = ids[i];
+                if (positions.containsKey(id)) {
+                    addedCents[(int) positions.get(id, 0)] = priceCents[i];
+                    centsById.put(id, priceCents[i]);
+                    continue;
+                }
+                if (centsById.containsKey(id)) {
+                    long previous = centsById.get(id, 0);
+                    if (previous == priceCents[i]) {
+                        continue;
+                    }
+                    removeAt(lowerBound(previous, id));
+                }
+                centsById.put(id, priceCents[i]);
+                positions.put(id, added);
+                addedCents[added] = priceCents[i];
+                addedIds[added] = id;
+                added++;
+            }
+            sort(addedCents, addedIds, 0, added - 1);
+            mergeFromEnd(addedCents, addedIds, added);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove an ID from the index.
+     *
+     * @param id The ID
+     */
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            if (centsById.containsKey(id)) {
+                removeAt(lowerBound(centsById.get(id, 0), id));
+                centsById.remove(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Keep the IDs whose indexed price lies within a range.
+     *
+     * @param candidates IDs in any order
+     * @param minCents Lowest price in cents, inclusive
+     * @param maxCents Highest price in cents, inclusive
+     * @return The indexed IDs within the range, in their original order
+     */
+    public long[] retainInRange(long[] candidates, long minCents, long maxCents) {
+        long[] kept = new long[candidates.length];
+        int count = 0;
+        lock.readLock().lock();
+        try {
+            for (long id : candidates) {
+                if (centsById.containsKey(id)) {
+                    long price = centsById.get(id, 0);
+                    if (price >= minCents && price <= maxCents) {
+                        kept[count++] = id;
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return Arrays.copyOf(kept, count);
+    }
+
+    /**
+     * IDs whose price lies within a range.
+     *
+     * @param minCents Lowest price in cents, inclusive
+     * @param maxCents Highest price in cents, inclusive
+     * @return Matching IDs in {@code (price, id)} order
+     */
+    public long[] range(long minCents, long maxCents) {
+        lock.readLock().lock();
+        try {
+            int from = lowerBound(minCents, Long.MIN_VALUE);
+            int to = upperBound(maxCents);
+            return from >= to ? new long[0] : Arrays.copyOfRange(ids, from, to);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Number of IDs whose price lies within a range.
+     *
+     * @param minCents Lowest price in cents, inclusive
+     * @param maxCents Highest price in cents, inclusive
+     * @return The number of matching IDs
+     */
+    public int count(long minCents, long maxCents) {
+        lock.readLock().lock();
+        try {
+            return Math.max(0, upperBound(maxCents) - lowerBound(minCents, Long.MIN_VALUE));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * One page of IDs within a range, continuing after a {@code (price, id)} position.
+     *
+     * @param minCents Lowest price in cents, inclusive
+     * @param maxCents Highest price in cents, inclusive
+     * @param afterCents Price of the last row of the previous page, ignored if afterId is null
+     * @param afterId ID of the last row of the previous page, or null for the first page
+     * @param limit The maximum number of IDs
+     * @return The page of IDs in {@code (price, id)} order
+     */
+    public Slice page(long minCents, long maxCents, long afterCents, Long afterId, int limit) {
+        lock.readLock().lock();
+        try {
+            int from = lowerBound(minCents, Long.MIN_VALUE);
+            if (afterId != null) {
+                int after = lowerBound(afterCents, afterId);
+                if (after < size && cents[after] == afterCents && ids[after] == afterId) {
+                    after++;
+                }
+                from = Math.max(from, after);
+            }
+            int end = upperBound(maxCents);
+            int to = (int) Math.min((long) from + limit, end);
+            return from >= to
+                    ? new Slice(new long[0], false)
+                    : new Slice(Arrays.copyOfRange(ids, from, to), to < end);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Number of indexed IDs.
+     *
+     * @return The ID count
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // First position whose (cents, id) is at or after the given pair
+    private int lowerBound(long priceCents, long id) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (cents[mid] < priceCents || (cents[mid] == priceCents && ids[mid] < id)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // First position whose price is above the given price
+    private int upperBound(long priceCents) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (cents[mid] <= priceCents) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private void insertAt(int position, long priceCents, long id) {
+        if (size == cents.length) {
+            int capacity = cents.length + (cents.length >> 1);
+            cents = Arrays.copyOf(cents, capacity);
+            ids = Arrays.copyOf(ids, capacity);
+        }
+        System.arraycopy(cents, position, cents, position + 1, size - position);
+        System.arraycopy(ids, position, ids, position + 1, size - position);
+        cents[position] = priceCents;
+        ids[position] = id;
+        size++;
+    }
+
+    // Merge sorted pairs into the arrays, filling them from the end so that no entry moves twice
+    private void mergeFromEnd(long[] addedCents, long[] addedIds, int added) {
+        if (size + added > cents.length) {
+            int capacity = Math.max(size + added, cents.length + (cents.length >> 1));
+            cents = Arrays.copyOf(cents, capacity);
+            ids = Arrays.copyOf(ids, capacity);
+        }
+        int existing = size - 1;
+        int next = added - 1;
+        for (int target = size + added - 1; next >= 0; target--) {
+            if (existing >= 0 && less(addedCents[next], addedIds[next], cents[existing], ids[existing])) {
+                cents[target] = cents[existing];
+                ids[target] = ids[existing];
+                existing--;
+            } else {
+                cents[target] = addedCents[next];
+                ids[target] = addedIds[next];
+                next--;
+            }
+        }
+        size += added;
+    }
+
+    private void removeAt(int position) {
+        System.arraycopy(cents, position + 1, cents, position, size - position - 1);
+        System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+        size--;
+    }
+
+    // Quicksort of the parallel arrays by (cents, id)
+    private static void sort(long[] cents, long[] ids, int low, int high) {
+        while (high - low >= INSERTION_SORT_THRESHOLD) {
+            int mid = (low + high) >>> 1;
+            long pivotCents = cents[mid];
+            long pivotId = ids[mid];
+            int i = low;
+            int j = high;
+            while (i <= j) {
+                while (less(cents[i], ids[i], pivotCents, pivotId)) {
+                    i++;
+                }
+                while (less(pivotCents, pivotId, cents[j], ids[j])) {
+                    j--;
+                }
+                if (i <= j) {
+                    swap(cents, ids, i++, j--);
+                }
+            }
+            // Recurse into the smaller part to bound the stack depth
+            if (j - low < high - i) {
+                sort(cents, ids, low, j);
+                low = i;
+            } else {
+                sort(cents, ids, i, high);
+                high = j;
+            }
+        }
+        for (int i = low + 1; i <= high; i++) {
+            for (int j = i; j > low && less(cents[j], ids[j], cents[j - 1], ids[j - 1]); j--) {
+                swap(cents, ids, j, j - 1);
+            }
+        }
+    }
+
+    private static boolean less(long leftCents, long leftId, long rightCents, long rightId) {
+        return leftCents < rightCents || (leftCents == rightCents && leftId < rightId);
+    }
+
+    private static void swap(long[] cents, long[] ids, int i, int j) {
+        long c = cents[i];
+        cents[i] = cents[j];
+        cents[j] = c;
+        long id = ids[i];
+        ids[i] = ids[j];
+        ids[j] = id;
+    }
+}
@@ -0,0 +1,173 @@
+package com.example.windsurfspringapp.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index from character trigrams to document IDs, answering case-insensitive
+ * substring queries ({@code LIKE '%query%'}) without scanning every document.
+ *
+ * <p>A query of three or more characters is answered by intersecting the posting lists of its trigrams,
+ * smallest first, and then checking the surviving candidates against the indexed text to drop false positives.
+ * Shorter queries have no trigram to seek on and fall back to scanning the indexed text in memory.</p>
+ *
+ * <p>The index is safe for concurrent use: searches share a read lock, updates take the write lock.</p>
+ */
+public class TrigramIndex {
+
+    private static final int GRAM = 3;
+
+    private final Map<Long, String> documents = new HashMap<>();
+    private final Map<Long, PostingList> postings = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Index a document, replacing any previous text indexed under the same ID.
+     *
+     * @param id The document ID
+     * @param text The text to index
+     */
+    public void put(long id, String text) {
+        String normalized = normalize(text);
+        lock.writeLock().lock();
+        try {
+            String previous = documents.put(id, normalized);
+            if (previous != null) {
+                if (previous.equals(normalized)) {
+                    return;
+                }
+                removePostings(id, previous);
+            }
+            for (long trigram : trigrams(normalized)) {
+                postings.computeIfAbsent(trigram, key -> new PostingList()).add(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove a document from the index.
+     *
+     * @param id The document ID
+     */
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            String previous = documents.remove(id);
+            if (previous != null) {
+                removePostings(id, previous);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Find documents whose text contains the query (case insensitive).
+     *
+     * @param query The substring to look for
+     * @return IDs of matching documents in ascending order
+     */
+    public long[] search(String query) {
+        String normalized = normalize(query);
+        lock.readLock().lock();
+        try {
+            if (normalized.length() < GRAM) {
+                return scan(normalized);
+            }
+            List<PostingList> lists = new ArrayList<>();
+            for (long trigram : trigrams(normalized)) {
+                PostingList list = postings.get(trigram);
+                if (list == null) {
+                    return new long[0];
+                }
+                lists.add(list);
+            }
+            lists.sort((a, b) -> Integer.compare(a.size(), b.size()));
+
+            long[] candidates = lists.get(0).toArray();
+            int count = candidates.length;
+            for (int i = 1; i < lists.size() && count > 0; i++) {
+                count = retain(candidates, count, lists.get(i));
+            }
+
+            // Trigram intersection is necessary but not sufficient: "abcd" and "bcda" share trigrams
+            int matches = 0;
+            for (int i = 0; i < count; i++) {
+                if (documents.get(candidates[i]).contains(normalized)) {
+                    candidates[matches++] = candidates[i];
+                }
+            }
+            return Arrays.copyOf(candidates, matches);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Number of indexed documents.
+     *
+     * @return The document count
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private long[] scan(String normalized) {
+        long[] matches = new long[documents.size()];
+        int count = 0;
+        for (Map.Entry<Long, String> document : documents.entrySet()) {
+            if (document.getValue().contains(normalized)) {
+                matches[count++] = document.getKey();
+            }
+        }
+        long[] result = Arrays.copyOf(matches, count);
+        Arrays.sort(result);
+        return result;
+    }
+
+    private void removePostings(long id, String text) {
+        for (long trigram : trigrams(text)) {
+            PostingList list = postings.get(trigram);
+            if (list != null && list.remove(id) && list.size() == 0) {
+                postings.remove(trigram);
+            }
+        }
+    }
+
+    // Keep the first count candidates that also appear in the list, compacting them to the front
+    private static int retain(long[] candidates, int count, PostingList list) {
+        int kept = 0;
+        for (int i = 0; i < count; i++) {
+            if (list.contains(candidates[i])) {
+                candidates[kept++] = candidates[i];
+            }
+        }
+        return kept;
+    }
+
+    private static Set<Long> trigrams(String text) {
+        Set<Long> trigrams = new LinkedHashSet<>();
+        for (int i = 0; i + GRAM <= text.length(); i++) {
+            trigrams.add(((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2));
+        }
+        return trigrams;
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.windsurfspringapp.service;
+
+import com.example.windsurfspringapp.dto.BatchItemResult;
+import com.example.windsurfspringapp.dto.StockSyncResult;
+import com.example.windsurfspringapp.model.Category;
+import com.example.windsurfspringapp.model.Product;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+/**
+ * Service interface for creating and updating products and categories in bulk.
+ * Items are written in chunks, each in its own transaction and flushed as JDBC batches.
+ * A failing item is reported in its result and does not prevent the other items from being written.
+ */
+public interface CatalogBatchService {
+
+    /**
+     * Create products without an ID and update products with an ID.
+     * A product's category is referenced by its ID only.
+     *
+     * @param products The products to write
+     * @return One result per product, in request order
+     */
+    List<BatchItemResult> saveProducts(List<Product> products);
+
+    /**
+     * Create categories without an ID and update categories with an ID.
+     * Category names must be unique (case insensitive) across the batch and the existing catalog.
+     *
+     * @param categories The categories to write
+     * @return One result per category, in request order
+     */
+    List<BatchItemResult> saveCategories(List<Category> categories);
+
+    /**
+     * Replace the stock levels of many products, e.g. from a warehouse sync.
+     * The levels are read incrementally from a JSON array of {@code {"id": ..., "quantity": ...}} objects;
+     * a later entry for the same product replaces an earlier one. Nothing is written unless the whole
+     * array is well formed. Rows are updated without loading the products, and rows that already hold
+     * the requested level are left untouched. A chunk that fails to commit is rolled back and reported,
+     * while the other chunks are still applied.
+     *
+     * @param levels The JSON array
+     * @param maxLevels The largest number of entries to accept
+     * @return Counts of updated and unchanged products, unknown IDs, IDs of failed chunks and rejected entries
+     * @throws com.fasterxml.jackson.core.JsonProcessingException if the input is not a well-formed array
+     *         of stock levels or has more than {@code maxLevels} entries
+     * @throws IOException if the input cannot be read
+     */
+    StockSyncResult syncStockLevels(InputStream levels, int maxLevels) throws IOException;
+}
@@ -0,0 +1,36 @@
+package com.example.windsurfspringapp.service;
+
+import com.example.windsurfspringapp.dto.SnapshotSummary;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Optional;
+
+/**
+ * Service interface for saving the catalog to a binary snapshot file and loading it back at startup,
+ * so that a restart does not have to rebuild a large catalog row by row.
+ */
+public interface CatalogSnapshotService {
+
+    /**
+     * Write all categories and products, and the IDs currently held by the entity caches, to a snapshot.
+     * The rows are read in one read-only transaction, so the snapshot is consistent. The file replaces
+     * any previous snapshot at the same path only once it is complete.
+     *
+     * @param file The snapshot file
+     * @return What was written
+     * @throws IOException if the file cannot be written
+     */
+    SnapshotSummary writeSnapshot(Path file) throws IOException;
+
+    /**
+     * Load a snapshot into an empty catalog and warm the entity caches with the entries cached when it
+     * was written. Rows are inserted in JDBC batches without publishing change events; the in-memory
+     * indexes and counters pick them up when they rebuild at startup.
+     *
+     * @param file The snapshot file
+     * @return What was restored, or empty if the file does not exist or the catalog is not empty
+     * @throws IOException if the file cannot be read or is not a valid snapshot
+     */
+    Optional<SnapshotSummary> restoreSnapshot(Path file) throws IOException;
+}
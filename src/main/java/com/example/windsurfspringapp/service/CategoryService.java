@@ -1,10 +1,15 @@
 package com.example.windsurfspringapp.service;
 
+import com.example.windsurfspringapp.dto.CategoryStats;
 import com.example.windsurfspringapp.model.Category;
+import com.example.windsurfspringapp.paging.CursorRequest;
+import org.springframework.data.domain.Window;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Service interface for managing product categories.
@@ -18,6 +23,22 @@ public interface CategoryService {
      */
     List<Category> findAllCategories();
 
+    /**
+     * Find one keyset page of all categories.
+     *
+     * @param page The sort key, position and size of the page
+     * @return The page of categories
+     */
+    Window<Category> findAllCategories(CursorRequest page);
+
+    /**
+     * Find one keyset page of categories on the catalog query executor.
+     *
+     * @param page The sort key, position and size of the page
+     * @return Future of the page of categories
+     */
+    CompletableFuture<Window<Category>> findAllCategoriesAsync(CursorRequest page);
+
     /**
      * Find a category by its ID.
      *
@@ -26,6 +47,14 @@ public interface CategoryService {
      */
     Optional<Category> findCategoryById(Long id);
 
+    /**
+     * Find the last modification timestamp of a category.
+     *
+     * @param id The category ID
+     * @return Optional containing the timestamp if the category exists
+     */
+    Optional<LocalDateTime> findCategoryVersion(Long id);
+
     /**
      * Find a category by its name (case insensitive).
      *
@@ -59,6 +88,15 @@ public interface CategoryService {
      */
     List<Category> searchCategoriesByName(String name);
 
+    /**
+     * Find one keyset page of categories whose name contains the given string (case insensitive).
+     *
+     * @param name The name to search for
+     * @param page The sort key, position and size of the page
+     * @return The page of matching categories
+     */
+    Window<Category> searchCategoriesByName(String name, CursorRequest page);
+
     /**
      * Find all categories that have at least one product.
      *
@@ -73,6 +111,20 @@ public interface CategoryService {
      */
     Map<Long, Long> getCategoryProductCounts();
 
+    /**
+     * Get a map of category IDs to their product counts on the catalog query executor.
+     *
+     * @return Future of the map of category ID to product count
+     */
+    CompletableFuture<Map<Long, Long>> getCategoryProductCountsAsync();
+
+    /**
+     * Get the price and stock aggregates of each category.
+     *
+     * @return Aggregates ordered by category ID, including categories without products
+     */
+    List<CategoryStats> getCategoryStatistics();
+
     /**
      * Check if a category with the given name already exists.
      *
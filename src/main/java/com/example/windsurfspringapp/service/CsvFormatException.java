@@ -0,0 +1,24 @@
+package com.example.windsurfspringapp.service;
+
+import java.io.IOException;
+
+/**
+ * Thrown when CSV input cannot be split into rows, or its header does not name the expected columns.
+ * Invalid values within a well-formed row are reported per row instead.
+ */
+public class CsvFormatException extends IOException {
+
+    private final long line;
+
+    public CsvFormatException(long line, String message) {
+        super("Line " + line + ": " + message);
+        this.line = line;
+    }
+
+    /**
+     * @return The line of the input the problem was found on
+     */
+    public long getLine() {
+        return line;
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.windsurfspringapp.service;
+
+import org.springframework.http.MediaType;
+
+import java.util.Optional;
+
+/**
+ * Output formats supported by the catalog export.
+ */
+public enum ExportFormat {
+
+    NDJSON("ndjson", MediaType.parseMediaType("application/x-ndjson")),
+    CSV("csv", MediaType.parseMediaType("text/csv"));
+
+    private final String extension;
+    private final MediaType mediaType;
+
+    ExportFormat(String extension, MediaType mediaType) {
+        this.extension = extension;
+        this.mediaType = mediaType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    /**
+     * Resolve a format from a request parameter such as {@code ndjson} or {@code csv}.
+     *
+     * @param parameter The request parameter value
+     * @return Optional containing the format if supported, empty otherwise
+     */
+    public static Optional<ExportFormat> fromParameter(String parameter) {
+        for (ExportFormat format : values()) {
+            if (format.extension.equalsIgnoreCase(parameter)) {
+                return Optional.of(format);
+            }
+        }
+        return Optional.empty();
+    }
+}
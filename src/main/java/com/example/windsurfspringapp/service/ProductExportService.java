@@ -0,0 +1,22 @@
+package com.example.windsurfspringapp.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Service interface for exporting the product catalog.
+ */
+public interface ProductExportService {
+
+    /**
+     * Write every product to the given stream, one row per product.
+     * Rows are read through a server-side cursor within a single read-only transaction,
+     * so the export is a consistent snapshot and heap use does not grow with the catalog size.
+     *
+     * @param format The output format
+     * @param out The stream to write to; it is flushed but not closed
+     * @return The number of products written
+     * @throws IOException if writing to the stream fails
+     */
+    long exportProducts(ExportFormat format, OutputStream out) throws IOException;
+}
@@ -0,0 +1,27 @@
+package com.example.windsurfspringapp.service;
+
+import com.example.windsurfspringapp.dto.ProductImportResult;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Service interface for importing products from CSV files too large to hold in memory.
+ */
+public interface ProductImportService {
+
+    /**
+     * Create one product per CSV row.
+     * The first row is a header naming the columns; {@code name}, {@code price} and {@code stockQuantity}
+     * are required, {@code description} and either {@code category} (a category name) or {@code categoryId}
+     * are optional, and other columns are ignored, so files written by the CSV export can be imported.
+     * Rows are parsed in parallel and written in chunks, each in its own transaction. Invalid rows are
+     * reported and do not prevent the other rows from being imported.
+     *
+     * @param csv The UTF-8 encoded CSV input; it is not closed
+     * @return Counts of imported and failed rows, and the first errors
+     * @throws CsvFormatException if the header is missing or lacks a required column
+     * @throws IOException if the input cannot be read
+     */
+    ProductImportResult importProducts(InputStream csv) throws IOException;
+}
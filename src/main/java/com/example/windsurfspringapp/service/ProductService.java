@@ -1,10 +1,17 @@
 package com.example.windsurfspringapp.service;
 
+import com.example.windsurfspringapp.dto.ProductFacets;
+import com.example.windsurfspringapp.dto.ProductQuery;
+import com.example.windsurfspringapp.dto.ProductVersion;
+import com.example.windsurfspringapp.dto.StockAdjustment;
 import com.example.windsurfspringapp.model.Product;
+import com.example.windsurfspringapp.paging.CursorRequest;
+import org.springframework.data.domain.Window;
 
 import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Service interface for managing products.
@@ -18,6 +25,14 @@ public interface ProductService {
      */
     List<Product> findAllProducts();
 
+    /**
+     * Find one keyset page of all products.
+     *
+     * @param page The sort key, position and size of the page
+     * @return The page of products
+     */
+    Window<Product> findAllProducts(CursorRequest page);
+
     /**
      * Find a product by its ID.
      *
@@ -26,6 +41,14 @@ public interface ProductService {
      */
     Optional<Product> findProductById(Long id);
 
+    /**
+     * Find the version of a product: the columns its representation can change with.
+     *
+     * @param id The product ID
+     * @return Optional containing the version if the product exists
+     */
+    Optional<ProductVersion> findProductVersion(Long id);
+
     /**
      * Save a new product or update an existing one.
      *
@@ -50,6 +73,15 @@ public interface ProductService {
      */
     List<Product> searchProductsByName(String name);
 
+    /**
+     * Find one keyset page of products whose name contains the given string (case insensitive).
+     *
+     * @param name The name to search for
+     * @param page The sort key, position and size of the page
+     * @return The page of matching products
+     */
+    Window<Product> searchProductsByName(String name, CursorRequest page);
+
     /**
      * Find products by category ID.
      *
@@ -58,6 +90,24 @@ public interface ProductService {
      */
     List<Product> findProductsByCategory(Long categoryId);
 
+    /**
+     * Find one keyset page of products in a category.
+     *
+     * @param categoryId The category ID
+     * @param page The sort key, position and size of the page
+     * @return The page of products in the category
+     */
+    Window<Product> findProductsByCategory(Long categoryId, CursorRequest page);
+
+    /**
+     * Find one keyset page of products in a category on the catalog query executor.
+     *
+     * @param categoryId The category ID
+     * @param page The sort key, position and size of the page
+     * @return Future of the page of products in the category
+     */
+    CompletableFuture<Window<Product>> findProductsByCategoryAsync(Long categoryId, CursorRequest page);
+
     /**
      * Find products with price less than or equal to the specified maximum.
      *
@@ -76,6 +126,17 @@ public interface ProductService {
      */
     List<Product> findProductsByNameAndPriceRange(String name, BigDecimal minPrice, BigDecimal maxPrice);
 
+    /**
+     * Find one keyset page of products with price in range and, optionally, a matching name.
+     *
+     * @param name The product name (partial match), or null/blank to match any name
+     * @param minPrice The minimum price
+     * @param maxPrice The maximum price
+     * @param page The sort key, position and size of the page
+     * @return The page of matching products
+     */
+    Window<Product> findProductsByPriceRange(String name, BigDecimal minPrice, BigDecimal maxPrice, CursorRequest page);
+
     /**
      * Find products that are low in stock (below the specified threshold).
      *
@@ -84,6 +145,42 @@ public interface ProductService {
      */
     List<Product> findLowStockProducts(Integer threshold);
 
+    /**
+     * Find one keyset page of products that are low in stock (below the specified threshold).
+     *
+     * @param threshold The stock threshold
+     * @param page The sort key, position and size of the page
+     * @return The page of products with stock quantity below threshold
+     */
+    Window<Product> findLowStockProducts(Integer threshold, CursorRequest page);
+
+    /**
+     * Find one keyset page of products that are low in stock on the catalog query executor.
+     *
+     * @param threshold The stock threshold
+     * @param page The sort key, position and size of the page
+     * @return Future of the page of products with stock quantity below threshold
+     */
+    CompletableFuture<Window<Product>> findLowStockProductsAsync(Integer threshold, CursorRequest page);
+
+    /**
+     * Find one keyset page of the products matching every filter of a query, with one database query.
+     *
+     * @param query The filters
+     * @param page The sort key, position and size of the page
+     * @return The page of matching products
+     */
+    Window<Product> queryProducts(ProductQuery query, CursorRequest page);
+
+    /**
+     * Count the products matching every filter of a query, per category and per price bucket.
+     *
+     * @param query The filters
+     * @param priceBounds Ascending bounds between the price buckets
+     * @return The counts; one more price bucket than there are bounds
+     */
+    ProductFacets findProductFacets(ProductQuery query, List<BigDecimal> priceBounds);
+
     /**
      * Update the stock quantity of a product.
      *
@@ -92,4 +189,25 @@ public interface ProductService {
      * @return The updated product, or empty if the product doesn't exist
      */
     Optional<Product> updateProductStock(Long productId, Integer quantity);
+
+    /**
+     * Take stock from a product if at least the given amount is available.
+     * The check and the update are a single conditional statement, so concurrent
+     * decrements never oversell or overwrite each other.
+     *
+     * @param productId The product ID
+     * @param amount The amount to take, must be positive
+     * @return The new stock level, or why the stock was not changed
+     */
+    StockAdjustment decrementStock(Long productId, int amount);
+
+    /**
+     * Add stock to a product in a single statement. The stock level never passes
+     * {@link Integer#MAX_VALUE}; an addition that would is refused.
+     *
+     * @param productId The product ID
+     * @param amount The amount to add, must be positive
+     * @return The new stock level, or why the stock was not changed
+     */
+    StockAdjustment incrementStock(Long productId, int amount);
 }
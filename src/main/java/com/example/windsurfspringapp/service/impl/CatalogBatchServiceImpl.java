@@ -0,0 +1,466 @@
+package com.example.windsurfspringapp.service.impl;
+
+import com.example.windsurfspringapp.counter.LongLongHashMap;
+import com.example.windsurfspringapp.dto.BatchItemResult;
+import com.example.windsurfspringapp.dto.ProductSnapshot;
+import com.example.windsurfspringapp.dto.StockSyncResult;
+import com.example.windsurfspringapp.event.CategoryChangedEvent;
+import com.example.windsurfspringapp.event.ProductChangedEvent;
+import com.example.windsurfspringapp.event.StockChangedEvent;
+import com.example.windsurfspringapp.inventory.StockLedger;
+import com.example.windsurfspringapp.model.Category;
+import com.example.windsurfspringapp.model.Product;
+import com.example.windsurfspringapp.repository.CategoryRepository;
+import com.example.windsurfspringapp.repository.ProductRepository;
+import com.example.windsurfspringapp.service.CatalogBatchService;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Implementation of the CatalogBatchService interface.
+ * Each chunk is validated up front against the database with one query per referenced table,
+ * then written with Hibernate JDBC batching and cleared from the persistence context.
+ * Change events for the items of a chunk are published inside its transaction, so listeners
+ * bound to the commit only see chunks that were written.
+ *
+ * <p>Stock level syncs bypass the persistence context: each chunk reads and locks the current levels
+ * with one query and writes the changed ones with one JDBC batch. A chunk that fails is reported by
+ * the IDs it held and the sync carries on with the next one. Stock of products held in the
+ * {@link StockLedger} is set there instead.</p>
+ */
+@Service
+public class CatalogBatchServiceImpl implements CatalogBatchService {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogBatchServiceImpl.class);
+
+    // Largest value that fits the products.price column (precision 10, scale 2)
+    private static final BigDecimal MAX_PRICE = new BigDecimal("99999999.99");
+
+    private static final JsonFactory JSON = new JsonFactory();
+
+    private static final String SET_STOCK_SQL =
+            "UPDATE products SET stock_quantity = ?, updated_at = ? WHERE id = ?";
+
+    private final ProductRepository productRepository;
+    private final CategoryRepository categoryRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final JdbcTemplate jdbcTemplate;
+    private final StockLedger stockLedger;
+    private final int chunkSize;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    public CatalogBatchServiceImpl(ProductRepository productRepository,
+                                   CategoryRepository categoryRepository,
+                                   PlatformTransactionManager transactionManager,
+                                   ApplicationEventPublisher eventPublisher,
+                                   JdbcTemplate jdbcTemplate,
+                                   StockLedger stockLedger,
+                                   @Value("${catalog.batch.chunk-size:500}") int chunkSize) {
+        this.productRepository = productRepository;
+        this.categoryRepository = categoryRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.jdbcTemplate = jdbcTemplate;
+        this.stockLedger = stockLedger;
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public List<BatchItemResult> saveProducts(List<Product> products) {
+        BatchItemResult[] results = new BatchItemResult[products.size()];
+        for (int start = 0; start < products.size(); start += chunkSize) {
+            int from = start;
+            int to = Math.min(start + chunkSize, products.size());
+            try {
+                transactionTemplate.executeWithoutResult(status -> writeProductChunk(products, from, to, results));
+            } catch (RuntimeException e) {
+                failChunk(results, from, to, products, Product::getId, e);
+            }
+        }
+        return Arrays.asList(results);
+    }
+
+    @Override
+    public List<BatchItemResult> saveCategories(List<Category> categories) {
+        BatchItemResult[] results = new BatchItemResult[categories.size()];
+        // Names written by committed chunks; a rolled-back chunk leaves its names free for later items
+        Set<String> namesInBatch = new HashSet<>();
+        for (int start = 0; start < categories.size(); start += chunkSize) {
+            int from = start;
+            int to = Math.min(start + chunkSize, categories.size());
+            try {
+                namesInBatch.addAll(transactionTemplate.execute(
+                        status -> writeCategoryChunk(categories, from, to, namesInBatch, results)));
+            } catch (RuntimeException e) {
+                failChunk(results, from, to, categories, Category::getId, e);
+            }
+        }
+        return Arrays.asList(results);
+    }
+
+    @Override
+    public StockSyncResult syncStockLevels(InputStream in, int maxLevels) throws IOException {
+        LongLongHashMap levels = new LongLongHashMap();
+        List<BatchItemResult> rejected = new ArrayList<>();
+        int received = readStockLevels(in, maxLevels, levels, rejected);
+
+        StockSyncTally tally = new StockSyncTally();
+        long[] ids = new long[levels.size()];
+        int[] next = {0};
+        levels.forEach((id, quantity) -> {
+            if (!stockLedger.manages(id)) {
+                ids[next[0]++] = id;
+                return;
+            }
+            Optional<Integer> previous = stockLedger.set(id, (int) quantity);
+            if (previous.isEmpty()) {
+                tally.unknownIds.add(id);
+            } else if (previous.get() == quantity) {
+                tally.unchanged++;
+            } else {
+                tally.updated++;
+            }
+        });
+        long[] rowIds = Arrays.copyOf(ids, next[0]);
+        // Rows are locked in ID order, so concurrent syncs cannot deadlock
+        Arrays.sort(rowIds);
+
+        for (int start = 0; start < rowIds.length; start += chunkSize) {
+            int from = start;
+            int to = Math.min(start + chunkSize, rowIds.length);
+            try {
+                StockSyncTally chunk = transactionTemplate.execute(status -> writeStockChunk(rowIds, from, to, levels));
+                tally.add(chunk);
+            } catch (RuntimeException e) {
+                log.warn("Stock sync chunk of {} products rolled back", to - from, e);
+                for (int i = from; i < to; i++) {
+                    tally.failedIds.add(rowIds[i]);
+                }
+            }
+        }
+        Collections.sort(tally.unknownIds);
+        return new StockSyncResult(received, tally.updated, tally.unchanged, tally.unknownIds, tally.failedIds,
+                rejected);
+    }
+
+    /**
+     * Parse a JSON array of stock levels token by token. Valid entries are collected by product ID,
+     * so a later entry for a product replaces an earlier one.
+     *
+     * @return The number of entries in the array
+     */
+    private static int readStockLevels(InputStream in, int maxLevels, LongLongHashMap levels,
+                                       List<BatchItemResult> rejected) throws IOException {
+        try (JsonParser parser = JSON.createParser(in)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new JsonParseException(parser, "Expected an array of stock levels");
+            }
+            int index = 0;
+            for (JsonToken token = parser.nextToken(); token != JsonToken.END_ARRAY; token = parser.nextToken()) {
+                if (token != JsonToken.START_OBJECT) {
+                    throw new JsonParseException(parser, "Expected a stock level object");
+                }
+                if (index == maxLevels) {
+                    throw new JsonParseException(parser, "Expected at most " + maxLevels + " stock levels");
+                }
+                Long id = null;
+                Long quantity = null;
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String field = parser.currentName();
+                    JsonToken value = parser.nextToken();
+                    // Numbers too large for a long are rejected with their item instead of failing the request
+                    boolean fitsLong = value == JsonToken.VALUE_NUMBER_INT
+                            && parser.getNumberType() != JsonParser.NumberType.BIG_INTEGER;
+                    if ("id".equals(field) && fitsLong) {
+                        id = parser.getLongValue();
+                    } else if ("quantity".equals(field) && value == JsonToken.VALUE_NUMBER_INT) {
+                        quantity = fitsLong ? parser.getLongValue()
+                                : parser.getBigIntegerValue().signum() < 0 ? Long.MIN_VALUE : Long.MAX_VALUE;
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+                if (id == null || id < 1) {
+                    rejected.add(BatchItemResult.failed(index, id, "ID must be a positive integer"));
+                } else if (quantity == null || quantity < 0) {
+                    rejected.add(BatchItemResult.failed(index, id, "Quantity must be zero or a positive integer"));
+                } else if (quantity > Integer.MAX_VALUE) {
+                    rejected.add(BatchItemResult.failed(index, id, "Quantity must be at most " + Integer.MAX_VALUE));
+                } else {
+                    levels.put(id, quantity);
+                }
+                index++;
+            }
+            if (parser.nextToken() != null) {
+                throw new JsonParseException(parser, "Unexpected content after the array of stock levels");
+            }
+            return index;
+        }
+    }
+
+    private StockSyncTally writeStockChunk(long[] ids, int from, int to, LongLongHashMap levels) {
+        List<Long> rowIds = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            rowIds.add(ids[i]);
+        }
+
+        // Locking the rows keeps the previous levels reported in the change events exact
+        Map<Long, Integer> current = new HashMap<>();
+        jdbcTemplate.query("SELECT id, stock_quantity FROM products WHERE id IN ("
+                        + String.join(",", Collections.nCopies(rowIds.size(), "?")) + ") ORDER BY id FOR UPDATE",
+                row -> {
+                    current.put(row.getLong(1), row.getInt(2));
+                },
+                rowIds.toArray());
+
+        StockSyncTally tally = new StockSyncTally();
+        LocalDateTime now = LocalDateTime.now();
+        Timestamp timestamp = Timestamp.valueOf(now);
+        List<Object[]> rows = new ArrayList<>();
+        List<StockChangedEvent> events = new ArrayList<>();
+        for (Long id : rowIds) {
+            Integer previous = current.get(id);
+            int quantity = (int) levels.get(id, 0);
+            if (previous == null) {
+                tally.unknownIds.add(id);
+            } else if (previous == quantity) {
+                tally.unchanged++;
+            } else {
+                rows.add(new Object[]{quantity, timestamp, id});
+                events.add(new StockChangedEvent(id, previous, quantity, now));
+            }
+        }
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(SET_STOCK_SQL, rows);
+        }
+        events.forEach(eventPublisher::publishEvent);
+        tally.updated += events.size();
+        return tally;
+    }
+
+    private void writeProductChunk(List<Product> products, int from, int to, BatchItemResult[] results) {
+        List<Product> chunk = products.subList(from, to);
+        Map<Long, Category> categories = loadById(chunk.stream()
+                .map(Product::getCategory).filter(Objects::nonNull).map(Category::getId),
+                categoryRepository::findAllById, Category::getId);
+        Map<Long, Product> existing = loadById(chunk.stream().map(Product::getId),
+                productRepository::findAllById, Product::getId);
+
+        Map<Integer, Product> created = new HashMap<>();
+        Map<Long, ProductSnapshot> updated = new HashMap<>();
+        for (int i = from; i < to; i++) {
+            Product item = products.get(i);
+            String error = validateProduct(item);
+            Category category = null;
+            if (error == null && item.getCategory() != null) {
+                category = categories.get(item.getCategory().getId());
+                if (category == null) {
+                    error = "Category " + item.getCategory().getId() + " not found";
+                }
+            }
+            Product target = item.getId() == null ? new Product() : existing.get(item.getId());
+            if (error == null && target == null) {
+                error = "Product " + item.getId() + " not found";
+            }
+            if (error != null) {
+                results[i] = BatchItemResult.failed(i, item.getId(), error);
+                continue;
+            }
+
+            if (item.getId() != null) {
+                updated.putIfAbsent(target.getId(), ProductSnapshot.from(target));
+                stockLedger.fence(target.getId());
+            }
+            target.setName(item.getName());
+            target.setDescription(item.getDescription());
+            target.setPrice(item.getPrice());
+            target.setStockQuantity(item.getStockQuantity());
+            target.setCategory(category);
+            if (item.getId() == null) {
+                entityManager.persist(target);
+                created.put(i, target);
+            } else {
+                results[i] = BatchItemResult.updated(i, target.getId());
+            }
+        }
+
+        entityManager.flush();
+        created.forEach((i, product) -> results[i] = BatchItemResult.created(i, product.getId()));
+        created.values().forEach(product ->
+                eventPublisher.publishEvent(ProductChangedEvent.created(ProductSnapshot.from(product))));
+        updated.forEach((id, before) -> eventPublisher.publishEvent(
+                ProductChangedEvent.updated(before, ProductSnapshot.from(existing.get(id)))));
+        entityManager.clear();
+    }
+
+    // Returns the lower-case names the chunk wrote
+    private Set<String> writeCategoryChunk(List<Category> categories, int from, int to,
+                                           Set<String> namesInBatch, BatchItemResult[] results) {
+        List<Category> chunk = categories.subList(from, to);
+        Map<Long, Category> existing = loadById(chunk.stream().map(Category::getId),
+                categoryRepository::findAllById, Category::getId);
+        Set<String> lowerCaseNames = chunk.stream()
+                .map(Category::getName).filter(Objects::nonNull)
+                .map(name -> name.toLowerCase(Locale.ROOT))
+                .collect(Collectors.toSet());
+        Map<String, Long> idsByName = lowerCaseNames.isEmpty() ? Map.of()
+                : categoryRepository.findByLowerCaseNameIn(lowerCaseNames).stream()
+                        .collect(Collectors.toMap(c -> c.getName().toLowerCase(Locale.ROOT), Category::getId));
+
+        Map<Integer, Category> created = new HashMap<>();
+        List<Category> updated = new ArrayList<>();
+        Set<String> namesInChunk = new HashSet<>();
+        for (int i = from; i < to; i++) {
+            Category item = categories.get(i);
+            String error = validateCategory(item);
+            String name = error == null ? item.getName().toLowerCase(Locale.ROOT) : null;
+            if (error == null) {
+                Long owner = idsByName.get(name);
+                if (namesInBatch.contains(name) || namesInChunk.contains(name)) {
+                    error = "Duplicate category name '" + item.getName() + "' in batch";
+                } else if (owner != null && !owner.equals(item.getId())) {
+                    error = "Category with name '" + item.getName() + "' already exists";
+                }
+            }
+            Category target = item.getId() == null ? new Category() : existing.get(item.getId());
+            if (error == null && target == null) {
+                error = "Category " + item.getId() + " not found";
+            }
+            if (error != null) {
+                results[i] = BatchItemResult.failed(i, item.getId(), error);
+                continue;
+            }
+
+            namesInChunk.add(name);
+            target.setName(item.getName());
+            target.setDescription(item.getDescription());
+            if (item.getId() == null) {
+                entityManager.persist(target);
+                created.put(i, target);
+            } else {
+                results[i] = BatchItemResult.updated(i, target.getId());
+                updated.add(target);
+            }
+        }
+
+        entityManager.flush();
+        created.forEach((i, category) -> results[i] = BatchItemResult.created(i, category.getId()));
+        created.values().forEach(category ->
+                eventPublisher.publishEvent(CategoryChangedEvent.created(category.getId(), category.getName(),
+                        category.getUpdatedAt())));
+        updated.forEach(category ->
+                eventPublisher.publishEvent(CategoryChangedEvent.updated(category.getId(), category.getName(),
+                        category.getUpdatedAt())));
+        entityManager.clear();
+        return namesInChunk;
+    }
+
+    private static <T> Map<Long, T> loadById(Stream<Long> ids,
+                                             Function<Set<Long>, List<T>> loader,
+                                             Function<T, Long> idOf) {
+        Set<Long> distinctIds = ids.filter(Objects::nonNull).collect(Collectors.toSet());
+        if (distinctIds.isEmpty()) {
+            return Map.of();
+        }
+        return loader.apply(distinctIds).stream().collect(Collectors.toMap(idOf, Function.identity()));
+    }
+
+    // Also applied to imported rows by ProductImportServiceImpl
+    static String validateProduct(Product product) {
+        if (product.getName() == null || product.getName().isBlank()) {
+            return "Name is required";
+        }
+        if (product.getName().length() > 100) {
+            return "Name must be at most 100 characters";
+        }
+        if (product.getDescription() != null && product.getDescription().length() > 500) {
+            return "Description must be at most 500 characters";
+        }
+        if (product.getPrice() == null || product.getPrice().signum() < 0) {
+            return "Price must be zero or positive";
+        }
+        if (product.getPrice().compareTo(MAX_PRICE) > 0) {
+            return "Price is too large";
+        }
+        if (product.getStockQuantity() == null || product.getStockQuantity() < 0) {
+            return "Stock quantity must be zero or positive";
+        }
+        return null;
+    }
+
+    private static String validateCategory(Category category) {
+        if (category.getName() == null || category.getName().isBlank()) {
+            return "Name is required";
+        }
+        if (category.getName().length() > 50) {
+            return "Name must be at most 50 characters";
+        }
+        if (category.getDescription() != null && category.getDescription().length() > 200) {
+            return "Description must be at most 200 characters";
+        }
+        return null;
+    }
+
+    // A chunk that fails to commit is rolled back as a whole; report every item that had not already failed
+    private static <T> void failChunk(BatchItemResult[] results, int from, int to, List<T> items,
+                                      Function<T, Long> idOf, RuntimeException e) {
+        String error = "Batch chunk rolled back: " + NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+        for (int i = from; i < to; i++) {
+            if (results[i] == null || results[i].status() != BatchItemResult.Status.FAILED) {
+                results[i] = BatchItemResult.failed(i, idOf.apply(items.get(i)), error);
+            }
+        }
+    }
+
+    private static final class StockSyncTally {
+        private int updated;
+        private int unchanged;
+        private final List<Long> unknownIds = new ArrayList<>();
+        private final List<Long> failedIds = new ArrayList<>();
+
+        // Count a chunk once it has committed
+        private void add(StockSyncTally chunk) {
+            updated += chunk.updated;
+            unchanged += chunk.unchanged;
+            unknownIds.addAll(chunk.unknownIds);
+        }
+    }
+}
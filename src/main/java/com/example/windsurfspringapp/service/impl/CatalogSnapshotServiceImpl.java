@@ -0,0 +1,312 @@
+package com.example.windsurfspringapp.service.impl;
+
+import com.example.windsurfspringapp.cache.SecondLevelCacheRegions;
+import com.example.windsurfspringapp.config.CacheConfig;
+import com.example.windsurfspringapp.dto.SnapshotSummary;
+import com.example.windsurfspringapp.model.Category;
+import com.example.windsurfspringapp.model.Product;
+import com.example.windsurfspringapp.service.CatalogSnapshotService;
+import com.example.windsurfspringapp.snapshot.SnapshotFile;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Implementation of the CatalogSnapshotService interface.
+ *
+ * <p>Both directions bypass Hibernate. Writing streams the tables through forward-only result sets
+ * into the column spools of a {@link SnapshotFile.Writer}; restoring walks the memory-mapped columns
+ * and inserts them in JDBC batches of {@code catalog.snapshot.chunk-size} rows, one transaction each.
+ * After a restore the ID sequences are moved past the restored IDs, so products and categories created
+ * later never collide with them.</p>
+ *
+ * <p>Only the IDs of cached entries are saved. When restoring, the cache entries are rebuilt from the
+ * rows as they stream past, so the hot set is served from memory from the first request. Hibernate's
+ * second-level cache does not see the inserted rows and is cleared instead.</p>
+ */
+@Service
+public class CatalogSnapshotServiceImpl implements CatalogSnapshotService {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogSnapshotServiceImpl.class);
+
+    private static final String SELECT_CATEGORIES_SQL =
+            "SELECT id, name, description, created_at, updated_at FROM categories ORDER BY id";
+
+    private static final String SELECT_PRODUCTS_SQL = "SELECT id, name, description, price, stock_quantity,"
+            + " category_id, created_at, updated_at FROM products ORDER BY id";
+
+    private static final String INSERT_CATEGORY_SQL = "INSERT INTO categories"
+            + " (id, name, description, created_at, updated_at) VALUES (?, ?, ?, ?, ?)";
+
+    private static final String INSERT_PRODUCT_SQL = "INSERT INTO products"
+            + " (id, name, description, price, stock_quantity, category_id, created_at, updated_at)"
+            + " VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    // Matches the allocationSize of the entity sequences, so a restarted sequence hands out whole blocks
+    private static final int ID_ALLOCATION_SIZE = 50;
+
+    private static final int FETCH_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate snapshotTransactionTemplate;
+    private final CacheManager cacheManager;
+    private final SecondLevelCacheRegions secondLevelCache;
+    private final int chunkSize;
+
+    @Autowired
+    public CatalogSnapshotServiceImpl(JdbcTemplate jdbcTemplate,
+                                      PlatformTransactionManager transactionManager,
+                                      CacheManager cacheManager,
+                                      SecondLevelCacheRegions secondLevelCache,
+                                      @Value("${catalog.snapshot.chunk-size:5000}") int chunkSize) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("Snapshot chunk size must be positive");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.snapshotTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.snapshotTransactionTemplate.setReadOnly(true);
+        this.snapshotTransactionTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.cacheManager = cacheManager;
+        this.secondLevelCache = secondLevelCache;
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public SnapshotSummary writeSnapshot(Path file) throws IOException {
+        long started = System.nanoTime();
+        long[] cachedCategoryIds = cachedIds(CacheConfig.CATEGORIES);
+        long[] cachedProductIds = cachedIds(CacheConfig.PRODUCTS);
+
+        try (SnapshotFile.Writer writer = SnapshotFile.Writer.create(file)) {
+            long[] counts;
+            try {
+                counts = snapshotTransactionTemplate.execute(status -> writeRows(writer));
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            for (long id : cachedCategoryIds) {
+                writer.writeCachedCategoryId(id);
+            }
+            for (long id : cachedProductIds) {
+                writer.writeCachedProductId(id);
+            }
+            long bytes = writer.commit();
+
+            SnapshotSummary summary = new SnapshotSummary(file.toString(), counts[0], counts[1],
+                    cachedCategoryIds.length, cachedProductIds.length, bytes, elapsedMillis(started));
+            log.info("Wrote catalog snapshot {}: {} categories, {} products, {} bytes in {} ms",
+                    file, summary.categories(), summary.products(), bytes, summary.elapsedMillis());
+            return summary;
+        }
+    }
+
+    @Override
+    public Optional<SnapshotSummary> restoreSnapshot(Path file) throws IOException {
+        if (!Files.isRegularFile(file)) {
+            return Optional.empty();
+        }
+        Long existing = jdbcTemplate.queryForObject(
+                "SELECT (SELECT COUNT(*) FROM categories) + (SELECT COUNT(*) FROM products)", Long.class);
+        if (existing != null && existing > 0) {
+            log.warn("Not restoring catalog snapshot {}: the catalog already holds {} rows", file, existing);
+            return Optional.empty();
+        }
+
+        long started = System.nanoTime();
+        try (SnapshotFile.Reader reader = SnapshotFile.Reader.open(file)) {
+            long[] cachedCategoryIds = sorted(reader.cachedCategoryIds());
+            long[] cachedProductIds = sorted(reader.cachedProductIds());
+
+            // Categories are few; keep them all so that warmed products reference a fully loaded category
+            Map<Long, Category> categories = new HashMap<>(Math.max(16, reader.categoryCount() * 2));
+            ChunkedInsert categoryInserts = new ChunkedInsert(INSERT_CATEGORY_SQL);
+            reader.forEachCategory(row -> {
+                categoryInserts.add(new Object[]{row.id(), row.name(), row.description(),
+                        timestamp(row.createdAt()), timestamp(row.updatedAt())});
+                categories.put(row.id(), toCategory(row));
+            });
+            categoryInserts.flush();
+
+            List<Product> warmProducts = new ArrayList<>(cachedProductIds.length);
+            ChunkedInsert productInserts = new ChunkedInsert(INSERT_PRODUCT_SQL);
+            reader.forEachProduct(row -> {
+                productInserts.add(new Object[]{row.id(), row.name(), row.description(), price(row.priceCents()),
+                        row.stockQuantity(), row.categoryId() == 0 ? null : row.categoryId(),
+                        timestamp(row.createdAt()), timestamp(row.updatedAt())});
+                if (Arrays.binarySearch(cachedProductIds, row.id()) >= 0) {
+                    warmProducts.add(toProduct(row, categories.get(row.categoryId())));
+                }
+            });
+            productInserts.flush();
+
+            restartSequence("categories_seq", categoryInserts.maxId);
+            restartSequence("products_seq", productInserts.maxId);
+            secondLevelCache.evictAll();
+
+            Cache categoryCache = cacheManager.getCache(CacheConfig.CATEGORIES);
+            long cachedCategories = 0;
+            for (long id : cachedCategoryIds) {
+                Category category = categories.get(id);
+                if (category != null && categoryCache != null) {
+                    categoryCache.put(id, category);
+                    cachedCategories++;
+                }
+            }
+            Cache productCache = cacheManager.getCache(CacheConfig.PRODUCTS);
+            if (productCache != null) {
+                warmProducts.forEach(product -> productCache.put(product.getId(), product));
+            }
+
+            SnapshotSummary summary = new SnapshotSummary(file.toString(), reader.categoryCount(),
+                    reader.productCount(), cachedCategories, productCache != null ? warmProducts.size() : 0,
+                    Files.size(file), elapsedMillis(started));
+            log.info("Restored catalog snapshot {} written at {}: {} categories, {} products in {} ms",
+                    file, reader.writtenAt(), summary.categories(), summary.products(), summary.elapsedMillis());
+            return Optional.of(summary);
+        }
+    }
+
+    private long[] writeRows(SnapshotFile.Writer writer) {
+        long[] counts = new long[2];
+        jdbcTemplate.query(SELECT_CATEGORIES_SQL, (ResultSet rs) -> {
+            try {
+                writer.writeCategory(rs.getLong("id"), rs.getString("name"), rs.getString("description"),
+                        localDateTime(rs.getTimestamp("created_at")), localDateTime(rs.getTimestamp("updated_at")));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            counts[0]++;
+        });
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(SELECT_PRODUCTS_SQL);
+            statement.setFetchSize(FETCH_SIZE);
+            return statement;
+        }, (ResultSet rs) -> {
+            try {
+                writer.writeProduct(rs.getLong("id"), rs.getString("name"), rs.getString("description"),
+                        priceCents(rs.getBigDecimal("price")), rs.getInt("stock_quantity"), rs.getLong("category_id"),
+                        localDateTime(rs.getTimestamp("created_at")), localDateTime(rs.getTimestamp("updated_at")));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            counts[1]++;
+        });
+        return counts;
+    }
+
+    private long[] cachedIds(String cacheName) {
+        if (!(cacheManager.getCache(cacheName) instanceof CaffeineCache cache)) {
+            return new long[0];
+        }
+        return sorted(cache.getNativeCache().asMap().keySet().stream()
+                .filter(Long.class::isInstance)
+                .mapToLong(Long.class::cast)
+                .toArray());
+    }
+
+    private void restartSequence(String sequence, long maxId) {
+        if (maxId > 0) {
+            jdbcTemplate.execute("ALTER SEQUENCE " + sequence + " RESTART WITH " + (maxId + ID_ALLOCATION_SIZE + 1));
+        }
+    }
+
+    private static Category toCategory(SnapshotFile.CategoryRow row) {
+        Category category = new Category(row.name(), row.description());
+        category.setId(row.id());
+        category.setCreatedAt(row.createdAt());
+        category.setUpdatedAt(row.updatedAt());
+        return category;
+    }
+
+    private static Product toProduct(SnapshotFile.ProductRow row, Category category) {
+        Product product = new Product(row.name(), row.description(), price(row.priceCents()), row.stockQuantity());
+        product.setId(row.id());
+        product.setCategory(category);
+        product.setCreatedAt(row.createdAt());
+        product.setUpdatedAt(row.updatedAt());
+        return product;
+    }
+
+    private static long priceCents(BigDecimal price) {
+        return price.setScale(2, RoundingMode.UNNECESSARY).unscaledValue().longValueExact();
+    }
+
+    private static BigDecimal price(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+
+    private static Timestamp timestamp(LocalDateTime value) {
+        return value == null ? null : Timestamp.valueOf(value);
+    }
+
+    private static LocalDateTime localDateTime(Timestamp value) {
+        return value == null ? null : value.toLocalDateTime();
+    }
+
+    private static long[] sorted(long[] ids) {
+        Arrays.sort(ids);
+        return ids;
+    }
+
+    private static long elapsedMillis(long started) {
+        return (System.nanoTime() - started) / 1_000_000;
+    }
+
+    /**
+     * Collects rows and inserts them one chunk per transaction.
+     */
+    private final class ChunkedInsert {
+
+        private final String sql;
+        private final List<Object[]> rows = new ArrayList<>(chunkSize);
+        private long maxId;
+
+        private ChunkedInsert(String sql) {
+            this.sql = sql;
+        }
+
+        void add(Object[] row) {
+            rows.add(row);
+            maxId = Math.max(maxId, (Long) row[0]);
+            if (rows.size() == chunkSize) {
+                flush();
+            }
+        }
+
+        void flush() {
+            if (rows.isEmpty()) {
+                return;
+            }
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(sql, rows));
+            rows.clear();
+        }
+    }
+}
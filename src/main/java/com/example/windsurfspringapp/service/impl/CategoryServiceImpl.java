@@ -1,28 +1,77 @@
 package com.example.windsurfspringapp.service.impl;
 
+import com.example.windsurfspringapp.cache.SecondLevelCacheRegions;
+import com.example.windsurfspringapp.config.AsyncConfig;
+import com.example.windsurfspringapp.config.CacheConfig;
+import com.example.windsurfspringapp.counter.CategoryProductCounters;
+import com.example.windsurfspringapp.counter.CategoryStatistics;
+import com.example.windsurfspringapp.dto.CategoryStats;
+import com.example.windsurfspringapp.dto.ProductSnapshot;
+import com.example.windsurfspringapp.event.CategoryChangedEvent;
+import com.example.windsurfspringapp.event.ProductChangedEvent;
 import com.example.windsurfspringapp.model.Category;
+import com.example.windsurfspringapp.paging.CategorySort;
+import com.example.windsurfspringapp.paging.CursorRequest;
+import com.example.windsurfspringapp.paging.IndexedPages;
 import com.example.windsurfspringapp.repository.CategoryRepository;
+import com.example.windsurfspringapp.search.CategorySearchIndex;
 import com.example.windsurfspringapp.service.CategoryService;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Window;
+import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Implementation of the CategoryService interface.
+ *
+ * <p>Name searches are answered from the in-memory {@link CategorySearchIndex} once it is ready and fall
+ * back to {@code LIKE} queries otherwise. Lookups by ID are cached and evicted by the
+ * {@link CategoryChangedEvent} every write publishes. Product counts are served from the
+ * {@link CategoryProductCounters} and price and stock aggregates from the {@link CategoryStatistics}
+ * once they are loaded; until then both are computed with one grouped query.</p>
+ *
+ * <p>Categories, their product collections and the name and listing queries are also held in Hibernate's
+ * second-level cache, which Hibernate updates itself when a save or delete commits.</p>
  */
 @Service
+@Timed(value = "catalog.service", histogram = true)
 public class CategoryServiceImpl implements CategoryService {
 
+    // Upper bound for an IN list used to re-sort index matches in the database
+    static final int MAX_INDEXED_IN_LIST = 1000;
+
     private final CategoryRepository categoryRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CategorySearchIndex searchIndex;
+    private final CategoryProductCounters productCounters;
+    private final CategoryStatistics statistics;
+    private final SecondLevelCacheRegions secondLevelCache;
 
     @Autowired
-    public CategoryServiceImpl(CategoryRepository categoryRepository) {
+    public CategoryServiceImpl(CategoryRepository categoryRepository,
+                               ApplicationEventPublisher eventPublisher,
+                               CategorySearchIndex searchIndex,
+                               CategoryProductCounters productCounters,
+                               CategoryStatistics statistics,
+                               SecondLevelCacheRegions secondLevelCache) {
         this.categoryRepository = categoryRepository;
+        this.eventPublisher = eventPublisher;
+        this.searchIndex = searchIndex;
+        this.productCounters = productCounters;
+        this.statistics = statistics;
+        this.secondLevelCache = secondLevelCache;
     }
 
     @Override
@@ -31,10 +80,27 @@ public class CategoryServiceImpl implements CategoryService {
     }
 
     @Override
+    public Window<Category> findAllCategories(CursorRequest page) {
+        return categoryRepository.findAllBy(page.position(), page.sort(), page.limit());
+    }
+
+    @Override
+    @Async(AsyncConfig.CATALOG_QUERY_EXECUTOR)
+    public CompletableFuture<Window<Category>> findAllCategoriesAsync(CursorRequest page) {
+        return CompletableFuture.completedFuture(findAllCategories(page));
+    }
+
+    @Override
+    @Cacheable(cacheNames = CacheConfig.CATEGORIES, key = "#id", unless = "#result == null")
     public Optional<Category> findCategoryById(Long id) {
         return categoryRepository.findById(id);
     }
 
+    @Override
+    public Optional<LocalDateTime> findCategoryVersion(Long id) {
+        return categoryRepository.findUpdatedAtById(id);
+    }
+
     @Override
     public Optional<Category> findCategoryByName(String name) {
         return categoryRepository.findByNameIgnoreCase(name);
@@ -43,14 +109,28 @@ public class CategoryServiceImpl implements CategoryService {
     @Override
     @Transactional
     public Category saveCategory(Category category) {
-        return categoryRepository.save(category);
+        boolean created = category.getId() == null || !categoryRepository.existsById(category.getId());
+        // Flushed so the event carries the updatedAt that change feed consumers order changes by
+        Category saved = categoryRepository.saveAndFlush(category);
+        eventPublisher.publishEvent(created
+                ? CategoryChangedEvent.created(saved.getId(), saved.getName(), saved.getUpdatedAt())
+                : CategoryChangedEvent.updated(saved.getId(), saved.getName(), saved.getUpdatedAt()));
+        return saved;
     }
 
     @Override
     @Transactional
     public boolean deleteCategory(Long id) {
         if (categoryRepository.existsById(id)) {
+            // The cascade must see every product, including any a JDBC import added after the collection was cached
+            secondLevelCache.evictCategoryProducts(List.of(id));
+            Optional<Category> category = categoryRepository.findById(id);
+            // Deleting a category cascades to its products; announce those deletes as well
+            category.ifPresent(deleted -> deleted.getProducts().forEach(product ->
+                    eventPublisher.publishEvent(ProductChangedEvent.deleted(ProductSnapshot.from(product)))));
             categoryRepository.deleteById(id);
+            LocalDateTime updatedAt = category.map(Category::getUpdatedAt).orElse(null);
+            eventPublisher.publishEvent(CategoryChangedEvent.deleted(id, updatedAt));
             return true;
         }
         return false;
@@ -58,7 +138,29 @@ public class CategoryServiceImpl implements CategoryService {
 
     @Override
     public List<Category> searchCategoriesByName(String name) {
-        return categoryRepository.findByNameContainingIgnoreCase(name);
+        if (!searchIndex.isReady()) {
+            return categoryRepository.findByNameContainingIgnoreCase(name);
+        }
+        return IndexedPages.loadInOrder(searchIndex.search(name), categoryRepository::findAllById, Category::getId);
+    }
+
+    @Override
+    public Window<Category> searchCategoriesByName(String name, CursorRequest page) {
+        if (searchIndex.isReady()) {
+            long[] ids = searchIndex.search(name);
+            if (page.sortKey() == CategorySort.ID) {
+                return IndexedPages.byId(ids, page, categoryRepository::findAllById, Category::getId);
+            }
+            if (ids.length <= MAX_INDEXED_IN_LIST) {
+                List<Long> boxed = new ArrayList<>(ids.length);
+                for (long id : ids) {
+                    boxed.add(id);
+                }
+                return categoryRepository.findByIdIn(boxed, page.position(), page.sort(), page.limit());
+            }
+            // Too many matches to sort in the database by ID list; page the LIKE query instead
+        }
+        return categoryRepository.findByNameContainingIgnoreCase(name, page.position(), page.sort(), page.limit());
     }
 
     @Override
@@ -68,6 +170,9 @@ public class CategoryServiceImpl implements CategoryService {
 
     @Override
     public Map<Long, Long> getCategoryProductCounts() {
+        if (productCounters.isReady()) {
+            return productCounters.snapshot();
+        }
         List<Object[]> results = categoryRepository.findCategoriesWithProductCount();
         Map<Long, Long> categoryCounts = new HashMap<>();
         
@@ -80,6 +185,20 @@ public class CategoryServiceImpl implements CategoryService {
         return categoryCounts;
     }
 
+    @Override
+    @Async(AsyncConfig.CATALOG_QUERY_EXECUTOR)
+    public CompletableFuture<Map<Long, Long>> getCategoryProductCountsAsync() {
+        return CompletableFuture.completedFuture(getCategoryProductCounts());
+    }
+
+    @Override
+    public List<CategoryStats> getCategoryStatistics() {
+        if (statistics.isReady()) {
+            return statistics.snapshot();
+        }
+        return CategoryStatistics.fromAggregates(categoryRepository.aggregateProductsByCategory());
+    }
+
     @Override
     public boolean categoryExists(String name) {
         return categoryRepository.existsByNameIgnoreCase(name);
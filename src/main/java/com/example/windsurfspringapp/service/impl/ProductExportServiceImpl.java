@@ -0,0 +1,188 @@
+package com.example.windsurfspringapp.service.impl;
+
+import com.example.windsurfspringapp.inventory.StockLedger;
+import com.example.windsurfspringapp.model.Product;
+import com.example.windsurfspringapp.repository.ProductRepository;
+import com.example.windsurfspringapp.service.ExportFormat;
+import com.example.windsurfspringapp.service.ProductExportService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Implementation of the ProductExportService interface.
+ * Products are streamed from the database and detached as soon as they have been written,
+ * so the persistence context never holds more than one row.
+ */
+@Service
+public class ProductExportServiceImpl implements ProductExportService {
+
+    // Rows written between flushes of the output stream
+    private static final int FLUSH_INTERVAL = 1000;
+
+    private static final String CSV_HEADER = "id,name,description,price,stockQuantity,categoryId,createdAt,updatedAt";
+
+    private final ProductRepository productRepository;
+    private final StockLedger stockLedger;
+    private final ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    public ProductExportServiceImpl(ProductRepository productRepository, StockLedger stockLedger,
+                                    ObjectMapper objectMapper) {
+        this.productRepository = productRepository;
+        this.stockLedger = stockLedger;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public long exportProducts(ExportFormat format, OutputStream out) throws IOException {
+        // Commits in its own transaction before this one's first read, so the export sees ledger stock levels
+        stockLedger.flush();
+        RowWriter writer = format == ExportFormat.CSV ? new CsvRowWriter(out) : new NdjsonRowWriter(out);
+        long count = 0;
+
+        try (Stream<Product> products = productRepository.streamAllBy()) {
+            Iterator<Product> iterator = products.iterator();
+            while (iterator.hasNext()) {
+                Product product = iterator.next();
+                writer.write(product);
+                entityManager.detach(product);
+                if (++count % FLUSH_INTERVAL == 0) {
+                    writer.flush();
+                }
+            }
+        }
+
+        writer.flush();
+        return count;
+    }
+
+    private static Long categoryId(Product product) {
+        // Reading the ID of a lazy proxy does not initialize it
+        return product.getCategory() == null ? null : product.getCategory().getId();
+    }
+
+    private interface RowWriter {
+
+        void write(Product product) throws IOException;
+
+        void flush() throws IOException;
+    }
+
+    private class NdjsonRowWriter implements RowWriter {
+
+        private final JsonGenerator generator;
+
+        NdjsonRowWriter(OutputStream out) throws IOException {
+            this.generator = objectMapper.getFactory().createGenerator(out)
+                    .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        }
+
+        @Override
+        public void write(Product product) throws IOException {
+            generator.writeStartObject();
+            generator.writeNumberField("id", product.getId());
+            generator.writeStringField("name", product.getName());
+            generator.writeStringField("description", product.getDescription());
+            generator.writeNumberField("price", product.getPrice());
+            generator.writeNumberField("stockQuantity", product.getStockQuantity());
+            Long categoryId = categoryId(product);
+            if (categoryId == null) {
+                generator.writeNullField("categoryId");
+            } else {
+                generator.writeNumberField("categoryId", categoryId);
+            }
+            writeTimestamp("createdAt", product.getCreatedAt());
+            writeTimestamp("updatedAt", product.getUpdatedAt());
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        // Missing timestamps are written as JSON null, matching the empty CSV field
+        private void writeTimestamp(String name, LocalDateTime value) throws IOException {
+            if (value == null) {
+                generator.writeNullField(name);
+            } else {
+                generator.writeStringField(name, value.toString());
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            generator.flush();
+        }
+    }
+
+    private static class CsvRowWriter implements RowWriter {
+
+        private final Writer writer;
+
+        CsvRowWriter(OutputStream out) throws IOException {
+            this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+
+        @Override
+        public void write(Product product) throws IOException {
+            writer.write(String.valueOf(product.getId()));
+            writer.write(',');
+            writeField(product.getName());
+            writer.write(',');
+            writeField(product.getDescription());
+            writer.write(',');
+            writer.write(product.getPrice().toPlainString());
+            writer.write(',');
+            writer.write(String.valueOf(product.getStockQuantity()));
+            writer.write(',');
+            Long categoryId = categoryId(product);
+            if (categoryId != null) {
+                writer.write(String.valueOf(categoryId));
+            }
+            writer.write(',');
+            writeField(product.getCreatedAt() == null ? null : product.getCreatedAt().toString());
+            writer.write(',');
+            writeField(product.getUpdatedAt() == null ? null : product.getUpdatedAt().toString());
+            writer.write('\n');
+        }
+
+        // Quote fields containing separators, quotes or line breaks (RFC 4180)
+        private void writeField(String value) throws IOException {
+            if (value == null) {
+                return;
+            }
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0
+                    && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+                writer.write(value);
+                return;
+            }
+            writer.write('"');
+            writer.write(value.replace("\"", "\"\""));
+            writer.write('"');
+        }
+
+        @Override
+        public void flush() throws IOException {
+            writer.flush();
+        }
+    }
+}
@@ -0,0 +1,572 @@
+package com.example.windsurfspringapp.service.impl;
+
+import com.example.windsurfspringapp.dto.ImportRowError;
+import com.example.windsurfspringapp.dto.ProductImportResult;
+import com.example.windsurfspringapp.dto.ProductSnapshot;
+import com.example.windsurfspringapp.event.ProductsImportedEvent;
+import com.example.windsurfspringapp.model.Category;
+import com.example.windsurfspringapp.model.Product;
+import com.example.windsurfspringapp.repository.CategoryRepository;
+import com.example.windsurfspringapp.service.CsvFormatException;
+import com.example.windsurfspringapp.service.ProductImportService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Implementation of the ProductImportService interface.
+ *
+ * <p>An import runs as a pipeline. A reader thread splits the input into records and hands them out in
+ * blocks of {@code catalog.import.chunk-size} to a fork-join pool, which splits, converts and validates
+ * the fields of each block in parallel. The calling thread writes the parsed blocks in input order, one
+ * transaction and one JDBC batch insert per block, without loading or managing entities. At most
+ * {@code catalog.import.max-pending-chunks} blocks wait for the writer; the reader pauses until one is
+ * written, so heap use is bounded by the chunk size rather than the file size.</p>
+ *
+ * <p>IDs are drawn from the product ID generator, so imported products never collide with products
+ * created through Hibernate. Category names are resolved once per import. Each chunk publishes one
+ * {@link ProductsImportedEvent} inside its transaction, so listeners bound to the commit only see chunks
+ * that were written and can apply a chunk in one pass.</p>
+ */
+@Service
+public class ProductImportServiceImpl implements ProductImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductImportServiceImpl.class);
+
+    // Longest record accepted; a longer one almost always means an unbalanced quote swallowed the lines after it
+    private static final int MAX_RECORD_LENGTH = 8192;
+
+    private static final String INSERT_SQL = "INSERT INTO products"
+            + " (id, name, description, price, stock_quantity, category_id, created_at, updated_at)"
+            + " VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    // Marks the end of the input in the queue of parsed chunks
+    private static final ParsedChunk END = new ParsedChunk(List.of(), List.of(), 0);
+
+    private final CategoryRepository categoryRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final JdbcTemplate jdbcTemplate;
+    private final int parallelism;
+    private final int chunkSize;
+    private final int maxPendingChunks;
+    private final int maxReportedErrors;
+    private final long progressInterval;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private volatile BeforeExecutionGenerator productIdGenerator;
+
+    @Autowired
+    public ProductImportServiceImpl(CategoryRepository categoryRepository,
+                                    PlatformTransactionManager transactionManager,
+                                    ApplicationEventPublisher eventPublisher,
+                                    JdbcTemplate jdbcTemplate,
+                                    @Value("${catalog.import.parallelism:4}") int parallelism,
+                                    @Value("${catalog.import.chunk-size:2000}") int chunkSize,
+                                    @Value("${catalog.import.max-pending-chunks:8}") int maxPendingChunks,
+                                    @Value("${catalog.import.max-reported-errors:1000}") int maxReportedErrors,
+                                    @Value("${catalog.import.progress-interval:100000}") long progressInterval) {
+        if (parallelism < 1 || chunkSize < 1 || maxPendingChunks < 1 || progressInterval < 1) {
+            throw new IllegalArgumentException(
+                    "Import parallelism, chunk size, pending chunks and progress interval must be positive");
+        }
+        this.categoryRepository = categoryRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.jdbcTemplate = jdbcTemplate;
+        this.parallelism = parallelism;
+        this.chunkSize = chunkSize;
+        this.maxPendingChunks = maxPendingChunks;
+        this.maxReportedErrors = maxReportedErrors;
+        this.progressInterval = progressInterval;
+    }
+
+    @Override
+    public ProductImportResult importProducts(InputStream csv) throws IOException {
+        long started = System.nanoTime();
+        RecordReader records = new RecordReader(new InputStreamReader(csv, StandardCharsets.UTF_8));
+        Columns columns = Columns.of(records);
+
+        ImportTally tally = new ImportTally(maxReportedErrors);
+        BlockingQueue<Future<ParsedChunk>> pending = new ArrayBlockingQueue<>(maxPendingChunks);
+        AtomicBoolean stopped = new AtomicBoolean();
+        ForkJoinPool parsers = new ForkJoinPool(parallelism);
+        Thread reader = new Thread(() -> readChunks(records, columns, parsers, pending, stopped),
+                "product-import-reader");
+        reader.setDaemon(true);
+        reader.start();
+        try {
+            CategoryLookup categories = new CategoryLookup();
+            long nextProgress = progressInterval;
+            for (ParsedChunk chunk = nextChunk(pending, tally); chunk != END; chunk = nextChunk(pending, tally)) {
+                writeChunk(chunk, categories, tally);
+                if (tally.rows >= nextProgress) {
+                    log.info("Product import: {} rows read, {} imported, {} failed",
+                            tally.rows, tally.imported, tally.failed);
+                    nextProgress = (tally.rows / progressInterval + 1) * progressInterval;
+                }
+            }
+        } finally {
+            stopped.set(true);
+            reader.interrupt();
+            pending.clear();
+            parsers.shutdownNow();
+        }
+
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+        log.info("Product import finished in {} ms: {} rows read, {} imported, {} failed{}",
+                elapsedMillis, tally.rows, tally.imported, tally.failed, tally.complete ? "" : " (stopped early)");
+        return new ProductImportResult(tally.rows, tally.imported, tally.failed, tally.complete,
+                tally.errors, elapsedMillis);
+    }
+
+    // Runs on the reader thread until the input ends, the import stops, or a record cannot be delimited
+    private void readChunks(RecordReader records, Columns columns, ForkJoinPool parsers,
+                            BlockingQueue<Future<ParsedChunk>> pending, AtomicBoolean stopped) {
+        try {
+            while (!stopped.get()) {
+                RecordBlock block = records.nextBlock(chunkSize);
+                if (block == null) {
+                    pending.put(CompletableFuture.completedFuture(END));
+                    return;
+                }
+                pending.put(CompletableFuture.supplyAsync(() -> parse(block, columns), parsers));
+            }
+        } catch (IOException e) {
+            try {
+                pending.put(CompletableFuture.failedFuture(e));
+            } catch (InterruptedException interrupted) {
+                // The writer has stopped and no longer takes chunks
+            }
+        } catch (InterruptedException e) {
+            // The writer has stopped and no longer takes chunks
+        }
+    }
+
+    /**
+     * Take the next parsed chunk in input order, waiting for it to be parsed.
+     * A record that could not be delimited ends the import early; it is reported as a failed row.
+     */
+    private static ParsedChunk nextChunk(BlockingQueue<Future<ParsedChunk>> pending, ImportTally tally)
+            throws IOException {
+        try {
+            return pending.take().get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Product import interrupted");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof CsvFormatException format) {
+                tally.rows++;
+                tally.fail(new ImportRowError(format.getLine(), format.getMessage()));
+                tally.complete = false;
+                return END;
+            }
+            if (cause instanceof IOException io) {
+                throw io;
+            }
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    private static ParsedChunk parse(RecordBlock block, Columns columns) {
+        List<ImportRow> rows = new ArrayList<>(block.size());
+        List<ImportRowError> errors = new ArrayList<>();
+        for (int i = 0; i < block.size(); i++) {
+            long line = block.lines()[i];
+            try {
+                rows.add(columns.row(line, splitFields(block.records()[i])));
+            } catch (IllegalArgumentException e) {
+                errors.add(new ImportRowError(line, e.getMessage()));
+            }
+        }
+        return new ParsedChunk(rows, errors, block.size());
+    }
+
+    private void writeChunk(ParsedChunk chunk, CategoryLookup categories, ImportTally tally) {
+        tally.rows += chunk.records();
+        chunk.errors().forEach(tally::fail);
+        if (chunk.rows().isEmpty()) {
+            return;
+        }
+
+        List<ImportRowError> rejected = new ArrayList<>();
+        try {
+            Integer inserted = transactionTemplate.execute(status -> insertRows(chunk.rows(), categories, rejected));
+            tally.imported += inserted;
+            rejected.forEach(tally::fail);
+        } catch (RuntimeException e) {
+            // The whole chunk was rolled back; rows rejected before the failure keep their own error
+            String error = "Import chunk rolled back: " + NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+            Set<Long> rejectedLines = new HashSet<>();
+            for (ImportRowError row : rejected) {
+                rejectedLines.add(row.line());
+                tally.fail(row);
+            }
+            for (ImportRow row : chunk.rows()) {
+                if (!rejectedLines.contains(row.line())) {
+                    tally.fail(new ImportRowError(row.line(), error));
+                }
+            }
+            // A referenced category may have been deleted meanwhile
+            categories.clear();
+        }
+    }
+
+    private int insertRows(List<ImportRow> rows, CategoryLookup categories, List<ImportRowError> rejected) {
+        SharedSessionContractImplementor session = entityManager.unwrap(SharedSessionContractImplementor.class);
+        BeforeExecutionGenerator ids = productIdGenerator();
+        LocalDateTime now = LocalDateTime.now();
+        Timestamp timestamp = Timestamp.valueOf(now);
+
+        List<Object[]> batch = new ArrayList<>(rows.size());
+        List<ProductSnapshot> created = new ArrayList<>(rows.size());
+        for (ImportRow row : rows) {
+            Optional<Long> categoryId = categories.resolve(row);
+            if (categoryId == null) {
+                rejected.add(new ImportRowError(row.line(), row.categoryName() != null
+                        ? "Category '" + row.categoryName() + "' not found"
+                        : "Category " + row.categoryId() + " not found"));
+                continue;
+            }
+            Product product = row.product();
+            Long id = (Long) ids.generate(session, null, null, EventType.INSERT);
+            batch.add(new Object[]{id, product.getName(), product.getDescription(), product.getPrice(),
+                    product.getStockQuantity(), categoryId.orElse(null), timestamp, timestamp});
+            created.add(new ProductSnapshot(id, product.getName(), product.getPrice(),
+                    product.getStockQuantity(), categoryId.orElse(null), now));
+        }
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_SQL, batch);
+        }
+        if (!created.isEmpty()) {
+            eventPublisher.publishEvent(new ProductsImportedEvent(created));
+        }
+        return created.size();
+    }
+
+    // The generator behind Product IDs, shared with Hibernate so its pooled ranges are honoured
+    private BeforeExecutionGenerator productIdGenerator() {
+        BeforeExecutionGenerator generator = productIdGenerator;
+        if (generator == null) {
+            generator = (BeforeExecutionGenerator) entityManager.getEntityManagerFactory()
+                    .unwrap(SessionFactoryImplementor.class)
+                    .getMappingMetamodel()
+                    .getEntityDescriptor(Product.class)
+                    .getGenerator();
+            productIdGenerator = generator;
+        }
+        return generator;
+    }
+
+    /**
+     * Split a CSV record into fields (RFC 4180). An empty unquoted field is null, so that empty
+     * optional columns written by the CSV export are read back as missing values.
+     */
+    static List<String> splitFields(String record) {
+        List<String> fields = new ArrayList<>();
+        int length = record.length();
+        int position = 0;
+        while (true) {
+            if (position < length && record.charAt(position) == '"') {
+                StringBuilder field = new StringBuilder();
+                position++;
+                while (true) {
+                    if (position == length) {
+                        throw new IllegalArgumentException("Unterminated quoted field");
+                    }
+                    char c = record.charAt(position++);
+                    if (c != '"') {
+                        field.append(c);
+                    } else if (position < length && record.charAt(position) == '"') {
+                        field.append('"');
+                        position++;
+                    } else {
+                        break;
+                    }
+                }
+                if (position < length && record.charAt(position) != ',') {
+                    throw new IllegalArgumentException("Unexpected character after quoted field " + (fields.size() + 1));
+                }
+                fields.add(field.toString());
+            } else {
+                int end = record.indexOf(',', position);
+                if (end < 0) {
+                    end = length;
+                }
+                if (record.indexOf('"', position) >= 0 && record.indexOf('"', position) < end) {
+                    throw new IllegalArgumentException("Quote in unquoted field " + (fields.size() + 1));
+                }
+                fields.add(end == position ? null : record.substring(position, end));
+                position = end;
+            }
+            if (position == length) {
+                return fields;
+            }
+            position++;
+        }
+    }
+
+    /**
+     * Positions of the imported columns, taken from the header.
+     */
+    private record Columns(int count, int name, int description, int price, int stockQuantity,
+                           int category, int categoryId) {
+
+        static Columns of(RecordReader records) throws IOException {
+            RecordBlock header = records.nextBlock(1);
+            if (header == null) {
+                throw new CsvFormatException(1, "Expected a header row");
+            }
+            List<String> names;
+            try {
+                names = splitFields(header.records()[0]);
+            } catch (IllegalArgumentException e) {
+                throw new CsvFormatException(header.lines()[0], e.getMessage());
+            }
+            Map<String, Integer> positions = new HashMap<>();
+            for (int i = 0; i < names.size(); i++) {
+                if (names.get(i) != null) {
+                    positions.putIfAbsent(names.get(i).trim().toLowerCase(Locale.ROOT), i);
+                }
+            }
+            for (String required : List.of("name", "price", "stockQuantity")) {
+                if (!positions.containsKey(required.toLowerCase(Locale.ROOT))) {
+                    throw new CsvFormatException(header.lines()[0], "Header must have a '" + required + "' column");
+                }
+            }
+            return new Columns(names.size(), positions.get("name"), positions.getOrDefault("description", -1),
+                    positions.get("price"), positions.get("stockquantity"),
+                    positions.getOrDefault("category", -1), positions.getOrDefault("categoryid", -1));
+        }
+
+        ImportRow row(long line, List<String> fields) {
+            if (fields.size() != count) {
+                throw new IllegalArgumentException("Expected " + count + " fields but found " + fields.size());
+            }
+            Product product = new Product(fields.get(name), field(fields, description),
+                    parsePrice(fields.get(price)), parseStockQuantity(fields.get(stockQuantity)));
+            String error = CatalogBatchServiceImpl.validateProduct(product);
+            if (error != null) {
+                throw new IllegalArgumentException(error);
+            }
+            String categoryName = field(fields, category);
+            String categoryIdValue = field(fields, categoryId);
+            Long id = null;
+            if (categoryName == null && categoryIdValue != null) {
+                try {
+                    id = Long.valueOf(categoryIdValue.trim());
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Category ID must be an integer");
+                }
+            }
+            return new ImportRow(line, product, categoryName, id);
+        }
+
+        private static String field(List<String> fields, int position) {
+            return position < 0 ? null : fields.get(position);
+        }
+
+        private static BigDecimal parsePrice(String value) {
+            if (value == null) {
+                return null;
+            }
+            BigDecimal price;
+            try {
+                price = new BigDecimal(value.trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Price must be a decimal number");
+            }
+            if (price.scale() > 2) {
+                throw new IllegalArgumentException("Price must have at most 2 decimal places");
+            }
+            return price;
+        }
+
+        private static Integer parseStockQuantity(String value) {
+            if (value == null) {
+                return null;
+            }
+            try {
+                return Integer.valueOf(value.trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Stock quantity must be an integer");
+            }
+        }
+    }
+
+    /**
+     * Splits CSV input into records, keeping line breaks inside quoted fields. Blank lines are skipped.
+     * Fields are split later, by the parse tasks. Only used by the reader thread.
+     */
+    private static final class RecordReader {
+
+        private final Reader reader;
+        private final char[] buffer = new char[64 * 1024];
+        private final StringBuilder record = new StringBuilder();
+        private int position;
+        private int limit;
+        private long line = 1;
+
+        private RecordReader(Reader reader) {
+            this.reader = reader;
+        }
+
+        /**
+         * @return Up to {@code size} records with the lines they start on, or null at the end of the input
+         * @throws CsvFormatException if a record is too long to be a product row
+         */
+        RecordBlock nextBlock(int size) throws IOException {
+            String[] records = new String[size];
+            long[] lines = new long[size];
+            int count = 0;
+            while (count < size) {
+                long start = line;
+                String next = next();
+                if (next == null) {
+                    break;
+                }
+                if (!next.isEmpty()) {
+                    records[count] = next;
+                    lines[count] = start;
+                    count++;
+                }
+            }
+            return count == 0 ? null : new RecordBlock(records, lines, count);
+        }
+
+        // The next record without its line break, empty for a blank line, or null at the end of the input
+        private String next() throws IOException {
+            record.setLength(0);
+            long start = line;
+            boolean quoted = false;
+            while (true) {
+                if (position == limit) {
+                    limit = reader.read(buffer, 0, buffer.length);
+                    position = 0;
+                    if (limit <= 0) {
+                        limit = 0;
+                        return record.isEmpty() ? null : record.toString();
+                    }
+                }
+                char c = buffer[position++];
+                if (c == '\n') {
+                    line++;
+                }
+                if (c == '"') {
+                    quoted = !quoted;
+                } else if (!quoted && (c == '\n' || c == '\r')) {
+                    return record.toString();
+                }
+                if (record.length() == MAX_RECORD_LENGTH) {
+                    throw new CsvFormatException(start, "Row is longer than " + MAX_RECORD_LENGTH
+                            + " characters; check for an unbalanced quote");
+                }
+                record.append(c);
+            }
+        }
+    }
+
+    /**
+     * Looks up category IDs by name or ID, querying each distinct category once per import.
+     * Only used by the writing thread.
+     */
+    private final class CategoryLookup {
+
+        private final Map<String, Optional<Long>> idsByName = new HashMap<>();
+        private final Map<Long, Boolean> existingIds = new HashMap<>();
+
+        // The row's category ID, empty for a row without a category, or null if the category does not exist
+        Optional<Long> resolve(ImportRow row) {
+            if (row.categoryName() != null) {
+                Optional<Long> id = idsByName.computeIfAbsent(row.categoryName().toLowerCase(Locale.ROOT),
+                        name -> categoryRepository.findByNameIgnoreCase(row.categoryName()).map(Category::getId));
+                return id.isPresent() ? id : null;
+            }
+            if (row.categoryId() != null) {
+                return existingIds.computeIfAbsent(row.categoryId(), categoryRepository::existsById)
+                        ? Optional.of(row.categoryId()) : null;
+            }
+            return Optional.empty();
+        }
+
+        void clear() {
+            idsByName.clear();
+            existingIds.clear();
+        }
+    }
+
+    private record RecordBlock(String[] records, long[] lines, int size) {
+    }
+
+    private record ImportRow(long line, Product product, String categoryName, Long categoryId) {
+    }
+
+    private record ParsedChunk(List<ImportRow> rows, List<ImportRowError> errors, int records) {
+    }
+
+    private static final class ImportTally {
+
+        private final int maxReportedErrors;
+        private final List<ImportRowError> errors = new ArrayList<>();
+        private long rows;
+        private long imported;
+        private long failed;
+        private boolean complete = true;
+
+        private ImportTally(int maxReportedErrors) {
+            this.maxReportedErrors = maxReportedErrors;
+        }
+
+        void fail(ImportRowError error) {
+            failed++;
+            if (errors.size() < maxReportedErrors) {
+                errors.add(error);
+            }
+        }
+    }
+}
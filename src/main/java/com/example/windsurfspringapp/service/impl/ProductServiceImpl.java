@@ -1,27 +1,96 @@
 package com.example.windsurfspringapp.service.impl;
 
+import com.example.windsurfspringapp.config.AsyncConfig;
+import com.example.windsurfspringapp.config.CacheConfig;
+import com.example.windsurfspringapp.dto.ProductFacets;
+import com.example.windsurfspringapp.dto.ProductQuery;
+import com.example.windsurfspringapp.dto.ProductSnapshot;
+import com.example.windsurfspringapp.dto.ProductVersion;
+import com.example.windsurfspringapp.dto.StockAdjustment;
+import com.example.windsurfspringapp.event.ProductChangedEvent;
+import com.example.windsurfspringapp.event.StockChangedEvent;
+import com.example.windsurfspringapp.inventory.LowStockWatcher;
+import com.example.windsurfspringapp.inventory.StockLedger;
 import com.example.windsurfspringapp.model.Product;
+import com.example.windsurfspringapp.paging.CursorRequest;
+import com.example.windsurfspringapp.paging.IndexedPages;
+import com.example.windsurfspringapp.paging.ProductSort;
 import com.example.windsurfspringapp.repository.ProductRepository;
+import com.example.windsurfspringapp.repository.ProductSpecifications;
+import com.example.windsurfspringapp.search.ProductPriceIndex;
+import com.example.windsurfspringapp.search.ProductSearchIndex;
+import com.example.windsurfspringapp.search.SortedPriceIndex;
 import com.example.windsurfspringapp.service.ProductService;
+import com.example.windsurfspringapp.store.OffHeapProductStore;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Implementation of the ProductService interface.
+ *
+ * <p>Name searches and price filters are answered from the in-memory {@link ProductSearchIndex} and
+ * {@link ProductPriceIndex} once they are ready and fall back to database queries otherwise. Lookups by ID are cached; every write publishes a
+ * {@link ProductChangedEvent} so that the cache and in-memory read models follow committed changes.
+ * Stock of products designated hot is held in the {@link StockLedger} rather than adjusted row by row.
+ * Low-stock queries read the matching IDs from the {@link LowStockWatcher} when it covers the threshold.
+ * When the {@link OffHeapProductStore} is enabled and ready, lookups by ID and index matches are read from
+ * it instead of the database. Faceted queries combine any filters into one specification and are always
+ * answered by the database.</p>
  */
 @Service
+@Timed(value = "catalog.service", histogram = true)
 public class ProductServiceImpl implements ProductService {
 
+    // Upper bound for an IN list used to re-sort index matches in the database
+    static final int MAX_INDEXED_IN_LIST = 1000;
+    // Upper bound for price range matches re-sorted by ID in memory
+    static final int MAX_INDEXED_ID_SORT = 100_000;
+    // IDs loaded per query when hydrating index matches
+    private static final int HYDRATE_CHUNK_SIZE = 500;
+
     private final ProductRepository productRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ProductSearchIndex searchIndex;
+    private final ProductPriceIndex priceIndex;
+    private final StockLedger stockLedger;
+    private final LowStockWatcher lowStockWatcher;
+    private final OffHeapProductStore productStore;
+    private final TransactionTemplate transactionTemplate;
 
     @Autowired
-    public ProductServiceImpl(ProductRepository productRepository) {
+    public ProductServiceImpl(ProductRepository productRepository,
+                              ApplicationEventPublisher eventPublisher,
+                              ProductSearchIndex searchIndex,
+                              ProductPriceIndex priceIndex,
+                              StockLedger stockLedger,
+                              LowStockWatcher lowStockWatcher,
+                              OffHeapProductStore productStore,
+                              PlatformTransactionManager transactionManager) {
         this.productRepository = productRepository;
+        this.eventPublisher = eventPublisher;
+        this.searchIndex = searchIndex;
+        this.priceIndex = priceIndex;
+        this.stockLedger = stockLedger;
+        this.lowStockWatcher = lowStockWatcher;
+        this.productStore = productStore;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
     @Override
@@ -30,21 +99,50 @@ public class ProductServiceImpl implements ProductService {
     }
 
     @Override
+    public Window<Product> findAllProducts(CursorRequest page) {
+        return productRepository.findAllBy(page.position(), page.sort(), page.limit());
+    }
+
+    @Override
+    @Cacheable(cacheNames = CacheConfig.PRODUCTS, key = "#id", unless = "#result == null")
     public Optional<Product> findProductById(Long id) {
+        if (productStore.isReady()) {
+            return productStore.findById(id);
+        }
         return productRepository.findById(id);
     }
 
+    @Override
+    public Optional<ProductVersion> findProductVersion(Long id) {
+        return productRepository.findVersionById(id);
+    }
+
     @Override
     @Transactional
     public Product saveProduct(Product product) {
-        return productRepository.save(product);
+        ProductSnapshot before = product.getId() == null
+                ? null
+                : productRepository.findSnapshotById(product.getId()).orElse(null);
+        if (before != null) {
+            stockLedger.fence(before.id());
+        }
+        // Flushed so the event carries the updatedAt the indexes order changes by
+        Product saved = productRepository.saveAndFlush(product);
+        ProductSnapshot after = ProductSnapshot.from(saved);
+        eventPublisher.publishEvent(before == null
+                ? ProductChangedEvent.created(after)
+                : ProductChangedEvent.updated(before, after));
+        return saved;
     }
 
     @Override
     @Transactional
     public boolean deleteProduct(Long id) {
-        if (productRepository.existsById(id)) {
+        Optional<ProductSnapshot> before = productRepository.findSnapshotById(id);
+        if (before.isPresent()) {
+            stockLedger.fence(id);
             productRepository.deleteById(id);
+            eventPublisher.publishEvent(ProductChangedEvent.deleted(before.get()));
             return true;
         }
         return false;
@@ -52,7 +150,21 @@ public class ProductServiceImpl implements ProductService {
 
     @Override
     public List<Product> searchProductsByName(String name) {
-        return productRepository.findByNameContainingIgnoreCase(name);
+        if (!searchIndex.isReady()) {
+            return productRepository.findByNameContainingIgnoreCase(name);
+        }
+        return hydrate(searchIndex.search(name));
+    }
+
+    @Override
+    public Window<Product> searchProductsByName(String name, CursorRequest page) {
+        if (searchIndex.isReady()) {
+            Window<Product> window = indexedPage(searchIndex.search(name), page);
+            if (window != null) {
+                return window;
+            }
+        }
+        return productRepository.findByNameContainingIgnoreCase(name, page.position(), page.sort(), page.limit());
     }
 
     @Override
@@ -60,32 +172,243 @@ public class ProductServiceImpl implements ProductService {
         return productRepository.findByCategoryId(categoryId);
     }
 
+    @Override
+    public Window<Product> findProductsByCategory(Long categoryId, CursorRequest page) {
+        return productRepository.findByCategoryId(categoryId, page.position(), page.sort(), page.limit());
+    }
+
+    @Override
+    @Async(AsyncConfig.CATALOG_QUERY_EXECUTOR)
+    public CompletableFuture<Window<Product>> findProductsByCategoryAsync(Long categoryId, CursorRequest page) {
+        return CompletableFuture.completedFuture(findProductsByCategory(categoryId, page));
+    }
+
     @Override
     public List<Product> findProductsByMaxPrice(BigDecimal maxPrice) {
-        return productRepository.findByPriceLessThanEqual(maxPrice);
+        if (!priceIndex.isReady()) {
+            return productRepository.findByPriceLessThanEqual(maxPrice);
+        }
+        return hydrate(priceIndex.range(Long.MIN_VALUE, ProductPriceIndex.upperBoundCents(maxPrice)));
     }
 
     @Override
     public List<Product> findProductsByNameAndPriceRange(String name, BigDecimal minPrice, BigDecimal maxPrice) {
-        return productRepository.findByNameAndPriceRange(name, minPrice, maxPrice);
+        if (!searchIndex.isReady() || !priceIndex.isReady()) {
+            return productRepository.findByNameAndPriceRange(name, minPrice, maxPrice);
+        }
+        return hydrate(priceIndex.retainInRange(searchIndex.search(name),
+                ProductPriceIndex.lowerBoundCents(minPrice), ProductPriceIndex.upperBoundCents(maxPrice)));
+    }
+
+    @Override
+    public Window<Product> findProductsByPriceRange(String name, BigDecimal minPrice, BigDecimal maxPrice,
+                                                    CursorRequest page) {
+        long minCents = ProductPriceIndex.lowerBoundCents(minPrice);
+        long maxCents = ProductPriceIndex.upperBoundCents(maxPrice);
+        if (name == null || name.isBlank()) {
+            if (priceIndex.isReady()) {
+                if (page.sortKey() == ProductSort.PRICE) {
+                    BigDecimal afterPrice = (BigDecimal) page.afterValue();
+                    SortedPriceIndex.Slice slice = priceIndex.page(minCents, maxCents,
+                            afterPrice == null ? 0 : ProductPriceIndex.toCents(afterPrice), page.afterId(), page.size());
+                    return IndexedPages.of(slice.ids(), slice.hasNext(), page,
+                            this::findWithCategoryByIdIn, Product::getId, Product::getPrice);
+                }
+                if (priceIndex.count(minCents, maxCents) <= MAX_INDEXED_ID_SORT) {
+                    long[] ids = priceIndex.range(minCents, maxCents);
+                    Arrays.sort(ids);
+                    Window<Product> window = indexedPage(ids, page);
+                    if (window != null) {
+                        return window;
+                    }
+                }
+            }
+            return productRepository.findByPriceBetween(minPrice, maxPrice, page.position(), page.sort(), page.limit());
+        }
+        if (searchIndex.isReady() && priceIndex.isReady()) {
+            Window<Product> window = indexedPage(
+                    priceIndex.retainInRange(searchIndex.search(name), minCents, maxCents), page);
+            if (window != null) {
+                return window;
+            }
+        }
+        return productRepository.findByNameContainingIgnoreCaseAndPriceBetween(
+                name, minPrice, maxPrice, page.position(), page.sort(), page.limit());
     }
 
     @Override
     public List<Product> findLowStockProducts(Integer threshold) {
+        stockLedger.flush();
+        if (lowStockWatcher.covers(threshold)) {
+            return hydrate(lowStockWatcher.lowStockIds(threshold));
+        }
         return productRepository.findLowStockProducts(threshold);
     }
 
+    @Override
+    public Window<Product> findLowStockProducts(Integer threshold, CursorRequest page) {
+        stockLedger.flush();
+        if (lowStockWatcher.covers(threshold)) {
+            Window<Product> window = indexedPage(lowStockWatcher.lowStockIds(threshold), page);
+            if (window != null) {
+                return window;
+            }
+        }
+        return productRepository.findByStockQuantityLessThan(threshold, page.position(), page.sort(), page.limit());
+    }
+
+    @Override
+    @Async(AsyncConfig.CATALOG_QUERY_EXECUTOR)
+    public CompletableFuture<Window<Product>> findLowStockProductsAsync(Integer threshold, CursorRequest page) {
+        return CompletableFuture.completedFuture(findLowStockProducts(threshold, page));
+    }
+
+    @Override
+    public Window<Product> queryProducts(ProductQuery query, CursorRequest page) {
+        if (query.filtersStock()) {
+            stockLedger.flush();
+        }
+        Specification<Product> spec = ProductSpecifications.matching(query).and(ProductSpecifications.fetchingCategory());
+        return productRepository.findBy(spec, fluent -> fluent
+                .sortBy(page.sort())
+                .limit(page.size())
+                .scroll(page.position()));
+    }
+
+    @Override
+    public ProductFacets findProductFacets(ProductQuery query, List<BigDecimal> priceBounds) {
+        if (query.filtersStock()) {
+            stockLedger.flush();
+        }
+        Specification<Product> spec = ProductSpecifications.matching(query);
+        long[] below = productRepository.countBelowPrices(spec, priceBounds);
+        long total = below[priceBounds.size()];
+        List<ProductFacets.PriceBucket> buckets = new ArrayList<>(priceBounds.size() + 1);
+        BigDecimal from = null;
+        long counted = 0;
+        for (int i = 0; i <= priceBounds.size(); i++) {
+            BigDecimal to = i < priceBounds.size() ? priceBounds.get(i) : null;
+            buckets.add(new ProductFacets.PriceBucket(from, to, below[i] - counted));
+            from = to;
+            counted = below[i];
+        }
+        return new ProductFacets(total, productRepository.countByCategory(spec), buckets);
+    }
+
     @Override
     @Transactional
     public Optional<Product> updateProductStock(Long productId, Integer quantity) {
+        if (stockLedger.manages(productId)) {
+            if (stockLedger.set(productId, quantity).isEmpty()) {
+                return Optional.empty();
+            }
+            stockLedger.flush();
+            return productRepository.findById(productId);
+        }
         Optional<Product> productOptional = productRepository.findById(productId);
         
         if (productOptional.isPresent()) {
             Product product = productOptional.get();
+            ProductSnapshot before = ProductSnapshot.from(product);
             product.setStockQuantity(quantity);
-            return Optional.of(productRepository.save(product));
+            Product saved = productRepository.saveAndFlush(product);
+            eventPublisher.publishEvent(ProductChangedEvent.updated(before, ProductSnapshot.from(saved)));
+            return Optional.of(saved);
         }
         
         return Optional.empty();
     }
+
+    // Hot products never open a transaction; the others run the conditional UPDATE in one
+    @Override
+    public StockAdjustment decrementStock(Long productId, int amount) {
+        requirePositive(amount);
+        if (stockLedger.manages(productId)) {
+            return stockLedger.take(productId, amount);
+        }
+        LocalDateTime now = LocalDateTime.now();
+        return transactionTemplate.execute(status -> {
+            if (productRepository.decrementStock(productId, amount, now) == 0) {
+                return productRepository.findStockQuantityById(productId)
+                        .map(quantity -> StockAdjustment.insufficientStock(productId, quantity))
+                        .orElseGet(() -> StockAdjustment.notFound(productId));
+            }
+            return stockChanged(productId, -amount, now);
+        });
+    }
+
+    @Override
+    public StockAdjustment incrementStock(Long productId, int amount) {
+        requirePositive(amount);
+        if (stockLedger.manages(productId)) {
+            return stockLedger.give(productId, amount);
+        }
+        LocalDateTime now = LocalDateTime.now();
+        return transactionTemplate.execute(status -> {
+            if (productRepository.incrementStock(productId, amount, Integer.MAX_VALUE, now) == 0) {
+                return productRepository.findStockQuantityById(productId)
+                        .map(quantity -> StockAdjustment.tooMuchStock(productId, quantity))
+                        .orElseGet(() -> StockAdjustment.notFound(productId));
+            }
+            return stockChanged(productId, amount, now);
+        });
+    }
+
+    // The updated row stays locked until commit, so this read sees exactly the level our update produced
+    private StockAdjustment stockChanged(Long productId, int delta, LocalDateTime now) {
+        int quantity = productRepository.findStockQuantityById(productId).orElseThrow();
+        eventPublisher.publishEvent(new StockChangedEvent(productId, quantity - delta, quantity, now));
+        return StockAdjustment.applied(productId, quantity);
+    }
+
+    private static void requirePositive(int amount) {
+        if (amount <= 0) {
+            throw new IllegalArgumentException("Stock adjustment must be positive, got " + amount);
+        }
+    }
+
+    /**
+     * Page through index matches: by slicing the IDs for ID order, or with an IN query for other orders.
+     *
+     * @return The page, or null if there are too many matches to sort in the database
+     */
+    private Window<Product> indexedPage(long[] sortedIds, CursorRequest page) {
+        if (page.sortKey() == ProductSort.ID) {
+            return IndexedPages.byId(sortedIds, page, this::findWithCategoryByIdIn, Product::getId);
+        }
+        if (sortedIds.length <= MAX_INDEXED_IN_LIST) {
+            return productRepository.findByIdIn(boxed(sortedIds), page.position(), page.sort(), page.limit());
+        }
+        return null;
+    }
+
+    /**
+     * Load index matches in the given order, a chunk of IDs per query.
+     */
+    private List<Product> hydrate(long[] ids) {
+        List<Product> products = new ArrayList<>(ids.length);
+        for (int from = 0; from < ids.length; from += HYDRATE_CHUNK_SIZE) {
+            long[] chunk = Arrays.copyOfRange(ids, from, Math.min(from + HYDRATE_CHUNK_SIZE, ids.length));
+            products.addAll(IndexedPages.loadInOrder(chunk, this::findWithCategoryByIdIn, Product::getId));
+        }
+        return products;
+    }
+
+    /**
+     * Load products with their category, from the off-heap store when it is ready.
+     */
+    private List<Product> findWithCategoryByIdIn(List<Long> ids) {
+        if (productStore.isReady()) {
+            return productStore.findAllById(ids);
+        }
+        return productRepository.findWithCategoryByIdIn(ids);
+    }
+
+    private static List<Long> boxed(long[] ids) {
+        List<Long> boxed = new ArrayList<>(ids.length);
+        for (long id : ids) {
+            boxed.add(id);
+        }
+        return boxed;
+    }
 }
@@ -0,0 +1,82 @@
+package com.example.windsurfspringapp.snapshot;
+
+import com.example.windsurfspringapp.inventory.StockLedger;
+import com.example.windsurfspringapp.service.CatalogSnapshotService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Restores the catalog from {@code catalog.snapshot.path} at startup and writes it back at shutdown.
+ * This will only run when {@code catalog.snapshot.path} is set.
+ *
+ * <p>The restore runs before every other runner, so the dev sample data and a startup CSV import see the
+ * restored catalog, and before the in-memory indexes rebuild on {@code ApplicationReadyEvent}.</p>
+ *
+ * <p>The snapshot is written on {@code ContextClosedEvent}, before the {@link StockLedger} flushes on its
+ * own at bean destruction, so the ledger is flushed first to get its stock changes into the snapshot.</p>
+ */
+@Component
+@ConditionalOnProperty("catalog.snapshot.path")
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class CatalogSnapshotLifecycle implements CommandLineRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogSnapshotLifecycle.class);
+
+    private final CatalogSnapshotService catalogSnapshotService;
+    private final StockLedger stockLedger;
+    private final Path path;
+    private final boolean restoreOnStartup;
+    private final boolean writeOnShutdown;
+
+    @Autowired
+    public CatalogSnapshotLifecycle(CatalogSnapshotService catalogSnapshotService,
+                                    StockLedger stockLedger,
+                                    @Value("${catalog.snapshot.path}") Path path,
+                                    @Value("${catalog.snapshot.restore-on-startup:true}") boolean restoreOnStartup,
+                                    @Value("${catalog.snapshot.write-on-shutdown:true}") boolean writeOnShutdown) {
+        this.catalogSnapshotService = catalogSnapshotService;
+        this.stockLedger = stockLedger;
+        this.path = path;
+        this.restoreOnStartup = restoreOnStartup;
+        this.writeOnShutdown = writeOnShutdown;
+    }
+
+    @Override
+    public void run(String... args) throws IOException {
+        if (!restoreOnStartup) {
+            return;
+        }
+        if (catalogSnapshotService.restoreSnapshot(path).isEmpty()) {
+            log.info("No catalog snapshot restored from {}", path);
+        }
+    }
+
+    /**
+     * Write the snapshot while the database is still open.
+     * A failure is logged rather than thrown, so it cannot hold up the shutdown.
+     */
+    @EventListener(ContextClosedEvent.class)
+    public void onShutdown() {
+        if (!writeOnShutdown) {
+            return;
+        }
+        try {
+            stockLedger.flush();
+            catalogSnapshotService.writeSnapshot(path);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not write catalog snapshot {}", path, e);
+        }
+    }
+}
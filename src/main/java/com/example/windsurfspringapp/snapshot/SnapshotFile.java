@@ -0,0 +1,402 @@
+package com.example.windsurfspringapp.snapshot;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Binary, columnar snapshot of the catalog.
+ *
+ * <p>Layout, big-endian:</p>
+ * <pre>
+ * magic       8 bytes   "CATSNAP1"
+ * writtenAt   long      epoch milliseconds
+ * categories  int       number of categories
+ * products    long      number of products
+ * sections    long[2]   offset and length of each {@link Section}, in declaration order
+ * data                  the sections, one after another
+ * </pre>
+ *
+ * <p>Each section holds one column of one entity, with rows in ascending ID order. Strings are a column
+ * of {@code int} byte lengths ({@code -1} for null) beside a column of UTF-8 bytes. Timestamps are
+ * microseconds since 1970-01-01T00:00 ({@link Long#MIN_VALUE} for null), prices are cents and a missing
+ * category ID is 0. Two trailing sections list the IDs that were cached when the snapshot was written.</p>
+ *
+ * <p>The file is written column by column to spool files and then assembled under a temporary name, which
+ * replaces the previous snapshot atomically. It is read through memory mappings, one per section, so a
+ * section must be smaller than 2 GiB.</p>
+ */
+public final class SnapshotFile {
+
+    /**
+     * The columns of the file, in file order.
+     */
+    enum Section {
+        CATEGORY_IDS,
+        CATEGORY_NAME_LENGTHS,
+        CATEGORY_NAMES,
+        CATEGORY_DESCRIPTION_LENGTHS,
+        CATEGORY_DESCRIPTIONS,
+        CATEGORY_CREATED_AT,
+        CATEGORY_UPDATED_AT,
+        PRODUCT_IDS,
+        PRODUCT_NAME_LENGTHS,
+        PRODUCT_NAMES,
+        PRODUCT_DESCRIPTION_LENGTHS,
+        PRODUCT_DESCRIPTIONS,
+        PRODUCT_PRICE_CENTS,
+        PRODUCT_STOCK_QUANTITIES,
+        PRODUCT_CATEGORY_IDS,
+        PRODUCT_CREATED_AT,
+        PRODUCT_UPDATED_AT,
+        CACHED_CATEGORY_IDS,
+        CACHED_PRODUCT_IDS
+    }
+
+    /**
+     * A category as stored in the snapshot.
+     */
+    public record CategoryRow(long id, String name, String description,
+                              LocalDateTime createdAt, LocalDateTime updatedAt) {
+    }
+
+    /**
+     * A product as stored in the snapshot.
+     *
+     * @param categoryId The category ID, 0 if the product has no category
+     */
+    public record ProductRow(long id, String name, String description, long priceCents, int stockQuantity,
+                             long categoryId, LocalDateTime createdAt, LocalDateTime updatedAt) {
+    }
+
+    private static final byte[] MAGIC = "CATSNAP1".getBytes(StandardCharsets.US_ASCII);
+    private static final Section[] SECTIONS = Section.values();
+    private static final int HEADER_BYTES = MAGIC.length + Long.BYTES + Integer.BYTES + Long.BYTES
+            + SECTIONS.length * 2 * Long.BYTES;
+    private static final long NULL_TIMESTAMP = Long.MIN_VALUE;
+
+    private SnapshotFile() {
+    }
+
+    /**
+     * Writes a snapshot. Rows must be written in ascending ID order, categories before products.
+     * Nothing replaces the target file unless {@link #commit()} succeeds.
+     */
+    public static final class Writer implements Closeable {
+
+        private final Path target;
+        private final Path spoolDirectory;
+        private final DataOutputStream[] spools = new DataOutputStream[SECTIONS.length];
+        private int categories;
+        private long products;
+
+        private Writer(Path target) throws IOException {
+            this.target = target.toAbsolutePath();
+            Files.createDirectories(this.target.getParent());
+            this.spoolDirectory = Files.createTempDirectory(this.target.getParent(), this.target.getFileName() + ".");
+            try {
+                for (Section section : SECTIONS) {
+                    spools[section.ordinal()] = new DataOutputStream(new BufferedOutputStream(
+                            Files.newOutputStream(spoolFile(section)), 64 * 1024));
+                }
+            } catch (IOException e) {
+                close();
+                throw e;
+            }
+        }
+
+        public static Writer create(Path target) throws IOException {
+            return new Writer(target);
+        }
+
+        public void writeCategory(long id, String name, String description,
+                                  LocalDateTime createdAt, LocalDateTime updatedAt) throws IOException {
+            spool(Section.CATEGORY_IDS).writeLong(id);
+            writeString(Section.CATEGORY_NAME_LENGTHS, Section.CATEGORY_NAMES, name);
+            writeString(Section.CATEGORY_DESCRIPTION_LENGTHS, Section.CATEGORY_DESCRIPTIONS, description);
+            spool(Section.CATEGORY_CREATED_AT).writeLong(toMicros(createdAt));
+            spool(Section.CATEGORY_UPDATED_AT).writeLong(toMicros(updatedAt));
+            categories++;
+        }
+
+        public void writeProduct(long id, String name, String description, long priceCents, int stockQuantity,
+                                 long categoryId, LocalDateTime createdAt, LocalDateTime updatedAt)
+                throws IOException {
+            spool(Section.PRODUCT_IDS).writeLong(id);
+            writeString(Section.PRODUCT_NAME_LENGTHS, Section.PRODUCT_NAMES, name);
+            writeString(Section.PRODUCT_DESCRIPTION_LENGTHS, Section.PRODUCT_DESCRIPTIONS, description);
+            spool(Section.PRODUCT_PRICE_CENTS).writeLong(priceCents);
+            spool(Section.PRODUCT_STOCK_QUANTITIES).writeInt(stockQuantity);
+            spool(Section.PRODUCT_CATEGORY_IDS).writeLong(categoryId);
+            spool(Section.PRODUCT_CREATED_AT).writeLong(toMicros(createdAt));
+            spool(Section.PRODUCT_UPDATED_AT).writeLong(toMicros(updatedAt));
+            products++;
+        }
+
+        public void writeCachedCategoryId(long id) throws IOException {
+            spool(Section.CACHED_CATEGORY_IDS).writeLong(id);
+        }
+
+        public void writeCachedProductId(long id) throws IOException {
+            spool(Section.CACHED_PRODUCT_IDS).writeLong(id);
+        }
+
+        /**
+         * Assemble the file and move it into place.
+         *
+         * @return The size of the file in bytes
+         * @throws IOException if the file cannot be written
+         */
+        public long commit() throws IOException {
+            long[] lengths = new long[SECTIONS.length];
+            for (Section section : SECTIONS) {
+                spools[section.ordinal()].close();
+                lengths[section.ordinal()] = Files.size(spoolFile(section));
+            }
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            header.put(MAGIC).putLong(System.currentTimeMillis()).putInt(categories).putLong(products);
+            long offset = HEADER_BYTES;
+            for (long length : lengths) {
+                header.putLong(offset).putLong(length);
+                offset += length;
+            }
+            header.flip();
+
+            Path assembled = spoolDirectory.resolve("snapshot");
+            try (FileChannel out = FileChannel.open(assembled, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+                while (header.hasRemaining()) {
+                    out.write(header);
+                }
+                for (Section section : SECTIONS) {
+                    try (FileChannel in = FileChannel.open(spoolFile(section), StandardOpenOption.READ)) {
+                        long position = 0;
+                        while (position < lengths[section.ordinal()]) {
+                            position += in.transferTo(position, lengths[section.ordinal()] - position, out);
+                        }
+                    }
+                }
+                out.force(true);
+            }
+            Files.move(assembled, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return offset;
+        }
+
+        /**
+         * Delete the spool files.
+         */
+        @Override
+        public void close() throws IOException {
+            for (DataOutputStream spool : spools) {
+                if (spool != null) {
+                    spool.close();
+                }
+            }
+            try (Stream<Path> files = Files.walk(spoolDirectory)) {
+                for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+
+        private void writeString(Section lengths, Section bytes, String value) throws IOException {
+            if (value == null) {
+                spool(lengths).writeInt(-1);
+                return;
+            }
+            byte[] encoded = value.getBytes(StandardCharsets.UTF_8);
+            spool(lengths).writeInt(encoded.length);
+            spool(bytes).write(encoded);
+        }
+
+        private DataOutputStream spool(Section section) {
+            return spools[section.ordinal()];
+        }
+
+        private Path spoolFile(Section section) {
+            return spoolDirectory.resolve(section.name());
+        }
+    }
+
+    /**
+     * Reads a snapshot through memory mappings of its sections.
+     */
+    public static final class Reader implements Closeable {
+
+        private final FileChannel channel;
+        private final long writtenAt;
+        private final int categoryCount;
+        private final long productCount;
+        private final long[] offsets = new long[SECTIONS.length];
+        private final long[] lengths = new long[SECTIONS.length];
+
+        private Reader(Path file) throws IOException {
+            this.channel = FileChannel.open(file, StandardOpenOption.READ);
+            try {
+                if (channel.size() < HEADER_BYTES) {
+                    throw corrupt("file is shorter than its header");
+                }
+                ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES);
+                byte[] magic = new byte[MAGIC.length];
+                header.get(magic);
+                if (!Arrays.equals(magic, MAGIC)) {
+                    throw new IOException(file + " is not a catalog snapshot");
+                }
+                this.writtenAt = header.getLong();
+                this.categoryCount = header.getInt();
+                this.productCount = header.getLong();
+                for (int i = 0; i < SECTIONS.length; i++) {
+                    offsets[i] = header.getLong();
+                    lengths[i] = header.getLong();
+                    if (offsets[i] < HEADER_BYTES || lengths[i] < 0 || offsets[i] + lengths[i] > channel.size()) {
+                        throw corrupt("section " + SECTIONS[i] + " lies outside the file");
+                    }
+                }
+                checkLength(Section.CATEGORY_IDS, (long) categoryCount * Long.BYTES);
+                checkLength(Section.PRODUCT_IDS, productCount * Long.BYTES);
+            } catch (IOException e) {
+                channel.close();
+                throw e;
+            }
+        }
+
+        public static Reader open(Path file) throws IOException {
+            return new Reader(file);
+        }
+
+        public LocalDateTime writtenAt() {
+            return LocalDateTime.ofEpochSecond(Math.floorDiv(writtenAt, 1000), 0, ZoneOffset.UTC)
+                    .plusNanos(Math.floorMod(writtenAt, 1000) * 1_000_000L);
+        }
+
+        public int categoryCount() {
+            return categoryCount;
+        }
+
+        public long productCount() {
+            return productCount;
+        }
+
+        public void forEachCategory(Consumer<CategoryRow> action) throws IOException {
+            ByteBuffer ids = map(Section.CATEGORY_IDS);
+            StringColumn names = new StringColumn(map(Section.CATEGORY_NAME_LENGTHS), map(Section.CATEGORY_NAMES));
+            StringColumn descriptions = new StringColumn(
+                    map(Section.CATEGORY_DESCRIPTION_LENGTHS), map(Section.CATEGORY_DESCRIPTIONS));
+            ByteBuffer createdAt = map(Section.CATEGORY_CREATED_AT);
+            ByteBuffer updatedAt = map(Section.CATEGORY_UPDATED_AT);
+            for (int i = 0; i < categoryCount; i++) {
+                action.accept(new CategoryRow(ids.getLong(), names.next(), descriptions.next(),
+                        fromMicros(createdAt.getLong()), fromMicros(updatedAt.getLong())));
+            }
+        }
+
+        public void forEachProduct(Consumer<ProductRow> action) throws IOException {
+            ByteBuffer ids = map(Section.PRODUCT_IDS);
+            StringColumn names = new StringColumn(map(Section.PRODUCT_NAME_LENGTHS), map(Section.PRODUCT_NAMES));
+            StringColumn descriptions = new StringColumn(
+                    map(Section.PRODUCT_DESCRIPTION_LENGTHS), map(Section.PRODUCT_DESCRIPTIONS));
+            ByteBuffer prices = map(Section.PRODUCT_PRICE_CENTS);
+            ByteBuffer stockQuantities = map(Section.PRODUCT_STOCK_QUANTITIES);
+            ByteBuffer categoryIds = map(Section.PRODUCT_CATEGORY_IDS);
+            ByteBuffer createdAt = map(Section.PRODUCT_CREATED_AT);
+            ByteBuffer updatedAt = map(Section.PRODUCT_UPDATED_AT);
+            for (long i = 0; i < productCount; i++) {
+                action.accept(new ProductRow(ids.getLong(), names.next(), descriptions.next(), prices.getLong(),
+                        stockQuantities.getInt(), categoryIds.getLong(),
+                        fromMicros(createdAt.getLong()), fromMicros(updatedAt.getLong())));
+            }
+        }
+
+        public long[] cachedCategoryIds() throws IOException {
+            return longs(Section.CACHED_CATEGORY_IDS);
+        }
+
+        public long[] cachedProductIds() throws IOException {
+            return longs(Section.CACHED_PRODUCT_IDS);
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+
+        private long[] longs(Section section) throws IOException {
+            ByteBuffer column = map(section);
+            long[] values = new long[column.remaining() / Long.BYTES];
+            column.asLongBuffer().get(values);
+            return values;
+        }
+
+        private MappedByteBuffer map(Section section) throws IOException {
+            long length = lengths[section.ordinal()];
+            if (length > Integer.MAX_VALUE) {
+                throw corrupt("section " + section + " is larger than 2 GiB");
+            }
+            return channel.map(FileChannel.MapMode.READ_ONLY, offsets[section.ordinal()], length);
+        }
+
+        private void checkLength(Section section, long expected) throws IOException {
+            if (lengths[section.ordinal()] != expected) {
+                throw corrupt("section " + section + " does not match the row count");
+            }
+        }
+
+        private static IOException corrupt(String reason) {
+            return new IOException("Corrupt catalog snapshot: " + reason);
+        }
+    }
+
+    /**
+     * Decodes a string column sequentially.
+     */
+    private static final class StringColumn {
+
+        private final ByteBuffer lengths;
+        private final ByteBuffer bytes;
+
+        private StringColumn(ByteBuffer lengths, ByteBuffer bytes) {
+            this.lengths = lengths;
+            this.bytes = bytes;
+        }
+
+        String next() {
+            int length = lengths.getInt();
+            if (length < 0) {
+                return null;
+            }
+            byte[] encoded = new byte[length];
+            bytes.get(encoded);
+            return new String(encoded, StandardCharsets.UTF_8);
+        }
+    }
+
+    private static long toMicros(LocalDateTime timestamp) {
+        if (timestamp == null) {
+            return NULL_TIMESTAMP;
+        }
+        return timestamp.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + timestamp.getNano() / 1_000;
+    }
+
+    private static LocalDateTime fromMicros(long micros) {
+        if (micros == NULL_TIMESTAMP) {
+            return null;
+        }
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000), 0, ZoneOffset.UTC)
+                .plusNanos(Math.floorMod(micros, 1_000_000) * 1_000L);
+    }
+}
@@ -0,0 +1,207 @@
+package com.example.windsurfspringapp.store;
+
+import com.example.windsurfspringapp.dto.ProductSnapshot;
+import com.example.windsurfspringapp.event.ProductChangedEvent;
+import com.example.windsurfspringapp.event.ProductsImportedEvent;
+import com.example.windsurfspringapp.event.StockChangedEvent;
+import com.example.windsurfspringapp.model.Category;
+import com.example.windsurfspringapp.model.Product;
+import com.example.windsurfspringapp.repository.ProductRepository;
+import com.example.windsurfspringapp.search.ProductPriceIndex;
+import com.example.windsurfspringapp.search.RebuildableIndex;
+import com.example.windsurfspringapp.service.CategoryService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Optional read model holding every product in an {@link OffHeapProductTable}, so that lookups by ID
+ * and the hydration of index matches are served from memory without multi-gigabyte heaps of entities.
+ * Enabled with {@code catalog.store.off-heap.enabled}.
+ *
+ * <p>The table is loaded from the {@link ProductRepository} at startup and reloaded every
+ * {@code catalog.store.off-heap.refresh-interval}, which also reclaims the bytes left behind by renamed
+ * products. In between, every committed change re-reads the changed rows, so the store reflects the
+ * database rather than the partial rows carried by the events.</p>
+ *
+ * <p>Products are decoded into detached entities on each read. Their category comes from the cached
+ * {@link CategoryService} lookup, so a category rename is visible as soon as its cache entry is evicted.</p>
+ */
+@Component
+public class OffHeapProductStore extends RebuildableIndex<OffHeapProductTable, Long> {
+
+    // IDs re-read per query when applying a batch of changes
+    private static final int REFRESH_CHUNK_SIZE = 500;
+
+    private final ProductRepository productRepository;
+    private final CategoryService categoryService;
+    private final TransactionTemplate readOnlyTransaction;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    public OffHeapProductStore(ProductRepository productRepository,
+                               CategoryService categoryService,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${catalog.store.off-heap.enabled:false}") boolean enabled) {
+        super(enabled);
+        this.productRepository = productRepository;
+        this.categoryService = categoryService;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        // Changes are applied after the writing transaction has committed; read them in a fresh one
+        this.readOnlyTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Get a product by ID.
+     *
+     * @param id The product ID
+     * @return The product, detached and with its category loaded, or empty if it doesn't exist
+     * @throws IllegalStateException if the store is not ready
+     */
+    public Optional<Product> findById(Long id) {
+        return Optional.ofNullable(index().get(id)).map(this::toProduct);
+    }
+
+    /**
+     * Get the products with the given IDs.
+     *
+     * @param ids The product IDs
+     * @return The products that exist, in no particular order
+     * @throws IllegalStateException if the store is not ready
+     */
+    public List<Product> findAllById(Collection<Long> ids) {
+        OffHeapProductTable table = index();
+        List<Product> products = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            OffHeapProductTable.Row row = table.get(id);
+            if (row != null) {
+                products.add(toProduct(row));
+            }
+        }
+        return products;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    /**
+     * Reload the table from the database, correcting any drift and compacting its strings.
+     */
+    @Scheduled(initialDelayString = "${catalog.store.off-heap.refresh-interval:1h}",
+               fixedDelayString = "${catalog.store.off-heap.refresh-interval:1h}")
+    public void refresh() {
+        if (isReady()) {
+            rebuild();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        onChange(event.productId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductsImported(ProductsImportedEvent event) {
+        onChanges(event.products().stream().map(ProductSnapshot::id).toList());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStockChanged(StockChangedEvent event) {
+        onChange(event.productId());
+    }
+
+    @Override
+    protected OffHeapProductTable load(Versions versions) {
+        return readOnlyTransaction.execute(status -> {
+            OffHeapProductTable table = new OffHeapProductTable((int) Math.min(productRepository.count(), OffHeapProductTable.MAX_SIZE));
+            try (Stream<Product> products = productRepository.streamAllBy()) {
+                products.forEach(product -> {
+                    table.put(toRow(product));
+                    // Keep the persistence context from holding every product loaded so far
+                    entityManager.detach(product);
+                });
+            }
+            return table;
+        });
+    }
+
+    @Override
+    protected void apply(OffHeapProductTable table, Long productId) {
+        applyAll(table, List.of(productId));
+    }
+
+    // Re-read the changed rows, a chunk of IDs per query; IDs that no longer exist were deleted. Changes are
+    // applied one batch at a time under the index lock, so each re-read sees commits at least as recent as
+    // the rows already stored; a row older than the stored one is still never written back.
+    @Override
+    protected void applyAll(OffHeapProductTable table, List<Long> productIds) {
+        List<Long> distinct = new ArrayList<>(new HashSet<>(productIds));
+        for (int from = 0; from < distinct.size(); from += REFRESH_CHUNK_SIZE) {
+            List<Long> chunk = distinct.subList(from, Math.min(from + REFRESH_CHUNK_SIZE, distinct.size()));
+            List<Product> products = readOnlyTransaction.execute(status -> productRepository.findAllById(chunk));
+            Set<Long> missing = new HashSet<>(chunk);
+            for (Product product : products) {
+                missing.remove(product.getId());
+                OffHeapProductTable.Row current = table.get(product.getId());
+                if (current == null || !isOlder(product.getUpdatedAt(), current.updatedAt())) {
+                    table.put(toRow(product));
+                }
+            }
+            missing.forEach(table::remove);
+        }
+    }
+
+    @Override
+    protected int size(OffHeapProductTable table) {
+        return table.size();
+    }
+
+    private static boolean isOlder(LocalDateTime updatedAt, LocalDateTime stored) {
+        return updatedAt != null && stored != null && updatedAt.isBefore(stored);
+    }
+
+    // Reading the ID of the category proxy does not initialize it
+    private static OffHeapProductTable.Row toRow(Product product) {
+        return new OffHeapProductTable.Row(product.getId(), product.getName(), product.getDescription(),
+                ProductPriceIndex.toCents(product.getPrice()), product.getStockQuantity(),
+                product.getCategory() == null ? 0 : product.getCategory().getId(),
+                product.getCreatedAt(), product.getUpdatedAt());
+    }
+
+    private Product toProduct(OffHeapProductTable.Row row) {
+        Product product = new Product(row.name(), row.description(), BigDecimal.valueOf(row.priceCents(), 2),
+                row.stockQuantity());
+        product.setId(row.id());
+        product.setCreatedAt(row.createdAt());
+        product.setUpdatedAt(row.updatedAt());
+        if (row.categoryId() != 0) {
+            Category category = categoryService.findCategoryById(row.categoryId()).orElse(null);
+            product.setCategory(category);
+        }
+        return product;
+    }
+}
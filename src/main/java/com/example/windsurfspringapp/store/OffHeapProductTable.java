@@ -0,0 +1,417 @@
+package com.example.windsurfspringapp.store;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Table of product rows held outside the Java heap, in direct {@link ByteBuffer} slabs.
+ *
+ * <p>Each row is a fixed-width record of {@value #ROW_BYTES} bytes: ID, price in cents, stock, category ID,
+ * timestamps in microseconds, and the offsets and lengths of the UTF-8 name and description, which are
+ * appended to separate string slabs. An open-addressing hash index, also off-heap, maps IDs to row numbers.
+ * The heap only holds the slab references, so it does not grow with the number of products and the
+ * garbage collector has nothing to trace; rows are decoded into short-lived objects when read.</p>
+ *
+ * <p>Updates overwrite the row in place. A string that no longer fits its old bytes is appended again and
+ * the old bytes become garbage, reclaimed when the table is rebuilt. Rows of removed products are reused.</p>
+ *
+ * <p>The table is safe for concurrent use: reads share a read lock, updates take the write lock.</p>
+ */
+public class OffHeapProductTable {
+
+    /**
+     * A product row decoded from the table.
+     *
+     * @param categoryId The category ID, 0 if the product has no category
+     */
+    public record Row(long id, String name, String description, long priceCents, int stockQuantity,
+                      long categoryId, LocalDateTime createdAt, LocalDateTime updatedAt) {
+    }
+
+    static final int ROW_BYTES = 72;
+
+    // Row layout
+    private static final int ID = 0;
+    private static final int PRICE_CENTS = 8;
+    private static final int CATEGORY_ID = 16;
+    private static final int CREATED_AT = 24;
+    private static final int UPDATED_AT = 32;
+    private static final int NAME_OFFSET = 40;
+    private static final int DESCRIPTION_OFFSET = 48;
+    private static final int STOCK_QUANTITY = 56;
+    private static final int NAME_LENGTH = 60;
+    private static final int DESCRIPTION_LENGTH = 64;
+
+    private static final int ROW_SLAB_SHIFT = 16;
+    private static final int ROWS_PER_SLAB = 1 << ROW_SLAB_SHIFT;
+    private static final int STRING_SLAB_SHIFT = 24;
+    private static final int STRING_SLAB_BYTES = 1 << STRING_SLAB_SHIFT;
+
+    // Hash index slots hold an ID and a row number; ID 0 marks a free slot
+    private static final int SLOT_BYTES = 16;
+    private static final int MIN_CAPACITY = 1024;
+    // Largest power of two whose slots still fit in one buffer with int offsets
+    private static final int MAX_CAPACITY = Integer.highestOneBit(Integer.MAX_VALUE / SLOT_BYTES);
+
+    /**
+     * The most products a table can hold, bounded by the load factor of its largest hash index.
+     */
+    public static final int MAX_SIZE = MAX_CAPACITY - (MAX_CAPACITY >>> 2);
+    private static final long NULL_TIMESTAMP = Long.MIN_VALUE;
+    private static final int NO_ROW = -1;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final List<ByteBuffer> rowSlabs = new ArrayList<>();
+    private final List<ByteBuffer> stringSlabs = new ArrayList<>();
+    private ByteBuffer slots;
+    private int mask;
+    private int resizeAt;
+    private int size;
+    private int rowCount;
+    private int freeRow = NO_ROW;
+    private long stringEnd;
+    private long garbageBytes;
+
+    public OffHeapProductTable() {
+        this(0);
+    }
+
+    /**
+     * Create a table whose hash index is sized for the expected number of products.
+     *
+     * @param expectedSize The number of products the index should hold without resizing
+     */
+    public OffHeapProductTable(int expectedSize) {
+        allocateSlots(capacityFor(expectedSize));
+    }
+
+    /**
+     * Insert or replace a product.
+     *
+     * @param row The product; its ID must be positive
+     */
+    public void put(Row row) {
+        if (row.id() <= 0) {
+            throw new IllegalArgumentException("Product ID must be positive, got " + row.id());
+        }
+        byte[] name = encode(row.name());
+        byte[] description = encode(row.description());
+        lock.writeLock().lock();
+        try {
+            int slot = findSlot(row.id());
+            int rowNumber;
+            if (slot >= 0) {
+                rowNumber = (int) slots.getLong(slot * SLOT_BYTES + 8);
+            } else {
+                rowNumber = allocateRow();
+                insertSlot(row.id(), rowNumber);
+            }
+            ByteBuffer slab = rowSlab(rowNumber);
+            int base = rowBase(rowNumber);
+            if (slot >= 0) {
+                writeString(slab, base + NAME_OFFSET, base + NAME_LENGTH, name);
+                writeString(slab, base + DESCRIPTION_OFFSET, base + DESCRIPTION_LENGTH, description);
+            } else {
+                appendString(slab, base + NAME_OFFSET, base + NAME_LENGTH, name);
+                appendString(slab, base + DESCRIPTION_OFFSET, base + DESCRIPTION_LENGTH, description);
+            }
+            slab.putLong(base + ID, row.id());
+            slab.putLong(base + PRICE_CENTS, row.priceCents());
+            slab.putLong(base + CATEGORY_ID, row.categoryId());
+            slab.putLong(base + CREATED_AT, toMicros(row.createdAt()));
+            slab.putLong(base + UPDATED_AT, toMicros(row.updatedAt()));
+            slab.putInt(base + STOCK_QUANTITY, row.stockQuantity());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove a product.
+     *
+     * @param id The product ID
+     * @return true if the product was present
+     */
+    public boolean remove(long id) {
+        lock.writeLock().lock();
+        try {
+            int slot = findSlot(id);
+            if (slot < 0) {
+                return false;
+            }
+            int rowNumber = (int) slots.getLong(slot * SLOT_BYTES + 8);
+            removeSlot(slot);
+            ByteBuffer slab = rowSlab(rowNumber);
+            int base = rowBase(rowNumber);
+            garbageBytes += Math.max(0, slab.getInt(base + NAME_LENGTH))
+                    + Math.max(0, slab.getInt(base + DESCRIPTION_LENGTH));
+            // A free row stores the next free row in its ID field
+            slab.putLong(base + ID, freeRow);
+            freeRow = rowNumber;
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Read a product.
+     *
+     * @param id The product ID
+     * @return The product, or null if it is absent
+     */
+    public Row get(long id) {
+        lock.readLock().lock();
+        try {
+            int slot = findSlot(id);
+            if (slot < 0) {
+                return null;
+            }
+            int rowNumber = (int) slots.getLong(slot * SLOT_BYTES + 8);
+            ByteBuffer slab = rowSlab(rowNumber);
+            int base = rowBase(rowNumber);
+            return new Row(slab.getLong(base + ID),
+                    readString(slab.getLong(base + NAME_OFFSET), slab.getInt(base + NAME_LENGTH)),
+                    readString(slab.getLong(base + DESCRIPTION_OFFSET), slab.getInt(base + DESCRIPTION_LENGTH)),
+                    slab.getLong(base + PRICE_CENTS), slab.getInt(base + STOCK_QUANTITY),
+                    slab.getLong(base + CATEGORY_ID),
+                    fromMicros(slab.getLong(base + CREATED_AT)), fromMicros(slab.getLong(base + UPDATED_AT)));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Number of products.
+     *
+     * @return The product count
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Bytes allocated outside the heap for rows, strings and the hash index.
+     *
+     * @return The allocated bytes
+     */
+    public long offHeapBytes() {
+        lock.readLock().lock();
+        try {
+            return (long) rowSlabs.size() * ROWS_PER_SLAB * ROW_BYTES
+                    + (long) stringSlabs.size() * STRING_SLAB_BYTES
+                    + slots.capacity();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Bytes of the string slabs no longer referenced by any row.
+     *
+     * @return The garbage bytes
+     */
+    public long garbageBytes() {
+        lock.readLock().lock();
+        try {
+            return garbageBytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int allocateRow() {
+        if (freeRow != NO_ROW) {
+            int rowNumber = freeRow;
+            freeRow = (int) rowSlab(rowNumber).getLong(rowBase(rowNumber) + ID);
+            return rowNumber;
+        }
+        if (rowCount == Integer.MAX_VALUE) {
+            throw new IllegalStateException("Off-heap product table is full");
+        }
+        if (rowCount >>> ROW_SLAB_SHIFT == rowSlabs.size()) {
+            rowSlabs.add(ByteBuffer.allocateDirect(ROWS_PER_SLAB * ROW_BYTES));
+        }
+        return rowCount++;
+    }
+
+    private ByteBuffer rowSlab(int rowNumber) {
+        return rowSlabs.get(rowNumber >>> ROW_SLAB_SHIFT);
+    }
+
+    private static int rowBase(int rowNumber) {
+        return (rowNumber & (ROWS_PER_SLAB - 1)) * ROW_BYTES;
+    }
+
+    // Reuse the old bytes when the new value fits in them; otherwise append it and leave the old bytes as garbage
+    private void writeString(ByteBuffer slab, int offsetField, int lengthField, byte[] value) {
+        int oldLength = slab.getInt(lengthField);
+        if (value != null && oldLength >= value.length) {
+            long offset = slab.getLong(offsetField);
+            stringSlabs.get((int) (offset >>> STRING_SLAB_SHIFT)).put((int) (offset & (STRING_SLAB_BYTES - 1)), value);
+            slab.putInt(lengthField, value.length);
+            garbageBytes += oldLength - value.length;
+            return;
+        }
+        garbageBytes += Math.max(0, oldLength);
+        appendString(slab, offsetField, lengthField, value);
+    }
+
+    private void appendString(ByteBuffer slab, int offsetField, int lengthField, byte[] value) {
+        if (value == null) {
+            slab.putLong(offsetField, 0);
+            slab.putInt(lengthField, -1);
+            return;
+        }
+        int position = (int) (stringEnd & (STRING_SLAB_BYTES - 1));
+        if (stringSlabs.isEmpty() || position + value.length > STRING_SLAB_BYTES) {
+            if (!stringSlabs.isEmpty()) {
+                garbageBytes += STRING_SLAB_BYTES - position;
+            }
+            stringSlabs.add(ByteBuffer.allocateDirect(STRING_SLAB_BYTES));
+            stringEnd = (long) (stringSlabs.size() - 1) << STRING_SLAB_SHIFT;
+            position = 0;
+        }
+        stringSlabs.get(stringSlabs.size() - 1).put(position, value);
+        slab.putLong(offsetField, stringEnd);
+        slab.putInt(lengthField, value.length);
+        stringEnd += value.length;
+    }
+
+    private String readString(long offset, int length) {
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        stringSlabs.get((int) (offset >>> STRING_SLAB_SHIFT)).get((int) (offset & (STRING_SLAB_BYTES - 1)), bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static byte[] encode(String value) {
+        if (value == null) {
+            return null;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > STRING_SLAB_BYTES) {
+            throw new IllegalArgumentException("String of " + bytes.length + " bytes exceeds a string slab");
+        }
+        return bytes;
+    }
+
+    private int findSlot(long id) {
+        int slot = hash(id) & mask;
+        long key;
+        while ((key = slots.getLong(slot * SLOT_BYTES)) != 0) {
+            if (key == id) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    private void insertSlot(long id, int rowNumber) {
+        if (size >= resizeAt) {
+            rehash((mask + 1) << 1);
+        }
+        int slot = hash(id) & mask;
+        while (slots.getLong(slot * SLOT_BYTES) != 0) {
+            slot = (slot + 1) & mask;
+        }
+        slots.putLong(slot * SLOT_BYTES, id);
+        slots.putLong(slot * SLOT_BYTES + 8, rowNumber);
+        size++;
+    }
+
+    // Backward-shift deletion: move later entries of the probe chain into the gap
+    private void removeSlot(int slot) {
+        int gap = slot;
+        int next = (gap + 1) & mask;
+        long key;
+        while ((key = slots.getLong(next * SLOT_BYTES)) != 0) {
+            int home = hash(key) & mask;
+            if (((next - home) & mask) >= ((next - gap) & mask)) {
+                slots.putLong(gap * SLOT_BYTES, key);
+                slots.putLong(gap * SLOT_BYTES + 8, slots.getLong(next * SLOT_BYTES + 8));
+                gap = next;
+            }
+            next = (next + 1) & mask;
+        }
+        slots.putLong(gap * SLOT_BYTES, 0);
+        slots.putLong(gap * SLOT_BYTES + 8, 0);
+        size--;
+    }
+
+    private void rehash(int capacity) {
+        ByteBuffer old = slots;
+        int oldCapacity = mask + 1;
+        allocateSlots(capacity);
+        for (int i = 0; i < oldCapacity; i++) {
+            long key = old.getLong(i * SLOT_BYTES);
+            if (key != 0) {
+                int slot = hash(key) & mask;
+                while (slots.getLong(slot * SLOT_BYTES) != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                slots.putLong(slot * SLOT_BYTES, key);
+                slots.putLong(slot * SLOT_BYTES + 8, old.getLong(i * SLOT_BYTES + 8));
+            }
+        }
+    }
+
+    // Direct buffers start zeroed, so every slot starts free
+    private void allocateSlots(int capacity) {
+        if (capacity > MAX_CAPACITY) {
+            throw new IllegalStateException("Off-heap product table cannot hold more than " + MAX_SIZE + " products");
+        }
+        slots = ByteBuffer.allocateDirect(capacity * SLOT_BYTES);
+        mask = capacity - 1;
+        // Keep the load factor at or below 0.75
+        resizeAt = capacity - (capacity >>> 2);
+    }
+
+    private static int capacityFor(int expectedSize) {
+        long needed = Math.max(MIN_CAPACITY, (long) Math.ceil(expectedSize / 0.75));
+        if (needed > MAX_CAPACITY) {
+            throw new IllegalArgumentException("Too many products for an off-heap product table: " + expectedSize
+                    + " (at most " + MAX_SIZE + ")");
+        }
+        return Integer.highestOneBit((int) needed - 1) << 1;
+    }
+
+    private static long toMicros(LocalDateTime timestamp) {
+        if (timestamp == null) {
+            return NULL_TIMESTAMP;
+        }
+        return timestamp.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + timestamp.getNano() / 1_000;
+    }
+
+    private static LocalDateTime fromMicros(long micros) {
+        if (micros == NULL_TIMESTAMP) {
+            return null;
+        }
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000), 0, ZoneOffset.UTC)
+                .plusNanos(Math.floorMod(micros, 1_000_000) * 1_000L);
+    }
+
+    // Spread sequential IDs across the table (fmix64 finalizer from MurmurHash3)
+    private static int hash(long key) {
+        long h = key;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb93e3e0a4cdfL;
+        h ^= h >>> 33;
+        return (int) h;
+    }
+}
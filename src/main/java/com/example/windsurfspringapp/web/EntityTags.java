@@ -0,0 +1,167 @@
+package com.example.windsurfspringapp.web;
+
+import com.example.windsurfspringapp.dto.CategoryView;
+import com.example.windsurfspringapp.dto.ProductVersion;
+import com.example.windsurfspringapp.dto.ProductView;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+/**
+ * Validators for conditional GETs: strong ETags and Last-Modified times derived from the
+ * columns each representation is rendered from.
+ *
+ * <p>A product's tag covers its ID, {@code updatedAt} and the ID and name of its category, since the
+ * product representation embeds them; a category's tag covers its ID and {@code updatedAt}. The same tag
+ * is computed from a rendered view and from the version-only projection, so a conditional request can
+ * be answered without loading the entity. Timestamps are rounded to the microseconds the database
+ * stores, so a tag computed right after a write matches the one computed from the stored row.</p>
+ *
+ * <p>Last-Modified has whole-second precision, so two writes within one second share a date. A row
+ * modified in the current second therefore gets no Last-Modified and its ETag is the only validator;
+ * once that second has passed, any later write carries a later date.</p>
+ */
+public final class EntityTags {
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private EntityTags() {
+    }
+
+    /**
+     * Whether a request carries a validator that may let it be answered with 304.
+     *
+     * @param request The request
+     * @return true if the request has an If-None-Match or If-Modified-Since header
+     */
+    public static boolean isConditional(WebRequest request) {
+        return request.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+                || request.getHeader(HttpHeaders.IF_MODIFIED_SINCE) != null;
+    }
+
+    /**
+     * ETag of a rendered product.
+     *
+     * @param product The product view
+     * @return The entity tag, without quotes
+     */
+    public static String of(ProductView product) {
+        ProductView.CategoryRef category = product.category();
+        return product(product.id(), product.updatedAt(),
+                category == null ? null : category.id(), category == null ? null : category.name());
+    }
+
+    /**
+     * ETag of the product a version was read for.
+     *
+     * @param version The product version
+     * @return The entity tag, without quotes
+     */
+    public static String of(ProductVersion version) {
+        return product(version.id(), version.updatedAt(), version.categoryId(), version.categoryName());
+    }
+
+    /**
+     * ETag of a rendered category.
+     *
+     * @param category The category view
+     * @return The entity tag, without quotes
+     */
+    public static String of(CategoryView category) {
+        return category(category.id(), category.updatedAt());
+    }
+
+    /**
+     * ETag of the category with the given version.
+     *
+     * @param id The category ID
+     * @param updatedAt The category's last modification timestamp
+     * @return The entity tag, without quotes
+     */
+    public static String category(Long id, LocalDateTime updatedAt) {
+        return id + "-" + Long.toHexString(micros(updatedAt));
+    }
+
+    /**
+     * ETag of a page: changes whenever any row on it, their order or the continuation changes.
+     *
+     * @param tags The ETags of the rows, in page order
+     * @param nextCursor The continuation token of the page, or null on the last page
+     * @return The entity tag, without quotes
+     */
+    public static String ofPage(List<String> tags, String nextCursor) {
+        long hash = FNV_OFFSET_BASIS;
+        for (String tag : tags) {
+            hash = mix(mix(hash, tag), "\n");
+        }
+        return tags.size() + "-" + Long.toHexString(mix(hash, String.valueOf(nextCursor)));
+    }
+
+    /**
+     * Last-Modified time of a row, truncated to whole seconds.
+     *
+     * @param updatedAt The row's last modification timestamp
+     * @return Milliseconds since the epoch, or -1 if unknown or not before the current second
+     */
+    public static long lastModified(LocalDateTime updatedAt) {
+        if (updatedAt == null) {
+            return -1;
+        }
+        LocalDateTime second = updatedAt.truncatedTo(ChronoUnit.SECONDS);
+        if (!second.isBefore(LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS))) {
+            return -1;
+        }
+        return second.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    /**
+     * Set the Last-Modified header of a row, unless {@link #lastModified(LocalDateTime)} has none.
+     *
+     * @param headers The response headers
+     * @param updatedAt The row's last modification timestamp
+     */
+    public static void setLastModified(HttpHeaders headers, LocalDateTime updatedAt) {
+        long lastModified = lastModified(updatedAt);
+        if (lastModified >= 0) {
+            headers.setLastModified(lastModified);
+        }
+    }
+
+    private static String product(Long id, LocalDateTime updatedAt, Long categoryId, String categoryName) {
+        long hash = mix(FNV_OFFSET_BASIS, micros(updatedAt));
+        hash = mix(hash, categoryId == null ? -1 : categoryId);
+        hash = mix(hash, String.valueOf(categoryName));
+        return id + "-" + Long.toHexString(hash);
+    }
+
+    private static long micros(LocalDateTime timestamp) {
+        if (timestamp == null) {
+            return 0;
+        }
+        return timestamp.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + (timestamp.getNano() + 500) / 1_000;
+    }
+
+    // FNV-1a over the bytes of a long
+    private static long mix(long hash, long value) {
+        for (int shift = 0; shift < Long.SIZE; shift += Byte.SIZE) {
+            hash = (hash ^ ((value >>> shift) & 0xff)) * FNV_PRIME;
+        }
+        return hash;
+    }
+
+    // FNV-1a over the UTF-16 code units of a string
+    private static long mix(long hash, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            hash = (hash ^ (c & 0xff)) * FNV_PRIME;
+            hash = (hash ^ (c >>> 8)) * FNV_PRIME;
+        }
+        return hash;
+    }
+}
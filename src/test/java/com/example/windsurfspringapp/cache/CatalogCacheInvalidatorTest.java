@@ -0,0 +1,132 @@
+package com.example.windsurfspringapp.cache;
+
+import com.example.windsurfspringapp.config.CacheConfig;
+import com.example.windsurfspringapp.counter.CategoryProductCounters;
+import com.example.windsurfspringapp.counter.CategoryStatistics;
+import com.example.windsurfspringapp.inventory.LowStockWatcher;
+import com.example.windsurfspringapp.inventory.StockLedger;
+import com.example.windsurfspringapp.model.Category;
+import com.example.windsurfspringapp.model.Product;
+import com.example.windsurfspringapp.repository.CategoryRepository;
+import com.example.windsurfspringapp.repository.ProductRepository;
+import com.example.windsurfspringapp.search.CategorySearchIndex;
+import com.example.windsurfspringapp.search.ProductPriceIndex;
+import com.example.windsurfspringapp.search.ProductSearchIndex;
+import com.example.windsurfspringapp.service.ProductService;
+import com.example.windsurfspringapp.service.impl.CategoryServiceImpl;
+import com.example.windsurfspringapp.service.impl.ProductServiceImpl;
+import com.example.windsurfspringapp.store.OffHeapProductStore;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Runs without a test transaction so that writes commit and after-commit evictions fire
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({CacheConfig.class, CatalogCacheInvalidator.class, ProductServiceImpl.class, ProductSearchIndex.class,
+        ProductPriceIndex.class, StockLedger.class, LowStockWatcher.class, OffHeapProductStore.class,
+        CategoryServiceImpl.class, CategorySearchIndex.class, CategoryProductCounters.class,
+        CategoryStatistics.class, SecondLevelCacheRegions.class})
+class CatalogCacheInvalidatorTest {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private Product smartphone;
+
+    @BeforeEach
+    void setUp() {
+        Category electronics = categoryRepository.save(new Category("Electronics", "Electronic devices"));
+        smartphone = new Product("Smartphone", "Latest model", new BigDecimal("599.99"), 50);
+        smartphone.setCategory(electronics);
+        smartphone = productRepository.save(smartphone);
+        cacheManager.getCache(CacheConfig.PRODUCTS).clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        productRepository.deleteAll();
+        categoryRepository.deleteAll();
+    }
+
+    @Test
+    void testRepeatedLookupsAreServedFromCache() {
+        // Given
+        CacheStats before = stats();
+
+        // When
+        Product first = productService.findProductById(smartphone.getId()).orElseThrow();
+        Product second = productService.findProductById(smartphone.getId()).orElseThrow();
+
+        // Then
+        assertSame(first, second);
+        assertEquals("Electronics", second.getCategory().getName());
+        CacheStats delta = stats().minus(before);
+        assertEquals(1, delta.missCount());
+        assertEquals(1, delta.hitCount());
+    }
+
+    @Test
+    void testCommittedWritesEvictCachedProduct() {
+        // Given
+        productService.findProductById(smartphone.getId());
+        Product update = new Product("Smartphone Pro", "Latest model", new BigDecimal("649.99"), 50);
+        update.setId(smartphone.getId());
+
+        // When
+        productService.saveProduct(update);
+        Product reloaded = productService.findProductById(smartphone.getId()).orElseThrow();
+
+        // Then
+        assertEquals("Smartphone Pro", reloaded.getName());
+
+        // When
+        productService.deleteProduct(smartphone.getId());
+
+        // Then
+        assertTrue(productService.findProductById(smartphone.getId()).isEmpty());
+    }
+
+    @Test
+    void testReadRacingACommitDoesNotCacheTheOldRow() {
+        // Given: a lookup missed and loaded the row before the update committed
+        Cache cache = cacheManager.getCache(CacheConfig.PRODUCTS);
+        assertNull(cache.get(smartphone.getId()));
+        Product loaded = productRepository.findById(smartphone.getId()).orElseThrow();
+        Product update = new Product("Smartphone Pro", "Latest model", new BigDecimal("649.99"), 50);
+        update.setId(smartphone.getId());
+        productService.saveProduct(update);
+
+        // When: the lookup stores what it loaded after the commit's eviction
+        cache.put(smartphone.getId(), loaded);
+
+        // Then
+        assertEquals("Smartphone Pro", productService.findProductById(smartphone.getId()).orElseThrow().getName());
+    }
+
+    private CacheStats stats() {
+        Object nativeCache = cacheManager.getCache(CacheConfig.PRODUCTS).getNativeCache();
+        return ((com.github.benmanes.caffeine.cache.Cache<?, ?>) nativeCache).stats();
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.windsurfspringapp.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EvictionFencedCacheTest {
+
+    private final EvictionFencedCache cache = new EvictionFencedCache("test", Caffeine.newBuilder().build(), false);
+
+    @Test
+    void testStoresValueLoadedAfterMiss() {
+        // Given
+        assertNull(cache.get(1L));
+
+        // When
+        cache.put(1L, "loaded");
+
+        // Then
+        assertEquals("loaded", cache.get(1L).get());
+    }
+
+    @Test
+    void testDropsValueLoadedBeforeEviction() {
+        // Given
+        assertNull(cache.get(1L));
+
+        // When
+        cache.evict(1L);
+        cache.put(1L, "stale");
+        assertNull(cache.get(1L));
+        cache.put(1L, "fresh");
+
+        // Then
+        assertEquals("fresh", cache.get(1L).get());
+    }
+
+    @Test
+    void testDropsValueLoadedBeforeClear() {
+        // Given
+        assertNull(cache.get(1L));
+
+        // When
+        cache.clear();
+        cache.put(1L, "stale");
+
+        // Then
+        assertNull(cache.get(1L));
+    }
+
+    @Test
+    void testEvictionOfOtherKeyDoesNotFencePut() {
+        // Given
+        assertNull(cache.get(1L));
+
+        // When
+        cache.evict(2L);
+        cache.put(1L, "loaded");
+
+        // Then
+        assertEquals("loaded", cache.get(1L).get());
+    }
+
+    @Test
+    void testPutWithoutMissIsStored() {
+        // Given
+        cache.evict(1L);
+
+        // When
+        cache.put(1L, "warmed");
+
+        // Then
+        assertEquals("warmed", cache.get(1L).get());
+    }
+}
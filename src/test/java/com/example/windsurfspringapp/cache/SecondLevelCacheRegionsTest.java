@@ -0,0 +1,184 @@
+package com.example.windsurfspringapp.cache;
+
+import com.example.windsurfspringapp.config.CacheConfig;
+import com.example.windsurfspringapp.counter.CategoryProductCounters;
+import com.example.windsurfspringapp.counter.CategoryStatistics;
+import com.example.windsurfspringapp.dto.ProductSnapshot;
+import com.example.windsurfspringapp.event.ProductsImportedEvent;
+import com.example.windsurfspringapp.inventory.LowStockWatcher;
+import com.example.windsurfspringapp.inventory.StockLedger;
+import com.example.windsurfspringapp.model.Category;
+import com.example.windsurfspringapp.model.Product;
+import com.example.windsurfspringapp.repository.CategoryRepository;
+import com.example.windsurfspringapp.repository.ProductRepository;
+import com.example.windsurfspringapp.search.CategorySearchIndex;
+import com.example.windsurfspringapp.search.ProductPriceIndex;
+import com.example.windsurfspringapp.search.ProductSearchIndex;
+import com.example.windsurfspringapp.service.CategoryService;
+import com.example.windsurfspringapp.service.impl.CategoryServiceImpl;
+import com.example.windsurfspringapp.service.impl.ProductServiceImpl;
+import com.example.windsurfspringapp.store.OffHeapProductStore;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Runs without a test transaction so that writes commit and update the second-level cache
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({CacheConfig.class, CatalogCacheInvalidator.class, ProductServiceImpl.class, ProductSearchIndex.class,
+        ProductPriceIndex.class, StockLedger.class, LowStockWatcher.class, OffHeapProductStore.class,
+        CategoryServiceImpl.class, CategorySearchIndex.class, CategoryProductCounters.class,
+        CategoryStatistics.class, SecondLevelCacheRegions.class})
+class SecondLevelCacheRegionsTest {
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CatalogCacheInvalidator cacheInvalidator;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private Category electronics;
+    private Category books;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        electronics = categoryRepository.save(new Category("Electronics", "Electronic devices"));
+        books = categoryRepository.save(new Category("Books", "Books and publications"));
+        Product smartphone = new Product("Smartphone", "Latest model", new BigDecimal("599.99"), 50);
+        smartphone.setCategory(electronics);
+        productRepository.save(smartphone);
+    }
+
+    @AfterEach
+    void tearDown() {
+        productRepository.deleteAll();
+        categoryRepository.deleteAll();
+    }
+
+    @Test
+    void testCategoryQueriesAreServedFromTheQueryCache() {
+        // Given
+        runCategoryQueries();
+        long executions = statistics.getQueryExecutionCount();
+        long hits = statistics.getQueryRegionStatistics(CacheConfig.CATEGORY_QUERIES_REGION).getHitCount();
+
+        // When
+        runCategoryQueries();
+
+        // Then
+        assertEquals(executions, statistics.getQueryExecutionCount());
+        assertEquals(hits + 4, statistics.getQueryRegionStatistics(CacheConfig.CATEGORY_QUERIES_REGION).getHitCount());
+    }
+
+    @Test
+    void testSaveAndDeleteCategoryInvalidateCachedQueries() {
+        // Given
+        runCategoryQueries();
+        Category rename = new Category("Literature", books.getDescription());
+        rename.setId(books.getId());
+
+        // When
+        categoryService.saveCategory(rename);
+
+        // Then
+        assertTrue(categoryService.findCategoryByName("books").isEmpty());
+        assertTrue(categoryService.categoryExists("literature"));
+        assertEquals(List.of("Electronics", "Literature"), names(categoryService.findAllCategories()));
+
+        // When
+        categoryService.deleteCategory(books.getId());
+
+        // Then
+        assertFalse(categoryService.categoryExists("literature"));
+        assertEquals(List.of("Electronics"), names(categoryService.findAllCategories()));
+    }
+
+    @Test
+    void testDeleteCategoryCascadesToProductsInsertedBehindHibernate() {
+        // Given
+        assertEquals(1, productCount(electronics));
+        insertProduct(electronics);
+
+        // When
+        boolean deleted = categoryService.deleteCategory(electronics.getId());
+
+        // Then
+        assertTrue(deleted);
+        assertEquals(0, productRepository.count());
+    }
+
+    @Test
+    void testImportEvictsCategoryProductsAndQueries() {
+        // Given
+        assertEquals(0, productCount(books));
+        assertEquals(List.of("Electronics"), names(categoryService.findCategoriesWithProducts()));
+        long productId = insertProduct(books);
+
+        // When
+        cacheInvalidator.onProductsImported(new ProductsImportedEvent(List.of(
+                new ProductSnapshot(productId, "Novel", new BigDecimal("9.99"), 10, books.getId(), null))));
+
+        // Then
+        assertEquals(1, productCount(books));
+        assertEquals(List.of("Books", "Electronics"), names(categoryService.findCategoriesWithProducts()));
+    }
+
+    private void runCategoryQueries() {
+        categoryService.findCategoryByName("electronics");
+        categoryService.categoryExists("Books");
+        categoryService.findAllCategories();
+        categoryService.findCategoriesWithProducts();
+    }
+
+    // Size of the category's product collection, read through the collection cache
+    private int productCount(Category category) {
+        return new TransactionTemplate(transactionManager).execute(status ->
+                categoryRepository.findById(category.getId()).orElseThrow().getProducts().size());
+    }
+
+    // Insert a product with JDBC, as imports do, without telling Hibernate
+    private long insertProduct(Category category) {
+        long id = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) + 1000 FROM products", Long.class);
+        jdbcTemplate.update("INSERT INTO products (id, name, price, stock_quantity, category_id, created_at, updated_at)"
+                + " VALUES (?, ?, ?, ?, ?, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)",
+                id, "Novel", new BigDecimal("9.99"), 10, category.getId());
+        return id;
+    }
+
+    private static List<String> names(List<Category> categories) {
+        return categories.stream().map(Category::getName).sorted().toList();
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.windsurfspringapp.controller;
+
+import com.example.windsurfspringapp.model.Category;
+import com.example.windsurfspringapp.model.Product;
+import com.example.windsurfspringapp.paging.CursorRequest;
+import com.example.windsurfspringapp.service.CategoryService;
+import com.example.windsurfspringapp.service.ProductService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.hamcrest.Matchers.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(CatalogController.class)
+public class CatalogControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ProductService productService;
+
+    @MockBean
+    private CategoryService categoryService;
+
+    private Category electronics;
+    private Product cable;
+
+    @BeforeEach
+    void setUp() {
+        electronics = new Category("Electronics", "Electronic devices");
+        electronics.setId(1L);
+
+        cable = new Product("Cable", "USB cable", new BigDecimal("9.99"), 3);
+        cable.setId(7L);
+        cable.setCategory(electronics);
+    }
+
+    @Test
+    void testGetOverviewCombinesQueries() throws Exception {
+        // Given
+        when(categoryService.findAllCategoriesAsync(any(CursorRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture(window(List.of(electronics))));
+        when(categoryService.getCategoryProductCountsAsync())
+                .thenReturn(CompletableFuture.completedFuture(Map.of(1L, 1L)));
+        when(productService.findLowStockProductsAsync(eq(5), any(CursorRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture(window(List.of(cable))));
+        when(productService.findProductsByCategoryAsync(eq(1L), any(CursorRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture(window(List.of(cable))));
+
+        // When
+        MvcResult result = mockMvc.perform(get("/api/catalog/overview")
+                        .param("categoryId", "1")
+                        .param("threshold", "5"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Then
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.categories[0].name", is("Electronics")))
+                .andExpect(jsonPath("$.productCounts.1", is(1)))
+                .andExpect(jsonPath("$.lowStock[0].category.name", is("Electronics")))
+                .andExpect(jsonPath("$.categoryProducts", hasSize(1)));
+    }
+
+    @Test
+    void testGetOverviewWithoutCategorySkipsCategoryQuery() throws Exception {
+        // Given
+        when(categoryService.findAllCategoriesAsync(any(CursorRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture(window(List.of())));
+        when(categoryService.getCategoryProductCountsAsync())
+                .thenReturn(CompletableFuture.completedFuture(Map.of()));
+        when(productService.findLowStockProductsAsync(eq(10), any(CursorRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture(window(List.of())));
+
+        // When
+        MvcResult result = mockMvc.perform(get("/api/catalog/overview"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Then
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.categoryProducts", hasSize(0)));
+        verify(productService, never()).findProductsByCategoryAsync(any(), any());
+    }
+
+    @Test
+    void testGetOverviewWhenExecutorIsSaturated() throws Exception {
+        // Given
+        when(categoryService.findAllCategoriesAsync(any(CursorRequest.class)))
+                .thenThrow(new TaskRejectedException("Queue full"));
+
+        // When
+        MvcResult result = mockMvc.perform(get("/api/catalog/overview"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Then
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(jsonPath("$.error", containsString("Too many")));
+    }
+
+    private static <T> Window<T> window(List<T> content) {
+        return Window.from(content, index -> ScrollPosition.keyset(), false);
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.windsurfspringapp.controller;
+
+import com.example.windsurfspringapp.dto.SnapshotSummary;
+import com.example.windsurfspringapp.service.CatalogSnapshotService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.file.Path;
+
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(controllers = CatalogSnapshotController.class, properties = "catalog.snapshot.path=catalog.snapshot")
+class CatalogSnapshotControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private CatalogSnapshotService catalogSnapshotService;
+
+    @Test
+    void testWriteSnapshot() throws Exception {
+        when(catalogSnapshotService.writeSnapshot(Path.of("catalog.snapshot")))
+                .thenReturn(new SnapshotSummary("catalog.snapshot", 5, 11, 2, 3, 2048, 15));
+
+        mockMvc.perform(post("/api/catalog/snapshot"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.products", is(11)))
+                .andExpect(jsonPath("$.cachedProducts", is(3)))
+                .andExpect(jsonPath("$.bytes", is(2048)));
+    }
+}
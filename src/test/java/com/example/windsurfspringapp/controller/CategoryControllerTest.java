@@ -1,6 +1,11 @@
 package com.example.windsurfspringapp.controller;
 
+import com.example.windsurfspringapp.dto.BatchItemResult;
+import com.example.windsurfspringapp.dto.CategoryStats;
 import com.example.windsurfspringapp.model.Category;
+import com.example.windsurfspringapp.paging.CategorySort;
+import com.example.windsurfspringapp.paging.CursorRequest;
+import com.example.windsurfspringapp.service.CatalogBatchService;
 import com.example.windsurfspringapp.service.CategoryService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
@@ -8,14 +13,22 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.*;
 
 import static org.hamcrest.Matchers.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -32,6 +45,9 @@ public class CategoryControllerTest {
     @MockBean
     private CategoryService categoryService;
 
+    @MockBean
+    private CatalogBatchService catalogBatchService;
+
     private Category category1;
     private Category category2;
 
@@ -46,15 +62,48 @@ public class CategoryControllerTest {
 
     @Test
     void testGetAllCategories() throws Exception {
-        when(categoryService.findAllCategories()).thenReturn(Arrays.asList(category1, category2));
+        when(categoryService.findAllCategories(any(CursorRequest.class)))
+                .thenReturn(Window.from(Arrays.asList(category1, category2), ScrollPosition::offset));
 
         mockMvc.perform(get("/api/categories"))
                 .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("X-Next-Cursor"))
                 .andExpect(jsonPath("$", hasSize(2)))
                 .andExpect(jsonPath("$[0].name", is("Electronics")))
                 .andExpect(jsonPath("$[1].name", is("Clothing")));
     }
 
+    @Test
+    void testGetAllCategoriesReturnsNextCursor() throws Exception {
+        List<Category> firstPage = List.of(category1);
+        when(categoryService.findAllCategories(any(CursorRequest.class)))
+                .thenReturn(Window.from(firstPage,
+                        i -> CursorRequest.after(CategorySort.NAME, firstPage.get(i).getName(), firstPage.get(i).getId()),
+                        true));
+
+        String cursor = mockMvc.perform(get("/api/categories")
+                .param("sort", "name")
+                .param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(header().exists("X-Next-Cursor"))
+                .andReturn().getResponse().getHeader("X-Next-Cursor");
+
+        mockMvc.perform(get("/api/categories")
+                .param("sort", "name")
+                .param("cursor", cursor))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/categories")
+                .param("sort", "updatedAt")
+                .param("cursor", cursor))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(get("/api/categories")
+                .param("sort", "price"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void testGetCategoryById() throws Exception {
         when(categoryService.findCategoryById(1L)).thenReturn(Optional.of(category1));
@@ -69,6 +118,31 @@ public class CategoryControllerTest {
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    void testGetCategoryByIdAnswersNotModified() throws Exception {
+        // Given
+        category1.setUpdatedAt(LocalDateTime.of(2024, 5, 1, 12, 30));
+        when(categoryService.findCategoryById(1L)).thenReturn(Optional.of(category1));
+        when(categoryService.findCategoryVersion(1L)).thenReturn(Optional.of(category1.getUpdatedAt()));
+
+        // When
+        String etag = mockMvc.perform(get("/api/categories/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("Last-Modified"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        // Then
+        mockMvc.perform(get("/api/categories/1").header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        verify(categoryService, times(1)).findCategoryById(1L);
+
+        when(categoryService.findCategoryVersion(1L)).thenReturn(Optional.of(LocalDateTime.of(2024, 5, 2, 8, 0)));
+        mockMvc.perform(get("/api/categories/1").header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name", is("Electronics")));
+    }
+
     @Test
     void testCreateCategory() throws Exception {
         Map<String, String> categoryRequest = new HashMap<>();
@@ -137,7 +211,8 @@ public class CategoryControllerTest {
 
     @Test
     void testSearchCategoriesByName() throws Exception {
-        when(categoryService.searchCategoriesByName("elect")).thenReturn(Arrays.asList(category1));
+        when(categoryService.searchCategoriesByName(eq("elect"), any(CursorRequest.class)))
+                .thenReturn(Window.from(List.of(category1), ScrollPosition::offset));
 
         mockMvc.perform(get("/api/categories/search")
                 .param("name", "elect"))
@@ -170,4 +245,39 @@ public class CategoryControllerTest {
                 .andExpect(jsonPath("$.1", is(5)))
                 .andExpect(jsonPath("$.2", is(3)));
     }
+
+    @Test
+    void testGetCategoryStatistics() throws Exception {
+        when(categoryService.getCategoryStatistics()).thenReturn(List.of(
+                new CategoryStats(1L, 2, new BigDecimal("10.00"), new BigDecimal("20.00"), new BigDecimal("15.00"),
+                        5, new BigDecimal("70.00")),
+                new CategoryStats(2L, 0, null, null, null, 0, new BigDecimal("0.00"))));
+
+        mockMvc.perform(get("/api/categories/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].categoryId", is(1)))
+                .andExpect(jsonPath("$[0].averagePrice", is(15.00)))
+                .andExpect(jsonPath("$[0].inventoryValue", is(70.00)))
+                .andExpect(jsonPath("$[1].minPrice").doesNotExist());
+    }
+
+    @Test
+    void testSaveCategoriesBatch() throws Exception {
+        List<Map<String, Object>> batch = List.of(
+                Map.of("name", "Toys", "description", "Games and toys"),
+                Map.of("name", "Electronics"));
+
+        when(catalogBatchService.saveCategories(anyList())).thenReturn(List.of(
+                BatchItemResult.created(0, 3L),
+                BatchItemResult.failed(1, null, "Category with name 'Electronics' already exists")));
+
+        mockMvc.perform(post("/api/categories/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(batch)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].status", is("CREATED")))
+                .andExpect(jsonPath("$[1].status", is("FAILED")));
+    }
 }
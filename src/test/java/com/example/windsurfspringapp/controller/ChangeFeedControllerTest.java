@@ -0,0 +1,61 @@
+package com.example.windsurfspringapp.controller;
+
+import com.example.windsurfspringapp.dto.ChangeFeedEvent;
+import com.example.windsurfspringapp.dto.ChangeFeedEvent.Topic;
+import com.example.windsurfspringapp.event.ChangeType;
+import com.example.windsurfspringapp.feed.ChangeFeed;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(ChangeFeedController.class)
+class ChangeFeedControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ChangeFeed changeFeed;
+
+    @Test
+    void testStreamChangesResumesFromLastEventId() throws Exception {
+        doAnswer(invocation -> {
+            ChangeFeed.Subscriber subscriber = invocation.getArgument(1);
+            subscriber.onEvent("s:8", new ChangeFeedEvent(8, Topic.CATEGORY, ChangeType.UPDATED, 2L, Map.of("name", "Books"),
+                    LocalDateTime.of(2024, 5, 1, 12, 0)));
+            return (Runnable) () -> { };
+        }).when(changeFeed).subscribe(eq("s:7"), any(ChangeFeed.Subscriber.class));
+
+        MvcResult result = mockMvc.perform(get("/api/changes").header("Last-Event-ID", "s:7"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = result.getResponse().getContentAsString();
+        assertTrue(body.startsWith("id:s:8\nevent:category\ndata:{\"sequence\":8,\"topic\":\"CATEGORY\""), body);
+        assertTrue(body.contains("\"version\":\"2024-05-01T12:00:00\""), body);
+    }
+
+    @Test
+    void testGetLatestEventId() throws Exception {
+        when(changeFeed.latestEventId()).thenReturn("s:42");
+
+        mockMvc.perform(get("/api/changes/latest"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.lastEventId", is("s:42")));
+    }
+}
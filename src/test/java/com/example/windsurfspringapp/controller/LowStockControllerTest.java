@@ -0,0 +1,84 @@
+package com.example.windsurfspringapp.controller;
+
+import com.example.windsurfspringapp.dto.StockLevel;
+import com.example.windsurfspringapp.inventory.LowStockWatcher;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.List;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.intThat;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(LowStockController.class)
+class LowStockControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private LowStockWatcher lowStockWatcher;
+
+    @BeforeEach
+    void setUp() {
+        when(lowStockWatcher.isReady()).thenReturn(true);
+        when(lowStockWatcher.thresholds()).thenReturn(new int[] {5, 10});
+        when(lowStockWatcher.covers(intThat(threshold -> threshold <= 10))).thenReturn(true);
+    }
+
+    @Test
+    void testGetLowStockLevels() throws Exception {
+        when(lowStockWatcher.lowStockLevels(10)).thenReturn(List.of(new StockLevel(1L, 3), new StockLevel(4L, 9)));
+
+        mockMvc.perform(get("/api/low-stock"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[1].productId", is(4)))
+                .andExpect(jsonPath("$[1].quantity", is(9)));
+
+        mockMvc.perform(get("/api/low-stock").param("threshold", "11"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error", is("Threshold must be at most 10")));
+    }
+
+    @Test
+    void testStreamLowStockAlertsStartsWithSnapshot() throws Exception {
+        doAnswer(invocation -> {
+            LowStockWatcher.Subscriber subscriber = invocation.getArgument(1);
+            subscriber.onSnapshot(List.of(new StockLevel(1L, 3)));
+            return (Runnable) () -> { };
+        }).when(lowStockWatcher).subscribe(eq(5), any(LowStockWatcher.Subscriber.class));
+
+        MvcResult result = mockMvc.perform(get("/api/low-stock/stream").param("threshold", "5"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = result.getResponse().getContentAsString();
+        assertTrue(body.startsWith("event:snapshot\ndata:[{\"productId\":1,\"quantity\":3}]"), body);
+
+        mockMvc.perform(get("/api/low-stock/stream").param("threshold", "7"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testUnavailableWhileLoading() throws Exception {
+        when(lowStockWatcher.isReady()).thenReturn(false);
+
+        mockMvc.perform(get("/api/low-stock"))
+                .andExpect(status().isServiceUnavailable());
+        mockMvc.perform(get("/api/low-stock/stream"))
+                .andExpect(status().isServiceUnavailable());
+    }
+}
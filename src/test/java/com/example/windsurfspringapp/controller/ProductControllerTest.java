@@ -1,26 +1,62 @@
 package com.example.windsurfspringapp.controller;
 
+import com.example.windsurfspringapp.dto.BatchItemResult;
+import com.example.windsurfspringapp.dto.ImportRowError;
+import com.example.windsurfspringapp.dto.ProductFacets;
+import com.example.windsurfspringapp.dto.ProductImportResult;
+import com.example.windsurfspringapp.dto.ProductQuery;
+import com.example.windsurfspringapp.dto.ProductVersion;
+import com.example.windsurfspringapp.dto.StockAdjustment;
+import com.example.windsurfspringapp.dto.StockSyncResult;
 import com.example.windsurfspringapp.model.Category;
 import com.example.windsurfspringapp.model.Product;
+import com.example.windsurfspringapp.paging.CursorRequest;
+import com.example.windsurfspringapp.paging.ProductSort;
+import com.example.windsurfspringapp.service.CatalogBatchService;
+import com.example.windsurfspringapp.service.CsvFormatException;
+import com.example.windsurfspringapp.service.ExportFormat;
+import com.example.windsurfspringapp.service.ProductExportService;
+import com.example.windsurfspringapp.service.ProductImportService;
 import com.example.windsurfspringapp.service.ProductService;
+import com.fasterxml.jackson.core.JsonParseException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
 import static org.hamcrest.Matchers.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -37,6 +73,15 @@ public class ProductControllerTest {
     @MockBean
     private ProductService productService;
 
+    @MockBean
+    private ProductExportService productExportService;
+
+    @MockBean
+    private CatalogBatchService catalogBatchService;
+
+    @MockBean
+    private ProductImportService productImportService;
+
     private Product product1;
     private Product product2;
     private Category category;
@@ -57,15 +102,53 @@ public class ProductControllerTest {
 
     @Test
     void testGetAllProducts() throws Exception {
-        when(productService.findAllProducts()).thenReturn(Arrays.asList(product1, product2));
+        when(productService.findAllProducts(any(CursorRequest.class)))
+                .thenReturn(Window.from(Arrays.asList(product1, product2), ScrollPosition::offset));
 
         mockMvc.perform(get("/api/products"))
                 .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("X-Next-Cursor"))
                 .andExpect(jsonPath("$", hasSize(2)))
                 .andExpect(jsonPath("$[0].name", is("Smartphone")))
                 .andExpect(jsonPath("$[1].name", is("Laptop")));
     }
 
+    @Test
+    void testGetAllProductsReturnsNextCursor() throws Exception {
+        List<Product> firstPage = List.of(product1);
+        when(productService.findAllProducts(argThat(page -> page != null && page.size() == 1)))
+                .thenReturn(Window.from(firstPage,
+                        i -> CursorRequest.after(ProductSort.PRICE, firstPage.get(i).getPrice(), firstPage.get(i).getId()),
+                        true));
+        when(productService.findAllProducts(argThat(page -> page != null && page.size() == CursorRequest.DEFAULT_LIMIT)))
+                .thenReturn(Window.from(List.of(product2), ScrollPosition::offset));
+
+        String cursor = mockMvc.perform(get("/api/products")
+                .param("sort", "price")
+                .param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].name", is("Smartphone")))
+                .andExpect(header().exists("X-Next-Cursor"))
+                .andReturn().getResponse().getHeader("X-Next-Cursor");
+
+        mockMvc.perform(get("/api/products")
+                .param("sort", "price")
+                .param("cursor", cursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name", is("Laptop")))
+                .andExpect(header().doesNotExist("X-Next-Cursor"));
+
+        mockMvc.perform(get("/api/products")
+                .param("sort", "name")
+                .param("cursor", cursor))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(get("/api/products")
+                .param("cursor", "not a cursor"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void testGetProductById() throws Exception {
         when(productService.findProductById(1L)).thenReturn(Optional.of(product1));
@@ -80,6 +163,87 @@ public class ProductControllerTest {
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    void testGetProductByIdAnswersNotModified() throws Exception {
+        // Given
+        product1.setUpdatedAt(LocalDateTime.of(2024, 5, 1, 12, 30, 15, 123_456_000));
+        when(productService.findProductById(1L)).thenReturn(Optional.of(product1));
+        when(productService.findProductVersion(1L)).thenReturn(Optional.of(
+                new ProductVersion(1L, product1.getUpdatedAt(), category.getId(), category.getName())));
+
+        // When
+        MvcResult result = mockMvc.perform(get("/api/products/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("Last-Modified"))
+                .andReturn();
+        String etag = result.getResponse().getHeader("ETag");
+        String lastModified = result.getResponse().getHeader("Last-Modified");
+
+        // Then
+        mockMvc.perform(get("/api/products/1").header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", etag))
+                .andExpect(content().string(""));
+        mockMvc.perform(get("/api/products/1").header("If-Modified-Since", lastModified))
+                .andExpect(status().isNotModified());
+        verify(productService, times(1)).findProductById(1L);
+
+        category.setName("Gadgets");
+        when(productService.findProductVersion(1L)).thenReturn(Optional.of(
+                new ProductVersion(1L, product1.getUpdatedAt(), category.getId(), category.getName())));
+        mockMvc.perform(get("/api/products/1").header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", not(etag)))
+                .andExpect(jsonPath("$.category.name", is("Gadgets")));
+    }
+
+    @Test
+    void testGetProductByIdModifiedThisSecondIsValidatedByETagOnly() throws Exception {
+        // Given
+        // A timestamp in the current second, or later on a skewed clock; a write later in that second shares its date
+        product1.setUpdatedAt(LocalDateTime.now().plusSeconds(2));
+        String sameSecond = DateTimeFormatter.RFC_1123_DATE_TIME.format(ZonedDateTime.now(ZoneOffset.UTC).plusSeconds(2));
+        when(productService.findProductById(1L)).thenReturn(Optional.of(product1));
+        when(productService.findProductVersion(1L)).thenReturn(Optional.of(
+                new ProductVersion(1L, product1.getUpdatedAt(), category.getId(), category.getName())));
+
+        // When
+        String etag = mockMvc.perform(get("/api/products/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Last-Modified"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        // Then
+        mockMvc.perform(get("/api/products/1").header("If-Modified-Since", sameSecond))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name", is("Smartphone")));
+        mockMvc.perform(get("/api/products/1").header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void testGetAllProductsAnswersNotModified() throws Exception {
+        // Given
+        when(productService.findAllProducts(any(CursorRequest.class)))
+                .thenReturn(Window.from(Arrays.asList(product1, product2), ScrollPosition::offset));
+
+        // When
+        String etag = mockMvc.perform(get("/api/products"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        // Then
+        mockMvc.perform(get("/api/products").header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        product2.setUpdatedAt(LocalDateTime.of(2024, 5, 2, 9, 0));
+        mockMvc.perform(get("/api/products").header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)));
+    }
+
     @Test
     void testCreateProduct() throws Exception {
         Map<String, Object> productRequest = new HashMap<>();
@@ -141,7 +305,8 @@ public class ProductControllerTest {
 
     @Test
     void testSearchProductsByName() throws Exception {
-        when(productService.searchProductsByName("phone")).thenReturn(Arrays.asList(product1));
+        when(productService.searchProductsByName(eq("phone"), any(CursorRequest.class)))
+                .thenReturn(Window.from(List.of(product1), ScrollPosition::offset));
 
         mockMvc.perform(get("/api/products/search")
                 .param("name", "phone"))
@@ -150,9 +315,50 @@ public class ProductControllerTest {
                 .andExpect(jsonPath("$[0].name", is("Smartphone")));
     }
 
+    @Test
+    void testQueryProductsWithFacets() throws Exception {
+        ProductQuery query = new ProductQuery("phone", List.of(1L, 2L), new BigDecimal("100"), null, 5, null,
+                LocalDateTime.of(2024, 1, 1, 0, 0));
+        List<BigDecimal> bounds = List.of(new BigDecimal("500"));
+        when(productService.queryProducts(eq(query), any(CursorRequest.class)))
+                .thenReturn(Window.from(List.of(product1), ScrollPosition::offset));
+        when(productService.findProductFacets(query, bounds)).thenReturn(new ProductFacets(1, Map.of(1L, 1L), List.of(
+                new ProductFacets.PriceBucket(null, new BigDecimal("500"), 0),
+                new ProductFacets.PriceBucket(new BigDecimal("500"), null, 1))));
+
+        mockMvc.perform(get("/api/products/query")
+                .param("name", "phone")
+                .param("categoryId", "1", "2")
+                .param("minPrice", "100")
+                .param("minStock", "5")
+                .param("updatedSince", "2024-01-01T00:00:00")
+                .param("priceBuckets", "500"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.products", hasSize(1)))
+                .andExpect(jsonPath("$.products[0].name", is("Smartphone")))
+                .andExpect(jsonPath("$.facets.total", is(1)))
+                .andExpect(jsonPath("$.facets.categories.1", is(1)))
+                .andExpect(jsonPath("$.facets.prices[1].count", is(1)));
+    }
+
+    @Test
+    void testQueryProductsRejectsInconsistentFilters() throws Exception {
+        mockMvc.perform(get("/api/products/query")
+                .param("minPrice", "10")
+                .param("maxPrice", "5"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error", is("minPrice must not exceed maxPrice")));
+
+        mockMvc.perform(get("/api/products/query")
+                .param("priceBuckets", "50", "10"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error", is("Price bucket bounds must be ascending")));
+    }
+
     @Test
     void testFindProductsByCategory() throws Exception {
-        when(productService.findProductsByCategory(1L)).thenReturn(Arrays.asList(product1, product2));
+        when(productService.findProductsByCategory(eq(1L), any(CursorRequest.class)))
+                .thenReturn(Window.from(Arrays.asList(product1, product2), ScrollPosition::offset));
 
         mockMvc.perform(get("/api/products/category/1"))
                 .andExpect(status().isOk())
@@ -163,8 +369,9 @@ public class ProductControllerTest {
 
     @Test
     void testFindProductsByMaxPrice() throws Exception {
-        when(productService.findProductsByMaxPrice(new BigDecimal("1000.00")))
-                .thenReturn(Arrays.asList(product1));
+        when(productService.findProductsByPriceRange(isNull(), eq(new BigDecimal("0.00")),
+                eq(new BigDecimal("1000.00")), any(CursorRequest.class)))
+                .thenReturn(Window.from(List.of(product1), ScrollPosition::offset));
 
         mockMvc.perform(get("/api/products/filter")
                 .param("minPrice", "0.00")
@@ -193,9 +400,40 @@ public class ProductControllerTest {
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    void testDecrementProductStock() throws Exception {
+        when(productService.decrementStock(1L, 5)).thenReturn(StockAdjustment.applied(1L, 45));
+        when(productService.decrementStock(2L, 5)).thenReturn(StockAdjustment.insufficientStock(2L, 3));
+        when(productService.decrementStock(3L, 5)).thenReturn(StockAdjustment.notFound(3L));
+
+        mockMvc.perform(post("/api/products/1/stock/decrement").param("by", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status", is("APPLIED")))
+                .andExpect(jsonPath("$.quantity", is(45)));
+
+        mockMvc.perform(post("/api/products/2/stock/decrement").param("by", "5"))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.status", is("INSUFFICIENT_STOCK")))
+                .andExpect(jsonPath("$.quantity", is(3)));
+
+        mockMvc.perform(post("/api/products/3/stock/decrement").param("by", "5"))
+                .andExpect(status().isNotFound());
+
+        when(productService.incrementStock(2L, 5)).thenReturn(StockAdjustment.tooMuchStock(2L, Integer.MAX_VALUE));
+
+        mockMvc.perform(post("/api/products/2/stock/increment").param("by", "5"))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.status", is("TOO_MUCH_STOCK")));
+
+        mockMvc.perform(post("/api/products/1/stock/increment").param("by", "0"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error", is("Amount must be positive")));
+    }
+
     @Test
     void testFindLowStockProducts() throws Exception {
-        when(productService.findLowStockProducts(40)).thenReturn(Arrays.asList(product2));
+        when(productService.findLowStockProducts(eq(40), any(CursorRequest.class)))
+                .thenReturn(Window.from(List.of(product2), ScrollPosition::offset));
 
         mockMvc.perform(get("/api/products/low-stock")
                 .param("threshold", "40"))
@@ -203,4 +441,96 @@ public class ProductControllerTest {
                 .andExpect(jsonPath("$", hasSize(1)))
                 .andExpect(jsonPath("$[0].name", is("Laptop")));
     }
+
+    @Test
+    void testExportProducts() throws Exception {
+        doAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(1);
+            out.write("{\"id\":1}\n{\"id\":2}\n".getBytes(StandardCharsets.UTF_8));
+            return 2L;
+        }).when(productExportService).exportProducts(eq(ExportFormat.NDJSON), any(OutputStream.class));
+
+        MvcResult result = mockMvc.perform(get("/api/products/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andExpect(header().string("Content-Disposition", containsString("products.ndjson")))
+                .andExpect(content().string("{\"id\":1}\n{\"id\":2}\n"));
+
+        mockMvc.perform(get("/api/products/export")
+                .param("format", "xml"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testSaveProductsBatch() throws Exception {
+        List<Map<String, Object>> batch = List.of(
+                Map.of("name", "Tablet", "price", 399.99, "stockQuantity", 20, "category", Map.of("id", 1)),
+                Map.of("name", "", "price", 9.99, "stockQuantity", 1));
+
+        when(catalogBatchService.saveProducts(anyList())).thenReturn(List.of(
+                BatchItemResult.created(0, 3L),
+                BatchItemResult.failed(1, null, "Name is required")));
+
+        mockMvc.perform(post("/api/products/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(batch)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].status", is("CREATED")))
+                .andExpect(jsonPath("$[0].id", is(3)))
+                .andExpect(jsonPath("$[1].status", is("FAILED")))
+                .andExpect(jsonPath("$[1].error", is("Name is required")));
+    }
+
+    @Test
+    void testSyncProductStock() throws Exception {
+        when(catalogBatchService.syncStockLevels(any(InputStream.class), anyInt()))
+                .thenReturn(new StockSyncResult(3, 1, 1, List.of(99L), List.of(), List.of()));
+
+        mockMvc.perform(patch("/api/products/stock")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[{\"id\": 1, \"quantity\": 5}, {\"id\": 2, \"quantity\": 30}, {\"id\": 99, \"quantity\": 1}]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.updated", is(1)))
+                .andExpect(jsonPath("$.unchanged", is(1)))
+                .andExpect(jsonPath("$.unknownIds", contains(99)));
+
+        when(catalogBatchService.syncStockLevels(any(InputStream.class), anyInt()))
+                .thenThrow(new JsonParseException(null, "Expected an array of stock levels"));
+
+        mockMvc.perform(patch("/api/products/stock")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error", is("Expected an array of stock levels")));
+    }
+
+    @Test
+    void testImportProducts() throws Exception {
+        when(productImportService.importProducts(any(InputStream.class)))
+                .thenReturn(new ProductImportResult(2, 1, 1, true,
+                        List.of(new ImportRowError(3, "Price must be zero or positive")), 12));
+
+        mockMvc.perform(post("/api/products/import")
+                .contentType("text/csv")
+                .content("name,price,stockQuantity\nCable,9.99,10\nBroken,-1,5\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported", is(1)))
+                .andExpect(jsonPath("$.failed", is(1)))
+                .andExpect(jsonPath("$.errors[0].line", is(3)))
+                .andExpect(jsonPath("$.errors[0].error", is("Price must be zero or positive")));
+
+        when(productImportService.importProducts(any(InputStream.class)))
+                .thenThrow(new CsvFormatException(1, "Header must have a 'price' column"));
+
+        mockMvc.perform(post("/api/products/import")
+                .contentType("text/csv")
+                .content("name,stockQuantity\n"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error", is("Line 1: Header must have a 'price' column")));
+    }
 }
@@ -0,0 +1,50 @@
+package com.example.windsurfspringapp.controller;
+
+import com.example.windsurfspringapp.dto.SqlQueryStats;
+import com.example.windsurfspringapp.metrics.SlowQueryLog;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(SqlQueryController.class)
+class SqlQueryControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private SlowQueryLog slowQueryLog;
+
+    @Test
+    void testGetTopQueriesClampsLimit() throws Exception {
+        when(slowQueryLog.top(SqlQueryController.MAX_LIMIT)).thenReturn(List.of(new SqlQueryStats(
+                "select * from products where price>=?", "ProductRepository.findByPriceBetween",
+                4, 1, 250.0, 62.5, 180.0, "SELECT ... /* PUBLIC.PRODUCTS.tableScan */")));
+
+        mockMvc.perform(get("/api/queries/top").param("limit", "10000"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].repositoryMethod", is("ProductRepository.findByPriceBetween")))
+                .andExpect(jsonPath("$[0].totalMillis", is(250.0)));
+    }
+
+    @Test
+    void testResetQueries() throws Exception {
+        mockMvc.perform(delete("/api/queries"))
+                .andExpect(status().isNoContent());
+
+        verify(slowQueryLog).reset();
+    }
+}
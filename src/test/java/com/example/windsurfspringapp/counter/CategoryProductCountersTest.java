@@ -0,0 +1,80 @@
+package com.example.windsurfspringapp.counter;
+
+import com.example.windsurfspringapp.dto.ProductSnapshot;
+import com.example.windsurfspringapp.event.CategoryChangedEvent;
+import com.example.windsurfspringapp.event.ProductChangedEvent;
+import com.example.windsurfspringapp.repository.CategoryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CategoryProductCountersTest {
+
+    private static final LocalDateTime UPDATED_AT = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+    @Mock
+    private CategoryRepository categoryRepository;
+
+    @InjectMocks
+    private CategoryProductCounters counters;
+
+    @BeforeEach
+    void setUp() {
+        when(categoryRepository.countProductsByCategory())
+                .thenReturn(List.of(new Object[]{1L, 2L}, new Object[]{2L, 0L}));
+        counters.onApplicationReady();
+    }
+
+    @Test
+    void testProductEventsAdjustCounters() {
+        // When
+        counters.onProductChanged(ProductChangedEvent.created(snapshot(10L, 2L)));
+        counters.onProductChanged(ProductChangedEvent.updated(snapshot(11L, 1L), snapshot(11L, 2L)));
+        counters.onProductChanged(ProductChangedEvent.updated(snapshot(10L, 2L), snapshot(10L, 2L)));
+        counters.onProductChanged(ProductChangedEvent.deleted(snapshot(12L, 1L)));
+
+        // Then
+        assertTrue(counters.isReady());
+        assertEquals(Map.of(1L, 0L, 2L, 2L), counters.snapshot());
+    }
+
+    @Test
+    void testCategoryEventsAddAndRemoveCounters() {
+        // When
+        counters.onCategoryChanged(CategoryChangedEvent.created(3L, "Books", UPDATED_AT));
+        counters.onCategoryChanged(CategoryChangedEvent.deleted(1L, UPDATED_AT));
+
+        // Then
+        assertEquals(Map.of(2L, 0L, 3L, 0L), counters.snapshot());
+    }
+
+    @Test
+    void testReconcileReplacesDriftedCounters() {
+        // Given
+        counters.onProductChanged(ProductChangedEvent.created(snapshot(10L, 2L)));
+        when(categoryRepository.countProductsByCategory())
+                .thenReturn(List.of(new Object[]{1L, 2L}, new Object[]{2L, 5L}));
+
+        // When
+        counters.reconcile();
+
+        // Then
+        assertEquals(Map.of(1L, 2L, 2L, 5L), counters.snapshot());
+    }
+
+    private static ProductSnapshot snapshot(Long id, Long categoryId) {
+        return new ProductSnapshot(id, "Product " + id, new BigDecimal("1.00"), 1, categoryId, null);
+    }
+}
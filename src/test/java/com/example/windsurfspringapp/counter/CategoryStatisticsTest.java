@@ -0,0 +1,140 @@
+package com.example.windsurfspringapp.counter;
+
+import com.example.windsurfspringapp.dto.CategoryStats;
+import com.example.windsurfspringapp.dto.ProductSnapshot;
+import com.example.windsurfspringapp.event.CategoryChangedEvent;
+import com.example.windsurfspringapp.event.ProductChangedEvent;
+import com.example.windsurfspringapp.event.StockChangedEvent;
+import com.example.windsurfspringapp.repository.CategoryRepository;
+import com.example.windsurfspringapp.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CategoryStatisticsTest {
+
+    private static final LocalDateTime UPDATED_AT = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+    @Mock
+    private CategoryRepository categoryRepository;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @InjectMocks
+    private CategoryStatistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        // Category 1 holds products priced 10.00 (stock 2) and 20.00 (stock 3); category 2 is empty
+        when(categoryRepository.aggregateProductsByCategory()).thenReturn(List.of(
+                new Object[]{1L, 2L, new BigDecimal("30.00"), new BigDecimal("10.00"), new BigDecimal("20.00"),
+                        5L, new BigDecimal("80.00")},
+                new Object[]{2L, 0L, null, null, null, null, null}));
+        statistics.onApplicationReady();
+    }
+
+    @Test
+    void testProductEventsAdjustAggregatesWithoutQueries() {
+        // When
+        statistics.onProductChanged(ProductChangedEvent.created(snapshot(12L, "5.00", 4, 1L)));
+        statistics.onProductChanged(ProductChangedEvent.created(snapshot(13L, "7.50", 2, 2L)));
+        List<CategoryStats> stats = statistics.snapshot();
+
+        // Then
+        assertEquals(List.of(
+                new CategoryStats(1L, 3, new BigDecimal("5.00"), new BigDecimal("20.00"), new BigDecimal("11.67"),
+                        9, new BigDecimal("100.00")),
+                new CategoryStats(2L, 1, new BigDecimal("7.50"), new BigDecimal("7.50"), new BigDecimal("7.50"),
+                        2, new BigDecimal("15.00"))), stats);
+        verifyNoInteractions(productRepository);
+    }
+
+    @Test
+    void testRemovingAnExtremeRequeriesTheRange() {
+        // Given
+        when(productRepository.findPriceRangeByCategoryIdIn(anyCollection())).thenReturn(List.<Object[]>of(
+                new Object[]{1L, new BigDecimal("10.00"), new BigDecimal("10.00")}));
+
+        // When
+        statistics.onProductChanged(ProductChangedEvent.deleted(snapshot(11L, "20.00", 3, 1L)));
+        CategoryStats stats = statistics.snapshot().get(0);
+
+        // Then
+        assertEquals(new CategoryStats(1L, 1, new BigDecimal("10.00"), new BigDecimal("10.00"),
+                new BigDecimal("10.00"), 2, new BigDecimal("20.00")), stats);
+        verify(productRepository).findPriceRangeByCategoryIdIn(Set.of(1L));
+    }
+
+    @Test
+    void testStockAdjustmentsArePricedOnRead() {
+        // Given
+        when(productRepository.findCategoryAndPriceByIdIn(anyCollection())).thenReturn(List.<Object[]>of(
+                new Object[]{11L, 1L, new BigDecimal("20.00")}));
+
+        // When
+        statistics.onStockChanged(new StockChangedEvent(11L, 3, 5, UPDATED_AT));
+        statistics.onStockChanged(new StockChangedEvent(11L, 5, 6, UPDATED_AT));
+        CategoryStats stats = statistics.snapshot().get(0);
+
+        // Then
+        assertEquals(8, stats.totalStock());
+        assertEquals(new BigDecimal("140.00"), stats.inventoryValue());
+        verify(productRepository, times(1)).findCategoryAndPriceByIdIn(anyCollection());
+    }
+
+    @Test
+    void testProductUpdatePricesPendingStockAtTheOldValues() {
+        // Given
+        when(productRepository.findPriceRangeByCategoryIdIn(anyCollection())).thenReturn(List.<Object[]>of(
+                new Object[]{1L, new BigDecimal("10.00"), new BigDecimal("10.00")}));
+
+        // When
+        statistics.onStockChanged(new StockChangedEvent(11L, 3, 5, UPDATED_AT));
+        statistics.onProductChanged(ProductChangedEvent.updated(
+                snapshot(11L, "20.00", 5, 1L), snapshot(11L, "15.00", 5, 2L)));
+        List<CategoryStats> stats = statistics.snapshot();
+
+        // Then
+        assertEquals(new CategoryStats(1L, 1, new BigDecimal("10.00"), new BigDecimal("10.00"),
+                new BigDecimal("10.00"), 2, new BigDecimal("20.00")), stats.get(0));
+        assertEquals(new CategoryStats(2L, 1, new BigDecimal("15.00"), new BigDecimal("15.00"),
+                new BigDecimal("15.00"), 5, new BigDecimal("75.00")), stats.get(1));
+        verify(productRepository, never()).findCategoryAndPriceByIdIn(anyCollection());
+    }
+
+    @Test
+    void testCategoryEventsAndReconcile() {
+        // Given
+        statistics.onCategoryChanged(CategoryChangedEvent.created(3L, "Books", UPDATED_AT));
+        statistics.onCategoryChanged(CategoryChangedEvent.deleted(2L, UPDATED_AT));
+        assertEquals(List.of(1L, 3L), statistics.snapshot().stream().map(CategoryStats::categoryId).toList());
+        when(categoryRepository.aggregateProductsByCategory()).thenReturn(List.<Object[]>of(
+                new Object[]{1L, 1L, new BigDecimal("10.00"), new BigDecimal("10.00"), new BigDecimal("10.00"),
+                        2L, new BigDecimal("20.00")}));
+
+        // When
+        statistics.reconcile();
+
+        // Then
+        assertEquals(List.of(new CategoryStats(1L, 1, new BigDecimal("10.00"), new BigDecimal("10.00"),
+                new BigDecimal("10.00"), 2, new BigDecimal("20.00"))), statistics.snapshot());
+    }
+
+    private static ProductSnapshot snapshot(Long id, String price, int stock, Long categoryId) {
+        return new ProductSnapshot(id, "Product " + id, new BigDecimal(price), stock, categoryId, null);
+    }
+}
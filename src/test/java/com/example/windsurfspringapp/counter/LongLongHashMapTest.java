@@ -0,0 +1,79 @@
+package com.example.windsurfspringapp.counter;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LongLongHashMapTest {
+
+    @Test
+    void testPutAddToAndRemove() {
+        // Given
+        LongLongHashMap map = new LongLongHashMap();
+
+        // When
+        map.put(7L, 3L);
+        map.addTo(7L, 2L);
+        map.addTo(9L, -1L);
+
+        // Then
+        assertEquals(5L, map.get(7L, 0L));
+        assertEquals(-1L, map.get(9L, 0L));
+        assertEquals(42L, map.get(8L, 42L));
+        assertTrue(map.remove(7L));
+        assertFalse(map.remove(7L));
+        assertFalse(map.containsKey(7L));
+        assertEquals(1, map.size());
+    }
+
+    @Test
+    void testMatchesHashMapAcrossResizesAndRemovals() {
+        // Given
+        LongLongHashMap map = new LongLongHashMap();
+        Map<Long, Long> expected = new HashMap<>();
+        Random random = new Random(42);
+
+        // When
+        for (int i = 0; i < 20_000; i++) {
+            long key = random.nextInt(2_000);
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(key) != null, map.remove(key));
+            } else {
+                expected.merge(key, 1L, Long::sum);
+                map.addTo(key, 1L);
+            }
+        }
+
+        // Then
+        assertEquals(expected.size(), map.size());
+        Map<Long, Long> actual = new HashMap<>();
+        map.forEach(actual::put);
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    void testPutAcrossResizes() {
+        // Given
+        LongLongHashMap map = new LongLongHashMap();
+
+        // When
+        for (long key = 1; key <= 1_000; key++) {
+            map.put(key, key * 10);
+        }
+
+        // Then
+        assertEquals(1_000, map.size());
+        for (long key = 1; key <= 1_000; key++) {
+            assertEquals(key * 10, map.get(key, 0L));
+        }
+    }
+
+    @Test
+    void testRejectsReservedKey() {
+        assertThrows(IllegalArgumentException.class, () -> new LongLongHashMap().put(Long.MIN_VALUE, 1L));
+    }
+}
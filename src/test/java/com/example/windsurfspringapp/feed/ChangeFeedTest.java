@@ -0,0 +1,157 @@
+package com.example.windsurfspringapp.feed;
+
+import com.example.windsurfspringapp.dto.ChangeFeedEvent;
+import com.example.windsurfspringapp.dto.ChangeFeedEvent.Topic;
+import com.example.windsurfspringapp.dto.ProductSnapshot;
+import com.example.windsurfspringapp.dto.StockLevel;
+import com.example.windsurfspringapp.event.CategoryChangedEvent;
+import com.example.windsurfspringapp.event.ChangeType;
+import com.example.windsurfspringapp.event.ProductChangedEvent;
+import com.example.windsurfspringapp.event.StockChangedEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChangeFeedTest {
+
+    private static final LocalDateTime UPDATED_AT = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+    private ChangeFeed feed;
+
+    @BeforeEach
+    void setUp() {
+        feed = new ChangeFeed(4, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        feed.shutdown();
+    }
+
+    @Test
+    void testNewSubscriberReceivesOnlyLaterChanges() throws InterruptedException {
+        // Given
+        feed.onCategoryChanged(CategoryChangedEvent.created(1L, "Electronics", UPDATED_AT));
+        Recorder recorder = new Recorder();
+        feed.subscribe(null, recorder);
+
+        // When
+        feed.onProductChanged(ProductChangedEvent.created(snapshot(10L, 5)));
+        feed.onStockChanged(new StockChangedEvent(10L, 5, 3, UPDATED_AT));
+        feed.onCategoryChanged(CategoryChangedEvent.deleted(1L, UPDATED_AT));
+
+        // Then
+        List<ChangeFeedEvent> events = recorder.events(3);
+        assertEquals(List.of(2L, 3L, 4L), events.stream().map(ChangeFeedEvent::sequence).toList());
+        assertEquals(Topic.PRODUCT, events.get(0).topic());
+        assertEquals(snapshot(10L, 5), events.get(0).data());
+        assertEquals(new StockLevel(10L, 3), events.get(1).data());
+        assertEquals(UPDATED_AT, events.get(1).version());
+        assertEquals(ChangeType.DELETED, events.get(2).type());
+        assertNull(events.get(2).data());
+        assertEquals(UPDATED_AT, events.get(2).version());
+        assertTrue(recorder.resets.isEmpty());
+    }
+
+    @Test
+    void testResumesAfterLastEventId() throws InterruptedException {
+        // Given
+        Recorder first = new Recorder();
+        Runnable cancel = feed.subscribe(null, first);
+        feed.onCategoryChanged(CategoryChangedEvent.created(1L, "Electronics", UPDATED_AT));
+        String lastEventId = first.ids(1).get(0);
+        cancel.run();
+
+        // When
+        feed.onCategoryChanged(CategoryChangedEvent.updated(1L, "Gadgets", UPDATED_AT));
+        feed.onCategoryChanged(CategoryChangedEvent.created(2L, "Books", UPDATED_AT));
+        Recorder resumed = new Recorder();
+        feed.subscribe(lastEventId, resumed);
+
+        // Then
+        List<ChangeFeedEvent> events = resumed.events(2);
+        assertEquals(Map.of("name", "Gadgets"), events.get(0).data());
+        assertEquals(2L, events.get(1).id());
+        assertEquals(feed.latestEventId(), resumed.ids(2).get(1));
+        assertTrue(resumed.resets.isEmpty());
+    }
+
+    @Test
+    void testResetsWhenChangesWereOverwritten() throws InterruptedException {
+        // Given
+        Recorder first = new Recorder();
+        Runnable cancel = feed.subscribe(null, first);
+        feed.onCategoryChanged(CategoryChangedEvent.created(1L, "Electronics", UPDATED_AT));
+        String lastEventId = first.ids(1).get(0);
+        cancel.run();
+        for (long id = 2; id <= 7; id++) {
+            feed.onCategoryChanged(CategoryChangedEvent.created(id, "Category " + id, UPDATED_AT));
+        }
+
+        // When
+        Recorder stale = new Recorder();
+        feed.subscribe(lastEventId, stale);
+        Recorder foreign = new Recorder();
+        feed.subscribe("other:3", foreign);
+        feed.onCategoryChanged(CategoryChangedEvent.created(8L, "Toys", UPDATED_AT));
+
+        // Then
+        assertEquals(feed.latestEventId().replaceAll(":\\d+$", ":7"), stale.resets.poll(5, TimeUnit.SECONDS));
+        assertEquals(8L, stale.events(1).get(0).id());
+        assertNotNull(foreign.resets.poll(5, TimeUnit.SECONDS));
+        assertEquals(8L, foreign.events(1).get(0).id());
+    }
+
+    private static ProductSnapshot snapshot(Long id, int stockQuantity) {
+        return new ProductSnapshot(id, "Product " + id, new BigDecimal("9.99"), stockQuantity, null, null);
+    }
+
+    private static final class Recorder implements ChangeFeed.Subscriber {
+
+        private final BlockingQueue<String> ids = new LinkedBlockingQueue<>();
+        private final BlockingQueue<ChangeFeedEvent> events = new LinkedBlockingQueue<>();
+        private final BlockingQueue<String> resets = new LinkedBlockingQueue<>();
+        private final List<String> receivedIds = new ArrayList<>();
+        private final List<ChangeFeedEvent> receivedEvents = new ArrayList<>();
+
+        @Override
+        public void onEvent(String eventId, ChangeFeedEvent event) {
+            ids.add(eventId);
+            events.add(event);
+        }
+
+        @Override
+        public void onReset(String eventId, String reason) {
+            resets.add(eventId);
+        }
+
+        List<ChangeFeedEvent> events(int count) throws InterruptedException {
+            while (receivedEvents.size() < count) {
+                ChangeFeedEvent event = events.poll(5, TimeUnit.SECONDS);
+                assertNotNull(event, "Timed out waiting for change " + (receivedEvents.size() + 1));
+                receivedEvents.add(event);
+            }
+            return receivedEvents;
+        }
+
+        List<String> ids(int count) throws InterruptedException {
+            while (receivedIds.size() < count) {
+                String id = ids.poll(5, TimeUnit.SECONDS);
+                assertNotNull(id, "Timed out waiting for change " + (receivedIds.size() + 1));
+                receivedIds.add(id);
+            }
+            return receivedIds;
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.example.windsurfspringapp.inventory;
+
+import com.example.windsurfspringapp.dto.LowStockAlert;
+import com.example.windsurfspringapp.dto.LowStockAlert.Transition;
+import com.example.windsurfspringapp.dto.ProductSnapshot;
+import com.example.windsurfspringapp.dto.StockLevel;
+import com.example.windsurfspringapp.event.ProductChangedEvent;
+import com.example.windsurfspringapp.event.StockChangedEvent;
+import com.example.windsurfspringapp.repository.ProductRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LowStockWatcherTest {
+
+    private static final LocalDateTime UPDATED_AT = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+    @Mock
+    private ProductRepository productRepository;
+
+    private LowStockWatcher watcher;
+
+    @BeforeEach
+    void setUp() {
+        watcher = new LowStockWatcher(productRepository, new int[] {10, 5}, 2, 2);
+        when(productRepository.findStockLevelsBelow(10))
+                .thenReturn(List.of(new Object[]{1L, 3}, new Object[]{2L, 8}));
+        watcher.onApplicationReady();
+    }
+
+    @AfterEach
+    void tearDown() {
+        watcher.shutdown();
+    }
+
+    @Test
+    void testServesLowStockSetFromMemory() {
+        // When
+        watcher.onStockChanged(new StockChangedEvent(3L, 12, 9, UPDATED_AT));
+        watcher.onStockChanged(new StockChangedEvent(2L, 8, 10, UPDATED_AT));
+
+        // Then
+        assertTrue(watcher.covers(10));
+        assertFalse(watcher.covers(11));
+        assertArrayEquals(new long[] {1L, 3L}, watcher.lowStockIds(10));
+        assertArrayEquals(new long[] {1L}, watcher.lowStockIds(5));
+        assertEquals(List.of(new StockLevel(1L, 3), new StockLevel(3L, 9)), watcher.lowStockLevels(10));
+    }
+
+    @Test
+    void testSubscribersReceiveSnapshotThenCrossings() throws InterruptedException {
+        // Given
+        BlockingQueue<Object> events = new LinkedBlockingQueue<>();
+        watcher.subscribe(5, subscriber(events));
+
+        // When
+        watcher.onStockChanged(new StockChangedEvent(2L, 8, 4, UPDATED_AT));
+        watcher.onStockChanged(new StockChangedEvent(3L, 20, 15, UPDATED_AT));
+        watcher.onProductChanged(ProductChangedEvent.deleted(snapshot(1L, 3)));
+
+        // Then
+        assertEquals(List.of(new StockLevel(1L, 3)), events.poll(5, TimeUnit.SECONDS));
+        assertEquals(new LowStockAlert(2L, 5, Transition.ENTERED, 4), events.poll(5, TimeUnit.SECONDS));
+        assertEquals(new LowStockAlert(1L, 5, Transition.LEFT, null), events.poll(5, TimeUnit.SECONDS));
+        assertNull(events.poll(100, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void testReconcileAlertsOnMissedCrossings() throws InterruptedException {
+        // Given
+        BlockingQueue<Object> events = new LinkedBlockingQueue<>();
+        Runnable cancel = watcher.subscribe(10, subscriber(events));
+        when(productRepository.findStockLevelsBelow(10))
+                .thenReturn(List.of(new Object[]{2L, 8}, new Object[]{4L, 1}));
+
+        // When
+        watcher.reconcile();
+
+        // Then
+        assertEquals(2, ((List<?>) events.poll(5, TimeUnit.SECONDS)).size());
+        List<Object> alerts = List.of(events.poll(5, TimeUnit.SECONDS), events.poll(5, TimeUnit.SECONDS));
+        assertTrue(alerts.contains(new LowStockAlert(4L, 10, Transition.ENTERED, 1)));
+        assertTrue(alerts.contains(new LowStockAlert(1L, 10, Transition.LEFT, null)));
+
+        cancel.run();
+        watcher.onStockChanged(new StockChangedEvent(2L, 8, 20, UPDATED_AT));
+        assertNull(events.poll(100, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void testSlowSubscriberIsDisconnectedWithoutDelayingOthers() throws InterruptedException {
+        // Given
+        CountDownLatch release = new CountDownLatch(1);
+        BlockingQueue<Object> slowEvents = new LinkedBlockingQueue<>();
+        LowStockWatcher.Subscriber slow = subscriber(slowEvents);
+        watcher.subscribe(10, new LowStockWatcher.Subscriber() {
+            @Override
+            public void onSnapshot(List<StockLevel> levels) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                slow.onSnapshot(levels);
+            }
+
+            @Override
+            public void onAlert(LowStockAlert alert) {
+                slow.onAlert(alert);
+            }
+
+            @Override
+            public void onDisconnected(String reason) {
+                slow.onDisconnected(reason);
+            }
+        });
+        BlockingQueue<Object> events = new LinkedBlockingQueue<>();
+        watcher.subscribe(10, subscriber(events));
+
+        // When / Then
+        assertEquals(2, ((List<?>) events.poll(5, TimeUnit.SECONDS)).size());
+        for (long id = 3; id <= 5; id++) {
+            watcher.onStockChanged(new StockChangedEvent(id, 12, (int) (12 - id), UPDATED_AT));
+            assertEquals(new LowStockAlert(id, 10, Transition.ENTERED, (int) (12 - id)), events.poll(5, TimeUnit.SECONDS));
+        }
+
+        // Then
+        release.countDown();
+        assertEquals(2, ((List<?>) slowEvents.poll(5, TimeUnit.SECONDS)).size());
+        assertEquals("Subscriber fell more than 2 alerts behind", slowEvents.poll(5, TimeUnit.SECONDS));
+        watcher.onStockChanged(new StockChangedEvent(6L, 12, 6, UPDATED_AT));
+        assertNull(slowEvents.poll(100, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void testRejectsSubscriptionToUnknownThreshold() {
+        assertThrows(IllegalArgumentException.class, () -> watcher.subscribe(7, subscriber(new LinkedBlockingQueue<>())));
+    }
+
+    private static LowStockWatcher.Subscriber subscriber(BlockingQueue<Object> events) {
+        return new LowStockWatcher.Subscriber() {
+            @Override
+            public void onSnapshot(List<StockLevel> levels) {
+                events.add(levels);
+            }
+
+            @Override
+            public void onAlert(LowStockAlert alert) {
+                events.add(alert);
+            }
+
+            @Override
+            public void onDisconnected(String reason) {
+                events.add(reason);
+            }
+        };
+    }
+
+    private static ProductSnapshot snapshot(Long id, int stockQuantity) {
+        return new ProductSnapshot(id, "Product " + id, new BigDecimal("9.99"), stockQuantity, null, null);
+    }
+}
@@ -0,0 +1,230 @@
+package com.example.windsurfspringapp.inventory;
+
+import com.example.windsurfspringapp.dto.ProductSnapshot;
+import com.example.windsurfspringapp.dto.StockAdjustment;
+import com.example.windsurfspringapp.event.ProductChangedEvent;
+import com.example.windsurfspringapp.event.StockChangedEvent;
+import com.example.windsurfspringapp.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StockLedgerTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Captor
+    private ArgumentCaptor<List<Object[]>> rows;
+
+    @Captor
+    private ArgumentCaptor<StockChangedEvent> events;
+
+    private StockLedger ledger;
+
+    @BeforeEach
+    void setUp() {
+        ledger = new StockLedger(productRepository, jdbcTemplate, transactionManager, eventPublisher,
+                true, new long[] {1L, 2L}, 4);
+    }
+
+    @Test
+    void testManagesOnlyHotProducts() {
+        assertTrue(ledger.manages(1L));
+        assertFalse(ledger.manages(3L));
+    }
+
+    @Test
+    void testAdjustmentsAreFlushedAsNetDeltas() {
+        // Given
+        when(productRepository.findStockQuantityById(1L)).thenReturn(Optional.of(10));
+        when(productRepository.findStockQuantityById(2L)).thenReturn(Optional.empty());
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenReturn(new int[] {1});
+
+        // When
+        StockAdjustment taken = ledger.take(1L, 4);
+        StockAdjustment rejected = ledger.take(1L, 7);
+        StockAdjustment returned = ledger.give(1L, 1);
+        StockAdjustment missing = ledger.take(2L, 1);
+        ledger.flush();
+
+        // Then
+        assertEquals(StockAdjustment.applied(1L, 6), taken);
+        assertEquals(StockAdjustment.insufficientStock(1L, 6), rejected);
+        assertEquals(StockAdjustment.applied(1L, 7), returned);
+        assertEquals(StockAdjustment.notFound(2L), missing);
+        verify(productRepository, times(1)).findStockQuantityById(1L);
+
+        verify(jdbcTemplate).batchUpdate(anyString(), rows.capture());
+        assertEquals(1, rows.getValue().size());
+        assertEquals(-3L, rows.getValue().get(0)[0]);
+        assertEquals(1L, rows.getValue().get(0)[2]);
+        assertEquals(10L, rows.getValue().get(0)[3]);
+        verify(eventPublisher).publishEvent(events.capture());
+        LocalDateTime flushedAt = ((Timestamp) rows.getValue().get(0)[1]).toLocalDateTime();
+        assertEquals(new StockChangedEvent(1L, 10, 7, flushedAt), events.getValue());
+
+        // When
+        ledger.flush();
+
+        // Then
+        verifyNoMoreInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void testGiveRefusesToPassTheLargestLevel() {
+        // Given
+        when(productRepository.findStockQuantityById(1L)).thenReturn(Optional.of(Integer.MAX_VALUE - 1));
+
+        // When
+        StockAdjustment returned = ledger.give(1L, 1);
+        StockAdjustment refused = ledger.give(1L, 1);
+
+        // Then
+        assertEquals(StockAdjustment.applied(1L, Integer.MAX_VALUE), returned);
+        assertEquals(StockAdjustment.tooMuchStock(1L, Integer.MAX_VALUE), refused);
+    }
+
+    @Test
+    void testSetReturnsThePreviousLevel() {
+        // Given
+        when(productRepository.findStockQuantityById(1L)).thenReturn(Optional.of(10));
+        when(productRepository.findStockQuantityById(2L)).thenReturn(Optional.empty());
+
+        // When / Then
+        assertEquals(Optional.of(10), ledger.set(1L, 10));
+        assertEquals(Optional.of(10), ledger.set(1L, 4));
+        assertEquals(Optional.empty(), ledger.set(2L, 4));
+    }
+
+    @Test
+    void testEntityWriteOfStockDropsCounter() {
+        // Given
+        when(productRepository.findStockQuantityById(1L)).thenReturn(Optional.of(10), Optional.of(50));
+        ledger.take(1L, 1);
+
+        // When
+        ledger.onProductChanged(ProductChangedEvent.updated(snapshot(10), snapshot(50)));
+
+        // Then
+        assertEquals(StockAdjustment.applied(1L, 49), ledger.take(1L, 1));
+    }
+
+    @Test
+    void testFlushRacingAnEntityWriteDoesNotAddToTheNewLevel() {
+        // Given
+        when(productRepository.findStockQuantityById(1L)).thenReturn(Optional.of(10), Optional.of(50));
+        ledger.take(1L, 3);
+        // The entity write commits after the flush drained the counter and before its UPDATE ran
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenAnswer(invocation -> {
+            ledger.onProductChanged(ProductChangedEvent.updated(snapshot(10), snapshot(50)));
+            return new int[] {0};
+        });
+
+        // When
+        ledger.flush();
+
+        // Then
+        verify(jdbcTemplate).batchUpdate(anyString(), rows.capture());
+        assertEquals(-3L, rows.getValue().get(0)[0]);
+        assertEquals(10L, rows.getValue().get(0)[3]);
+        verifyNoInteractions(eventPublisher);
+        assertEquals(1, ledger.droppedChanges());
+        assertEquals(StockAdjustment.applied(1L, 49), ledger.take(1L, 1));
+
+        // When
+        doReturn(new int[] {1}).when(jdbcTemplate).batchUpdate(anyString(), anyList());
+        ledger.flush();
+
+        // Then
+        verify(eventPublisher).publishEvent(events.capture());
+        assertEquals(1L, events.getValue().productId());
+        assertEquals(50, events.getValue().previousQuantity());
+        assertEquals(49, events.getValue().quantity());
+        assertNotNull(events.getValue().updatedAt());
+    }
+
+    @Test
+    void testTakeDuringFencedWriteWaitsForTheNewLevel() throws Exception {
+        // Given
+        when(productRepository.findStockQuantityById(1L)).thenReturn(Optional.of(10), Optional.of(50));
+        ledger.take(1L, 3);
+        TransactionSynchronizationManager.initSynchronization();
+        CompletableFuture<StockAdjustment> take;
+        try {
+            ledger.fence(1L);
+            take = CompletableFuture.supplyAsync(() -> ledger.take(1L, 1));
+            Thread.sleep(50);
+            assertFalse(take.isDone());
+
+            // When
+            completeTransaction(TransactionSynchronization.STATUS_COMMITTED);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        // Then
+        assertEquals(StockAdjustment.applied(1L, 49), take.get(5, TimeUnit.SECONDS));
+        assertEquals(1, ledger.droppedChanges());
+    }
+
+    @Test
+    void testRolledBackWriteReopensTheCounter() {
+        // Given
+        when(productRepository.findStockQuantityById(1L)).thenReturn(Optional.of(10));
+        ledger.take(1L, 3);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            ledger.fence(1L);
+
+            // When
+            completeTransaction(TransactionSynchronization.STATUS_ROLLED_BACK);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        // Then
+        assertEquals(StockAdjustment.applied(1L, 6), ledger.take(1L, 1));
+        assertEquals(0, ledger.droppedChanges());
+        verify(productRepository, times(1)).findStockQuantityById(1L);
+    }
+
+    private static void completeTransaction(int status) {
+        TransactionSynchronizationManager.getSynchronizations().forEach(sync -> sync.afterCompletion(status));
+    }
+
+    private static ProductSnapshot snapshot(int stock) {
+        return new ProductSnapshot(1L, "Console", new BigDecimal("499.99"), stock, null, null);
+    }
+}
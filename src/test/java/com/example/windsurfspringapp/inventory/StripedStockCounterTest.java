@@ -0,0 +1,154 @@
+package com.example.windsurfspringapp.inventory;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StripedStockCounterTest {
+
+    @Test
+    void testTakeFallsBackToOtherStripes() {
+        // Given
+        StripedStockCounter counter = new StripedStockCounter(10, 8);
+
+        // When
+        long afterTake = counter.tryTake(9);
+        long rejected = counter.tryTake(2);
+
+        // Then
+        assertEquals(1, afterTake);
+        assertEquals(-1, rejected);
+        assertEquals(1, counter.level());
+        assertEquals(-9, counter.drainDelta());
+        assertEquals(0, counter.drainDelta());
+    }
+
+    @Test
+    void testSetRecordsDifferenceAsDelta() {
+        // Given
+        StripedStockCounter counter = new StripedStockCounter(10, 4);
+        counter.tryAdd(5, Long.MAX_VALUE);
+
+        // When
+        counter.set(3);
+
+        // Then
+        assertEquals(3, counter.level());
+        assertEquals(-7, counter.drainDelta());
+    }
+
+    @Test
+    void testAddNeverPassesTheMaximum() {
+        // Given
+        StripedStockCounter counter = new StripedStockCounter(Integer.MAX_VALUE - 5, 4);
+
+        // When
+        long afterAdd = counter.tryAdd(5, Integer.MAX_VALUE);
+        long rejected = counter.tryAdd(1, Integer.MAX_VALUE);
+
+        // Then
+        assertEquals(Integer.MAX_VALUE, afterAdd);
+        assertEquals(-1, rejected);
+        assertEquals(Integer.MAX_VALUE, counter.level());
+        assertEquals(5, counter.drainDelta());
+    }
+
+    @Test
+    void testRetiredCounterRefusesChangesUntilReopened() {
+        // Given
+        StripedStockCounter counter = new StripedStockCounter(10, 4);
+        counter.tryTake(4);
+
+        // When
+        counter.retire();
+
+        // Then
+        assertEquals(StripedStockCounter.RETIRED, counter.tryTake(1));
+        assertEquals(StripedStockCounter.RETIRED, counter.tryAdd(1, Long.MAX_VALUE));
+        assertEquals(StripedStockCounter.RETIRED, counter.set(8));
+
+        // When
+        counter.reopen();
+
+        // Then
+        assertEquals(5, counter.tryTake(1));
+        assertEquals(-5, counter.drainDelta());
+    }
+
+    @Test
+    void testConcurrentTakesNeverOversell() throws Exception {
+        // Given
+        int initial = 10_000;
+        int threads = 8;
+        StripedStockCounter counter = new StripedStockCounter(initial, 4);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> results = new ArrayList<>();
+
+        // When
+        for (int t = 0; t < threads; t++) {
+            results.add(executor.submit(() -> {
+                start.await();
+                int taken = 0;
+                while (counter.tryTake(3) >= 0) {
+                    taken += 3;
+                }
+                return taken;
+            }));
+        }
+        start.countDown();
+        int taken = 0;
+        for (Future<Integer> result : results) {
+            taken += result.get();
+        }
+        executor.shutdown();
+
+        // Then
+        assertEquals(initial - initial % 3, taken);
+        assertEquals(initial % 3, counter.level());
+        assertEquals(-taken, counter.drainDelta());
+    }
+
+    @Test
+    void testConcurrentTakesReportTheLevelAfterEachTake() throws Exception {
+        // Given
+        int initial = 3_000;
+        int threads = 8;
+        StripedStockCounter counter = new StripedStockCounter(initial, 8);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        Set<Long> reported = ConcurrentHashMap.newKeySet();
+        List<Future<?>> results = new ArrayList<>();
+
+        // When
+        for (int t = 0; t < threads; t++) {
+            results.add(executor.submit(() -> {
+                start.await();
+                long level;
+                while ((level = counter.tryTake(1)) >= 0) {
+                    assertTrue(reported.add(level), "level " + level + " reported twice");
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> result : results) {
+            result.get();
+        }
+        executor.shutdown();
+
+        // Then
+        assertEquals(initial, reported.size());
+        assertTrue(reported.stream().allMatch(level -> level >= 0 && level < initial));
+        assertEquals(0, counter.level());
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.windsurfspringapp.metrics;
+
+import com.example.windsurfspringapp.dto.SqlQueryStats;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Types;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QueryTimingDataSourceTest {
+
+    private JdbcDataSource target;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        target = new JdbcDataSource();
+        target.setURL("jdbc:h2:mem:query-timing;DB_CLOSE_DELAY=-1");
+        try (Connection connection = target.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE IF NOT EXISTS items (id BIGINT PRIMARY KEY, name VARCHAR(50))");
+            statement.execute("MERGE INTO items VALUES (1, 'first'), (2, 'second')");
+        }
+    }
+
+    @Test
+    void testSlowStatementsAreAttributedAndExplained() throws Exception {
+        // Given
+        SlowQueryLog slowQueryLog = new SlowQueryLog(Duration.ZERO, 100);
+        QueryTimingDataSource dataSource = new QueryTimingDataSource(target, () -> slowQueryLog);
+        String sql = "SELECT name FROM items WHERE name = ?";
+
+        // When
+        slowQueryLog.enterRepository("ItemRepository.findByName");
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+            for (String name : List.of("first", "second")) {
+                statement.setString(1, name);
+                try (ResultSet rows = statement.executeQuery()) {
+                    assertTrue(rows.next());
+                }
+            }
+        } finally {
+            slowQueryLog.exitRepository();
+        }
+
+        // Then
+        SqlQueryStats stats = slowQueryLog.top(1).get(0);
+        assertEquals(sql, stats.sql());
+        assertEquals("ItemRepository.findByName", stats.repositoryMethod());
+        assertEquals(2, stats.executions());
+        assertEquals(2, stats.slowExecutions());
+        // Filtering on an unindexed column scans the table
+        assertTrue(stats.plan().contains("PUBLIC.ITEMS"), stats.plan());
+    }
+
+    @Test
+    void testFastStatementsAreOnlyCounted() throws Exception {
+        // Given
+        SlowQueryLog slowQueryLog = new SlowQueryLog(Duration.ofMinutes(1), 100);
+        QueryTimingDataSource dataSource = new QueryTimingDataSource(target, () -> slowQueryLog);
+
+        // When
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement insert = connection.prepareStatement("MERGE INTO items VALUES (?, ?)");
+             Statement statement = connection.createStatement()) {
+            for (long id = 3; id <= 5; id++) {
+                insert.setLong(1, id);
+                insert.setNull(2, Types.VARCHAR);
+                insert.addBatch();
+            }
+            insert.executeBatch();
+            statement.execute("SELECT COUNT(*) FROM items");
+        }
+
+        // Then
+        List<SqlQueryStats> stats = slowQueryLog.top(10);
+        assertEquals(2, stats.size());
+        assertTrue(stats.stream().allMatch(query -> query.executions() == 1 && query.slowExecutions() == 0));
+        assertTrue(stats.stream().allMatch(query -> query.plan() == null && query.repositoryMethod() == null));
+    }
+
+    @Test
+    void testShapesBeyondTheLimitAreOnlyCountedUntilReset() throws Exception {
+        // Given
+        SlowQueryLog slowQueryLog = new SlowQueryLog(Duration.ofMinutes(1), 1);
+        QueryTimingDataSource dataSource = new QueryTimingDataSource(target, () -> slowQueryLog);
+
+        // When
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("SELECT 1");
+            statement.execute("SELECT 2");
+        }
+
+        // Then
+        assertEquals(List.of("SELECT 1"), slowQueryLog.top(10).stream().map(SqlQueryStats::sql).toList());
+        assertEquals(1, slowQueryLog.untrackedExecutions());
+        slowQueryLog.reset();
+        assertTrue(slowQueryLog.top(10).isEmpty());
+        assertEquals(0, slowQueryLog.untrackedExecutions());
+    }
+}
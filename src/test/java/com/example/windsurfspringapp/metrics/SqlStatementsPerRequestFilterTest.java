@@ -0,0 +1,64 @@
+package com.example.windsurfspringapp.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SqlStatementsPerRequestFilterTest {
+
+    private SqlStatementCounter statementCounter;
+    private SimpleMeterRegistry meterRegistry;
+    private SqlStatementsPerRequestFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        statementCounter = new SqlStatementCounter();
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new SqlStatementsPerRequestFilter(statementCounter, meterRegistry);
+    }
+
+    @Test
+    void testRecordsStatementsPerEndpoint() throws Exception {
+        // Given
+        statementCounter.inspect("select 1");
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/products/7");
+
+        // When
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+            req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/products/{id}");
+            statementCounter.inspect("select p from products p");
+            statementCounter.inspect("select c from categories c");
+        });
+        statementCounter.inspect("select 2");
+
+        // Then
+        DistributionSummary summary = meterRegistry.get(SqlStatementsPerRequestFilter.METRIC_NAME)
+                .tag("method", "GET")
+                .tag("uri", "/api/products/{id}")
+                .summary();
+        assertEquals(1, summary.count());
+        assertEquals(2.0, summary.totalAmount());
+        assertEquals(0, statementCounter.stop());
+    }
+
+    @Test
+    void testUnmatchedRequestsShareOneTag() throws Exception {
+        // When
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/nope/1"), new MockHttpServletResponse(),
+                (req, res) -> { });
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/nope/2"), new MockHttpServletResponse(),
+                (req, res) -> { });
+
+        // Then
+        assertEquals(2, meterRegistry.get(SqlStatementsPerRequestFilter.METRIC_NAME)
+                .tag("uri", "UNKNOWN")
+                .summary()
+                .count());
+    }
+}
@@ -162,4 +162,26 @@ class CategoryRepositoryTest {
         assertEquals(1L, clothingResult[1]);
         assertEquals(0L, emptyResult[1]);
     }
+
+    @Test
+    void testAggregateProductsByCategory() {
+        // When
+        List<Object[]> aggregates = categoryRepository.aggregateProductsByCategory();
+
+        // Then
+        assertEquals(3, aggregates.size());
+        Object[] electronics = aggregates.stream()
+                .filter(row -> row[0].equals(electronicsCategory.getId())).findFirst().orElseThrow();
+        assertEquals(2L, electronics[1]);
+        assertEquals(0, new BigDecimal("1899.98").compareTo((BigDecimal) electronics[2]));
+        assertEquals(0, new BigDecimal("599.99").compareTo((BigDecimal) electronics[3]));
+        assertEquals(0, new BigDecimal("1299.99").compareTo((BigDecimal) electronics[4]));
+        assertEquals(80L, ((Number) electronics[5]).longValue());
+        assertEquals(0, new BigDecimal("68999.20").compareTo((BigDecimal) electronics[6]));
+
+        Object[] books = aggregates.stream()
+                .filter(row -> row[0].equals(emptyCategory.getId())).findFirst().orElseThrow();
+        assertEquals(0L, books[1]);
+        assertNull(books[3]);
+    }
 }
@@ -1,15 +1,26 @@
 package com.example.windsurfspringapp.repository;
 
+import com.example.windsurfspringapp.dto.ProductQuery;
+import com.example.windsurfspringapp.dto.ProductVersion;
+import com.example.windsurfspringapp.dto.ProductView;
 import com.example.windsurfspringapp.model.Category;
 import com.example.windsurfspringapp.model.Product;
+import com.example.windsurfspringapp.paging.CursorRequest;
+import com.example.windsurfspringapp.paging.ProductSort;
+import com.example.windsurfspringapp.web.EntityTags;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Window;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -77,6 +88,24 @@ class ProductRepositoryTest {
         assertEquals(tshirt.getId(), shirtResults.get(0).getId());
     }
 
+    @Test
+    void testFindVersionByIdMatchesRenderedProduct() {
+        // Given
+        entityManager.clear();
+        ProductView rendered = ProductView.from(productRepository.findById(laptop.getId()).orElseThrow());
+
+        // When
+        ProductVersion version = productRepository.findVersionById(laptop.getId()).orElseThrow();
+
+        // Then
+        assertEquals(laptop.getId(), version.id());
+        assertEquals(electronicsCategory.getId(), version.categoryId());
+        assertEquals("Electronics", version.categoryName());
+        assertEquals(EntityTags.of(rendered), EntityTags.of(version));
+        assertEquals(EntityTags.of(ProductView.from(laptop)), EntityTags.of(version));
+        assertTrue(productRepository.findVersionById(-1L).isEmpty());
+    }
+
     @Test
     void testFindByCategoryId() {
         // When
@@ -150,4 +179,145 @@ class ProductRepositoryTest {
         assertEquals(1, lowStock.size());
         assertEquals(laptop.getId(), lowStock.get(0).getId());
     }
+
+    @Test
+    void testKeysetPagesByPrice() {
+        // Given
+        CursorRequest firstPage = CursorRequest.first(ProductSort.PRICE, 2);
+
+        // When
+        Window<Product> first = productRepository.findAllBy(firstPage.position(), firstPage.sort(), firstPage.limit());
+        CursorRequest secondPage = CursorRequest.of(firstPage.nextCursor(first).orElseThrow(), ProductSort.PRICE, 2);
+        Window<Product> second = productRepository.findAllBy(secondPage.position(), secondPage.sort(), secondPage.limit());
+
+        // Then
+        assertEquals(List.of(tshirt.getId(), smartphone.getId()), first.map(Product::getId).getContent());
+        assertTrue(first.hasNext());
+        assertEquals(List.of(laptop.getId()), second.map(Product::getId).getContent());
+        assertFalse(second.hasNext());
+        assertTrue(secondPage.nextCursor(second).isEmpty());
+    }
+
+    @Test
+    void testKeysetPagesWithFilter() {
+        // Given
+        CursorRequest firstPage = CursorRequest.first(ProductSort.NAME, 1);
+
+        // When
+        Window<Product> first = productRepository.findByCategoryId(
+                electronicsCategory.getId(), firstPage.position(), firstPage.sort(), firstPage.limit());
+        CursorRequest secondPage = CursorRequest.of(firstPage.nextCursor(first).orElseThrow(), ProductSort.NAME, 1);
+        Window<Product> second = productRepository.findByCategoryId(
+                electronicsCategory.getId(), secondPage.position(), secondPage.sort(), secondPage.limit());
+
+        // Then
+        assertEquals("Laptop", first.getContent().get(0).getName());
+        assertEquals("Smartphone", second.getContent().get(0).getName());
+        assertFalse(second.hasNext());
+    }
+
+    @Test
+    void testConditionalStockDecrement() {
+        // When
+        int applied = productRepository.decrementStock(laptop.getId(), 30, LocalDateTime.now());
+        int rejected = productRepository.decrementStock(smartphone.getId(), 51, LocalDateTime.now());
+        int missing = productRepository.decrementStock(-1L, 1, LocalDateTime.now());
+
+        // Then
+        assertEquals(1, applied);
+        assertEquals(0, rejected);
+        assertEquals(0, missing);
+        assertEquals(0, productRepository.findStockQuantityById(laptop.getId()).orElseThrow());
+        assertEquals(50, productRepository.findStockQuantityById(smartphone.getId()).orElseThrow());
+    }
+
+    @Test
+    void testConditionalStockIncrement() {
+        // When
+        int applied = productRepository.incrementStock(laptop.getId(), 5, Integer.MAX_VALUE, LocalDateTime.now());
+        int overflowing = productRepository.incrementStock(smartphone.getId(), Integer.MAX_VALUE - 10,
+                Integer.MAX_VALUE, LocalDateTime.now());
+        int missing = productRepository.incrementStock(-1L, 1, Integer.MAX_VALUE, LocalDateTime.now());
+
+        // Then
+        assertEquals(1, applied);
+        assertEquals(0, overflowing);
+        assertEquals(0, missing);
+        assertEquals(35, productRepository.findStockQuantityById(laptop.getId()).orElseThrow());
+        assertEquals(50, productRepository.findStockQuantityById(smartphone.getId()).orElseThrow());
+    }
+
+    @Test
+    void testKeysetPageFetchesCategoriesInSameStatement() {
+        // Given
+        entityManager.clear();
+        Statistics statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+        CursorRequest page = CursorRequest.first(ProductSort.PRICE, 10);
+
+        // When
+        List<ProductView> views = productRepository.findAllBy(page.position(), page.sort(), page.limit())
+                .map(ProductView::from)
+                .getContent();
+
+        // Then
+        assertEquals(List.of("Clothing", "Electronics", "Electronics"),
+                views.stream().map(view -> view.category().name()).toList());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void testSpecificationPagesFetchCategoriesInSameStatement() {
+        // Given
+        entityManager.clear();
+        Statistics statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+        ProductQuery query = new ProductQuery("T", List.of(electronicsCategory.getId(), clothingCategory.getId()),
+                new BigDecimal("10.00"), new BigDecimal("1000.00"), 40, null, LocalDateTime.now().minusDays(1));
+        CursorRequest page = CursorRequest.first(ProductSort.PRICE, 10);
+
+        // When
+        List<ProductView> views = productRepository.findBy(
+                        ProductSpecifications.matching(query).and(ProductSpecifications.fetchingCategory()),
+                        fluent -> fluent.sortBy(page.sort()).limit(page.size()).scroll(page.position()))
+                .map(ProductView::from)
+                .getContent();
+
+        // Then
+        assertEquals(List.of("T-Shirt", "Smartphone"), views.stream().map(ProductView::name).toList());
+        assertEquals(List.of("Clothing", "Electronics"), views.stream().map(view -> view.category().name()).toList());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void testSpecificationEscapesLikeWildcards() {
+        // Given
+        ProductQuery query = new ProductQuery("%", null, null, null, null, null, null);
+
+        // When
+        List<Product> products = productRepository.findAll(ProductSpecifications.matching(query));
+
+        // Then
+        assertTrue(products.isEmpty());
+    }
+
+    @Test
+    void testFacetCounts() {
+        // Given
+        ProductQuery query = new ProductQuery(null, null, null, null, 40, null, null);
+        ProductQuery all = new ProductQuery(null, null, null, null, null, null, null);
+
+        // When
+        Map<Long, Long> byCategory = productRepository.countByCategory(ProductSpecifications.matching(query));
+        long[] belowPrices = productRepository.countBelowPrices(ProductSpecifications.matching(all),
+                List.of(new BigDecimal("100"), new BigDecimal("1000")));
+
+        // Then
+        assertEquals(Map.of(electronicsCategory.getId(), 1L, clothingCategory.getId(), 1L), byCategory);
+        assertArrayEquals(new long[]{1, 2, 3}, belowPrices);
+    }
 }
@@ -0,0 +1,71 @@
+package com.example.windsurfspringapp.search;
+
+import com.example.windsurfspringapp.dto.ProductSnapshot;
+import com.example.windsurfspringapp.event.ProductChangedEvent;
+import com.example.windsurfspringapp.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ProductPriceIndexTest {
+
+    private static final LocalDateTime LOADED_AT = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ProductPriceIndex index;
+
+    @BeforeEach
+    void setUp() {
+        when(productRepository.streamSnapshotsBy()).thenReturn(Stream.of(snapshot(1L, "10.00", LOADED_AT)));
+        index = new ProductPriceIndex(productRepository, transactionManager, true);
+        index.rebuild();
+    }
+
+    @Test
+    void testOlderPriceDeliveredLateIsIgnored() {
+        // Given
+        ProductSnapshot older = snapshot(1L, "20.00", LOADED_AT.plusSeconds(1));
+        ProductSnapshot newer = snapshot(1L, "30.00", LOADED_AT.plusSeconds(2));
+
+        // When
+        index.onProductChanged(ProductChangedEvent.updated(older, newer));
+        index.onProductChanged(ProductChangedEvent.updated(snapshot(1L, "10.00", LOADED_AT), older));
+
+        // Then
+        assertArrayEquals(new long[] {1L}, index.range(3000, 3000));
+        assertEquals(1, index.count(Long.MIN_VALUE, Long.MAX_VALUE));
+    }
+
+    @Test
+    void testUpdateDeliveredAfterDeleteDoesNotRestoreProduct() {
+        // Given
+        ProductSnapshot updated = snapshot(1L, "20.00", LOADED_AT.plusSeconds(1));
+
+        // When
+        index.onProductChanged(ProductChangedEvent.deleted(updated));
+        index.onProductChanged(ProductChangedEvent.updated(snapshot(1L, "10.00", LOADED_AT), updated));
+
+        // Then
+        assertEquals(0, index.count(Long.MIN_VALUE, Long.MAX_VALUE));
+    }
+
+    private static ProductSnapshot snapshot(Long id, String price, LocalDateTime updatedAt) {
+        return new ProductSnapshot(id, "Product " + id, new BigDecimal(price), 10, null, updatedAt);
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.windsurfspringapp.search;
+
+import com.example.windsurfspringapp.dto.ProductSnapshot;
+import com.example.windsurfspringapp.event.ProductChangedEvent;
+import com.example.windsurfspringapp.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ProductSearchIndexTest {
+
+    private static final LocalDateTime LOADED_AT = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ProductSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        when(productRepository.streamSnapshotsBy()).thenReturn(Stream.of(snapshot("Laptop", LOADED_AT)));
+        index = new ProductSearchIndex(productRepository, transactionManager, true);
+        index.rebuild();
+    }
+
+    @Test
+    void testOlderUpdateDeliveredLateIsIgnored() {
+        // Given
+        ProductSnapshot newer = snapshot("Gaming Laptop", LOADED_AT.plusSeconds(2));
+        ProductSnapshot older = snapshot("Office Laptop", LOADED_AT.plusSeconds(1));
+
+        // When
+        index.onProductChanged(ProductChangedEvent.updated(older, newer));
+        index.onProductChanged(ProductChangedEvent.updated(snapshot("Laptop", LOADED_AT), older));
+
+        // Then
+        assertArrayEquals(new long[] {1L}, index.search("gaming"));
+        assertEquals(0, index.search("office").length);
+    }
+
+    @Test
+    void testUpdateDeliveredAfterDeleteDoesNotRestoreProduct() {
+        // Given
+        ProductSnapshot updated = snapshot("Gaming Laptop", LOADED_AT.plusSeconds(1));
+
+        // When
+        index.onProductChanged(ProductChangedEvent.deleted(updated));
+        index.onProductChanged(ProductChangedEvent.updated(snapshot("Laptop", LOADED_AT), updated));
+
+        // Then
+        assertEquals(0, index.search("laptop").length);
+    }
+
+    private static ProductSnapshot snapshot(String name, LocalDateTime updatedAt) {
+        return new ProductSnapshot(1L, name, new BigDecimal("999.99"), 10, null, updatedAt);
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.windsurfspringapp.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SortedPriceIndexTest {
+
+    private SortedPriceIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = SortedPriceIndex.of(new long[] {59999, 1999, 129999, 1999}, new long[] {1L, 4L, 2L, 3L}, 4);
+    }
+
+    @Test
+    void testRangeIsOrderedByPriceThenId() {
+        assertArrayEquals(new long[] {3L, 4L, 1L}, index.range(1999, 59999));
+        assertArrayEquals(new long[0], index.range(2000, 59998));
+        assertEquals(4, index.count(Long.MIN_VALUE, Long.MAX_VALUE));
+    }
+
+    @Test
+    void testPageContinuesAfterPosition() {
+        // When
+        SortedPriceIndex.Slice first = index.page(0, 200000, 0, null, 2);
+        SortedPriceIndex.Slice second = index.page(0, 200000, 1999, 4L, 2);
+
+        // Then
+        assertArrayEquals(new long[] {3L, 4L}, first.ids());
+        assertTrue(first.hasNext());
+        assertArrayEquals(new long[] {1L, 2L}, second.ids());
+        assertFalse(second.hasNext());
+    }
+
+    @Test
+    void testPutMovesAndRemoveDeletes() {
+        // When
+        index.put(2L, 999);
+        index.remove(3L);
+        index.put(5L, 59999);
+
+        // Then
+        assertArrayEquals(new long[] {2L, 4L, 1L, 5L}, index.range(Long.MIN_VALUE, Long.MAX_VALUE));
+        assertArrayEquals(new long[] {4L, 1L}, index.retainInRange(new long[] {4L, 3L, 1L, 2L}, 1000, 60000));
+        assertEquals(4, index.size());
+    }
+
+    @Test
+    void testPutAllMergesNewAndReplacesExistingPrices() {
+        // When
+        index.putAll(new long[] {7L, 2L, 6L, 7L, 4L}, new long[] {1999, 999, 250000, 500, 1999}, 5);
+
+        // Then
+        assertArrayEquals(new long[] {7L, 2L, 3L, 4L, 1L, 6L}, index.range(Long.MIN_VALUE, Long.MAX_VALUE));
+        assertArrayEquals(new long[] {7L}, index.range(500, 500));
+        assertEquals(6, index.size());
+    }
+
+    @Test
+    void testBulkBuildMatchesIncrementalInserts() {
+        // Given
+        Random random = new Random(7);
+        int size = 5_000;
+        long[] cents = new long[size];
+        long[] ids = new long[size];
+        SortedPriceIndex incremental = new SortedPriceIndex();
+        for (int i = 0; i < size; i++) {
+            cents[i] = random.nextInt(500);
+            ids[i] = i + 1;
+            incremental.put(ids[i], cents[i]);
+        }
+
+        // When
+        SortedPriceIndex bulk = SortedPriceIndex.of(cents, ids, size);
+
+        // Then
+        assertArrayEquals(incremental.range(100, 200), bulk.range(100, 200));
+        assertTrue(Arrays.equals(incremental.range(Long.MIN_VALUE, Long.MAX_VALUE),
+                bulk.range(Long.MIN_VALUE, Long.MAX_VALUE)));
+    }
+
+    @Test
+    void testCentBoundsRoundInward() {
+        assertEquals(1000, ProductPriceIndex.lowerBoundCents(new BigDecimal("9.999")));
+        assertEquals(999, ProductPriceIndex.upperBoundCents(new BigDecimal("9.999")));
+        assertEquals(59999, ProductPriceIndex.toCents(new BigDecimal("599.99")));
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.windsurfspringapp.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TrigramIndexTest {
+
+    private TrigramIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new TrigramIndex();
+        index.put(3L, "Smartphone");
+        index.put(1L, "Wireless Headphones");
+        index.put(2L, "Laptop");
+    }
+
+    @Test
+    void testSearchIsCaseInsensitiveAndOrderedById() {
+        // When
+        long[] matches = index.search("PHONE");
+
+        // Then
+        assertArrayEquals(new long[] {1L, 3L}, matches);
+    }
+
+    @Test
+    void testSearchDropsCandidatesThatOnlyShareTrigrams() {
+        // Given
+        index.put(4L, "bcdab");
+
+        // When
+        long[] matches = index.search("abcd");
+
+        // Then
+        assertEquals(0, matches.length);
+    }
+
+    @Test
+    void testShortQueriesScanIndexedText() {
+        // When
+        long[] matches = index.search("la");
+
+        // Then
+        assertArrayEquals(new long[] {2L}, matches);
+        assertEquals(3, index.search("").length);
+    }
+
+    @Test
+    void testPutReplacesAndRemoveDeletes() {
+        // When
+        index.put(3L, "Tablet");
+        index.remove(2L);
+
+        // Then
+        assertArrayEquals(new long[] {1L}, index.search("phone"));
+        assertArrayEquals(new long[] {3L}, index.search("tab"));
+        assertEquals(0, index.search("laptop").length);
+        assertEquals(2, index.size());
+    }
+}
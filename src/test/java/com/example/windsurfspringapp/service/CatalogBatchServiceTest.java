@@ -0,0 +1,264 @@
+package com.example.windsurfspringapp.service;
+
+import com.example.windsurfspringapp.dto.BatchItemResult;
+import com.example.windsurfspringapp.dto.BatchItemResult.Status;
+import com.example.windsurfspringapp.dto.StockSyncResult;
+import com.example.windsurfspringapp.inventory.StockLedger;
+import com.example.windsurfspringapp.model.Category;
+import com.example.windsurfspringapp.model.Product;
+import com.example.windsurfspringapp.repository.ProductRepository;
+import com.example.windsurfspringapp.service.impl.CatalogBatchServiceImpl;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doCallRealMethod;
+
+@DataJpaTest
+@Import({CatalogBatchServiceImpl.class, StockLedger.class})
+@TestPropertySource(properties = "catalog.batch.chunk-size=2")
+class CatalogBatchServiceTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CatalogBatchService catalogBatchService;
+
+    @SpyBean
+    private JdbcTemplate jdbcTemplate;
+
+    private Category electronics;
+    private Product smartphone;
+
+    @BeforeEach
+    void setUp() {
+        electronics = new Category("Electronics", "Electronic devices");
+        entityManager.persist(electronics);
+
+        smartphone = new Product("Smartphone", "Latest model", new BigDecimal("599.99"), 50);
+        smartphone.setCategory(electronics);
+        entityManager.persist(smartphone);
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void testSaveProductsAcrossChunks() {
+        // Given
+        List<Product> batch = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            Product product = new Product("Cable " + i, "USB cable", new BigDecimal("9.99"), 100 + i);
+            product.setCategory(categoryReference(electronics.getId()));
+            batch.add(product);
+        }
+
+        // When
+        List<BatchItemResult> results = catalogBatchService.saveProducts(batch);
+
+        // Then
+        assertEquals(5, results.size());
+        for (int i = 0; i < 5; i++) {
+            assertEquals(i, results.get(i).index());
+            assertEquals(Status.CREATED, results.get(i).status());
+            Product saved = productRepository.findById(results.get(i).id()).orElseThrow();
+            assertEquals("Cable " + i, saved.getName());
+            assertEquals(electronics.getId(), saved.getCategory().getId());
+        }
+    }
+
+    @Test
+    void testSaveProductsReportsFailuresPerItem() {
+        // Given
+        Product update = new Product("Smartphone X", "Updated model", new BigDecimal("649.99"), 40);
+        update.setId(smartphone.getId());
+
+        Product missing = new Product("Ghost", "Does not exist", new BigDecimal("1.00"), 1);
+        missing.setId(Long.MAX_VALUE);
+
+        Product invalid = new Product("", "No name", new BigDecimal("1.00"), 1);
+
+        Product unknownCategory = new Product("Orphan", "Unknown category", new BigDecimal("1.00"), 1);
+        unknownCategory.setCategory(categoryReference(Long.MAX_VALUE));
+
+        // When
+        List<BatchItemResult> results = catalogBatchService.saveProducts(
+                List.of(update, missing, invalid, unknownCategory));
+
+        // Then
+        assertEquals(Status.UPDATED, results.get(0).status());
+        assertEquals(Status.FAILED, results.get(1).status());
+        assertEquals(Status.FAILED, results.get(2).status());
+        assertEquals("Name is required", results.get(2).error());
+        assertEquals(Status.FAILED, results.get(3).status());
+
+        Product updated = productRepository.findById(smartphone.getId()).orElseThrow();
+        assertEquals("Smartphone X", updated.getName());
+        assertEquals(40, updated.getStockQuantity());
+        assertNull(updated.getCategory());
+    }
+
+    @Test
+    void testSaveCategoriesRejectsDuplicateNames() {
+        // When
+        List<BatchItemResult> results = catalogBatchService.saveCategories(List.of(
+                new Category("Books", "Printed books"),
+                new Category("books", "Duplicate in batch"),
+                new Category("ELECTRONICS", "Existing name"),
+                new Category("Toys", "Games and toys")));
+
+        // Then
+        assertEquals(Status.CREATED, results.get(0).status());
+        assertEquals(Status.FAILED, results.get(1).status());
+        assertEquals(Status.FAILED, results.get(2).status());
+        assertEquals(Status.CREATED, results.get(3).status());
+        assertNotNull(results.get(3).id());
+    }
+
+    @Test
+    void testSaveCategoriesReservesOnlyNamesThatWereWritten() {
+        // Given
+        Category missing = new Category("Books", "Does not exist");
+        missing.setId(Long.MAX_VALUE);
+
+        // When
+        List<BatchItemResult> results = catalogBatchService.saveCategories(List.of(
+                missing,
+                new Category("Books", "Printed books"),
+                new Category("BOOKS", "Duplicate of a committed chunk")));
+
+        // Then
+        assertEquals(Status.FAILED, results.get(0).status());
+        assertEquals(Status.CREATED, results.get(1).status());
+        assertEquals(Status.FAILED, results.get(2).status());
+        assertEquals("Duplicate category name 'BOOKS' in batch", results.get(2).error());
+    }
+
+    @Test
+    void testSyncStockLevelsAcrossChunks() throws IOException {
+        // Given
+        Product laptop = new Product("Laptop", "High performance", new BigDecimal("1299.99"), 30);
+        Product tablet = new Product("Tablet", "10 inch", new BigDecimal("399.99"), 20);
+        entityManager.persist(laptop);
+        entityManager.persist(tablet);
+        entityManager.flush();
+        entityManager.clear();
+        String levels = "[{\"id\": " + smartphone.getId() + ", \"quantity\": 10},"
+                + " {\"id\": " + laptop.getId() + ", \"quantity\": 30, \"sku\": \"LP-1\"},"
+                + " {\"id\": " + Long.MAX_VALUE + ", \"quantity\": 5},"
+                + " {\"id\": " + tablet.getId() + ", \"quantity\": -1},"
+                + " {\"quantity\": 7},"
+                + " {\"id\": " + smartphone.getId() + ", \"quantity\": 45}]";
+
+        // When
+        StockSyncResult result = catalogBatchService.syncStockLevels(json(levels), 100);
+
+        // Then
+        assertEquals(6, result.received());
+        assertEquals(1, result.updated());
+        assertEquals(1, result.unchanged());
+        assertEquals(List.of(Long.MAX_VALUE), result.unknownIds());
+        assertEquals(2, result.rejected().size());
+        assertEquals(3, result.rejected().get(0).index());
+        assertEquals(tablet.getId(), result.rejected().get(0).id());
+        assertEquals(4, result.rejected().get(1).index());
+
+        assertEquals(45, productRepository.findById(smartphone.getId()).orElseThrow().getStockQuantity());
+        assertEquals(30, productRepository.findById(laptop.getId()).orElseThrow().getStockQuantity());
+        assertEquals(20, productRepository.findById(tablet.getId()).orElseThrow().getStockQuantity());
+    }
+
+    @Test
+    void testSyncStockLevelsRejectsQuantitiesOutOfIntRange() throws IOException {
+        // Given
+        String levels = "[{\"id\": " + smartphone.getId() + ", \"quantity\": 2147483648},"
+                + " {\"id\": " + smartphone.getId() + ", \"quantity\": 99999999999999999999},"
+                + " {\"id\": 99999999999999999999, \"quantity\": 5}]";
+
+        // When
+        StockSyncResult result = catalogBatchService.syncStockLevels(json(levels), 100);
+
+        // Then
+        assertEquals(3, result.received());
+        assertEquals(0, result.updated());
+        assertEquals(3, result.rejected().size());
+        assertEquals(smartphone.getId(), result.rejected().get(0).id());
+        assertEquals("Quantity must be at most 2147483647", result.rejected().get(0).error());
+        assertEquals("Quantity must be at most 2147483647", result.rejected().get(1).error());
+        assertEquals("ID must be a positive integer", result.rejected().get(2).error());
+        assertEquals(50, productRepository.findById(smartphone.getId()).orElseThrow().getStockQuantity());
+    }
+
+    @Test
+    void testSyncStockLevelsReportsFailedChunks() throws IOException {
+        // Given
+        Product laptop = new Product("Laptop", "High performance", new BigDecimal("1299.99"), 30);
+        Product tablet = new Product("Tablet", "10 inch", new BigDecimal("399.99"), 20);
+        entityManager.persist(laptop);
+        entityManager.persist(tablet);
+        entityManager.flush();
+        entityManager.clear();
+        doCallRealMethod()
+                .doThrow(new DataAccessResourceFailureException("Connection lost"))
+                .when(jdbcTemplate).batchUpdate(anyString(), anyList());
+        String levels = "[{\"id\": " + smartphone.getId() + ", \"quantity\": 10},"
+                + " {\"id\": " + laptop.getId() + ", \"quantity\": 25},"
+                + " {\"id\": " + tablet.getId() + ", \"quantity\": 15}]";
+
+        // When
+        StockSyncResult result = catalogBatchService.syncStockLevels(json(levels), 100);
+
+        // Then
+        assertEquals(2, result.updated());
+        assertEquals(List.of(tablet.getId()), result.failedIds());
+        assertEquals(10, productRepository.findById(smartphone.getId()).orElseThrow().getStockQuantity());
+        assertEquals(25, productRepository.findById(laptop.getId()).orElseThrow().getStockQuantity());
+        assertEquals(20, productRepository.findById(tablet.getId()).orElseThrow().getStockQuantity());
+    }
+
+    @Test
+    void testSyncStockLevelsRejectsMalformedInputBeforeWriting() {
+        // Given
+        String truncated = "[{\"id\": " + smartphone.getId() + ", \"quantity\": 10}, {\"id\": ";
+        String tooMany = "[{\"id\": " + smartphone.getId() + ", \"quantity\": 10}, {\"id\": 2, \"quantity\": 1}]";
+
+        // When / Then
+        assertThrows(JsonProcessingException.class, () -> catalogBatchService.syncStockLevels(json(truncated), 100));
+        assertThrows(JsonProcessingException.class, () -> catalogBatchService.syncStockLevels(json("{}"), 100));
+        assertThrows(JsonProcessingException.class, () -> catalogBatchService.syncStockLevels(json(tooMany), 1));
+        assertEquals(50, productRepository.findById(smartphone.getId()).orElseThrow().getStockQuantity());
+    }
+
+    private static InputStream json(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Category categoryReference(Long id) {
+        Category category = new Category();
+        category.setId(id);
+        return category;
+    }
+}
@@ -0,0 +1,146 @@
+package com.example.windsurfspringapp.service;
+
+import com.example.windsurfspringapp.cache.SecondLevelCacheRegions;
+import com.example.windsurfspringapp.config.CacheConfig;
+import com.example.windsurfspringapp.dto.SnapshotSummary;
+import com.example.windsurfspringapp.model.Category;
+import com.example.windsurfspringapp.model.Product;
+import com.example.windsurfspringapp.repository.CategoryRepository;
+import com.example.windsurfspringapp.repository.ProductRepository;
+import com.example.windsurfspringapp.service.impl.CatalogSnapshotServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Import({CatalogSnapshotServiceImpl.class, CacheConfig.class, SecondLevelCacheRegions.class})
+@TestPropertySource(properties = "catalog.snapshot.chunk-size=2")
+class CatalogSnapshotServiceTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private CatalogSnapshotService catalogSnapshotService;
+
+    @TempDir
+    private Path tempDir;
+
+    private Category electronics;
+    private Product laptop;
+    private Product cable;
+    private Product sticker;
+
+    @BeforeEach
+    void setUp() {
+        electronics = entityManager.persist(new Category("Electronics", "Électronique & gadgets"));
+        entityManager.persist(new Category("Books", null));
+        laptop = new Product("Laptop", "Portable", new BigDecimal("1299.99"), 3);
+        laptop.setCategory(electronics);
+        cable = new Product("Cable", null, new BigDecimal("0.50"), 100);
+        cable.setCategory(electronics);
+        sticker = new Product("Sticker", "Uncategorized", new BigDecimal("1.00"), 0);
+        entityManager.persist(laptop);
+        entityManager.persist(cable);
+        entityManager.persist(sticker);
+        entityManager.flush();
+        entityManager.clear();
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+    }
+
+    @Test
+    void testRestoreSnapshotReloadsCatalogAndWarmsCaches() throws IOException {
+        // Given
+        Path file = tempDir.resolve("catalog.snapshot");
+        cacheManager.getCache(CacheConfig.PRODUCTS).put(laptop.getId(), laptop);
+        cacheManager.getCache(CacheConfig.CATEGORIES).put(electronics.getId(), electronics);
+        List<Product> before = productRepository.findAll();
+        SnapshotSummary written = catalogSnapshotService.writeSnapshot(file);
+        productRepository.deleteAllInBatch();
+        categoryRepository.deleteAllInBatch();
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+
+        // When
+        Optional<SnapshotSummary> restored = catalogSnapshotService.restoreSnapshot(file);
+
+        // Then
+        assertEquals(2, written.categories());
+        assertEquals(3, written.products());
+        assertEquals(Files.size(file), written.bytes());
+        assertTrue(restored.isPresent());
+        assertEquals(3, restored.get().products());
+        assertEquals(1, restored.get().cachedProducts());
+        assertEquals(1, restored.get().cachedCategories());
+
+        entityManager.clear();
+        List<Product> after = productRepository.findAll();
+        assertEquals(before.size(), after.size());
+        for (int i = 0; i < before.size(); i++) {
+            Product expected = before.get(i);
+            Product actual = after.get(i);
+            assertEquals(expected.getId(), actual.getId());
+            assertEquals(expected.getName(), actual.getName());
+            assertEquals(expected.getDescription(), actual.getDescription());
+            assertEquals(expected.getPrice(), actual.getPrice());
+            assertEquals(expected.getStockQuantity(), actual.getStockQuantity());
+            assertEquals(expected.getCreatedAt(), actual.getCreatedAt());
+            assertEquals(expected.getUpdatedAt(), actual.getUpdatedAt());
+        }
+        assertEquals("Électronique & gadgets", categoryRepository.findById(electronics.getId()).orElseThrow().getDescription());
+        assertNull(productRepository.findById(sticker.getId()).orElseThrow().getCategory());
+
+        Cache productCache = cacheManager.getCache(CacheConfig.PRODUCTS);
+        Product cached = productCache.get(laptop.getId(), Product.class);
+        assertNotNull(cached);
+        assertEquals(new BigDecimal("1299.99"), cached.getPrice());
+        assertEquals("Electronics", cached.getCategory().getName());
+        assertNull(productCache.get(cable.getId()));
+
+        // IDs handed out after the restore never collide with restored ones
+        Product mug = entityManager.persistAndFlush(new Product("Mug", "Ceramic", new BigDecimal("8.00"), 5));
+        assertTrue(mug.getId() > sticker.getId());
+    }
+
+    @Test
+    void testRestoreSnapshotOnlyIntoEmptyCatalog() throws IOException {
+        // Given
+        Path file = tempDir.resolve("catalog.snapshot");
+        catalogSnapshotService.writeSnapshot(file);
+        Path corrupt = tempDir.resolve("corrupt.snapshot");
+        Files.writeString(corrupt, "not a snapshot");
+
+        // When / Then
+        assertTrue(catalogSnapshotService.restoreSnapshot(tempDir.resolve("missing.snapshot")).isEmpty());
+        assertTrue(catalogSnapshotService.restoreSnapshot(file).isEmpty());
+        assertEquals(3, productRepository.count());
+
+        productRepository.deleteAllInBatch();
+        categoryRepository.deleteAllInBatch();
+        assertThrows(IOException.class, () -> catalogSnapshotService.restoreSnapshot(corrupt));
+    }
+}
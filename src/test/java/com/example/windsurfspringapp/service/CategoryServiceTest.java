@@ -1,7 +1,14 @@
 package com.example.windsurfspringapp.service;
 
+import com.example.windsurfspringapp.cache.SecondLevelCacheRegions;
+import com.example.windsurfspringapp.counter.CategoryProductCounters;
+import com.example.windsurfspringapp.counter.CategoryStatistics;
+import com.example.windsurfspringapp.dto.CategoryStats;
 import com.example.windsurfspringapp.model.Category;
+import com.example.windsurfspringapp.paging.CategorySort;
+import com.example.windsurfspringapp.paging.CursorRequest;
 import com.example.windsurfspringapp.repository.CategoryRepository;
+import com.example.windsurfspringapp.search.CategorySearchIndex;
 import com.example.windsurfspringapp.service.impl.CategoryServiceImpl;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -9,7 +16,10 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Window;
 
+import java.math.BigDecimal;
 import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -22,6 +32,21 @@ class CategoryServiceTest {
     @Mock
     private CategoryRepository categoryRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private CategorySearchIndex searchIndex;
+
+    @Mock
+    private CategoryProductCounters productCounters;
+
+    @Mock
+    private CategoryStatistics statistics;
+
+    @Mock
+    private SecondLevelCacheRegions secondLevelCache;
+
     @InjectMocks
     private CategoryServiceImpl categoryService;
 
@@ -98,7 +123,7 @@ class CategoryServiceTest {
     void testSaveCategory() {
         // Given
         Category newCategory = new Category("Books", "Books and publications");
-        when(categoryRepository.save(any(Category.class))).thenReturn(newCategory);
+        when(categoryRepository.saveAndFlush(any(Category.class))).thenReturn(newCategory);
 
         // When
         Category savedCategory = categoryService.saveCategory(newCategory);
@@ -106,7 +131,7 @@ class CategoryServiceTest {
         // Then
         assertNotNull(savedCategory);
         assertEquals("Books", savedCategory.getName());
-        verify(categoryRepository, times(1)).save(newCategory);
+        verify(categoryRepository, times(1)).saveAndFlush(newCategory);
     }
 
     @Test
@@ -126,6 +151,28 @@ class CategoryServiceTest {
         
         verify(categoryRepository, times(1)).deleteById(1L);
         verify(categoryRepository, never()).deleteById(3L);
+        verify(secondLevelCache).evictCategoryProducts(List.of(1L));
+    }
+
+    @Test
+    void testSearchCategoriesByNameFallsBackToQueryForBroadMatches() {
+        // Given
+        CursorRequest page = CursorRequest.first(CategorySort.NAME, 10);
+        long[] ids = new long[1001];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = i + 1;
+        }
+        when(searchIndex.isReady()).thenReturn(true);
+        when(searchIndex.search("e")).thenReturn(ids);
+        when(categoryRepository.findByNameContainingIgnoreCase(eq("e"), any(), any(), any()))
+                .thenReturn(Window.from(List.of(category1), position -> null));
+
+        // When
+        Window<Category> window = categoryService.searchCategoriesByName("e", page);
+
+        // Then
+        assertEquals(List.of(category1), window.getContent());
+        verify(categoryRepository, never()).findByIdIn(anyCollection(), any(), any(), any());
     }
 
     @Test
@@ -155,6 +202,20 @@ class CategoryServiceTest {
         verify(categoryRepository, times(1)).findCategoriesWithProducts();
     }
 
+    @Test
+    void testGetCategoryProductCountsFromCounters() {
+        // Given
+        when(productCounters.isReady()).thenReturn(true);
+        when(productCounters.snapshot()).thenReturn(Map.of(1L, 5L, 2L, 3L));
+
+        // When
+        Map<Long, Long> countMap = categoryService.getCategoryProductCounts();
+
+        // Then
+        assertEquals(Map.of(1L, 5L, 2L, 3L), countMap);
+        verify(categoryRepository, never()).findCategoriesWithProductCount();
+    }
+
     @Test
     void testGetCategoryProductCounts() {
         // Given
@@ -170,6 +231,25 @@ class CategoryServiceTest {
         verify(categoryRepository, times(1)).findCategoriesWithProductCount();
     }
 
+    @Test
+    void testGetCategoryStatisticsFallsBackToGroupedQuery() {
+        // Given
+        when(categoryRepository.aggregateProductsByCategory()).thenReturn(List.of(
+                new Object[]{2L, 0L, null, null, null, null, null},
+                new Object[]{1L, 2L, new BigDecimal("30.00"), new BigDecimal("10.00"), new BigDecimal("20.00"),
+                        5L, new BigDecimal("70.00")}));
+
+        // When
+        List<CategoryStats> stats = categoryService.getCategoryStatistics();
+
+        // Then
+        assertEquals(List.of(
+                new CategoryStats(1L, 2, new BigDecimal("10.00"), new BigDecimal("20.00"), new BigDecimal("15.00"),
+                        5, new BigDecimal("70.00")),
+                new CategoryStats(2L, 0, null, null, null, 0, new BigDecimal("0.00"))), stats);
+        verify(statistics, never()).snapshot();
+    }
+
     @Test
     void testCategoryExists() {
         // Given
@@ -0,0 +1,108 @@
+package com.example.windsurfspringapp.service;
+
+import com.example.windsurfspringapp.inventory.StockLedger;
+import com.example.windsurfspringapp.model.Category;
+import com.example.windsurfspringapp.model.Product;
+import com.example.windsurfspringapp.service.impl.ProductExportServiceImpl;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Import({ProductExportServiceImpl.class, StockLedger.class, JacksonAutoConfiguration.class})
+class ProductExportServiceTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ProductExportService productExportService;
+
+    private Product smartphone;
+    private Product tshirt;
+
+    @BeforeEach
+    void setUp() {
+        Category electronics = new Category("Electronics", "Electronic devices");
+        entityManager.persist(electronics);
+
+        smartphone = new Product("Smartphone", "Latest model, 128GB", new BigDecimal("599.99"), 50);
+        smartphone.setCategory(electronics);
+        entityManager.persist(smartphone);
+
+        tshirt = new Product("T-Shirt", "Says \"hello\"", new BigDecimal("19.99"), 200);
+        entityManager.persist(tshirt);
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void testExportNdjson() throws Exception {
+        // When
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long count = productExportService.exportProducts(ExportFormat.NDJSON, out);
+
+        // Then
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, count);
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].startsWith("{\"id\":" + smartphone.getId() + ",\"name\":\"Smartphone\""));
+        assertTrue(lines[0].contains("\"price\":599.99"));
+        assertTrue(lines[1].contains("\"categoryId\":null"));
+    }
+
+    @Test
+    void testExportNdjsonWritesMissingTimestampAsNull() throws Exception {
+        // Given
+        entityManager.getEntityManager()
+                .createNativeQuery("UPDATE products SET created_at = NULL WHERE id = :id")
+                .setParameter("id", tshirt.getId())
+                .executeUpdate();
+
+        // When
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        productExportService.exportProducts(ExportFormat.NDJSON, out);
+
+        // Then
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertTrue(lines[1].contains("\"createdAt\":null,\"updatedAt\":\""));
+        assertFalse(lines[1].contains("\"null\""));
+    }
+
+    @Test
+    void testExportCsv() throws Exception {
+        // When
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long count = productExportService.exportProducts(ExportFormat.CSV, out);
+
+        // Then
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, count);
+        assertEquals(3, lines.length);
+        assertEquals("id,name,description,price,stockQuantity,categoryId,createdAt,updatedAt", lines[0]);
+        assertTrue(lines[1].startsWith(smartphone.getId() + ",Smartphone,\"Latest model, 128GB\",599.99,50,"));
+        assertTrue(lines[2].startsWith(tshirt.getId() + ",T-Shirt,\"Says \"\"hello\"\"\",19.99,200,,"));
+    }
+
+    @Test
+    void testExportDetachesRows() throws Exception {
+        // When
+        productExportService.exportProducts(ExportFormat.NDJSON, new ByteArrayOutputStream());
+
+        // Then
+        assertEquals(0, entityManager.getEntityManager()
+                .unwrap(Session.class).getStatistics().getEntityCount());
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.windsurfspringapp.service;
+
+import com.example.windsurfspringapp.dto.ImportRowError;
+import com.example.windsurfspringapp.dto.ProductImportResult;
+import com.example.windsurfspringapp.model.Category;
+import com.example.windsurfspringapp.model.Product;
+import com.example.windsurfspringapp.repository.ProductRepository;
+import com.example.windsurfspringapp.service.impl.ProductImportServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Import(ProductImportServiceImpl.class)
+@TestPropertySource(properties = {
+        "catalog.import.chunk-size=2",
+        "catalog.import.parallelism=2",
+        "catalog.import.max-pending-chunks=1"
+})
+class ProductImportServiceTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductImportService productImportService;
+
+    private Category electronics;
+    private Category books;
+
+    @BeforeEach
+    void setUp() {
+        electronics = new Category("Electronics", "Electronic devices");
+        books = new Category("Books", "Printed books");
+        entityManager.persist(electronics);
+        entityManager.persist(books);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void testImportProductsAcrossChunks() throws IOException {
+        // Given
+        String csv = """
+                price,name,stockQuantity,category,description
+                9.99,Cable,100,electronics,USB cable
+                14.50,"Novel, Vol. 1",7,BOOKS,"A ""gripping"" story
+                over two lines"
+
+                1,Sticker,0,,
+                """;
+
+        // When
+        ProductImportResult result = productImportService.importProducts(csv(csv));
+
+        // Then
+        assertEquals(3, result.rows());
+        assertEquals(3, result.imported());
+        assertEquals(0, result.failed());
+        assertTrue(result.complete());
+
+        Map<String, Product> products = productsByName();
+        Product cable = products.get("Cable");
+        assertEquals(new BigDecimal("9.99"), cable.getPrice());
+        assertEquals(100, cable.getStockQuantity());
+        assertEquals(electronics.getId(), cable.getCategory().getId());
+        assertNotNull(cable.getCreatedAt());
+        Product novel = products.get("Novel, Vol. 1");
+        assertEquals("A \"gripping\" story\nover two lines", novel.getDescription());
+        assertEquals(books.getId(), novel.getCategory().getId());
+        Product sticker = products.get("Sticker");
+        assertNull(sticker.getDescription());
+        assertNull(sticker.getCategory());
+
+        // IDs come from the same generator as products saved through Hibernate
+        Product laptop = entityManager.persistAndFlush(new Product("Laptop", "Portable", new BigDecimal("999.00"), 3));
+        assertEquals(4, productRepository.findAll().stream().map(Product::getId).distinct().count());
+        assertNotNull(laptop.getId());
+    }
+
+    @Test
+    void testImportProductsReportsRowErrors() throws IOException {
+        // Given
+        String csv = "id,name,description,price,stockQuantity,categoryId,createdAt,updatedAt\n"
+                + "1,Cable,USB cable,9.99,100," + electronics.getId() + ",,\n"
+                + "2,,No name,1.00,1,,,\n"
+                + "3,Mug,Ceramic,abc,1,,,\n"
+                + "4,Lamp,Desk lamp,19.999,1,,,\n"
+                + "5,Ghost,Unknown category,1.00,1," + Long.MAX_VALUE + ",,\n"
+                + "6,Short,Missing fields\n"
+                + "7,Poster,Wall art,4.00,2," + books.getId() + ",,\n"
+                + "8,\"Unclosed,Broken quote,1.00,1,,,\n";
+
+        // When
+        ProductImportResult result = productImportService.importProducts(csv(csv));
+
+        // Then
+        assertEquals(8, result.rows());
+        assertEquals(2, result.imported());
+        assertEquals(6, result.failed());
+        assertEquals(List.of(
+                new ImportRowError(3, "Name is required"),
+                new ImportRowError(4, "Price must be a decimal number"),
+                new ImportRowError(5, "Price must have at most 2 decimal places"),
+                new ImportRowError(6, "Category " + Long.MAX_VALUE + " not found"),
+                new ImportRowError(7, "Expected 8 fields but found 3"),
+                new ImportRowError(9, "Unterminated quoted field")),
+                result.errors().stream().sorted((a, b) -> Long.compare(a.line(), b.line())).toList());
+        assertEquals(books.getId(), productsByName().get("Poster").getCategory().getId());
+    }
+
+    @Test
+    void testImportProductsRejectsInvalidHeader() {
+        // When / Then
+        CsvFormatException missingColumn = assertThrows(CsvFormatException.class,
+                () -> productImportService.importProducts(csv("name,stockQuantity\nCable,1\n")));
+        assertEquals(1, missingColumn.getLine());
+        assertThrows(CsvFormatException.class, () -> productImportService.importProducts(csv("")));
+        assertEquals(0, productRepository.count());
+    }
+
+    private Map<String, Product> productsByName() {
+        entityManager.clear();
+        return productRepository.findAll().stream().collect(Collectors.toMap(Product::getName, Function.identity()));
+    }
+
+    private static InputStream csv(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
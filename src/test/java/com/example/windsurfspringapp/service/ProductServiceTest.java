@@ -1,19 +1,40 @@
 package com.example.windsurfspringapp.service;
 
+import com.example.windsurfspringapp.dto.ProductFacets;
+import com.example.windsurfspringapp.dto.ProductQuery;
+import com.example.windsurfspringapp.dto.ProductSnapshot;
+import com.example.windsurfspringapp.dto.StockAdjustment;
+import com.example.windsurfspringapp.event.ChangeType;
+import com.example.windsurfspringapp.event.ProductChangedEvent;
+import com.example.windsurfspringapp.event.StockChangedEvent;
+import com.example.windsurfspringapp.inventory.LowStockWatcher;
+import com.example.windsurfspringapp.inventory.StockLedger;
 import com.example.windsurfspringapp.model.Category;
 import com.example.windsurfspringapp.model.Product;
 import com.example.windsurfspringapp.repository.ProductRepository;
+import com.example.windsurfspringapp.paging.CursorRequest;
+import com.example.windsurfspringapp.paging.ProductSort;
+import com.example.windsurfspringapp.search.ProductPriceIndex;
+import com.example.windsurfspringapp.search.ProductSearchIndex;
+import com.example.windsurfspringapp.search.SortedPriceIndex;
 import com.example.windsurfspringapp.service.impl.ProductServiceImpl;
+import com.example.windsurfspringapp.store.OffHeapProductStore;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Window;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -26,6 +47,27 @@ class ProductServiceTest {
     @Mock
     private ProductRepository productRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private ProductSearchIndex searchIndex;
+
+    @Mock
+    private ProductPriceIndex priceIndex;
+
+    @Mock
+    private StockLedger stockLedger;
+
+    @Mock
+    private LowStockWatcher lowStockWatcher;
+
+    @Mock
+    private OffHeapProductStore productStore;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
     @InjectMocks
     private ProductServiceImpl productService;
 
@@ -79,11 +121,30 @@ class ProductServiceTest {
         verify(productRepository, times(1)).findById(3L);
     }
 
+    @Test
+    void testFindProductsFromOffHeapStoreWhenReady() {
+        // Given
+        when(productStore.isReady()).thenReturn(true);
+        when(productStore.findById(1L)).thenReturn(Optional.of(product1));
+        when(searchIndex.isReady()).thenReturn(true);
+        when(searchIndex.search("o")).thenReturn(new long[] {1L, 2L});
+        when(productStore.findAllById(List.of(1L, 2L))).thenReturn(List.of(product2, product1));
+
+        // When
+        Optional<Product> found = productService.findProductById(1L);
+        List<Product> matches = productService.searchProductsByName("o");
+
+        // Then
+        assertEquals(product1, found.orElseThrow());
+        assertEquals(List.of(product1, product2), matches);
+        verifyNoInteractions(productRepository);
+    }
+
     @Test
     void testSaveProduct() {
         // Given
         Product newProduct = new Product("Tablet", "New tablet", new BigDecimal("399.99"), 20);
-        when(productRepository.save(any(Product.class))).thenReturn(newProduct);
+        when(productRepository.saveAndFlush(any(Product.class))).thenReturn(newProduct);
 
         // When
         Product savedProduct = productService.saveProduct(newProduct);
@@ -91,14 +152,14 @@ class ProductServiceTest {
         // Then
         assertNotNull(savedProduct);
         assertEquals("Tablet", savedProduct.getName());
-        verify(productRepository, times(1)).save(newProduct);
+        verify(productRepository, times(1)).saveAndFlush(newProduct);
     }
 
     @Test
     void testDeleteProduct() {
         // Given
-        when(productRepository.existsById(1L)).thenReturn(true);
-        when(productRepository.existsById(3L)).thenReturn(false);
+        when(productRepository.findSnapshotById(1L)).thenReturn(Optional.of(ProductSnapshot.from(product1)));
+        when(productRepository.findSnapshotById(3L)).thenReturn(Optional.empty());
         doNothing().when(productRepository).deleteById(anyLong());
 
         // When
@@ -111,6 +172,44 @@ class ProductServiceTest {
         
         verify(productRepository, times(1)).deleteById(1L);
         verify(productRepository, never()).deleteById(3L);
+        ArgumentCaptor<ProductChangedEvent> event = ArgumentCaptor.forClass(ProductChangedEvent.class);
+        verify(eventPublisher, times(1)).publishEvent(event.capture());
+        assertEquals(ChangeType.DELETED, event.getValue().type());
+        assertEquals(1L, event.getValue().productId());
+    }
+
+    @Test
+    void testSaveProductPublishesUpdateWithPreviousState() {
+        // Given
+        ProductSnapshot before = ProductSnapshot.from(product1);
+        product1.setName("Smartphone Pro");
+        when(productRepository.findSnapshotById(1L)).thenReturn(Optional.of(before));
+        when(productRepository.saveAndFlush(product1)).thenReturn(product1);
+
+        // When
+        productService.saveProduct(product1);
+
+        // Then
+        ArgumentCaptor<ProductChangedEvent> event = ArgumentCaptor.forClass(ProductChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(ChangeType.UPDATED, event.getValue().type());
+        assertEquals(before.name(), event.getValue().before().name());
+        assertEquals("Smartphone Pro", event.getValue().after().name());
+    }
+
+    @Test
+    void testSearchProductsByNameUsesIndexWhenReady() {
+        // Given
+        when(searchIndex.isReady()).thenReturn(true);
+        when(searchIndex.search("phone")).thenReturn(new long[] {1L, 2L});
+        when(productRepository.findWithCategoryByIdIn(List.of(1L, 2L))).thenReturn(List.of(product2, product1));
+
+        // When
+        List<Product> products = productService.searchProductsByName("phone");
+
+        // Then
+        assertEquals(List.of(product1, product2), products);
+        verify(productRepository, never()).findByNameContainingIgnoreCase(anyString());
     }
 
     @Test
@@ -187,6 +286,37 @@ class ProductServiceTest {
         verify(productRepository, times(1)).findLowStockProducts(threshold);
     }
 
+    @Test
+    void testFindLowStockProductsFromWatcher() {
+        // Given
+        when(lowStockWatcher.covers(10)).thenReturn(true);
+        when(lowStockWatcher.lowStockIds(10)).thenReturn(new long[] {2L});
+        when(productRepository.findWithCategoryByIdIn(anyCollection())).thenReturn(List.of(product2));
+
+        // When
+        List<Product> products = productService.findLowStockProducts(10);
+
+        // Then
+        assertEquals(List.of(product2), products);
+        verify(productRepository, never()).findLowStockProducts(anyInt());
+    }
+
+    @Test
+    void testFindLowStockProductsAsyncFlushesLedgerFirst() {
+        // Given
+        CursorRequest page = CursorRequest.first(ProductSort.ID, 10);
+        Window<Product> window = Window.from(List.of(product2), index -> page.position(), false);
+        when(productRepository.findByStockQuantityLessThan(40, page.position(), page.sort(), page.limit()))
+                .thenReturn(window);
+
+        // When
+        Window<Product> result = productService.findLowStockProductsAsync(40, page).join();
+
+        // Then
+        assertSame(window, result);
+        verify(stockLedger).flush();
+    }
+
     @Test
     void testUpdateProductStock() {
         // Given
@@ -196,7 +326,7 @@ class ProductServiceTest {
 
         when(productRepository.findById(1L)).thenReturn(Optional.of(product1));
         when(productRepository.findById(3L)).thenReturn(Optional.empty());
-        when(productRepository.save(any(Product.class))).thenReturn(updatedProduct);
+        when(productRepository.saveAndFlush(any(Product.class))).thenReturn(updatedProduct);
 
         // When
         Optional<Product> result1 = productService.updateProductStock(1L, 45);
@@ -209,6 +339,128 @@ class ProductServiceTest {
         
         verify(productRepository, times(1)).findById(1L);
         verify(productRepository, times(1)).findById(3L);
-        verify(productRepository, times(1)).save(any(Product.class));
+        verify(productRepository, times(1)).saveAndFlush(any(Product.class));
+    }
+
+    @Test
+    void testDecrementStock() {
+        // Given
+        when(productRepository.decrementStock(eq(1L), eq(5), any())).thenReturn(1);
+        when(productRepository.decrementStock(eq(2L), eq(5), any())).thenReturn(0);
+        when(productRepository.decrementStock(eq(3L), eq(5), any())).thenReturn(0);
+        when(productRepository.findStockQuantityById(1L)).thenReturn(Optional.of(45));
+        when(productRepository.findStockQuantityById(2L)).thenReturn(Optional.of(3));
+        when(productRepository.findStockQuantityById(3L)).thenReturn(Optional.empty());
+
+        // When
+        StockAdjustment applied = productService.decrementStock(1L, 5);
+        StockAdjustment insufficient = productService.decrementStock(2L, 5);
+        StockAdjustment missing = productService.decrementStock(3L, 5);
+
+        // Then
+        assertEquals(StockAdjustment.applied(1L, 45), applied);
+        assertEquals(StockAdjustment.insufficientStock(2L, 3), insufficient);
+        assertEquals(StockAdjustment.notFound(3L), missing);
+        ArgumentCaptor<LocalDateTime> now = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(productRepository).decrementStock(eq(1L), eq(5), now.capture());
+        verify(eventPublisher, times(1)).publishEvent(new StockChangedEvent(1L, 50, 45, now.getValue()));
+        verify(productRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void testDecrementStockOfHotProductUsesLedger() {
+        // Given
+        when(stockLedger.manages(1L)).thenReturn(true);
+        when(stockLedger.take(1L, 5)).thenReturn(StockAdjustment.applied(1L, 45));
+
+        // When
+        StockAdjustment adjustment = productService.decrementStock(1L, 5);
+
+        // Then
+        assertEquals(StockAdjustment.applied(1L, 45), adjustment);
+        verifyNoInteractions(productRepository, transactionManager);
+    }
+
+    @Test
+    void testIncrementStockRefusesToPassTheLargestLevel() {
+        // Given
+        when(productRepository.incrementStock(eq(1L), eq(5), eq(Integer.MAX_VALUE), any())).thenReturn(0);
+        when(productRepository.incrementStock(eq(3L), eq(5), eq(Integer.MAX_VALUE), any())).thenReturn(0);
+        when(productRepository.findStockQuantityById(1L)).thenReturn(Optional.of(Integer.MAX_VALUE - 1));
+        when(productRepository.findStockQuantityById(3L)).thenReturn(Optional.empty());
+
+        // When
+        StockAdjustment refused = productService.incrementStock(1L, 5);
+        StockAdjustment missing = productService.incrementStock(3L, 5);
+
+        // Then
+        assertEquals(StockAdjustment.tooMuchStock(1L, Integer.MAX_VALUE - 1), refused);
+        assertEquals(StockAdjustment.notFound(3L), missing);
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void testIncrementStockRejectsNonPositiveAmounts() {
+        assertThrows(IllegalArgumentException.class, () -> productService.incrementStock(1L, 0));
+        verifyNoInteractions(productRepository, stockLedger);
+    }
+
+    @Test
+    void testFindProductsByPriceRangeSortedByPriceUsesIndex() {
+        // Given
+        CursorRequest page = CursorRequest.first(ProductSort.PRICE, 1);
+        when(priceIndex.isReady()).thenReturn(true);
+        when(priceIndex.page(10_000L, 200_000L, 0L, null, 1))
+                .thenReturn(new SortedPriceIndex.Slice(new long[] {1L}, true));
+        when(productRepository.findWithCategoryByIdIn(List.of(1L))).thenReturn(List.of(product1));
+
+        // When
+        Window<Product> window = productService.findProductsByPriceRange(
+                null, new BigDecimal("100"), new BigDecimal("2000"), page);
+
+        // Then
+        assertEquals(List.of(product1), window.getContent());
+        assertTrue(window.hasNext());
+        assertEquals(new BigDecimal("599.99"), CursorRequest.of(page.nextCursor(window).orElseThrow(),
+                ProductSort.PRICE, 1).afterValue());
+        verify(productRepository, never()).findByPriceBetween(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void testFindProductsByNameAndPriceRangeIntersectsIndexes() {
+        // Given
+        when(searchIndex.isReady()).thenReturn(true);
+        when(priceIndex.isReady()).thenReturn(true);
+        when(searchIndex.search("o")).thenReturn(new long[] {1L, 2L});
+        when(priceIndex.retainInRange(new long[] {1L, 2L}, 100_000L, 200_000L)).thenReturn(new long[] {2L});
+        when(productRepository.findWithCategoryByIdIn(List.of(2L))).thenReturn(List.of(product2));
+
+        // When
+        List<Product> products = productService.findProductsByNameAndPriceRange(
+                "o", new BigDecimal("1000"), new BigDecimal("2000"));
+
+        // Then
+        assertEquals(List.of(product2), products);
+        verify(productRepository, never()).findByNameAndPriceRange(anyString(), any(), any());
+    }
+
+    @Test
+    void testFindProductFacetsSplitsCumulativeCountsIntoBuckets() {
+        // Given
+        ProductQuery query = new ProductQuery(null, null, null, null, 10, null, null);
+        List<BigDecimal> bounds = List.of(new BigDecimal("100"), new BigDecimal("1000"));
+        when(productRepository.countBelowPrices(any(), eq(bounds))).thenReturn(new long[] {1, 1, 4});
+        when(productRepository.countByCategory(any())).thenReturn(Map.of(1L, 3L));
+
+        // When
+        ProductFacets facets = productService.findProductFacets(query, bounds);
+
+        // Then
+        assertEquals(new ProductFacets(4, Map.of(1L, 3L), List.of(
+                new ProductFacets.PriceBucket(null, new BigDecimal("100"), 1),
+                new ProductFacets.PriceBucket(new BigDecimal("100"), new BigDecimal("1000"), 0),
+                new ProductFacets.PriceBucket(new BigDecimal("1000"), null, 3))), facets);
+        // Stock filters must see the stock held in the ledger
+        verify(stockLedger).flush();
     }
 }
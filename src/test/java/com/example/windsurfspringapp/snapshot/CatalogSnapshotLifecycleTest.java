@@ -0,0 +1,52 @@
+package com.example.windsurfspringapp.snapshot;
+
+import com.example.windsurfspringapp.inventory.StockLedger;
+import com.example.windsurfspringapp.service.CatalogSnapshotService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CatalogSnapshotLifecycleTest {
+
+    private static final Path PATH = Path.of("catalog.snapshot");
+
+    @Mock
+    private CatalogSnapshotService catalogSnapshotService;
+
+    @Mock
+    private StockLedger stockLedger;
+
+    @Test
+    void testShutdownFlushesStockLedgerBeforeWritingSnapshot() throws IOException {
+        // Given
+        CatalogSnapshotLifecycle lifecycle = new CatalogSnapshotLifecycle(catalogSnapshotService, stockLedger, PATH, true, true);
+
+        // When
+        lifecycle.onShutdown();
+
+        // Then
+        InOrder inOrder = inOrder(stockLedger, catalogSnapshotService);
+        inOrder.verify(stockLedger).flush();
+        inOrder.verify(catalogSnapshotService).writeSnapshot(PATH);
+    }
+
+    @Test
+    void testShutdownWritesNothingWhenDisabled() {
+        // Given
+        CatalogSnapshotLifecycle lifecycle = new CatalogSnapshotLifecycle(catalogSnapshotService, stockLedger, PATH, true, false);
+
+        // When
+        lifecycle.onShutdown();
+
+        // Then
+        verifyNoInteractions(stockLedger, catalogSnapshotService);
+    }
+}
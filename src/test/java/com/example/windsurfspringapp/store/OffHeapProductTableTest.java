@@ -0,0 +1,99 @@
+package com.example.windsurfspringapp.store;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OffHeapProductTableTest {
+
+    private static final LocalDateTime CREATED = LocalDateTime.of(2024, 3, 1, 12, 30, 15, 123456000);
+
+    @Test
+    void testPutAndGetRoundTripsEveryColumn() {
+        // Given
+        OffHeapProductTable table = new OffHeapProductTable();
+        OffHeapProductTable.Row laptop = new OffHeapProductTable.Row(7L, "Laptop", "Écran 15\" — 16 GB",
+                129999, 30, 2L, CREATED, CREATED.plusDays(1));
+        OffHeapProductTable.Row sticker = new OffHeapProductTable.Row(8L, "Sticker", null, 100, 0, 0, null, null);
+
+        // When
+        table.put(laptop);
+        table.put(sticker);
+
+        // Then
+        assertEquals(laptop, table.get(7L));
+        assertEquals(sticker, table.get(8L));
+        assertNull(table.get(9L));
+        assertEquals(2, table.size());
+        assertThrows(IllegalArgumentException.class,
+                () -> table.put(new OffHeapProductTable.Row(0L, "Zero", null, 1, 1, 0, null, null)));
+    }
+
+    @Test
+    void testUpdatesAndRemovalsReuseSpace() {
+        // Given
+        OffHeapProductTable table = new OffHeapProductTable();
+        table.put(row(1L, "Smartphone", "Latest model"));
+        table.put(row(2L, "Laptop", "Portable"));
+
+        // When
+        table.put(row(1L, "Phone", "Latest model with a much longer description"));
+        assertTrue(table.remove(2L));
+        assertFalse(table.remove(2L));
+        table.put(row(3L, "Tablet", "Light"));
+
+        // Then
+        assertEquals("Phone", table.get(1L).name());
+        assertEquals("Latest model with a much longer description", table.get(1L).description());
+        assertNull(table.get(2L));
+        assertEquals("Tablet", table.get(3L).name());
+        assertEquals(2, table.size());
+        // The shorter name was written over the old one; the description and the removed row left garbage
+        assertEquals(5 + "Latest model".length() + "Laptop".length() + "Portable".length(), table.garbageBytes());
+    }
+
+    @Test
+    void testRejectsMoreProductsThanTheLargestIndexHolds() {
+        // When
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> new OffHeapProductTable(OffHeapProductTable.MAX_SIZE + 1));
+
+        // Then
+        assertTrue(e.getMessage().contains("at most " + OffHeapProductTable.MAX_SIZE));
+    }
+
+    @Test
+    void testMatchesHashMapUnderRandomChanges() {
+        // Given
+        OffHeapProductTable table = new OffHeapProductTable();
+        Map<Long, OffHeapProductTable.Row> expected = new HashMap<>();
+        Random random = new Random(42);
+
+        // When
+        for (int i = 0; i < 200_000; i++) {
+            long id = 1 + random.nextInt(50_000);
+            if (random.nextInt(4) == 0) {
+                assertEquals(expected.remove(id) != null, table.remove(id));
+            } else {
+                OffHeapProductTable.Row row = row(id, "Product " + random.nextInt(1000), "x".repeat(random.nextInt(40)));
+                table.put(row);
+                expected.put(id, row);
+            }
+        }
+
+        // Then
+        assertEquals(expected.size(), table.size());
+        for (long id = 1; id <= 50_000; id++) {
+            assertEquals(expected.get(id), table.get(id));
+        }
+    }
+
+    private static OffHeapProductTable.Row row(long id, String name, String description) {
+        return new OffHeapProductTable.Row(id, name, description, 999, 5, 1L, CREATED, CREATED);
+    }
+}